@@ -1,12 +1,33 @@
 package com.example.project.Controller;
+import com.example.project.DTO.AuthTokens;
 import com.example.project.DTO.LoginRequest;
+import com.example.project.DTO.RefreshRequest;
+import com.example.project.Security.LoginRateLimiter;
+import com.example.project.Security.PasswordHashingExecutor.PasswordHashingRejectedException;
+import com.example.project.Security.VerifiedToken;
+import com.example.project.Service.RefreshTokenService;
+import com.example.project.Service.RefreshTokenService.InvalidRefreshTokenException;
+import com.example.project.Service.TokenRevocationService;
 import com.example.project.Service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 /**
  * Contrôleur de gestion de l'authentification des utilisateurs.
- * Fournit des routes pour se connecter à l'application via un email et un mot de passe.
+ * Fournit des routes pour se connecter à l'application via un email et un mot de passe,
+ * puis pour renouveler le JWT d'accès à l'aide d'un jeton de rafraîchissement,
+ * et pour révoquer des jetons avant leur expiration (déconnexion, révocation par un administrateur).
  */
 @RestController
 @RequestMapping("/auth")
@@ -17,25 +38,199 @@ public class AuthController {
     private final UserService userService;
 
     /**
-     * Constructeur pour injecter le service utilisateur.
+     * Service de gestion des jetons de rafraîchissement.
+     */
+    private final RefreshTokenService refreshTokenService;
+
+    /**
+     * Service de révocation des JWT d'accès.
+     */
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Limiteur du débit des tentatives de connexion.
+     */
+    private final LoginRateLimiter loginRateLimiter;
+
+    /**
+     * Nom du cookie transportant le jeton de rafraîchissement.
+     */
+    static final String REFRESH_COOKIE = "refresh_token";
+
+    /**
+     * Indique si le cookie de rafraîchissement est réservé aux connexions HTTPS.
+     */
+    private final boolean secureCookie;
+
+    /**
+     * Constructeur pour injecter les services nécessaires.
      *
      * @param userService Le service utilisateur à injecter.
+     * @param refreshTokenService Le service de gestion des jetons de rafraîchissement.
+     * @param tokenRevocationService Le service de révocation des JWT d'accès.
+     * @param loginRateLimiter Le limiteur du débit des tentatives de connexion.
+     * @param secureCookie Indique si le cookie de rafraîchissement porte l'attribut Secure.
      */
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, RefreshTokenService refreshTokenService,
+                          TokenRevocationService tokenRevocationService, LoginRateLimiter loginRateLimiter,
+                          @Value("${security.jwt.refresh-cookie-secure:true}") boolean secureCookie) {
         this.userService = userService;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginRateLimiter = loginRateLimiter;
+        this.secureCookie = secureCookie;
     }
 
     /**
      * Route de login pour authentifier un utilisateur et générer un JWT.
      * L'utilisateur fournit un email et un mot de passe, et si les informations sont correctes,
      * un JWT est retourné pour permettre une authentification ultérieure.
+     * La vérification du mot de passe s'exécute sur l'exécuteur de hachage dédié : le thread HTTP est libéré
+     * pendant le calcul, et la requête est refusée (503) si cet exécuteur est saturé.
+     * Le jeton de rafraîchissement est transmis dans un cookie HttpOnly limité aux routes `/auth`.
+     * Avant tout travail d'authentification, la tentative est soumise au limiteur de débit (par adresse IP
+     * et par email) : au-delà, la requête est refusée (429) sans requête SQL ni hachage.
      *
      * @param loginRequest L'objet contenant l'email et le mot de passe de l'utilisateur.
+     * @param request La requête HTTP, pour l'adresse IP du client (éventuellement transmise par un mandataire de confiance).
      * @return Une réponse HTTP avec le JWT généré, si l'authentification réussie.
      */
     @PostMapping("/login")
-    public ResponseEntity<String> login(@RequestBody LoginRequest loginRequest) {
-        String jwt = userService.authenticate(loginRequest.getEmail(), loginRequest.getPassword());
-        return ResponseEntity.ok(jwt);
+    public CompletableFuture<ResponseEntity<String>> login(@RequestBody LoginRequest loginRequest,
+                                                           HttpServletRequest request) {
+        Duration retryAfter = loginRateLimiter.tryAcquire(loginRateLimiter.resolveClientIp(request),
+                loginRequest.getEmail());
+        if (!retryAfter.isZero()) {
+            return CompletableFuture.completedFuture(tooManyRequests(retryAfter));
+        }
+
+        try {
+            return userService.loginAsync(loginRequest.getEmail(), loginRequest.getPassword())
+                    .thenApply(this::withTokens)
+                    .exceptionally(AuthController::loginFailure);
+        } catch (PasswordHashingRejectedException e) {
+            return CompletableFuture.completedFuture(serviceUnavailable());
+        }
+    }
+
+    /**
+     * Route de renouvellement du JWT d'accès.
+     * Le jeton de rafraîchissement est lu dans le cookie, ou à défaut dans le corps de la requête.
+     * Sa vérification est une simple recherche indexée : aucun hachage de mot de passe n'est effectué.
+     * Le jeton présenté est consommé et remplacé par un nouveau.
+     *
+     * @param cookieToken Le jeton de rafraîchissement transmis par cookie.
+     * @param refreshRequest Le corps de la requête contenant éventuellement le jeton de rafraîchissement.
+     * @return Une réponse HTTP avec le nouveau JWT, ou 401 si le jeton de rafraîchissement est refusé.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refresh(@CookieValue(name = REFRESH_COOKIE, required = false) String cookieToken,
+                                          @RequestBody(required = false) RefreshRequest refreshRequest) {
+        String refreshToken = cookieToken != null ? cookieToken
+                : refreshRequest != null ? refreshRequest.getRefreshToken() : null;
+        try {
+            return withTokens(refreshTokenService.refresh(refreshToken));
+        } catch (InvalidRefreshTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Route de déconnexion.
+     * Le JWT d'accès présenté est révoqué jusqu'à son expiration, et le jeton de rafraîchissement du cookie supprimé.
+     *
+     * @param authentication L'authentification construite par le filtre JWT.
+     * @param cookieToken Le jeton de rafraîchissement transmis par cookie.
+     * @return Une réponse HTTP avec un message de succès et le cookie de rafraîchissement effacé.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(Authentication authentication,
+                                         @CookieValue(name = REFRESH_COOKIE, required = false) String cookieToken) {
+        if (authentication != null && authentication.getDetails() instanceof VerifiedToken token) {
+            tokenRevocationService.revoke(token);
+        }
+        refreshTokenService.revoke(cookieToken);
+
+        ResponseCookie cookie = ResponseCookie.from(REFRESH_COOKIE, "")
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Strict")
+                .path("/auth")
+                .maxAge(0)
+                .build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .body("Logged out successfully.");
+    }
+
+    /**
+     * Route de révocation de tous les jetons d'un utilisateur, réservée aux administrateurs.
+     * Les JWT d'accès déjà émis sont refusés et les jetons de rafraîchissement supprimés.
+     *
+     * @param userId L'ID de l'utilisateur dont les jetons doivent être révoqués.
+     * @return Une réponse HTTP avec un message de succès.
+     */
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    @PostMapping("/users/{userId}/revoke")
+    public ResponseEntity<String> revokeUserTokens(@PathVariable("userId") Long userId) {
+        tokenRevocationService.revokeAllForUser(userId);
+        return ResponseEntity.ok("User tokens revoked successfully.");
+    }
+
+    /**
+     * Construire la réponse contenant le JWT d'accès et le cookie de rafraîchissement.
+     *
+     * @param tokens Les jetons délivrés.
+     * @return Une réponse HTTP 200 avec le JWT dans le corps.
+     */
+    private ResponseEntity<String> withTokens(AuthTokens tokens) {
+        ResponseCookie cookie = ResponseCookie.from(REFRESH_COOKIE, tokens.getRefreshToken())
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Strict")
+                .path("/auth")
+                .maxAge(refreshTokenService.getTtl())
+                .build();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .body(tokens.getAccessToken());
+    }
+
+    /**
+     * Réponse retournée lorsque l'exécuteur de hachage est saturé.
+     *
+     * @return Une réponse HTTP 503 invitant le client à réessayer.
+     */
+    static ResponseEntity<String> serviceUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Service temporarily overloaded, please retry.");
+    }
+
+    /**
+     * Réponse retournée lorsque le limiteur de débit refuse une tentative de connexion.
+     *
+     * @param retryAfter Le délai avant la prochaine tentative possible.
+     * @return Une réponse HTTP 429 indiquant le délai d'attente en secondes.
+     */
+    static ResponseEntity<String> tooManyRequests(Duration retryAfter) {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body("Too many login attempts, please retry later.");
+    }
+
+    /**
+     * Convertir l'échec de l'authentification en réponse HTTP.
+     *
+     * @param error L'erreur levée par l'authentification.
+     * @return Une réponse HTTP 401 si les identifiants sont incorrects.
+     */
+    private static ResponseEntity<String> loginFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(cause.getMessage());
+        }
+        throw new CompletionException(cause);
     }
 }
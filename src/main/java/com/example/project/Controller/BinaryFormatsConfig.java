@@ -0,0 +1,48 @@
+package com.example.project.Controller;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Encodages binaires des corps de requête et de réponse, choisis par négociation de contenu :
+ * `Accept: application/cbor` ou `application/x-jackson-smile` pour les réponses, `Content-Type` pour les requêtes.
+ * Les DTO sont les mêmes qu'en JSON et les mappers sont construits avec la configuration Jackson de l'application
+ * (modules, dates ISO-8601) ; JSON reste l'encodage par défaut.
+ * Destinés aux services internes : l'encodage et le décodage coûtent moins de CPU et les corps sont plus petits.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    /**
+     * Type de contenu Smile.
+     */
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    /**
+     * Convertisseur CBOR (RFC 8949).
+     *
+     * @param builder Le constructeur de mappers configuré par Spring Boot (une instance par point d'injection).
+     * @return Le convertisseur, qui remplace celui que Spring MVC ajoute par défaut.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Convertisseur Smile (JSON binaire de Jackson).
+     *
+     * @param builder Le constructeur de mappers configuré par Spring Boot (une instance par point d'injection).
+     * @return Le convertisseur, qui remplace celui que Spring MVC ajoute par défaut.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.project.Controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+/**
+ * Requêtes conditionnelles (`If-None-Match`) sur les listes versionnées par ETag.
+ * Les réponses peuvent être conservées par le client (`Cache-Control: private, no-cache`), à condition
+ * d'être revalidées : une réponse 304 sans corps confirme alors la copie du client.
+ * Une même version est servie en JSON, CBOR ou Smile selon `Accept` : les ETags étant forts, chaque encodage
+ * a le sien (`"1.7"`, `"1.7+cbor"`, `"1.7+smile"`) et les réponses portent `Vary: Accept`.
+ */
+final class ConditionalResponses {
+
+    /**
+     * Politique de cache des listes versionnées : cache privé, revalidé à chaque utilisation.
+     */
+    static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    /**
+     * Suffixes des ETags des encodages binaires, par sous-type de contenu.
+     */
+    private static final Map<String, String> VARIANT_SUFFIXES = Map.of(
+            MediaType.APPLICATION_CBOR.getSubtype(), "+cbor",
+            BinaryFormatsConfig.APPLICATION_SMILE.getSubtype(), "+smile");
+
+    private ConditionalResponses() {
+    }
+
+    /**
+     * Trouver, parmi les ETags du client, celui qui désigne la version courante, dans l'un de ses encodages.
+     * La comparaison est faible, comme l'exige `If-None-Match` : le préfixe `W/` est ignoré.
+     *
+     * @param ifNoneMatch La valeur de l'en-tête `If-None-Match`, ou null.
+     * @param eTag L'ETag courant de la ressource en JSON, entre guillemets.
+     * @return L'ETag du client qui correspond (l'ETag courant pour `*`), ou null si la copie du client n'est pas à jour.
+     */
+    static String matchingTag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return null;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            String tag = trimmed.startsWith("W/") ? trimmed.substring(2) : trimmed;
+            if (tag.equals("*")) {
+                return eTag;
+            }
+            if (tag.equals(eTag) || VARIANT_SUFFIXES.values().stream().anyMatch(suffix -> tag.equals(variant(eTag, suffix)))) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtenir l'ETag d'une version dans l'encodage choisi pour la réponse.
+     *
+     * @param eTag L'ETag de la version en JSON, entre guillemets.
+     * @param contentType Le type de contenu de la réponse.
+     * @return L'ETag suffixé pour CBOR et Smile, inchangé sinon.
+     */
+    static String variantTag(String eTag, MediaType contentType) {
+        String suffix = contentType == null ? null : VARIANT_SUFFIXES.get(contentType.getSubtype());
+        return suffix == null ? eTag : variant(eTag, suffix);
+    }
+
+    private static String variant(String eTag, String suffix) {
+        return eTag.substring(0, eTag.length() - 1) + suffix + "\"";
+    }
+
+    /**
+     * Construire une réponse 304 : ni corps, ni lecture des données.
+     *
+     * @param eTag L'ETag de la copie du client, confirmée.
+     * @param <T> Le type du corps de la route.
+     * @return La réponse HTTP 304.
+     */
+    static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+}
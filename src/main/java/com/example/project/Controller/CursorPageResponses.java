@@ -0,0 +1,67 @@
+package com.example.project.Controller;
+
+import com.example.project.DTO.CursorPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Construction des réponses HTTP pour les listes paginées par clé.
+ * Le corps reste le tableau JSON des éléments ; le curseur de la page suivante est transmis dans l'en-tête
+ * `X-Next-Cursor` et l'URL de la page suivante dans l'en-tête `Link` (`rel="next"`).
+ * Ces en-têtes sont absents sur la dernière page.
+ */
+final class CursorPageResponses {
+
+    /**
+     * En-tête portant le curseur de la page suivante.
+     */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorPageResponses() {
+    }
+
+    /**
+     * Construire une réponse 200 pour une page.
+     *
+     * @param page La page à retourner.
+     * @param <T> Le type des éléments.
+     * @return La réponse HTTP avec les éléments et, s'il y a lieu, les en-têtes de la page suivante.
+     */
+    static <T> ResponseEntity<List<T>> ok(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        String nextCursor = page.getNextCursor();
+        if (nextCursor != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", nextCursor)
+                    .toUriString();
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page.getItems());
+    }
+
+    /**
+     * Construire une réponse 200 pour une page d'une liste versionnée.
+     *
+     * @param page La page à retourner.
+     * @param eTag L'ETag de la page, ou null si la liste n'a pas de révision connue.
+     * @param <T> Le type des éléments.
+     * @return La réponse HTTP avec les éléments, les en-têtes de la page suivante et, s'il y a lieu, l'ETag
+     *         (suffixé ensuite pour les encodages binaires, voir {@link VariantETagAdvice}).
+     */
+    static <T> ResponseEntity<List<T>> ok(CursorPage<T> page, String eTag) {
+        ResponseEntity<List<T>> response = ok(page);
+        if (eTag == null) {
+            return response;
+        }
+        return ResponseEntity.ok()
+                .headers(response.getHeaders())
+                .eTag(eTag)
+                .cacheControl(ConditionalResponses.REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(response.getBody());
+    }
+}
@@ -1,20 +1,26 @@
 package com.example.project.Controller;
+import com.example.project.DTO.BulkMembershipRequest;
+import com.example.project.DTO.CursorPage;
 import com.example.project.DTO.ProjectCreationDTO;
 import com.example.project.DTO.ProjectDTO;
 import com.example.project.DTO.UserDTO;
 import com.example.project.Service.AuthenticationService;
 import com.example.project.Service.ProjectService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 
 /**
  * Contrôleur de gestion des projets.
  * Fournit des routes pour créer un projet, récupérer les projets d'un utilisateur,
- * assigner un utilisateur à un projet et obtenir les utilisateurs d'un projet.
+ * gérer les membres d'un projet et obtenir les utilisateurs d'un projet.
  */
 @RestController
 @RequestMapping("/api/projects")
@@ -65,15 +71,35 @@ public class ProjectController {
     }
 
     /**
-     * Route pour récupérer les projets de l'utilisateur authentifié.
-     * Cette méthode retourne la liste des projets auxquels l'utilisateur authentifié participe.
+     * Route pour récupérer les projets de l'utilisateur authentifié, page par page.
+     * Cette méthode retourne une page des projets auxquels l'utilisateur authentifié participe, triés par ID.
+     * Le curseur de la page suivante est transmis dans les en-têtes `X-Next-Cursor` et `Link`.
+     * La réponse porte un ETag calculé à partir des révisions des projets de la page : si le client présente cet ETag
+     * dans `If-None-Match`, la route répond 304 sans lire les projets ni leurs membres.
      *
-     * @return Une liste de DTOs représentant les projets de l'utilisateur.
+     * @param after Le curseur de la page précédente, absent pour la première page.
+     * @param limit La taille de page (500 au plus) ; 100 par défaut avec `after`, liste entière sans `limit` ni `after`.
+     * @param ifNoneMatch Les ETags des copies détenues par le client, s'il en a.
+     * @return Une liste de DTOs représentant les projets de la page, 304 si la copie du client est à jour,
+     *         ou 400 si le curseur est invalide.
      */
     @GetMapping("/me")
-    public List<ProjectDTO> getUserProjects() {
+    public ResponseEntity<List<ProjectDTO>> getUserProjects(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
         Long userId = authenticationService.getAuthenticatedUserId();
-        return projectService.getProjectsByUser(userId);
+        try {
+            String eTag = projectService.getProjectsETag(userId, after, limit);
+            String matched = ConditionalResponses.matchingTag(ifNoneMatch, eTag);
+            if (matched != null) {
+                return ConditionalResponses.notModified(matched);
+            }
+            return CursorPageResponses.ok(projectService.getProjectsByUser(userId, after, limit), eTag);
+        } catch (CursorPage.InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -104,17 +130,72 @@ public class ProjectController {
     }
 
     /**
-     * Route pour récupérer la liste des utilisateurs assignés à un projet.
-     * Cette méthode retourne les utilisateurs qui sont membres d'un projet donné.
+     * Route pour ajouter plusieurs utilisateurs à un projet en une seule requête.
+     * Le résultat indique, pour chaque utilisateur, s'il a été ajouté (`ADDED`), s'il était déjà membre
+     * (`ALREADY_MEMBER`) ou s'il n'existe pas (`USER_NOT_FOUND`).
+     * Seuls les administrateurs et le créateur du projet peuvent accéder à cette route.
+     *
+     * @param projectId L'ID du projet.
+     * @param request Les IDs des utilisateurs à ajouter (par exemple : { "userIds": [1, 2] }).
+     * @return Une réponse HTTP avec le résultat par utilisateur, 404 si le projet n'existe pas, 400 si le lot est trop grand,
+     *         ou 409 si les mêmes membres sont ajoutés simultanément.
+     */
+    @PreAuthorize("@projectAccess.isCreatorOrAdmin(authentication, #projectId)")
+    @PostMapping("/{projectId}/members")
+    public ResponseEntity<?> addUsersToProject(@PathVariable Long projectId, @RequestBody BulkMembershipRequest request) {
+        try {
+            return ResponseEntity.ok(projectService.addUsersToProject(projectId, request.getUserIds()));
+        } catch (ProjectService.ProjectNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Concurrent membership change, please retry"));
+        }
+    }
+
+    /**
+     * Route pour retirer un utilisateur d'un projet.
+     * Seuls les administrateurs et le créateur du projet peuvent accéder à cette route.
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur à retirer.
+     * @return Une réponse HTTP 204 si l'utilisateur a été retiré, ou 404 s'il n'était pas membre du projet.
+     */
+    @PreAuthorize("@projectAccess.isCreatorOrAdmin(authentication, #projectId)")
+    @DeleteMapping("/{projectId}/members/{userId}")
+    public ResponseEntity<String> removeUserFromProject(@PathVariable Long projectId, @PathVariable Long userId) {
+        try {
+            projectService.removeUserFromProject(projectId, userId);
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Route pour récupérer la liste des utilisateurs assignés à un projet, page par page.
+     * Cette méthode retourne une page des utilisateurs qui sont membres d'un projet donné, triés par ID.
+     * Le curseur de la page suivante est transmis dans les en-têtes `X-Next-Cursor` et `Link`.
+     * Seuls les administrateurs et les membres du projet peuvent accéder à cette route.
      *
      * @param projectId L'ID du projet pour lequel obtenir la liste des utilisateurs.
-     * @return Une liste de DTOs représentant les utilisateurs assignés au projet.
+     * @param after Le curseur de la page précédente, absent pour la première page.
+     * @param limit La taille de page (500 au plus) ; 100 par défaut avec `after`, liste entière sans `limit` ni `after`.
+     * @return Une liste de DTOs représentant les utilisateurs de la page.
      */
+    @PreAuthorize("@projectAccess.isMember(authentication, #projectId)")
     @GetMapping("/{projectId}/users")
-    public ResponseEntity<List<UserDTO>> getUsersByProject(@PathVariable Long projectId) {
+    public ResponseEntity<List<UserDTO>> getUsersByProject(
+            @PathVariable Long projectId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
         try {
-            List<UserDTO> users = projectService.getUsersByProject(projectId);
-            return ResponseEntity.ok(users); // Renvoie un statut HTTP 200 avec la liste des utilisateurs
+            // Renvoie un statut HTTP 200 avec la page d'utilisateurs
+            return CursorPageResponses.ok(projectService.getUsersByProject(projectId, after, limit));
+        } catch (CursorPage.InvalidCursorException e) {
+            return ResponseEntity.badRequest().build(); // Si le curseur est invalide
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null); // Si le projet n'existe pas
         } catch (Exception e) {
@@ -1,46 +1,96 @@
 package com.example.project.Controller;
 
+import com.example.project.DTO.BulkTaskResult;
+import com.example.project.DTO.BulkTaskUpdateRequest;
+import com.example.project.DTO.CursorPage;
 import com.example.project.DTO.TaskDto;
+import com.example.project.Events.TaskEventBroker;
+import com.example.project.Service.AuthenticationService;
+import com.example.project.Service.OptimisticRetry;
 import com.example.project.Service.TaskService;
+import com.example.project.Service.TaskServiceImpl;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Contrôleur de gestion des tâches.
  * Fournit des routes pour ajouter une tâche à un projet, modifier l'état d'une tâche,
- * récupérer les tâches d'un projet et assigner un utilisateur à une tâche.
+ * récupérer les tâches d'un projet ou leurs modifications depuis une révision, s'abonner à ces modifications,
+ * assigner un utilisateur à une tâche et supprimer une tâche.
  */
 @RestController
 @RequestMapping("/api")
 public class TaskController {
 
+    /**
+     * Type de contenu du mode streaming : un objet JSON par ligne.
+     */
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     /**
      * Service de gestion des tâches.
      */
     private final TaskService taskService;
 
+    /**
+     * Diffusion des modifications de tâches aux abonnés (Server-Sent Events).
+     */
+    private final TaskEventBroker taskEventBroker;
+
+    /**
+     * Service d'authentification, pour rattacher un abonnement SSE à son utilisateur.
+     */
+    private final AuthenticationService authenticationService;
+
+    /**
+     * Sérialiseur des tâches pour le mode streaming, sans vidage du flux après chaque objet.
+     */
+    private final ObjectWriter taskWriter;
+
     /**
      * Constructeur pour injecter le service de gestion des tâches.
      *
      * @param taskService Le service de gestion des tâches.
+     * @param objectMapper Le mapper JSON de l'application, utilisé pour le mode streaming.
+     * @param taskEventBroker La diffusion des modifications de tâches aux abonnés.
+     * @param authenticationService Le service d'authentification.
      */
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, ObjectMapper objectMapper, TaskEventBroker taskEventBroker,
+                          AuthenticationService authenticationService) {
         this.taskService = taskService;
+        this.taskEventBroker = taskEventBroker;
+        this.authenticationService = authenticationService;
+        this.taskWriter = objectMapper.writerFor(TaskDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
     }
 
     /**
      * Route pour ajouter une tâche à un projet.
      * Cette méthode crée une tâche et l'associe au projet dont l'ID est spécifié dans l'URL.
+     * Seuls les administrateurs et les membres du projet peuvent accéder à cette route.
      *
      * @param projectId L'ID du projet auquel la tâche sera ajoutée.
      * @param taskDto Les informations de la tâche à ajouter.
      * @return Une réponse HTTP avec un message de succès.
      */
+    @PreAuthorize("@projectAccess.isMember(authentication, #projectId)")
     @PostMapping("/projects/{projectId}/tasks")
     public ResponseEntity<Map<String, String>> addTaskToProject(
             @PathVariable("projectId") Long projectId,
@@ -53,21 +103,69 @@ public class TaskController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Route pour ajouter plusieurs tâches à un projet en une seule requête.
+     * Le corps est un tableau de tâches ; elles sont toutes créées dans la même transaction, ou aucune.
+     * Seuls les administrateurs et les membres du projet peuvent accéder à cette route.
+     *
+     * @param projectId L'ID du projet auquel les tâches seront ajoutées.
+     * @param taskDtos Les informations des tâches à ajouter (10 000 au plus).
+     * @return Une réponse HTTP avec un message de succès et les IDs des tâches créées, dans l'ordre du corps ;
+     *         404 si le projet n'existe pas, 400 si un utilisateur est introuvable, un état invalide
+     *         ou le lot trop grand.
+     */
+    @PreAuthorize("@projectAccess.isMember(authentication, #projectId)")
+    @PostMapping("/projects/{projectId}/tasks/bulk")
+    public ResponseEntity<Map<String, Object>> addTasksToProject(
+            @PathVariable("projectId") Long projectId,
+            @RequestBody List<TaskDto> taskDtos
+    ) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            List<TaskDto> created = taskService.addTasksToProject(projectId, taskDtos);
+            response.put("message", "Tasks added to project successfully");
+            response.put("ids", created.stream().map(TaskDto::getId).toList());
+            return ResponseEntity.ok(response);
+        } catch (TaskServiceImpl.ProjectNotFoundException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (TaskServiceImpl.UserNotFoundException | IllegalArgumentException e) {
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * Route pour changer l'état d'une tâche.
-     * Cette méthode modifie l'état de la tâche spécifiée par son ID avec l'état fourni dans le corps de la requête.
+     * Cette méthode modifie l'état de la tâche spécifiée par son ID avec l'état fourni dans le corps de la requête,
+     * en une seule instruction SQL, si l'état courant de la tâche autorise la transition.
+     * Seuls les administrateurs et les membres du projet de la tâche peuvent accéder à cette route.
      *
      * @param taskId L'ID de la tâche dont l'état doit être modifié.
      * @param body Le corps de la requête contenant le nouvel état de la tâche (par exemple : { "newState": "DONE" }).
-     * @return Une réponse HTTP avec un message indiquant que l'état de la tâche a été modifié avec succès.
+     * @return Une réponse HTTP avec un message indiquant que l'état de la tâche a été modifié avec succès,
+     *         400 si l'état est invalide, 404 si la tâche n'existe pas, ou 409 si l'état courant interdit la transition.
      */
+    @PreAuthorize("@projectAccess.canAccessTask(authentication, #taskId)")
     @PutMapping("/tasks/{taskId}/state")
     public ResponseEntity<Map<String, String>> changeTaskState(
             @PathVariable("taskId") Long taskId,
             @RequestBody Map<String, String> body
     ) {
         String newState = body.get("newState");
-        taskService.changeTaskState(taskId, newState);
+        BulkTaskResult.Status status;
+        try {
+            status = taskService.changeTaskState(taskId, newState);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+        if (status == BulkTaskResult.Status.NOT_FOUND) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Task not found with id: " + taskId));
+        }
+        if (status == BulkTaskResult.Status.CONFLICT) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Transition to " + newState + " not allowed from the current state"));
+        }
 
         // Crée un map JSON pour la réponse
         Map<String, String> response = new HashMap<>();
@@ -77,42 +175,212 @@ public class TaskController {
     }
 
     /**
-     * Route pour récupérer toutes les tâches d'un projet.
-     * Cette méthode retourne la liste de toutes les tâches associées à un projet spécifié par son ID.
-     * Seuls les utilisateurs ayant le rôle `ROLE_USER` ou `ROLE_ADMIN` peuvent accéder à cette route.
+     * Route pour récupérer les tâches d'un projet, page par page.
+     * Cette méthode retourne une page des tâches associées à un projet spécifié par son ID, triées par ID.
+     * Le curseur de la page suivante est transmis dans les en-têtes `X-Next-Cursor` et `Link`.
+     * La réponse porte l'ETag de la révision du projet : si le client présente cet ETag dans `If-None-Match`,
+     * la route répond 304 après la seule lecture de la révision, sans lire ni sérialiser les tâches.
+     * Seuls les administrateurs et les membres du projet peuvent accéder à cette route.
      *
      * @param projectId L'ID du projet dont les tâches doivent être récupérées.
-     * @return Une réponse HTTP contenant une liste de DTOs représentant les tâches du projet.
+     * @param after Le curseur de la page précédente, absent pour la première page.
+     * @param limit La taille de page (500 au plus) ; 100 par défaut avec `after`, liste entière sans `limit` ni `after`.
+     * @param ifNoneMatch Les ETags des copies détenues par le client, s'il en a.
+     * @return Une réponse HTTP contenant une liste de DTOs représentant les tâches de la page,
+     *         304 si la copie du client est à jour, ou 400 si le curseur est invalide.
      */
-    @PreAuthorize("hasAuthority('ROLE_USER') or hasAuthority('ROLE_ADMIN')")
+    @PreAuthorize("@projectAccess.isMember(authentication, #projectId)")
     @GetMapping("/projects/{projectId}/tasks")
     public ResponseEntity<List<TaskDto>> getAllTasksByProject(
+            @PathVariable("projectId") Long projectId,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        try {
+            Optional<String> eTag = taskService.getTasksETag(projectId);
+            String matched = eTag.map(tag -> ConditionalResponses.matchingTag(ifNoneMatch, tag)).orElse(null);
+            if (matched != null) {
+                return ConditionalResponses.notModified(matched);
+            }
+            return CursorPageResponses.ok(taskService.getTasksByProject(projectId, after, limit), eTag.orElse(null));
+        } catch (CursorPage.InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Route pour synchroniser la copie d'un client : tâches créées ou modifiées et IDs des tâches supprimées
+     * depuis la révision `since`, avec la révision à transmettre à la synchronisation suivante.
+     * Sans `since`, toutes les tâches sont retournées et le client remplace sa copie.
+     * Les suppressions ne sont conservées que pendant la durée de rétention : une révision plus ancienne
+     * reçoit 410, et le client recommence sans `since`.
+     * Seuls les administrateurs et les membres du projet peuvent accéder à cette route.
+     *
+     * @param projectId L'ID du projet dont les tâches doivent être synchronisées.
+     * @param since La révision retournée par la synchronisation précédente, absente pour la première.
+     * @return Une réponse HTTP avec les modifications, 404 si le projet n'existe pas,
+     *         400 si la révision est invalide, ou 410 si elle est trop ancienne.
+     */
+    @PreAuthorize("@projectAccess.isMember(authentication, #projectId)")
+    @GetMapping("/projects/{projectId}/tasks/changes")
+    public ResponseEntity<?> getTaskChanges(
+            @PathVariable("projectId") Long projectId,
+            @RequestParam(value = "since", required = false) Long since
+    ) {
+        try {
+            return ResponseEntity.ok(taskService.getTaskChanges(projectId, since));
+        } catch (TaskServiceImpl.ProjectNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (TaskServiceImpl.ChangesExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Route pour s'abonner aux modifications des tâches d'un projet (Server-Sent Events), au lieu de relire la liste.
+     * Chaque création, changement d'état, assignation ou suppression est envoyé après sa validation, avec la tâche en JSON
+     * (`task-created`, `task-state-changed`, `task-assigned`, `task-deleted`). À la reconnexion, le navigateur
+     * envoie `Last-Event-ID` et les événements manqués sont rejoués ; si ce n'est pas possible, l'événement `resync`
+     * demande au client de relire les modifications par `/tasks/changes`.
+     * Pour ne rien manquer, un client s'abonne avant de charger les tâches.
+     * Seuls les administrateurs et les membres du projet peuvent accéder à cette route.
+     *
+     * @param projectId L'ID du projet.
+     * @param lastEventId L'ID du dernier événement reçu, envoyé par le client à la reconnexion.
+     * @return Le flux d'événements de l'abonnement.
+     */
+    @PreAuthorize("@projectAccess.isMember(authentication, #projectId)")
+    @GetMapping(value = "/projects/{projectId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToTaskEvents(
+            @PathVariable("projectId") Long projectId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return taskEventBroker.subscribe(projectId, authenticationService.getAuthenticatedUserId(), lastEventId);
+    }
+
+    /**
+     * Route pour récupérer toutes les tâches d'un projet en streaming (NDJSON : une tâche JSON par ligne).
+     * Choisie lorsque le client envoie `Accept: application/x-ndjson`. Les tâches sont lues depuis la base
+     * et écrites dans la réponse au fur et à mesure, triées par ID : ni liste ni réponse complète en mémoire.
+     * Seuls les administrateurs et les membres du projet peuvent accéder à cette route.
+     *
+     * @param projectId L'ID du projet dont les tâches doivent être récupérées.
+     * @return Une réponse HTTP dont le corps est écrit ligne par ligne.
+     */
+    @PreAuthorize("@projectAccess.isMember(authentication, #projectId)")
+    @GetMapping(value = "/projects/{projectId}/tasks", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTasksByProject(
             @PathVariable("projectId") Long projectId
     ) {
-        List<TaskDto> tasks = taskService.getAllTasksByProject(projectId);
-        return ResponseEntity.ok(tasks);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = taskWriter.createGenerator(outputStream)) {
+                taskService.streamTasksByProject(projectId, task -> {
+                    try {
+                        taskWriter.writeValue(generator, task);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        // Client déconnecté : interrompt la lecture et libère la transaction
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
     }
 
     /**
      * Route pour assigner un utilisateur à une tâche.
      * Cette méthode associe l'utilisateur spécifié à la tâche dont l'ID est fourni dans l'URL.
-     * Seuls les utilisateurs ayant le rôle `ROLE_USER` ou `ROLE_ADMIN` peuvent accéder à cette route.
+     * Seuls les administrateurs et les membres du projet de la tâche peuvent accéder à cette route.
      *
      * @param taskId L'ID de la tâche à laquelle l'utilisateur sera assigné.
      * @param userId L'ID de l'utilisateur qui sera assigné à la tâche.
-     * @return Une réponse HTTP avec un message de succès indiquant que l'utilisateur a été assigné à la tâche.
+     * @return Une réponse HTTP avec un message de succès indiquant que l'utilisateur a été assigné à la tâche,
+     *         ou 409 si des modifications concurrentes ont empêché la mise à jour.
      */
-    @PreAuthorize("hasAuthority('ROLE_USER') or hasAuthority('ROLE_ADMIN')")
+    @PreAuthorize("@projectAccess.canAccessTask(authentication, #taskId)")
     @PutMapping("/tasks/{taskId}/assign/{userId}")
     public ResponseEntity<Map<String, String>> assignUserToTask(
             @PathVariable("taskId") Long taskId,
             @PathVariable("userId") Long userId
     ) {
-        taskService.assignUserToTask(taskId, userId);
+        try {
+            taskService.assignUserToTask(taskId, userId);
+        } catch (OptimisticRetry.ConcurrentUpdateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
 
         Map<String, String> response = new HashMap<>();
         response.put("message", "Task assigned successfully");
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Route pour supprimer une tâche.
+     * La suppression est conservée comme trace, pour que les clients synchronisés la retirent de leur copie.
+     * Seuls les administrateurs et les membres du projet de la tâche peuvent accéder à cette route.
+     *
+     * @param taskId L'ID de la tâche à supprimer.
+     * @return Une réponse HTTP 204, ou 404 si la tâche n'existe pas.
+     */
+    @PreAuthorize("@projectAccess.canAccessTask(authentication, #taskId)")
+    @DeleteMapping("/tasks/{taskId}")
+    public ResponseEntity<Map<String, String>> deleteTask(@PathVariable("taskId") Long taskId) {
+        try {
+            taskService.deleteTask(taskId);
+        } catch (TaskServiceImpl.TaskNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Route pour changer l'état de plusieurs tâches en une seule requête.
+     * Les tâches sont modifiées par une seule instruction UPDATE ; le résultat indique, pour chaque ID,
+     * si la tâche a été modifiée (`UPDATED`), si elle était déjà dans l'état demandé (`UNCHANGED`),
+     * si son état courant interdit la transition (`CONFLICT`) ou si elle n'existe pas (`NOT_FOUND`).
+     * Les tâches inchangées ne modifient ni la révision du projet ni le flux d'événements.
+     * Seuls les administrateurs et les membres des projets de toutes les tâches du lot peuvent accéder à cette route.
+     *
+     * @param request Les IDs des tâches et le nouvel état (par exemple : { "taskIds": [1, 2], "newState": "DONE" }).
+     * @return Une réponse HTTP avec le résultat par tâche, ou 400 si l'état est invalide ou le lot trop grand.
+     */
+    @PreAuthorize("@projectAccess.canAccessTasks(authentication, #request.taskIds)")
+    @PutMapping("/tasks/bulk/state")
+    public ResponseEntity<?> changeTasksState(@RequestBody BulkTaskUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(taskService.changeTasksState(request.getTaskIds(), request.getNewState()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Route pour assigner un utilisateur à plusieurs tâches en une seule requête.
+     * Les tâches sont modifiées par une seule instruction UPDATE ; le résultat indique, pour chaque ID,
+     * si la tâche a été modifiée (`UPDATED`), si elle était déjà assignée à l'utilisateur (`UNCHANGED`)
+     * ou si elle n'existe pas (`NOT_FOUND`).
+     * Seuls les administrateurs et les membres des projets de toutes les tâches du lot peuvent accéder à cette route.
+     *
+     * @param request Les IDs des tâches et l'utilisateur à assigner (par exemple : { "taskIds": [1, 2], "userId": 10 }).
+     * @return Une réponse HTTP avec le résultat par tâche, 404 si l'utilisateur n'existe pas
+     *         ou 400 si l'utilisateur est absent ou le lot trop grand.
+     */
+    @PreAuthorize("@projectAccess.canAccessTasks(authentication, #request.taskIds)")
+    @PutMapping("/tasks/bulk/assign")
+    public ResponseEntity<?> assignUserToTasks(@RequestBody BulkTaskUpdateRequest request) {
+        try {
+            return ResponseEntity.ok(taskService.assignUserToTasks(request.getTaskIds(), request.getUserId()));
+        } catch (TaskServiceImpl.UserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
 }
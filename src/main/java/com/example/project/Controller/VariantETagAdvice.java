@@ -0,0 +1,50 @@
+package com.example.project.Controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Suffixe de l'ETag des réponses encodées en CBOR ou en Smile, appliqué une fois l'encodage choisi
+ * par la négociation de contenu (voir {@link ConditionalResponses#variantTag}).
+ */
+@ControllerAdvice
+public class VariantETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return MappingJackson2CborHttpMessageConverter.class.isAssignableFrom(converterType)
+                || MappingJackson2SmileHttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        // Les réponses 304 n'ont pas de corps : leur ETag est déjà celui de la copie du client
+        if (body == null) {
+            return body;
+        }
+        // Pour un GET, Spring MVC a déjà écrit l'ETag dans la réponse servlet (vérification de If-None-Match) :
+        // il y est remplacé, pour ne pas envoyer deux ETags
+        if (response instanceof ServletServerHttpResponse servletResponse
+                && servletResponse.getServletResponse().getHeader(HttpHeaders.ETAG) != null) {
+            HttpServletResponse servlet = servletResponse.getServletResponse();
+            servlet.setHeader(HttpHeaders.ETAG,
+                    ConditionalResponses.variantTag(servlet.getHeader(HttpHeaders.ETAG), selectedContentType));
+        } else if (response.getHeaders().getETag() != null) {
+            response.getHeaders().setETag(
+                    ConditionalResponses.variantTag(response.getHeaders().getETag(), selectedContentType));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.project.DTO;
+
+/**
+ * Le DTO (Data Transfer Object) regroupant les jetons délivrés lors d'une authentification.
+ * Le JWT d'accès est de courte durée ; le jeton de rafraîchissement permet d'en obtenir un nouveau
+ * sans ressaisir le mot de passe.
+ */
+public class AuthTokens {
+    private final String accessToken;
+    private final String refreshToken;
+
+    /**
+     * Constructeur avec les deux jetons.
+     *
+     * @param accessToken Le JWT d'accès.
+     * @param refreshToken Le jeton de rafraîchissement.
+     */
+    public AuthTokens(String accessToken, String refreshToken) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+    }
+
+    /**
+     * Getter pour obtenir le JWT d'accès.
+     *
+     * @return Le JWT d'accès.
+     */
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    /**
+     * Getter pour obtenir le jeton de rafraîchissement.
+     *
+     * @return Le jeton de rafraîchissement.
+     */
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+}
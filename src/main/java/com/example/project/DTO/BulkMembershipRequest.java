@@ -0,0 +1,20 @@
+package com.example.project.DTO;
+
+import java.util.List;
+
+/**
+ * Le DTO (Data Transfer Object) d'un ajout de membres en masse à un projet.
+ * Contient les IDs des utilisateurs à ajouter.
+ */
+public class BulkMembershipRequest {
+    private List<Long> userIds;
+
+    // Getters et setters
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.project.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Le DTO (Data Transfer Object) du résultat d'un ajout de membres en masse.
+ * Indique, pour chaque utilisateur demandé et dans l'ordre de la requête, s'il a été ajouté au projet.
+ */
+public class BulkMembershipResult {
+
+    /**
+     * Résultat de l'ajout d'un utilisateur.
+     */
+    public enum Status {
+        ADDED,
+        ALREADY_MEMBER,
+        USER_NOT_FOUND
+    }
+
+    /**
+     * Résultat pour un utilisateur.
+     */
+    public static class Item {
+        private final Long userId;
+        private final Status status;
+
+        public Item(Long userId, Status status) {
+            this.userId = userId;
+            this.status = status;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+    }
+
+    private final List<Item> results = new ArrayList<>();
+    private int added;
+
+    /**
+     * Ajouter le résultat d'un utilisateur.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @param status Le résultat de l'ajout.
+     */
+    public void add(Long userId, Status status) {
+        results.add(new Item(userId, status));
+        if (status == Status.ADDED) {
+            added++;
+        }
+    }
+
+    /**
+     * Getter pour obtenir les résultats par utilisateur.
+     *
+     * @return Les résultats, dans l'ordre de la requête.
+     */
+    public List<Item> getResults() {
+        return results;
+    }
+
+    /**
+     * Getter pour obtenir le nombre d'utilisateurs ajoutés.
+     *
+     * @return Le nombre d'utilisateurs ajoutés.
+     */
+    public int getAdded() {
+        return added;
+    }
+}
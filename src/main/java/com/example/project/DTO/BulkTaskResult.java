@@ -0,0 +1,83 @@
+package com.example.project.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Le DTO (Data Transfer Object) du résultat d'une modification de tâches en masse.
+ * Indique, pour chaque ID demandé et dans l'ordre de la requête, si la tâche a été modifiée.
+ * {@link Status} sert aussi de résultat aux changements d'état unitaires.
+ */
+public class BulkTaskResult {
+
+    /**
+     * Résultat de la modification d'une tâche.
+     */
+    public enum Status {
+        UPDATED,
+        /**
+         * La tâche était déjà dans l'état demandé, ou déjà assignée à l'utilisateur : elle n'a pas été modifiée.
+         */
+        UNCHANGED,
+        NOT_FOUND,
+        /**
+         * L'état courant de la tâche n'autorise pas la transition demandée.
+         */
+        CONFLICT
+    }
+
+    /**
+     * Résultat pour une tâche.
+     */
+    public static class Item {
+        private final Long id;
+        private final Status status;
+
+        public Item(Long id, Status status) {
+            this.id = id;
+            this.status = status;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+    }
+
+    private final List<Item> results = new ArrayList<>();
+    private int updated;
+
+    /**
+     * Ajouter le résultat d'une tâche.
+     *
+     * @param id L'ID de la tâche.
+     * @param status Le résultat de la modification.
+     */
+    public void add(Long id, Status status) {
+        results.add(new Item(id, status));
+        if (status == Status.UPDATED) {
+            updated++;
+        }
+    }
+
+    /**
+     * Getter pour obtenir les résultats par tâche.
+     *
+     * @return Les résultats, dans l'ordre de la requête.
+     */
+    public List<Item> getResults() {
+        return results;
+    }
+
+    /**
+     * Getter pour obtenir le nombre de tâches modifiées.
+     *
+     * @return Le nombre de tâches modifiées.
+     */
+    public int getUpdated() {
+        return updated;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.project.DTO;
+
+import java.util.List;
+
+/**
+ * Le DTO (Data Transfer Object) d'une modification de tâches en masse.
+ * Contient les IDs des tâches visées et, selon la route, le nouvel état ou l'utilisateur à assigner.
+ */
+public class BulkTaskUpdateRequest {
+    private List<Long> taskIds;
+    private String newState; // e.g. "TO_DO", "IN_PROGRESS", "DONE"
+    private Long userId;
+
+    // Getters et setters
+    public List<Long> getTaskIds() {
+        return taskIds;
+    }
+
+    public void setTaskIds(List<Long> taskIds) {
+        this.taskIds = taskIds;
+    }
+
+    public String getNewState() {
+        return newState;
+    }
+
+    public void setNewState(String newState) {
+        this.newState = newState;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.project.DTO;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Une page d'une liste parcourue par clé (keyset pagination).
+ * Les éléments sont triés par ID croissant ; le curseur de la page suivante encode l'ID du dernier élément,
+ * si bien que la page suivante est lue par `id > :afterId` et que son coût ne dépend pas de sa profondeur.
+ * Le curseur est opaque pour les clients : ils le renvoient tel quel dans le paramètre `after`.
+ * Une requête sans `limit` ni `after` reçoit la liste entière, comme avant la pagination : seuls les clients
+ * qui demandent une page sont paginés.
+ *
+ * @param <T> Le type des éléments de la page.
+ */
+public class CursorPage<T> {
+
+    /**
+     * Taille de page utilisée quand le client fournit un curseur sans préciser de taille.
+     */
+    public static final int DEFAULT_LIMIT = 100;
+
+    /**
+     * Taille de page maximale acceptée.
+     */
+    public static final int MAX_LIMIT = 500;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Constructeur pour initialiser une page.
+     *
+     * @param items Les éléments de la page.
+     * @param nextCursor Le curseur de la page suivante, ou null s'il s'agit de la dernière page.
+     */
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Construire une page à partir d'une {@link Slice} lue par clé.
+     *
+     * @param slice La tranche retournée par le repository.
+     * @param idOf La fonction donnant l'ID d'un élément.
+     * @param <T> Le type des éléments.
+     * @return La page, avec un curseur si d'autres éléments suivent.
+     */
+    public static <T> CursorPage<T> of(Slice<T> slice, Function<T, Long> idOf) {
+        List<T> items = slice.getContent();
+        String nextCursor = slice.hasNext() ? encode(idOf.apply(items.get(items.size() - 1))) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Encoder l'ID du dernier élément lu en curseur opaque.
+     *
+     * @param lastId L'ID du dernier élément de la page.
+     * @return Le curseur, en Base64 URL sans remplissage.
+     */
+    public static String encode(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Décoder un curseur reçu du client.
+     *
+     * @param cursor Le curseur, ou null pour la première page.
+     * @return L'ID après lequel reprendre la lecture (0 pour la première page).
+     * @throws InvalidCursorException Si le curseur est mal formé.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            long afterId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+            if (afterId < 0) {
+                throw new InvalidCursorException("Curseur de pagination invalide");
+            }
+            return afterId;
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException et erreurs de décodage Base64
+            throw new InvalidCursorException("Curseur de pagination invalide");
+        }
+    }
+
+    /**
+     * Construire la demande de tranche pour la taille de page et le curseur donnés par le client.
+     * Seule la taille est utilisée : le tri et le point de départ sont portés par la requête elle-même.
+     * Sans taille ni curseur, la liste n'est pas paginée : les clients antérieurs à la pagination
+     * continuent de recevoir la liste entière.
+     *
+     * @param limit La taille demandée, ou null pour la taille par défaut.
+     * @param after Le curseur reçu, ou null pour la première page.
+     * @return La demande de tranche, de taille ramenée entre 1 et {@link #MAX_LIMIT}, ou {@link Pageable#unpaged()}.
+     */
+    public static Pageable limit(Integer limit, String after) {
+        if (limit == null && (after == null || after.isEmpty())) {
+            return Pageable.unpaged();
+        }
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+        return PageRequest.of(0, size);
+    }
+
+    /**
+     * Getter pour obtenir les éléments de la page.
+     *
+     * @return Les éléments de la page.
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Getter pour obtenir le curseur de la page suivante.
+     *
+     * @return Le curseur, ou null s'il s'agit de la dernière page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Exception levée lorsqu'un curseur de pagination ne peut pas être décodé.
+     */
+    public static class InvalidCursorException extends IllegalArgumentException {
+        public InvalidCursorException(String message) {
+            super(message);
+        }
+    }
+}
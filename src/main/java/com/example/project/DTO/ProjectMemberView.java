@@ -0,0 +1,15 @@
+package com.example.project.DTO;
+
+/**
+ * Projection d'un membre de projet, accompagné de l'ID du projet concerné.
+ * Les membres de plusieurs projets sont ainsi lus en une seule requête, puis regroupés par projet.
+ */
+public interface ProjectMemberView {
+    Long getProjectId();
+
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+}
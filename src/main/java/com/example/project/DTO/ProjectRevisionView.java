@@ -0,0 +1,11 @@
+package com.example.project.DTO;
+
+/**
+ * Projection de la révision d'un projet.
+ * Permet de calculer l'ETag d'une page de projets sans lire les projets ni leurs membres.
+ */
+public interface ProjectRevisionView {
+    Long getProjectId();
+
+    Long getRevision();
+}
@@ -0,0 +1,27 @@
+package com.example.project.DTO;
+
+import com.example.project.Entity.Project;
+
+import java.time.LocalDate;
+
+/**
+ * Projection d'un projet et de son créateur, lue en une seule requête sans charger d'entité.
+ * Les noms des accesseurs correspondent aux alias de la requête JPQL.
+ */
+public interface ProjectSummaryView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    LocalDate getDateCreation();
+
+    Project.EtatProjet getState();
+
+    Long getCreatorId();
+
+    String getCreatorUsername();
+
+    String getCreatorEmail();
+}
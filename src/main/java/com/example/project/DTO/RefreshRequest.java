@@ -0,0 +1,18 @@
+package com.example.project.DTO;
+
+/**
+ * Le DTO (Data Transfer Object) d'une demande de rafraîchissement.
+ * Utilisé par les clients qui ne conservent pas le cookie de rafraîchissement.
+ */
+public class RefreshRequest {
+    private String refreshToken;
+
+    // Getters et setters
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.project.DTO;
+
+import java.util.List;
+
+/**
+ * Le DTO (Data Transfer Object) des modifications des tâches d'un projet depuis une révision.
+ * Le client applique les tâches (créées ou modifiées) et retire les tâches supprimées de sa copie,
+ * puis conserve {@link #getRevision()} pour sa prochaine synchronisation (`since`).
+ */
+public class TaskChanges {
+
+    private final long revision;
+    private final List<TaskDto> tasks;
+    private final List<Long> deleted;
+
+    /**
+     * Constructeur pour initialiser les modifications.
+     *
+     * @param revision La révision du projet à laquelle la copie du client est à jour après application.
+     * @param tasks Les tâches créées ou modifiées, dans l'ordre des modifications.
+     * @param deleted Les IDs des tâches supprimées.
+     */
+    public TaskChanges(long revision, List<TaskDto> tasks, List<Long> deleted) {
+        this.revision = revision;
+        this.tasks = tasks;
+        this.deleted = deleted;
+    }
+
+    /**
+     * Getter pour obtenir la révision du projet.
+     *
+     * @return La révision à transmettre dans `since` à la prochaine synchronisation.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Getter pour obtenir les tâches créées ou modifiées.
+     *
+     * @return Les tâches créées ou modifiées.
+     */
+    public List<TaskDto> getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Getter pour obtenir les tâches supprimées.
+     *
+     * @return Les IDs des tâches supprimées.
+     */
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+}
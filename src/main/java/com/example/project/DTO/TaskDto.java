@@ -1,5 +1,7 @@
 package com.example.project.DTO;
 
+import com.example.project.Entity.Task;
+
 import java.time.LocalDate;
 
 /**
@@ -43,6 +45,22 @@ public class TaskDto {
         this.projectId = projectId;
     }
 
+    /**
+     * Constructeur utilisé par les expressions constructeur JPQL (`select new ...`).
+     * L'état est reçu sous sa forme d'énumération et converti en chaîne ; l'utilisateur peut être absent.
+     *
+     * @param id L'ID de la tâche.
+     * @param description La description de la tâche.
+     * @param dueDate La date d'échéance de la tâche.
+     * @param state L'état de la tâche (peut être null).
+     * @param userId L'ID de l'utilisateur assigné à la tâche (peut être null).
+     * @param projectId L'ID du projet auquel la tâche appartient.
+     */
+    public TaskDto(Long id, String description, LocalDate dueDate,
+                   Task.StateTask state, Long userId, Long projectId) {
+        this(id, description, dueDate, state != null ? state.name() : null, userId, projectId);
+    }
+
     // Getters and setters
     /**
      * Getter pour obtenir l'ID de la tâche.
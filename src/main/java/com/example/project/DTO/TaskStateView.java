@@ -0,0 +1,15 @@
+package com.example.project.DTO;
+
+import com.example.project.Entity.Task;
+
+/**
+ * Projection de l'état et de l'utilisateur assigné d'une tâche.
+ * Permet de classer le résultat d'une modification en masse sans charger les entités.
+ */
+public interface TaskStateView {
+    Long getId();
+
+    Task.StateTask getState();
+
+    Long getUserId();
+}
@@ -3,19 +3,21 @@ package com.example.project.Entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Représente un projet dans le système avec des informations liées à son nom, sa description,
  * sa date de création, son état, ses créateurs, ses membres et ses tâches associées.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project")
 public class Project {
 
     /**
@@ -52,9 +54,9 @@ public class Project {
     private EtatProjet state;
 
     /**
-     * Utilisateur créateur du projet.
+     * Utilisateur créateur du projet, chargé à la demande (le plus souvent depuis le cache de second niveau).
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "creator_id", nullable = false)
     private User creator;
 
@@ -62,6 +64,7 @@ public class Project {
      * Membres participant au projet. Plusieurs utilisateurs peuvent être associés à un projet.
      */
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project-members")
     @JoinTable(
             name = "projet_utilisateur",
             joinColumns = @JoinColumn(name = "projet_id"),
@@ -76,10 +79,13 @@ public class Project {
     private List<Task> taches = new ArrayList<>();
 
     /**
-     * Verrou de synchronisation pour assurer une gestion thread-safe lors des opérations sur les membres ou les tâches.
+     * Version du projet pour le verrouillage optimiste : incrémentée à chaque modification de l'entité
+     * par Hibernate, elle fait échouer l'écriture concurrente basée sur une version périmée.
+     * Les ajouts et retraits de membres du service passent par des instructions SQL natives et ne la modifient pas :
+     * ils sont sérialisés par la ligne de {@link ProjectRevision}, dont la révision fournit aussi les ETags.
      */
-    @Transient // Indique que cette propriété n'est pas persistée en base
-    private final Lock lock = new ReentrantLock();
+    @Version
+    private Long version;
 
     /**
      * Constructeur par défaut.
@@ -211,13 +217,13 @@ public class Project {
         this.creator = creator;
     }
 
-    // Méthodes pour la gestion des membres et des tâches avec verrouillage sécurisé
-
-    public void lockProject() {
-        lock.lock();
-    }
-    public void unlockProject() {
-        lock.unlock();
+    /**
+     * Retourne la version du projet (verrouillage optimiste).
+     *
+     * @return Version du projet.
+     */
+    public Long getVersion() {
+        return version;
     }
 
     /**
@@ -239,59 +245,39 @@ public class Project {
     }
 
     /**
-     * Ajoute un membre au projet de manière thread-safe.
+     * Ajoute un membre au projet.
      *
      * @param user Utilisateur à ajouter.
      */
     public void addMember(User user) {
-        lock.lock();
-        try {
-            this.members.add(user);
-        } finally {
-            lock.unlock();
-        }
+        this.members.add(user);
     }
 
     /**
-     * Retire un membre du projet de manière thread-safe.
+     * Retire un membre du projet.
      *
      * @param user Utilisateur à retirer.
      */
     public void removeMember(User user) {
-        lock.lock();
-        try {
-            this.members.remove(user);
-        } finally {
-            lock.unlock();
-        }
+        this.members.remove(user);
     }
 
     /**
-     * Ajoute une tâche au projet de manière thread-safe.
+     * Ajoute une tâche au projet.
      *
      * @param task Tâche à ajouter.
      */
     public void addTask(Task task) {
-        lock.lock();
-        try {
-            this.taches.add(task);
-        } finally {
-            lock.unlock();
-        }
+        this.taches.add(task);
     }
 
     /**
-     * Retire une tâche du projet de manière thread-safe.
+     * Retire une tâche du projet.
      *
      * @param task Tâche à retirer.
      */
     public void removeTask(Task task) {
-        lock.lock();
-        try {
-            this.taches.remove(task);
-        } finally {
-            lock.unlock();
-        }
+        this.taches.remove(task);
     }
 
     public enum EtatProjet {
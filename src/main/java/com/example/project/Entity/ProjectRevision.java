@@ -0,0 +1,67 @@
+package com.example.project.Entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Révision d'un projet : compteur incrémenté à chaque modification du projet, de ses membres ou de ses tâches.
+ * Elle identifie l'état des listes de projets et de tâches (ETag) sans les relire.
+ * La ligne est créée avec le projet et supprimée avec lui ; elle n'est jamais chargée comme entité,
+ * seulement lue et incrémentée par requête.
+ */
+@Entity
+@Table(name = "project_revision")
+public class ProjectRevision {
+
+    /**
+     * Identifiant du projet.
+     */
+    @Id
+    @Column(name = "project_id")
+    private Long projectId;
+
+    /**
+     * Révision courante du projet.
+     */
+    @Column(nullable = false)
+    private long revision;
+
+    /**
+     * Plus haute révision dont les traces de suppression ont été purgées :
+     * la synchronisation incrémentale n'est possible qu'à partir de cette révision.
+     */
+    @Column(name = "pruned_revision", nullable = false)
+    private long prunedRevision;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    public ProjectRevision() {
+    }
+
+    /**
+     * Getter pour l'identifiant du projet.
+     *
+     * @return Identifiant du projet.
+     */
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * Getter pour la révision du projet.
+     *
+     * @return Révision courante du projet.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Getter pour la plus haute révision purgée.
+     *
+     * @return Plus haute révision dont les traces de suppression ont été purgées.
+     */
+    public long getPrunedRevision() {
+        return prunedRevision;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.project.Entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Représente un jeton de rafraîchissement permettant d'obtenir un nouveau JWT sans ressaisir le mot de passe.
+ * Seule l'empreinte SHA-256 du jeton est stockée : le jeton étant aléatoire (256 bits),
+ * une empreinte rapide suffit et la vérification se réduit à une recherche indexée.
+ */
+@Entity
+@Table(name = "refresh_token")
+public class RefreshToken {
+
+    /**
+     * Identifiant unique du jeton.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Empreinte SHA-256 (hexadécimale) du jeton.
+     */
+    @Column(name = "token_hash", unique = true, nullable = false, length = 64)
+    private String tokenHash;
+
+    /**
+     * Utilisateur auquel le jeton a été délivré.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    /**
+     * Date d'expiration du jeton.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    public RefreshToken() {
+    }
+
+    /**
+     * Constructeur avec initialisation des informations du jeton.
+     *
+     * @param tokenHash Empreinte du jeton.
+     * @param user Utilisateur titulaire du jeton.
+     * @param expiresAt Date d'expiration du jeton.
+     */
+    public RefreshToken(String tokenHash, User user, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.user = user;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Retourne l'identifiant du jeton.
+     *
+     * @return Identifiant du jeton.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Retourne l'empreinte du jeton.
+     *
+     * @return Empreinte du jeton.
+     */
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    /**
+     * Retourne l'utilisateur titulaire du jeton.
+     *
+     * @return Utilisateur titulaire du jeton.
+     */
+    public User getUser() {
+        return user;
+    }
+
+    /**
+     * Retourne la date d'expiration du jeton.
+     *
+     * @return Date d'expiration.
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.project.Entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Représente une révocation de JWT d'accès avant son expiration.
+ * La clé désigne soit un jeton précis (`jti:<id>`), soit tous les jetons d'un utilisateur (`user:<id>`) ;
+ * dans les deux cas, seuls les jetons émis avant la date de révocation sont refusés.
+ * L'entrée peut être supprimée dès que tous les jetons concernés ont expiré.
+ */
+@Entity
+@Table(name = "revoked_token")
+public class RevokedToken {
+
+    /**
+     * Identifiant unique de la révocation.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Clé de révocation (`jti:<id>` ou `user:<id>`).
+     */
+    @Column(name = "revocation_key", nullable = false, length = 64)
+    private String revocationKey;
+
+    /**
+     * Date de révocation : les jetons émis avant cette date sont refusés.
+     */
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    /**
+     * Date à partir de laquelle tous les jetons concernés ont expiré.
+     */
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    public RevokedToken() {
+    }
+
+    /**
+     * Constructeur avec initialisation des informations de la révocation.
+     *
+     * @param revocationKey Clé de révocation.
+     * @param revokedAt Date de révocation.
+     * @param expiresAt Date d'expiration des jetons concernés.
+     */
+    public RevokedToken(String revocationKey, Instant revokedAt, Instant expiresAt) {
+        this.revocationKey = revocationKey;
+        this.revokedAt = revokedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Retourne l'identifiant de la révocation.
+     *
+     * @return Identifiant de la révocation.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Retourne la clé de révocation.
+     *
+     * @return Clé de révocation.
+     */
+    public String getRevocationKey() {
+        return revocationKey;
+    }
+
+    /**
+     * Retourne la date de révocation.
+     *
+     * @return Date de révocation.
+     */
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    /**
+     * Retourne la date d'expiration des jetons concernés.
+     *
+     * @return Date d'expiration.
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
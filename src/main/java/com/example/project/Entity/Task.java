@@ -2,8 +2,8 @@ package com.example.project.Entity;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Représente une tâche dans un projet, associée à un utilisateur, avec une description,
@@ -13,10 +13,12 @@ import java.util.concurrent.locks.ReentrantLock;
 public class Task {
 
     /**
-     * Identifiant unique de la tâche.
+     * Identifiant unique de la tâche, tiré de la séquence task_seq par blocs de 50
+     * pour permettre le regroupement des insertions en lots JDBC.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -36,9 +38,10 @@ public class Task {
     private StateTask state; // Enum représentant l'état de la tâche
 
     /**
-     * Utilisateur assigné à la tâche.
+     * Utilisateur assigné à la tâche, chargé à la demande : les cas d'usage qui en ont besoin le déclarent
+     * dans leur plan de chargement.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user; // Utilisateur assigné à la tâche
 
@@ -50,18 +53,42 @@ public class Task {
     private Project project; // Projet lié à la tâche
 
     /**
-     * Verrou de synchronisation pour gérer l'accès concurrent à la tâche.
+     * Version de la tâche pour le verrouillage optimiste : une modification concurrente
+     * basée sur une version périmée échoue au lieu d'écraser la précédente.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Révision du projet lors de la dernière modification de la tâche (création comprise).
+     * Les clients synchronisés relisent seulement les tâches modifiées après la révision qu'ils connaissent.
      */
-    @Transient // Non persisté en base
-    private final Lock lock = new ReentrantLock();
+    @Column(name = "change_revision", nullable = false)
+    private long changeRevision;
 
     /**
      * Enum représentant les différents états d'une tâche.
+     * Transitions autorisées : TO_DO → IN_PROGRESS, DONE ; IN_PROGRESS → TO_DO, DONE ; DONE → IN_PROGRESS.
+     * Une tâche terminée peut être rouverte, mais pas renvoyée directement à faire.
      */
     public enum StateTask {
         TO_DO,
         IN_PROGRESS,
-        DONE
+        DONE;
+
+        /**
+         * États depuis lesquels une tâche peut passer dans cet état.
+         * L'état lui-même n'en fait pas partie : rester dans le même état n'est pas une transition.
+         *
+         * @return Les états sources autorisés.
+         */
+        public Set<StateTask> allowedSources() {
+            return switch (this) {
+                case TO_DO -> EnumSet.of(IN_PROGRESS);
+                case IN_PROGRESS -> EnumSet.of(TO_DO, DONE);
+                case DONE -> EnumSet.of(TO_DO, IN_PROGRESS);
+            };
+        }
     }
 
     // ---------------------------
@@ -94,32 +121,42 @@ public class Task {
     }
 
     // ---------------------------
-    // Méthodes de gestion de verrouillage
+    // Getters et Setters
     // ---------------------------
     /**
-     * Verrouille la tâche de manière à éviter les modifications concurrentes.
+     * Retourne l'identifiant de la tâche.
+     *
+     * @return Identifiant de la tâche.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Retourne la version de la tâche (verrouillage optimiste).
+     *
+     * @return Version de la tâche.
      */
-    public void lockTask() {
-        lock.lock();
+    public Long getVersion() {
+        return version;
     }
 
     /**
-     * Déverrouille la tâche après les modifications.
+     * Retourne la révision du projet lors de la dernière modification de la tâche.
+     *
+     * @return Révision de la dernière modification.
      */
-    public void unlockTask() {
-        lock.unlock();
+    public long getChangeRevision() {
+        return changeRevision;
     }
 
-    // ---------------------------
-    // Getters et Setters
-    // ---------------------------
     /**
-     * Retourne l'identifiant de la tâche.
+     * Définit la révision du projet lors de la dernière modification de la tâche.
      *
-     * @return Identifiant de la tâche.
+     * @param changeRevision Révision de la dernière modification.
      */
-    public Long getId() {
-        return id;
+    public void setChangeRevision(long changeRevision) {
+        this.changeRevision = changeRevision;
     }
 
     /**
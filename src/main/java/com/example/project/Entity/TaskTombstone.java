@@ -0,0 +1,82 @@
+package com.example.project.Entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Trace de la suppression d'une tâche, pour la synchronisation incrémentale :
+ * un client qui connaît une révision antérieure apprend ainsi qu'il doit retirer la tâche de sa copie.
+ * Les traces sont supprimées avec le projet, ou purgées après la durée de rétention.
+ */
+@Entity
+@Table(name = "task_tombstone")
+public class TaskTombstone {
+
+    /**
+     * Identifiant de la tâche supprimée.
+     */
+    @Id
+    @Column(name = "task_id")
+    private Long taskId;
+
+    /**
+     * Identifiant du projet de la tâche.
+     */
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    /**
+     * Révision du projet lors de la suppression.
+     */
+    @Column(nullable = false)
+    private long revision;
+
+    /**
+     * Date de la suppression, renseignée par la base à l'insertion de la trace.
+     */
+    @Column(name = "deleted_at", nullable = false, insertable = false, updatable = false)
+    private Instant deletedAt;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    public TaskTombstone() {
+    }
+
+    /**
+     * Getter pour l'identifiant de la tâche supprimée.
+     *
+     * @return Identifiant de la tâche.
+     */
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    /**
+     * Getter pour l'identifiant du projet de la tâche.
+     *
+     * @return Identifiant du projet.
+     */
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * Getter pour la révision de la suppression.
+     *
+     * @return Révision du projet lors de la suppression.
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    /**
+     * Getter pour la date de la suppression.
+     *
+     * @return Date de la suppression.
+     */
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
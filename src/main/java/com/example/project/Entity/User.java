@@ -1,6 +1,9 @@
 package com.example.project.Entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -10,6 +13,8 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 public class User {
 
     /**
@@ -39,8 +44,10 @@ public class User {
 
     /**
      * Rôle de l'utilisateur (peut être admin ou membre).
+     * Jamais lu depuis le corps d'une requête : un compte créé par l'enregistrement est toujours membre.
      */
     @Enumerated(EnumType.STRING)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Role role;
 
     /**
@@ -158,4 +165,22 @@ public class User {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    /**
+     * Retourne le rôle de l'utilisateur.
+     *
+     * @return Rôle de l'utilisateur (peut être null pour un membre).
+     */
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * Définit le rôle de l'utilisateur.
+     *
+     * @param role Nouveau rôle de l'utilisateur.
+     */
+    public void setRole(Role role) {
+        this.role = role;
+    }
 }
@@ -0,0 +1,46 @@
+package com.example.project.Events;
+
+/**
+ * Événement applicatif publié par le service des projets lorsqu'un membre est retiré d'un projet.
+ * Une fois la transaction validée, le flux d'événements ({@link TaskEventBroker}) termine les abonnements
+ * de cet utilisateur au projet : à la reconnexion, son accès est revérifié.
+ */
+public class MemberRemovedEvent {
+
+    private final Long projectId;
+    private final Long userId;
+
+    /**
+     * Constructeur de la classe MemberRemovedEvent.
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur retiré.
+     */
+    public MemberRemovedEvent(Long projectId, Long userId) {
+        this.projectId = projectId;
+        this.userId = userId;
+    }
+
+    /**
+     * Getter pour obtenir l'ID du projet.
+     *
+     * @return L'ID du projet.
+     */
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * Getter pour obtenir l'ID de l'utilisateur retiré.
+     *
+     * @return L'ID de l'utilisateur.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String toString() {
+        return "project " + projectId + ", user " + userId;
+    }
+}
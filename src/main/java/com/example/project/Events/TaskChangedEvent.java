@@ -0,0 +1,106 @@
+package com.example.project.Events;
+
+import com.example.project.DTO.TaskDto;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Événement applicatif publié par le service des tâches lorsqu'une modification de tâches est effectuée.
+ * Il est transmis aux abonnés du flux d'événements ({@link TaskEventBroker}) une fois la transaction validée ;
+ * une transaction annulée ne publie rien.
+ * Les tâches déjà chargées par le service sont transmises telles quelles ; pour les modifications effectuées
+ * par une seule instruction UPDATE, seuls les IDs sont connus et les tâches ne sont relues que s'il y a des abonnés.
+ */
+public class TaskChangedEvent {
+
+    /**
+     * Nature de la modification, qui donne le nom de l'événement SSE.
+     */
+    public enum Type {
+        CREATED("task-created"),
+        STATE_CHANGED("task-state-changed"),
+        ASSIGNED("task-assigned"),
+        DELETED("task-deleted");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        /**
+         * Getter pour obtenir le nom de l'événement SSE.
+         *
+         * @return Le nom de l'événement (champ `event`).
+         */
+        public String getEventName() {
+            return eventName;
+        }
+    }
+
+    private final Type type;
+    private final List<Long> taskIds;
+    private final List<TaskDto> tasks;
+
+    private TaskChangedEvent(Type type, List<Long> taskIds, List<TaskDto> tasks) {
+        this.type = type;
+        this.taskIds = taskIds;
+        this.tasks = tasks;
+    }
+
+    /**
+     * Construire l'événement de tâches déjà chargées.
+     *
+     * @param type La nature de la modification.
+     * @param tasks Les tâches, dans leur état validé.
+     * @return L'événement.
+     */
+    public static TaskChangedEvent of(Type type, List<TaskDto> tasks) {
+        return new TaskChangedEvent(type, tasks.stream().map(TaskDto::getId).toList(), List.copyOf(tasks));
+    }
+
+    /**
+     * Construire l'événement de tâches connues par leurs seuls IDs.
+     *
+     * @param type La nature de la modification.
+     * @param taskIds Les IDs des tâches modifiées.
+     * @return L'événement.
+     */
+    public static TaskChangedEvent ofIds(Type type, Collection<Long> taskIds) {
+        return new TaskChangedEvent(type, List.copyOf(taskIds), null);
+    }
+
+    /**
+     * Getter pour obtenir la nature de la modification.
+     *
+     * @return La nature de la modification.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Getter pour obtenir les IDs des tâches modifiées.
+     *
+     * @return Les IDs des tâches.
+     */
+    public List<Long> getTaskIds() {
+        return taskIds;
+    }
+
+    /**
+     * Getter pour obtenir les tâches modifiées, si le service les a chargées.
+     *
+     * @return Les tâches, ou null si seuls les IDs sont connus.
+     */
+    public List<TaskDto> getTasks() {
+        return tasks;
+    }
+
+    @Override
+    public String toString() {
+        return type + taskIds.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+    }
+}
@@ -0,0 +1,564 @@
+package com.example.project.Events;
+
+import com.example.project.DTO.TaskDto;
+import com.example.project.Entity.TaskTombstone;
+import com.example.project.Repository.TaskRepository;
+import com.example.project.Repository.TaskTombstoneRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diffusion des modifications de tâches aux abonnés d'un projet, en Server-Sent Events.
+ * Les événements sont reçus une fois la transaction validée, sérialisés une seule fois, puis déposés dans la file
+ * bornée de chaque abonné du projet ; un petit pool de threads vide les files dont il y a quelque chose à écrire.
+ * Un abonné inactif ne coûte donc qu'une requête asynchrone ouverte et une file vide, sans thread.
+ * Un abonné dont la file est pleine (client trop lent) est déconnecté : il se reconnecte avec `Last-Event-ID`.
+ * Chaque écriture est bornée dans le temps : elle s'exécute sur un thread à part, que le thread du pool n'attend
+ * que pendant `events.sse.write-timeout`. Un client qui garde la connexion ouverte sans lire est déconnecté
+ * à l'expiration de ce délai, sans bloquer durablement le pool partagé par les autres abonnés.
+ * <p>
+ * Les derniers événements sont conservés dans un tampon circulaire : à la reconnexion, les événements du projet
+ * postérieurs à `Last-Event-ID` sont rejoués. Si ce n'est pas possible (événements sortis du tampon, redémarrage
+ * de l'instance, événements non conservés faute d'abonné), le client reçoit l'événement `resync` et relit
+ * les modifications par `GET /api/projects/{projectId}/tasks/changes`.
+ * Les IDs d'événement sont propres à l'instance : avec plusieurs instances, un client qui change d'instance se resynchronise.
+ * Les abonnements d'un membre retiré du projet sont terminés : sa reconnexion repasse par le contrôle d'accès.
+ */
+@Component
+public class TaskEventBroker {
+
+    /**
+     * Nom de l'événement demandant au client de relire les modifications par la synchronisation incrémentale.
+     */
+    public static final String RESYNC_EVENT = "resync";
+
+    /**
+     * Délai de reconnexion suggéré aux clients (champ `retry`).
+     */
+    private static final long RECONNECT_MILLIS = 3_000;
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("").build();
+
+    private final TaskRepository taskRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService dispatcher;
+
+    /**
+     * Threads des écritures : un thread bloqué par un client qui ne lit plus n'est pas un thread du pool.
+     */
+    private final ExecutorService writer = Executors.newCachedThreadPool(new DispatchThreadFactory("task-events-writer-"));
+    private final int subscriberBuffer;
+    private final long timeoutMillis;
+    private final long writeTimeoutMillis;
+
+    /**
+     * Préfixe des IDs d'événement, différent à chaque démarrage : un ID d'une instance précédente est reconnu.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Verrou de la séquence, du tampon et des abonnés : les événements sont numérotés et déposés dans les files
+     * dans le même ordre.
+     */
+    private final Object lock = new Object();
+    private final Map<Long, Set<Subscriber>> subscribers = new HashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Entry[] ring;
+    private long sequence;
+
+    /**
+     * Numéro du dernier événement non conservé faute d'abonné : une reprise antérieure n'est pas possible.
+     */
+    private long replayFloor;
+
+    private final Counter evictedCounter;
+    private final Counter resyncCounter;
+
+    /**
+     * Constructeur utilisé par Spring : les files sont vidées par un pool de threads dédié.
+     *
+     * @param taskRepository Le repository des tâches, pour relire les tâches modifiées par un UPDATE.
+     * @param taskTombstoneRepository Le repository des traces de suppression, pour retrouver le projet d'une tâche supprimée.
+     * @param objectMapper Le mapper JSON de l'application.
+     * @param meterRegistry Le registre de métriques.
+     * @param dispatchThreads Le nombre de threads d'écriture vers les abonnés.
+     * @param replayCapacity Le nombre d'événements conservés pour la reprise, tous projets confondus.
+     * @param subscriberBuffer Le nombre d'événements en attente au-delà duquel un abonné est déconnecté.
+     * @param timeout La durée d'un abonnement, après laquelle le client se reconnecte.
+     * @param writeTimeout La durée maximale d'une écriture, au-delà de laquelle l'abonné est déconnecté.
+     */
+    @Autowired
+    public TaskEventBroker(TaskRepository taskRepository,
+                           TaskTombstoneRepository taskTombstoneRepository,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${events.sse.dispatch-threads:4}") int dispatchThreads,
+                           @Value("${events.sse.replay-capacity:1024}") int replayCapacity,
+                           @Value("${events.sse.subscriber-buffer:256}") int subscriberBuffer,
+                           @Value("${events.sse.timeout:30m}") Duration timeout,
+                           @Value("${events.sse.write-timeout:5s}") Duration writeTimeout) {
+        this(taskRepository, taskTombstoneRepository, objectMapper, meterRegistry,
+                Executors.newFixedThreadPool(dispatchThreads, new DispatchThreadFactory("task-events-")),
+                replayCapacity, subscriberBuffer, timeout, writeTimeout);
+    }
+
+    /**
+     * Constructeur avec un exécuteur explicite pour l'écriture vers les abonnés.
+     *
+     * @param taskRepository Le repository des tâches.
+     * @param taskTombstoneRepository Le repository des traces de suppression.
+     * @param objectMapper Le mapper JSON.
+     * @param meterRegistry Le registre de métriques.
+     * @param dispatcher L'exécuteur qui vide les files des abonnés.
+     * @param replayCapacity Le nombre d'événements conservés pour la reprise.
+     * @param subscriberBuffer La capacité de la file de chaque abonné.
+     * @param timeout La durée d'un abonnement.
+     * @param writeTimeout La durée maximale d'une écriture.
+     */
+    public TaskEventBroker(TaskRepository taskRepository,
+                           TaskTombstoneRepository taskTombstoneRepository,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           ExecutorService dispatcher,
+                           int replayCapacity,
+                           int subscriberBuffer,
+                           Duration timeout,
+                           Duration writeTimeout) {
+        if (replayCapacity < 1 || subscriberBuffer < 1) {
+            throw new IllegalArgumentException("Les capacités du flux d'événements doivent être positives");
+        }
+        this.taskRepository = taskRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.objectMapper = objectMapper;
+        this.dispatcher = dispatcher;
+        this.ring = new Entry[replayCapacity];
+        this.subscriberBuffer = subscriberBuffer;
+        this.timeoutMillis = timeout.toMillis();
+        this.writeTimeoutMillis = writeTimeout.toMillis();
+
+        Gauge.builder("tasks.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Nombre d'abonnés au flux des modifications de tâches")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("tasks.events.evicted")
+                .description("Abonnés déconnectés car leur file d'événements était pleine ou une écriture a expiré")
+                .register(meterRegistry);
+        this.resyncCounter = Counter.builder("tasks.events.resync")
+                .description("Reconnexions sans reprise possible, résolues par une synchronisation incrémentale")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abonner un client aux modifications des tâches d'un projet.
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur abonné.
+     * @param lastEventId L'ID du dernier événement reçu avant une reconnexion, ou null pour un nouvel abonnement.
+     * @return L'émetteur SSE de l'abonnement.
+     */
+    public SseEmitter subscribe(Long projectId, Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(projectId, userId, emitter, subscriberBuffer);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        // Premier envoi : valide la réponse et indique le délai de reconnexion
+        subscriber.queue.add(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected").build());
+
+        synchronized (lock) {
+            List<Set<DataWithMediaType>> replay = lastEventId == null || lastEventId.isBlank()
+                    ? List.of() : replay(projectId, lastEventId);
+            if (replay == null || replay.size() > subscriber.queue.remainingCapacity()) {
+                resyncCounter.increment();
+                subscriber.queue.add(SseEmitter.event().id(eventId(sequence)).name(RESYNC_EVENT)
+                        .data(String.valueOf(sequence)).build());
+            } else {
+                subscriber.queue.addAll(replay);
+            }
+            subscribers.computeIfAbsent(projectId, id -> new HashSet<>()).add(subscriber);
+            subscriberCount.incrementAndGet();
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Diffuser une modification de tâches, une fois la transaction qui l'a effectuée validée.
+     * Sans aucun abonné, rien n'est relu ni conservé : seule la séquence avance, pour que les reprises
+     * antérieures demandent une resynchronisation.
+     *
+     * @param event La modification.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (subscriberCount.get() == 0) {
+            synchronized (lock) {
+                replayFloor = ++sequence;
+            }
+            return;
+        }
+
+        Map<Long, List<String>> payloads = payloadsByProject(event);
+        Set<Subscriber> notified = new LinkedHashSet<>();
+        Set<Subscriber> overflowed = new HashSet<>();
+        synchronized (lock) {
+            for (Map.Entry<Long, List<String>> project : payloads.entrySet()) {
+                Set<Subscriber> projectSubscribers = subscribers.getOrDefault(project.getKey(), Set.of());
+                for (String payload : project.getValue()) {
+                    long id = ++sequence;
+                    Set<DataWithMediaType> data = SseEmitter.event().id(eventId(id))
+                            .name(event.getType().getEventName())
+                            .data(payload, MediaType.APPLICATION_JSON)
+                            .build();
+                    ring[(int) (id % ring.length)] = new Entry(id, project.getKey(), data);
+                    for (Subscriber subscriber : projectSubscribers) {
+                        if (overflowed.contains(subscriber)) {
+                            continue;
+                        }
+                        if (subscriber.queue.offer(data)) {
+                            notified.add(subscriber);
+                        } else {
+                            overflowed.add(subscriber);
+                        }
+                    }
+                }
+            }
+            if (payloads.isEmpty()) {
+                // Tâches disparues entre-temps : rien à diffuser, mais la modification n'est pas conservée
+                replayFloor = ++sequence;
+            }
+        }
+        overflowed.forEach(this::evict);
+        notified.removeAll(overflowed);
+        notified.forEach(this::schedule);
+    }
+
+    /**
+     * Terminer les abonnements d'un membre retiré du projet, une fois le retrait validé.
+     *
+     * @param event Le retrait.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMemberRemoved(MemberRemovedEvent event) {
+        List<Subscriber> removed = new ArrayList<>();
+        synchronized (lock) {
+            for (Subscriber subscriber : subscribers.getOrDefault(event.getProjectId(), Set.of())) {
+                if (event.getUserId().equals(subscriber.userId)) {
+                    removed.add(subscriber);
+                }
+            }
+        }
+        removed.forEach(subscriber -> {
+            remove(subscriber);
+            complete(subscriber);
+        });
+    }
+
+    /**
+     * Envoyer un commentaire vide aux abonnés inactifs : les proxys ne ferment pas la connexion
+     * et les clients partis sont détectés à l'écriture.
+     */
+    @Scheduled(fixedDelayString = "${events.sse.heartbeat-interval:25s}")
+    public void heartbeat() {
+        List<Subscriber> idle = new ArrayList<>();
+        synchronized (lock) {
+            for (Set<Subscriber> projectSubscribers : subscribers.values()) {
+                for (Subscriber subscriber : projectSubscribers) {
+                    if (subscriber.queue.isEmpty() && subscriber.queue.offer(HEARTBEAT)) {
+                        idle.add(subscriber);
+                    }
+                }
+            }
+        }
+        idle.forEach(this::schedule);
+    }
+
+    /**
+     * Nombre d'abonnés, tous projets confondus.
+     *
+     * @return Le nombre d'abonnés.
+     */
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Terminer les abonnements et arrêter le pool à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void shutdown() {
+        List<Subscriber> all = new ArrayList<>();
+        synchronized (lock) {
+            subscribers.values().forEach(all::addAll);
+        }
+        all.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdown();
+        writer.shutdownNow();
+    }
+
+    /**
+     * Sérialiser une fois chaque tâche de l'événement, regroupée par projet.
+     * Les tâches modifiées par un UPDATE sont relues en une requête ; celles d'une suppression sont rattachées
+     * à leur projet par leur trace.
+     *
+     * @param event La modification.
+     * @return Les données JSON des événements, par ID de projet.
+     */
+    private Map<Long, List<String>> payloadsByProject(TaskChangedEvent event) {
+        Map<Long, List<String>> payloads = new LinkedHashMap<>();
+        if (event.getType() == TaskChangedEvent.Type.DELETED) {
+            for (TaskTombstone tombstone : taskTombstoneRepository.findAllById(event.getTaskIds())) {
+                payloads.computeIfAbsent(tombstone.getProjectId(), id -> new ArrayList<>())
+                        .add(toJson(Map.of("id", tombstone.getTaskId(), "projectId", tombstone.getProjectId())));
+            }
+            return payloads;
+        }
+        List<TaskDto> tasks = event.getTasks() != null ? event.getTasks() : taskRepository.findDtosByIdIn(event.getTaskIds());
+        for (TaskDto task : tasks) {
+            payloads.computeIfAbsent(task.getProjectId(), id -> new ArrayList<>()).add(toJson(task));
+        }
+        return payloads;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Retrouver dans le tampon les événements d'un projet postérieurs au dernier événement reçu par le client.
+     * Appelée sous le verrou.
+     *
+     * @param projectId L'ID du projet.
+     * @param lastEventId L'ID du dernier événement reçu.
+     * @return Les événements à rejouer, dans l'ordre, ou null si la reprise n'est pas possible.
+     */
+    private List<Set<DataWithMediaType>> replay(Long projectId, String lastEventId) {
+        long last = parseEventId(lastEventId);
+        if (last < 0 || last < replayFloor || last > sequence || sequence - last > ring.length) {
+            return null;
+        }
+        List<Set<DataWithMediaType>> replay = new ArrayList<>();
+        for (long id = last + 1; id <= sequence; id++) {
+            Entry entry = ring[(int) (id % ring.length)];
+            if (entry != null && entry.id == id && entry.projectId.equals(projectId)) {
+                replay.add(entry.data);
+            }
+        }
+        return replay;
+    }
+
+    private String eventId(long id) {
+        return epoch + "-" + id;
+    }
+
+    /**
+     * Lire le numéro d'un ID d'événement émis par cette instance.
+     *
+     * @param eventId L'ID reçu dans `Last-Event-ID`.
+     * @return Le numéro de l'événement, ou -1 s'il ne provient pas de cette instance ou est mal formé.
+     */
+    private long parseEventId(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Confier la file d'un abonné au pool, si elle n'y est pas déjà : un seul thread écrit à la fois vers un abonné.
+     *
+     * @param subscriber L'abonné.
+     */
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.closed && subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Écrire les événements en attente d'un abonné.
+     *
+     * @param subscriber L'abonné.
+     */
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<DataWithMediaType> data;
+            while (!subscriber.closed && (data = subscriber.queue.poll()) != null) {
+                send(subscriber, data);
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client déconnecté ou abonnement terminé
+            remove(subscriber);
+        } catch (TimeoutException e) {
+            // Client qui ne lit plus : l'écriture reste bloquée sur son propre thread jusqu'à la fermeture de la connexion
+            evict(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+        }
+        if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Écrire un événement vers un abonné, en attendant au plus la durée maximale d'une écriture.
+     *
+     * @param subscriber L'abonné.
+     * @param data L'événement sérialisé.
+     * @throws IOException Si le client est déconnecté.
+     * @throws TimeoutException Si l'écriture n'est pas terminée dans le délai.
+     */
+    private void send(Subscriber subscriber, Set<DataWithMediaType> data) throws IOException, TimeoutException {
+        Future<?> write = writer.submit(() -> {
+            subscriber.emitter.send(data);
+            return null;
+        });
+        try {
+            write.get(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            write.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Déconnecter un abonné trop lent. Le client se reconnecte et reprend depuis son dernier événement.
+     *
+     * @param subscriber L'abonné.
+     */
+    private void evict(Subscriber subscriber) {
+        remove(subscriber);
+        evictedCounter.increment();
+        complete(subscriber);
+    }
+
+    /**
+     * Terminer l'abonnement sur un thread d'écriture : la fin de la réponse attend qu'une écriture en cours
+     * vers ce client se termine, ce qui ne doit bloquer ni le pool ni le thread qui publie l'événement.
+     *
+     * @param subscriber L'abonné.
+     */
+    private void complete(Subscriber subscriber) {
+        try {
+            writer.execute(subscriber.emitter::complete);
+        } catch (RejectedExecutionException e) {
+            // Application en cours d'arrêt : les abonnements sont terminés par shutdown()
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        synchronized (lock) {
+            if (subscriber.closed) {
+                return;
+            }
+            subscriber.closed = true;
+            Set<Subscriber> projectSubscribers = subscribers.get(subscriber.projectId);
+            if (projectSubscribers != null && projectSubscribers.remove(subscriber) && projectSubscribers.isEmpty()) {
+                subscribers.remove(subscriber.projectId);
+            }
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Un abonné : son utilisateur, son émetteur et sa file d'événements en attente d'écriture.
+     */
+    private static final class Subscriber {
+        private final Long projectId;
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscriber(Long projectId, Long userId, SseEmitter emitter, int capacity) {
+            this.projectId = projectId;
+            this.userId = userId;
+            this.emitter = emitter;
+            // Une place de plus pour le premier envoi
+            this.queue = new ArrayBlockingQueue<>(capacity + 1);
+        }
+    }
+
+    /**
+     * Un événement conservé dans le tampon de reprise.
+     */
+    private record Entry(long id, Long projectId, Set<DataWithMediaType> data) {
+    }
+
+    /**
+     * Fabrique de threads nommés pour l'écriture vers les abonnés.
+     */
+    private static final class DispatchThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private DispatchThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
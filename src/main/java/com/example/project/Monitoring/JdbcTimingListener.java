@@ -0,0 +1,32 @@
+package com.example.project.Monitoring;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Mesure du temps d'exécution JDBC, instanciée par Hibernate pour chaque session (`hibernate.session.events.auto`).
+ * Une session n'est utilisée que par un thread à la fois : un seul début de mesure est en cours.
+ */
+public class JdbcTimingListener implements SessionEventListener {
+
+    private long started;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStatistics.recordJdbcTime(System.nanoTime() - started);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStatistics.recordJdbcTime(System.nanoTime() - started);
+    }
+}
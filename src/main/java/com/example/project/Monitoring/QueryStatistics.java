@@ -0,0 +1,138 @@
+package com.example.project.Monitoring;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistiques Hibernate d'une requête HTTP : instructions JDBC préparées, entités chargées et récupérées,
+ * collections récupérées à la demande et temps passé dans JDBC.
+ * Les compteurs globaux d'Hibernate mélangent toutes les requêtes ; ceux-ci sont rattachés au thread
+ * qui traite la requête, entre {@link #begin()} et {@link #end()}. Hors de cette fenêtre, les enregistrements sont ignorés.
+ * Les requêtes exécutées sur un autre thread (traitement asynchrone) ne sont pas comptées.
+ */
+public final class QueryStatistics {
+
+    /**
+     * Attribut de requête HTTP sous lequel le filtre publie les statistiques de la requête.
+     */
+    public static final String REQUEST_ATTRIBUTE = QueryStatistics.class.getName();
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entityLoads;
+    private long entityFetches;
+    private long collectionFetches;
+    private long jdbcNanos;
+
+    /**
+     * Commencer à collecter les statistiques du thread courant.
+     *
+     * @return Les statistiques, alimentées jusqu'à l'appel de {@link #end()}.
+     */
+    public static QueryStatistics begin() {
+        QueryStatistics statistics = new QueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * Obtenir les statistiques en cours de collecte sur le thread courant.
+     *
+     * @return Les statistiques, ou null hors d'une requête HTTP.
+     */
+    public static QueryStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Arrêter la collecte sur le thread courant.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static void recordStatement() {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void recordEntityLoad() {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    static void recordEntityFetch() {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityFetches++;
+        }
+    }
+
+    static void recordCollectionFetch() {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionFetches++;
+        }
+    }
+
+    static void recordJdbcTime(long nanos) {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.jdbcNanos += nanos;
+        }
+    }
+
+    /**
+     * @return Le nombre d'instructions JDBC préparées (requêtes, insertions, mises à jour...).
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return Le nombre d'entités construites à partir de résultats JDBC.
+     */
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    /**
+     * @return Le nombre d'entités récupérées par une requête dédiée (proxy ou association paresseuse).
+     */
+    public long getEntityFetches() {
+        return entityFetches;
+    }
+
+    /**
+     * @return Le nombre de collections récupérées par une requête dédiée (initialisation paresseuse).
+     */
+    public long getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    /**
+     * @return Le temps passé à exécuter les instructions JDBC, en nanosecondes.
+     */
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * Représentation compacte, utilisée pour l'en-tête de réponse et les messages d'échec des tests.
+     *
+     * @return Les compteurs, par exemple `statements=2, entity-loads=3, entity-fetches=0, collection-fetches=0, jdbc-ms=1.250`.
+     */
+    @Override
+    public String toString() {
+        return "statements=" + statements
+                + ", entity-loads=" + entityLoads
+                + ", entity-fetches=" + entityFetches
+                + ", collection-fetches=" + collectionFetches
+                + ", jdbc-ms=" + String.format(Locale.ROOT, "%.3f", jdbcNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.project.Monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtre collectant les statistiques Hibernate de chaque requête HTTP.
+ * À la fin de la requête, les statistiques sont publiées dans Micrometer, étiquetées par méthode et par route
+ * (`hibernate.request.statements`, `hibernate.request.entity.loads`, `hibernate.request.entity.fetches`,
+ * `hibernate.request.collection.fetches`, `hibernate.request.jdbc.time`), et laissées dans l'attribut de requête
+ * {@link QueryStatistics#REQUEST_ATTRIBUTE} pour les tests.
+ * Placé en tête de chaîne pour compter aussi les requêtes des filtres de sécurité.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class QueryStatisticsFilter extends OncePerRequestFilter {
+
+    /**
+     * Route utilisée lorsqu'aucun contrôleur n'a traité la requête (ressource inconnue, requête rejetée par un filtre).
+     */
+    private static final String UNMATCHED_URI = "UNKNOWN";
+
+    /**
+     * Registre des métriques.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructeur pour injecter le registre des métriques.
+     *
+     * @param meterRegistry Le registre dans lequel publier les statistiques par requête.
+     */
+    public QueryStatisticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStatistics statistics = QueryStatistics.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryStatistics.end();
+            request.setAttribute(QueryStatistics.REQUEST_ATTRIBUTE, statistics);
+            record(request, statistics);
+        }
+    }
+
+    /**
+     * Publier les statistiques d'une requête dans Micrometer.
+     * La route est le motif du contrôleur (`/api/projects/{projectId}`) et non l'URL, pour borner le nombre de séries.
+     *
+     * @param request La requête HTTP traitée.
+     * @param statistics Les statistiques de la requête.
+     */
+    private void record(HttpServletRequest request, QueryStatistics statistics) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : UNMATCHED_URI);
+
+        summary("hibernate.request.statements", "Instructions JDBC préparées par requête HTTP", tags)
+                .record(statistics.getStatements());
+        summary("hibernate.request.entity.loads", "Entités chargées par requête HTTP", tags)
+                .record(statistics.getEntityLoads());
+        summary("hibernate.request.entity.fetches", "Entités récupérées à la demande par requête HTTP", tags)
+                .record(statistics.getEntityFetches());
+        summary("hibernate.request.collection.fetches", "Collections récupérées à la demande par requête HTTP", tags)
+                .record(statistics.getCollectionFetches());
+        Timer.builder("hibernate.request.jdbc.time")
+                .description("Temps d'exécution JDBC par requête HTTP")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .register(meterRegistry);
+    }
+}
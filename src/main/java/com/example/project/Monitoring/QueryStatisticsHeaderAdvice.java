@@ -0,0 +1,42 @@
+package com.example.project.Monitoring;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Ajout des statistiques Hibernate de la requête dans l'en-tête de réponse `X-Query-Statistics`,
+ * juste avant l'écriture du corps. Réservé au développement (profil `dev`) : l'en-tête expose
+ * le fonctionnement interne de l'application.
+ * Les réponses sans corps et les exports en flux ne portent pas l'en-tête ; les métriques restent complètes.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "monitoring.query-statistics.header-enabled", havingValue = "true")
+public class QueryStatisticsHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * En-tête portant les statistiques de la requête.
+     */
+    public static final String HEADER = "X-Query-Statistics";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        QueryStatistics statistics = QueryStatistics.current();
+        if (statistics != null) {
+            response.getHeaders().set(HEADER, statistics.toString());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.project.Monitoring;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Fabrique des statistiques Hibernate (`hibernate.stats.factory`) : les statistiques globales sont conservées
+ * (publiées dans Micrometer) et chaque événement est aussi compté dans les {@link QueryStatistics}
+ * de la requête HTTP en cours.
+ */
+public class RequestStatisticsFactory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new RequestAwareStatistics(sessionFactory);
+    }
+
+    /**
+     * Statistiques globales d'Hibernate, doublées des compteurs par requête.
+     */
+    static class RequestAwareStatistics extends StatisticsImpl {
+
+        RequestAwareStatistics(SessionFactoryImplementor sessionFactory) {
+            super(sessionFactory);
+        }
+
+        @Override
+        public void prepareStatement() {
+            super.prepareStatement();
+            QueryStatistics.recordStatement();
+        }
+
+        @Override
+        public void loadEntity(String entityName) {
+            super.loadEntity(entityName);
+            QueryStatistics.recordEntityLoad();
+        }
+
+        @Override
+        public void fetchEntity(String entityName) {
+            super.fetchEntity(entityName);
+            QueryStatistics.recordEntityFetch();
+        }
+
+        @Override
+        public void fetchCollection(String role) {
+            super.fetchCollection(role);
+            QueryStatistics.recordCollectionFetch();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.project.Repository;
+
+import com.example.project.Entity.Project;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidation ciblée de la collection `Project.members` dans le cache de second niveau.
+ * Les écritures natives sur `projet_utilisateur` contournent Hibernate : elles déclarent cette table comme seul
+ * espace de requête, ce qui n'invalide aucune région d'entité, et l'entrée du projet concerné est retirée ici,
+ * au moment de l'écriture puis de nouveau une fois l'écriture validée : une lecture concurrente qui aurait remis
+ * en cache l'ancien ensemble de membres avant la validation ne le sert pas au-delà.
+ * Les ensembles de membres des autres projets restent en cache.
+ */
+@Component
+public class ProjectMembersCache {
+
+    /**
+     * Rôle de la collection des membres, tel que le nomme Hibernate.
+     */
+    static final String MEMBERS_ROLE = Project.class.getName() + ".members";
+
+    private final Cache cache;
+
+    /**
+     * Constructeur de la classe ProjectMembersCache.
+     *
+     * @param entityManagerFactory La fabrique d'EntityManager, dont le cache de second niveau est utilisé.
+     */
+    public ProjectMembersCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    /**
+     * Retirer du cache l'ensemble des membres d'un projet, immédiatement et, dans une transaction,
+     * de nouveau après sa validation.
+     *
+     * @param projectId L'ID du projet dont les membres ont changé.
+     */
+    public void evict(Long projectId) {
+        cache.evictCollectionData(MEMBERS_ROLE, projectId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evictCollectionData(MEMBERS_ROLE, projectId);
+                }
+            });
+        }
+    }
+}
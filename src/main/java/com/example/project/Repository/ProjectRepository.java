@@ -1,9 +1,21 @@
 package com.example.project.Repository;
 
+import com.example.project.DTO.ProjectMemberView;
+import com.example.project.DTO.ProjectSummaryView;
 import com.example.project.Entity.Project;
 import com.example.project.Entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -12,6 +24,14 @@ import java.util.List;
  * Elle permet également de rechercher des projets en fonction de leur créateur ou des membres associés.
  */
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+    /**
+     * Sous-requête HQL des IDs des projets d'un utilisateur postérieurs à `:afterId` : union de deux accès indexés,
+     * par créateur (`idx_project_creator`) et par membre (`idx_projet_utilisateur_user`).
+     * Une condition « créateur OU membre » sur la table des projets obligerait à la parcourir.
+     */
+    String USER_PROJECT_IDS_AFTER = "select cp.id from Project cp where cp.creator.id = :userId and cp.id > :afterId "
+            + "union select mp.id from Project mp join mp.members mm where mm.id = :userId and mp.id > :afterId";
+
     /**
      * Trouver les projets créés par un utilisateur.
      *
@@ -26,5 +46,140 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
      * @param member L'utilisateur membre des projets à rechercher.
      * @return Une liste de projets auxquels l'utilisateur spécifié est membre.
      */
-    List<Project> findByMembersContains(User member);
+    // Jointure explicite : la requête dérivée teste l'appartenance par une sous-requête pour chaque projet
+    @Query("select p from Project p join p.members m where m = :member")
+    List<Project> findByMembersContains(@Param("member") User member);
+
+    /**
+     * Récupérer les IDs des projets dont un utilisateur est créateur ou membre, sans charger les projets.
+     * Union de deux accès indexés, par créateur puis par membre, qui élimine aussi les doublons.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @return Les IDs des projets de l'utilisateur.
+     */
+    @Query("select p.id from Project p where p.creator.id = :userId "
+            + "union select mp.id from Project mp join mp.members mm where mm.id = :userId")
+    List<Long> findProjectIdsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Vérifier qu'un utilisateur est créateur ou membre d'un projet.
+     * Deux accès par clé primaire, sans parcourir les membres du projet.
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur.
+     * @return true si l'utilisateur est créateur ou membre du projet, false sinon.
+     */
+    @Query(value = "select exists (select 1 from project where id = :projectId and creator_id = :userId) "
+            + "or exists (select 1 from projet_utilisateur where projet_id = :projectId and user_id = :userId)",
+            nativeQuery = true)
+    boolean isCreatorOrMember(@Param("projectId") Long projectId, @Param("userId") Long userId);
+
+    /**
+     * Vérifier qu'un utilisateur est le créateur d'un projet.
+     *
+     * @param projectId L'ID du projet.
+     * @param creatorId L'ID de l'utilisateur.
+     * @return true si l'utilisateur a créé le projet, false sinon.
+     */
+    boolean existsByIdAndCreatorId(Long projectId, Long creatorId);
+
+    /**
+     * Vérifier qu'un utilisateur est membre d'un projet, par la clé primaire de la table d'association.
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur.
+     * @return true si l'utilisateur est membre du projet, false sinon.
+     */
+    @Query(value = "select exists (select 1 from projet_utilisateur where projet_id = :projectId and user_id = :userId)",
+            nativeQuery = true)
+    boolean isMember(@Param("projectId") Long projectId, @Param("userId") Long userId);
+
+    /**
+     * Récupérer, parmi des utilisateurs, ceux qui sont déjà membres d'un projet.
+     *
+     * @param projectId L'ID du projet.
+     * @param userIds Les IDs des utilisateurs.
+     * @return Les IDs des utilisateurs déjà membres.
+     */
+    @Query(value = "select user_id from projet_utilisateur where projet_id = :projectId and user_id in :userIds",
+            nativeQuery = true)
+    List<Long> findMemberIdsIn(@Param("projectId") Long projectId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Ajouter un membre à un projet par une seule insertion dans la table d'association, sans charger les membres.
+     * L'insertion n'a pas lieu si l'utilisateur est déjà membre.
+     * L'espace de requête `projet_utilisateur` évite d'invalider tout le cache de second niveau ;
+     * l'appelant retire ensuite les membres du projet du cache ({@link ProjectMembersCache}).
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur.
+     * @return 1 si l'utilisateur a été ajouté, 0 s'il était déjà membre.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "projet_utilisateur"))
+    @Query(value = "insert into projet_utilisateur (projet_id, user_id) "
+            + "select cast(:projectId as bigint), cast(:userId as bigint) "
+            + "where not exists (select 1 from projet_utilisateur where projet_id = :projectId and user_id = :userId)",
+            nativeQuery = true)
+    int insertMember(@Param("projectId") Long projectId, @Param("userId") Long userId);
+
+    /**
+     * Ajouter plusieurs membres à un projet en une seule instruction, en ignorant ceux qui sont déjà membres.
+     * Comme pour {@link #insertMember}, l'appelant retire ensuite les membres du projet du cache.
+     *
+     * @param projectId L'ID du projet.
+     * @param userIds Les IDs des utilisateurs, qui doivent exister.
+     * @return Le nombre d'utilisateurs ajoutés.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "projet_utilisateur"))
+    @Query(value = "insert into projet_utilisateur (projet_id, user_id) "
+            + "select cast(:projectId as bigint), u.id from users u where u.id in :userIds "
+            + "and not exists (select 1 from projet_utilisateur pu where pu.projet_id = :projectId and pu.user_id = u.id)",
+            nativeQuery = true)
+    int insertMembers(@Param("projectId") Long projectId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Retirer un membre d'un projet par une seule suppression dans la table d'association.
+     * Comme pour {@link #insertMember}, l'appelant retire ensuite les membres du projet du cache.
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur.
+     * @return 1 si l'utilisateur a été retiré, 0 s'il n'était pas membre.
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "projet_utilisateur"))
+    @Query(value = "delete from projet_utilisateur where projet_id = :projectId and user_id = :userId", nativeQuery = true)
+    int deleteMember(@Param("projectId") Long projectId, @Param("userId") Long userId);
+
+    /**
+     * Récupérer en une requête une page des projets dont un utilisateur est créateur ou membre, avec leur créateur.
+     * Le résultat est une projection : aucune entité n'est chargée. La lecture reprend après `afterId`.
+     * Les projets sont lus par clé primaire d'après {@link #USER_PROJECT_IDS_AFTER}.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @param afterId L'ID du dernier projet déjà lu (0 pour la première page).
+     * @param pageable La taille de la page.
+     * @return Les projets suivants de l'utilisateur, triés par ID.
+     */
+    @Query("select p.id as id, p.name as name, p.description as description, p.dateCreation as dateCreation, "
+            + "p.state as state, c.id as creatorId, c.username as creatorUsername, c.email as creatorEmail "
+            + "from Project p join p.creator c "
+            + "where p.id in (" + USER_PROJECT_IDS_AFTER + ") "
+            + "order by p.id")
+    Slice<ProjectSummaryView> findProjectSummariesByUserIdAfter(@Param("userId") Long userId,
+                                                                @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Récupérer en une requête les membres de plusieurs projets.
+     *
+     * @param projectIds Les IDs des projets.
+     * @return Les membres, accompagnés de l'ID de leur projet, triés par projet puis par utilisateur.
+     */
+    @Query("select p.id as projectId, u.id as id, u.username as username, u.email as email "
+            + "from Project p join p.members u where p.id in :projectIds order by p.id, u.id")
+    List<ProjectMemberView> findMembersByProjectIds(@Param("projectIds") Collection<Long> projectIds);
 }
@@ -0,0 +1,122 @@
+package com.example.project.Repository;
+
+import com.example.project.DTO.ProjectRevisionView;
+import com.example.project.Entity.ProjectRevision;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository pour les révisions des projets.
+ * Les révisions sont lues et incrémentées par requête, sans charger d'entité : elles servent d'ETag
+ * aux listes de projets et de tâches, et de curseur à la synchronisation incrémentale des tâches.
+ */
+public interface ProjectRevisionRepository extends JpaRepository<ProjectRevision, Long> {
+
+    /**
+     * Récupérer la révision courante d'un projet.
+     *
+     * @param projectId L'ID du projet.
+     * @return La révision du projet, ou vide si le projet n'existe pas.
+     */
+    @Query("select r.revision from ProjectRevision r where r.projectId = :projectId")
+    Optional<Long> findRevision(@Param("projectId") Long projectId);
+
+    /**
+     * Récupérer la plus haute révision d'un projet dont les traces de suppression ont été purgées.
+     *
+     * @param projectId L'ID du projet.
+     * @return La plus haute révision purgée (0 si aucune), ou vide si le projet n'existe pas.
+     */
+    @Query("select r.prunedRevision from ProjectRevision r where r.projectId = :projectId")
+    Optional<Long> findPrunedRevision(@Param("projectId") Long projectId);
+
+    /**
+     * Retenir, pour chaque projet, la plus haute révision des traces de suppression enregistrées avant une date,
+     * avant de purger ces traces.
+     *
+     * @param before La date limite (exclue) des traces purgées.
+     * @return Le nombre de projets concernés.
+     */
+    @Modifying
+    @Query("update ProjectRevision r set r.prunedRevision = greatest(r.prunedRevision, "
+            + "(select max(tt.revision) from TaskTombstone tt where tt.projectId = r.projectId and tt.deletedAt < :before)) "
+            + "where r.projectId in (select tt.projectId from TaskTombstone tt where tt.deletedAt < :before)")
+    int raisePrunedRevisions(@Param("before") Instant before);
+
+    /**
+     * Récupérer les révisions d'une page des projets d'un utilisateur, par clé.
+     * La fenêtre est la même que celle de {@link ProjectRepository#findProjectSummariesByUserIdAfter},
+     * sans lire les créateurs ni les membres : l'ETag de la page se calcule avant de lire les projets.
+     *
+     * @param userId L'ID de l'utilisateur, créateur ou membre des projets.
+     * @param afterId L'ID du dernier projet déjà lu (0 pour la première page).
+     * @param pageable La taille de la page.
+     * @return L'ID et la révision de chaque projet de la page, triés par ID.
+     */
+    @Query("select p.id as projectId, r.revision as revision "
+            + "from Project p left join ProjectRevision r on r.projectId = p.id "
+            + "where p.id in (" + ProjectRepository.USER_PROJECT_IDS_AFTER + ") "
+            + "order by p.id")
+    Slice<ProjectRevisionView> findRevisionsByUserIdAfter(@Param("userId") Long userId,
+                                                          @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Créer la révision d'un nouveau projet, à 0.
+     * Insertion directe : save() relirait la ligne avant de l'insérer, l'identifiant étant fourni.
+     *
+     * @param projectId L'ID du projet.
+     * @return Le nombre de lignes insérées.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_NATIVE_SPACES, value = "project_revision"))
+    @Query(value = "insert into project_revision (project_id, revision) values (:projectId, 0)", nativeQuery = true)
+    int create(@Param("projectId") Long projectId);
+
+    /**
+     * Incrémenter la révision d'un projet, avant de modifier le projet, ses membres ou ses tâches.
+     *
+     * @param projectId L'ID du projet.
+     * @return Le nombre de lignes modifiées (0 si le projet n'existe pas).
+     */
+    @Modifying
+    @Query("update ProjectRevision r set r.revision = r.revision + 1 where r.projectId = :projectId")
+    int increment(@Param("projectId") Long projectId);
+
+    /**
+     * Incrémenter la révision des projets de plusieurs tâches, avant de modifier ces tâches.
+     *
+     * @param taskIds Les IDs des tâches.
+     * @return Le nombre de projets dont la révision a été incrémentée.
+     */
+    @Modifying
+    @Query("update ProjectRevision r set r.revision = r.revision + 1 "
+            + "where r.projectId in (select t.project.id from Task t where t.id in :taskIds)")
+    int incrementForTasks(@Param("taskIds") Collection<Long> taskIds);
+
+    /**
+     * Verrouiller les révisions des projets de plusieurs tâches, sans les incrémenter, avant de modifier ces tâches
+     * par une instruction conditionnelle. Les verrous sont pris dans le même ordre que par {@link #incrementForTasks}
+     * (révision, puis tâches) ; la révision n'est incrémentée ensuite que si des tâches ont effectivement été modifiées.
+     *
+     * @param taskIds Les IDs des tâches.
+     * @return L'ID et la révision courante de chaque projet verrouillé.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r.projectId as projectId, r.revision as revision from ProjectRevision r "
+            + "where r.projectId in (select t.project.id from Task t where t.id in :taskIds)")
+    List<ProjectRevisionView> lockForTasks(@Param("taskIds") Collection<Long> taskIds);
+}
@@ -0,0 +1,71 @@
+package com.example.project.Repository;
+
+import com.example.project.Entity.RefreshToken;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository pour les jetons de rafraîchissement.
+ * La recherche se fait uniquement par empreinte, via l'index unique sur `token_hash`.
+ */
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    /**
+     * Trouver un jeton par son empreinte.
+     *
+     * @param tokenHash L'empreinte SHA-256 du jeton.
+     * @return Un {@link Optional} contenant le jeton trouvé ou vide s'il n'existe pas.
+     */
+    // Le rafraîchissement délivre un JWT à l'utilisateur du jeton : il est lu dans la même requête
+    @EntityGraph(attributePaths = "user")
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Consommer un jeton (usage unique) en le supprimant.
+     * Le nombre de lignes supprimées permet de détecter deux utilisations concurrentes du même jeton.
+     *
+     * @param id L'ID du jeton.
+     * @return 1 si le jeton a été consommé, 0 s'il l'avait déjà été.
+     */
+    @Modifying
+    @Query("delete from RefreshToken r where r.id = :id")
+    int consume(@Param("id") Long id);
+
+    /**
+     * Supprimer les jetons expirés.
+     *
+     * @param now L'instant de référence.
+     * @return Le nombre de jetons supprimés.
+     */
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+
+    /**
+     * Supprimer un jeton d'après son empreinte (déconnexion).
+     *
+     * @param tokenHash L'empreinte SHA-256 du jeton.
+     * @return Le nombre de jetons supprimés.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Supprimer tous les jetons d'un utilisateur.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @return Le nombre de jetons supprimés.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken r where r.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,48 @@
+package com.example.project.Repository;
+
+import com.example.project.Entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository pour les révocations de JWT.
+ * Il n'est consulté qu'après une réponse positive du filtre de Bloom, et au rechargement de ce filtre.
+ */
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    /**
+     * Vérifier qu'une des clés a été révoquée après l'émission du jeton.
+     *
+     * @param keys Les clés de révocation du jeton (`jti:<id>` et `user:<id>`).
+     * @param issuedAt La date d'émission du jeton.
+     * @return true si le jeton est révoqué, false sinon.
+     */
+    @Query("select count(r) > 0 from RevokedToken r where r.revocationKey in :keys and r.revokedAt > :issuedAt")
+    boolean isRevoked(@Param("keys") Collection<String> keys, @Param("issuedAt") Instant issuedAt);
+
+    /**
+     * Récupérer les clés des révocations encore utiles.
+     *
+     * @param now L'instant de référence.
+     * @return Les clés des révocations non expirées.
+     */
+    @Query("select r.revocationKey from RevokedToken r where r.expiresAt > :now")
+    List<String> findActiveKeys(@Param("now") Instant now);
+
+    /**
+     * Supprimer les révocations dont tous les jetons ont expiré.
+     *
+     * @param now L'instant de référence.
+     * @return Le nombre de révocations supprimées.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
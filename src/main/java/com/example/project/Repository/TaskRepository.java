@@ -1,10 +1,24 @@
 package com.example.project.Repository;
 
+import com.example.project.DTO.TaskDto;
+import com.example.project.DTO.TaskStateView;
 import com.example.project.Entity.Task;
+import com.example.project.Entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository pour les tâches dans le contexte des projets.
@@ -21,6 +35,148 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
      * @param projectId L'ID du projet pour lequel récupérer les tâches.
      * @return Une liste de tâches associées au projet spécifié.
      */
-    List<Task> findByProjectId(Long projectId);
+    // Requête explicite : la requête dérivée joint la table project et parcourt toute la table task
+    @Query("select t from Task t where t.project.id = :projectId")
+    List<Task> findByProjectId(@Param("projectId") Long projectId);
 
+    /**
+     * Récupérer une page des tâches d'un projet directement sous forme de DTO, par clé.
+     * Les IDs de l'utilisateur et du projet sont lus dans les colonnes de clé étrangère :
+     * une seule requête, sans jointure ni chargement d'entité. La lecture reprend après `afterId`
+     * en suivant l'index (project_id, id) : le coût d'une page ne dépend pas de sa profondeur.
+     *
+     * @param projectId L'ID du projet.
+     * @param afterId L'ID de la dernière tâche déjà lue (0 pour la première page).
+     * @param pageable La taille de la page.
+     * @return Les tâches suivantes du projet, triées par ID.
+     */
+    @Query("select new com.example.project.DTO.TaskDto(t.id, t.description, t.dueDate, t.state, t.user.id, t.project.id) "
+            + "from Task t where t.project.id = :projectId and t.id > :afterId order by t.id")
+    Slice<TaskDto> findDtosByProjectIdAfter(@Param("projectId") Long projectId, @Param("afterId") Long afterId,
+                                            Pageable pageable);
+
+    /**
+     * Parcourir toutes les tâches d'un projet sous forme de DTO, ligne par ligne.
+     * Les lignes sont lues par lots depuis le curseur JDBC au fil de la consommation du flux :
+     * aucune liste n'est construite. Le flux doit être consommé, puis fermé, dans une transaction.
+     *
+     * @param projectId L'ID du projet.
+     * @return Le flux des tâches du projet, triées par ID.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new com.example.project.DTO.TaskDto(t.id, t.description, t.dueDate, t.state, t.user.id, t.project.id) "
+            + "from Task t where t.project.id = :projectId order by t.id")
+    Stream<TaskDto> streamDtosByProjectId(@Param("projectId") Long projectId);
+
+    /**
+     * Récupérer sous forme de DTO les tâches d'un projet modifiées après une révision.
+     * La lecture suit l'index (project_id, change_revision) : son coût dépend du nombre de modifications,
+     * pas du nombre de tâches du projet.
+     *
+     * @param projectId L'ID du projet.
+     * @param since La dernière révision connue du client.
+     * @return Les tâches créées ou modifiées depuis, dans l'ordre des modifications.
+     */
+    @Query("select new com.example.project.DTO.TaskDto(t.id, t.description, t.dueDate, t.state, t.user.id, t.project.id) "
+            + "from Task t where t.project.id = :projectId and t.changeRevision > :since order by t.changeRevision, t.id")
+    List<TaskDto> findDtosChangedSince(@Param("projectId") Long projectId, @Param("since") long since);
+
+    /**
+     * Récupérer plusieurs tâches sous forme de DTO, par leurs IDs.
+     *
+     * @param ids Les IDs des tâches.
+     * @return Les tâches existantes, triées par ID.
+     */
+    @Query("select new com.example.project.DTO.TaskDto(t.id, t.description, t.dueDate, t.state, t.user.id, t.project.id) "
+            + "from Task t where t.id in :ids order by t.id")
+    List<TaskDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Récupérer les projets auxquels appartiennent des tâches, pour les décisions d'accès.
+     *
+     * @param ids Les IDs des tâches.
+     * @return Les IDs distincts des projets des tâches existantes.
+     */
+    @Query("select distinct t.project.id from Task t where t.id in :ids")
+    List<Long> findProjectIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Récupérer l'état d'une tâche, sans charger l'entité.
+     *
+     * @param id L'ID de la tâche.
+     * @return L'état de la tâche, ou vide si elle n'existe pas.
+     */
+    @Query("select t.state from Task t where t.id = :id")
+    Optional<Task.StateTask> findStateById(@Param("id") Long id);
+
+    /**
+     * Récupérer l'état et l'utilisateur assigné de plusieurs tâches, sans charger les entités.
+     *
+     * @param ids Les IDs des tâches.
+     * @return L'ID, l'état et l'ID de l'utilisateur assigné de chaque tâche existante.
+     */
+    @Query("select t.id as id, t.state as state, t.user.id as userId from Task t where t.id in :ids")
+    List<TaskStateView> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Changer l'état d'une tâche si son état courant fait partie des états sources autorisés (compare-and-set).
+     * La version de la tâche est incrémentée, pour que les modifications unitaires concurrentes échouent et soient rejouées.
+     * La tâche reçoit la révision suivante de son projet : l'appelant verrouille la révision avant
+     * ({@link ProjectRevisionRepository#lockForTasks}) et ne l'incrémente qu'après une modification effective.
+     *
+     * @param id L'ID de la tâche.
+     * @param from Les états depuis lesquels la transition est autorisée.
+     * @param state Le nouvel état.
+     * @return 1 si la tâche a changé d'état, 0 si elle n'existe pas ou n'est pas dans un état source.
+     */
+    @Modifying
+    @Query("update Task t set t.state = :state, t.version = t.version + 1, "
+            + "t.changeRevision = coalesce((select r.revision from ProjectRevision r where r.projectId = t.project.id), 0) + 1 "
+            + "where t.id = :id and t.state in :from")
+    int compareAndSetState(@Param("id") Long id,
+                           @Param("from") Collection<Task.StateTask> from,
+                           @Param("state") Task.StateTask state);
+
+    /**
+     * Changer l'état de plusieurs tâches en une seule instruction UPDATE, pour celles dont l'état courant
+     * fait partie des états sources autorisés.
+     * La version de chaque tâche est incrémentée, pour que les modifications unitaires concurrentes échouent et soient rejouées,
+     * et chaque tâche reçoit la révision suivante de son projet, comme pour {@link #compareAndSetState}.
+     *
+     * @param ids Les IDs des tâches.
+     * @param from Les états depuis lesquels la transition est autorisée.
+     * @param state Le nouvel état.
+     * @return Le nombre de tâches modifiées.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.state = :state, t.version = t.version + 1, "
+            + "t.changeRevision = coalesce((select r.revision from ProjectRevision r where r.projectId = t.project.id), 0) + 1 "
+            + "where t.id in :ids and t.state in :from")
+    int updateStateByIdIn(@Param("ids") Collection<Long> ids,
+                          @Param("from") Collection<Task.StateTask> from,
+                          @Param("state") Task.StateTask state);
+
+    /**
+     * Assigner un utilisateur à plusieurs tâches en une seule instruction UPDATE.
+     * La version et la révision de chaque tâche sont mises à jour, comme pour {@link #updateStateByIdIn}.
+     *
+     * @param ids Les IDs des tâches.
+     * @param user L'utilisateur à assigner.
+     * @return Le nombre de tâches modifiées.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Task t set t.user = :user, t.version = t.version + 1, "
+            + "t.changeRevision = coalesce((select r.revision from ProjectRevision r where r.projectId = t.project.id), 0) + 1 "
+            + "where t.id in :ids")
+    int updateUserByIdIn(@Param("ids") Collection<Long> ids, @Param("user") User user);
+
+    /**
+     * Supprimer une tâche sans la charger.
+     *
+     * @param id L'ID de la tâche.
+     * @return 1 si la tâche a été supprimée, 0 si elle n'existe pas.
+     */
+    @Modifying
+    @Query("delete from Task t where t.id = :id")
+    int deleteTask(@Param("id") Long id);
 }
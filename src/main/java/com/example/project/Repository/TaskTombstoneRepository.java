@@ -0,0 +1,53 @@
+package com.example.project.Repository;
+
+import com.example.project.Entity.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository pour les traces des tâches supprimées.
+ * Les traces sont lues par la synchronisation incrémentale, par projet et par révision,
+ * via l'index (project_id, revision), et purgées après la durée de rétention.
+ */
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+
+    /**
+     * Enregistrer la trace de la suppression d'une tâche, à la révision courante de son projet.
+     * À exécuter après l'incrément de la révision du projet, avant la suppression de la tâche.
+     *
+     * @param taskId L'ID de la tâche supprimée.
+     * @return Le nombre de traces enregistrées (0 si la tâche n'existe pas).
+     */
+    @Modifying
+    @Query("insert into TaskTombstone (taskId, projectId, revision) "
+            + "select t.id, t.project.id, r.revision from Task t join ProjectRevision r on r.projectId = t.project.id "
+            + "where t.id = :taskId")
+    int recordDeletion(@Param("taskId") Long taskId);
+
+    /**
+     * Récupérer les IDs des tâches d'un projet supprimées après une révision.
+     *
+     * @param projectId L'ID du projet.
+     * @param since La dernière révision connue du client.
+     * @return Les IDs des tâches supprimées, dans l'ordre des suppressions.
+     */
+    @Query("select tt.taskId from TaskTombstone tt where tt.projectId = :projectId and tt.revision > :since "
+            + "order by tt.revision, tt.taskId")
+    List<Long> findDeletedIdsSince(@Param("projectId") Long projectId, @Param("since") long since);
+
+    /**
+     * Supprimer les traces enregistrées avant une date.
+     * À exécuter après {@link ProjectRevisionRepository#raisePrunedRevisions}, dans la même transaction.
+     *
+     * @param before La date limite (exclue).
+     * @return Le nombre de traces supprimées.
+     */
+    @Modifying
+    @Query("delete from TaskTombstone tt where tt.deletedAt < :before")
+    int deleteRecordedBefore(@Param("before") Instant before);
+}
@@ -1,6 +1,11 @@
 package com.example.project.Repository;
+import com.example.project.DTO.UserDTO;
 import com.example.project.Entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -42,4 +47,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Une liste d'utilisateurs correspondant aux IDs fournis.
      */
     List<User> findAllById(Iterable<Long> ids);
+
+    /**
+     * Récupérer une page des membres d'un projet directement sous forme de DTO, par clé.
+     * La lecture suit la clé primaire (projet_id, user_id) de la table d'association
+     * et reprend après `afterId` : le coût d'une page ne dépend pas de sa profondeur.
+     *
+     * @param projectId L'ID du projet.
+     * @param afterId L'ID du dernier membre déjà lu (0 pour la première page).
+     * @param pageable La taille de la page.
+     * @return Les membres suivants du projet, triés par ID.
+     */
+    @Query("select new com.example.project.DTO.UserDTO(u.id, u.username, u.email) "
+            + "from Project p join p.members u where p.id = :projectId and u.id > :afterId order by u.id")
+    Slice<UserDTO> findMembersByProjectIdAfter(@Param("projectId") Long projectId, @Param("afterId") Long afterId,
+                                               Pageable pageable);
 }
@@ -0,0 +1,121 @@
+package com.example.project.Security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Principal typé de l'utilisateur authentifié, construit à partir des revendications du JWT.
+ * Il porte l'ID, le rôle et les projets de l'utilisateur au moment de l'émission du jeton :
+ * les décisions d'autorisation courantes se prennent sans interroger la base de données.
+ */
+public final class AuthenticatedUser implements Principal {
+
+    /**
+     * Rôle attribué aux administrateurs.
+     */
+    public static final String ROLE_ADMIN = "admin";
+
+    /**
+     * ID de l'utilisateur.
+     */
+    private final Long userId;
+
+    /**
+     * Rôle de l'utilisateur (`admin` ou `member`).
+     */
+    private final String role;
+
+    /**
+     * IDs des projets dont l'utilisateur est créateur ou membre.
+     */
+    private final Set<Long> projectIds;
+
+    /**
+     * Autorités Spring Security dérivées du rôle.
+     */
+    private final List<GrantedAuthority> authorities;
+
+    /**
+     * Constructeur avec tous les attributs du principal.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @param role Le rôle de l'utilisateur (null est traité comme `member`).
+     * @param projectIds Les IDs des projets de l'utilisateur.
+     */
+    public AuthenticatedUser(Long userId, String role, Set<Long> projectIds) {
+        this.userId = userId;
+        this.role = role != null ? role : "member";
+        this.projectIds = Set.copyOf(projectIds);
+        this.authorities = List.of(new SimpleGrantedAuthority(
+                ROLE_ADMIN.equals(this.role) ? "ROLE_ADMIN" : "ROLE_USER"));
+    }
+
+    /**
+     * Retourne l'ID de l'utilisateur.
+     *
+     * @return L'ID de l'utilisateur.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Retourne le rôle de l'utilisateur.
+     *
+     * @return Le rôle de l'utilisateur.
+     */
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Retourne les IDs des projets de l'utilisateur connus à l'émission du jeton.
+     *
+     * @return Les IDs des projets.
+     */
+    public Set<Long> getProjectIds() {
+        return projectIds;
+    }
+
+    /**
+     * Retourne les autorités dérivées du rôle.
+     *
+     * @return Les autorités de l'utilisateur.
+     */
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * Indique si l'utilisateur est administrateur.
+     *
+     * @return true si l'utilisateur est administrateur, false sinon.
+     */
+    public boolean isAdmin() {
+        return ROLE_ADMIN.equals(role);
+    }
+
+    /**
+     * Indique si le jeton déclare l'utilisateur créateur ou membre du projet.
+     *
+     * @param projectId L'ID du projet.
+     * @return true si le projet figure dans le jeton, false sinon.
+     */
+    public boolean isMemberOf(Long projectId) {
+        return projectIds.contains(projectId);
+    }
+
+    /**
+     * Retourne l'ID de l'utilisateur sous forme de chaîne, comme le sujet du jeton.
+     *
+     * @return L'ID de l'utilisateur.
+     */
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.project.Security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom sur des chaînes, utilisable sans verrou par plusieurs threads.
+ * Une réponse négative est certaine ; une réponse positive peut être un faux positif,
+ * avec une probabilité proche de celle demandée tant que le nombre d'entrées ne dépasse pas la capacité prévue.
+ * Les entrées ne peuvent pas être retirées : le filtre est reconstruit lorsque des entrées doivent disparaître.
+ */
+public final class BloomFilter {
+
+    /**
+     * Tableau de bits (64 bits par case), modifié par opérations atomiques.
+     */
+    private final AtomicLongArray bits;
+
+    /**
+     * Nombre de bits du filtre.
+     */
+    private final int bitCount;
+
+    /**
+     * Nombre de fonctions de hachage.
+     */
+    private final int hashCount;
+
+    /**
+     * Constructeur dimensionnant le filtre.
+     *
+     * @param expectedInsertions Le nombre d'entrées prévu.
+     * @param falsePositiveRate La probabilité de faux positif visée (entre 0 et 1, exclus).
+     */
+    public BloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Paramètres du filtre de Bloom invalides");
+        }
+        // m = -n ln(p) / ln(2)^2 et k = m / n ln(2)
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((bitCount + 63) / 64);
+    }
+
+    /**
+     * Ajouter une entrée au filtre.
+     *
+     * @param value L'entrée à ajouter.
+     */
+    public void put(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            int slot = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(slot);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(slot, current, current | mask));
+        }
+    }
+
+    /**
+     * Indiquer si l'entrée a peut-être été ajoutée au filtre.
+     *
+     * @param value L'entrée recherchée.
+     * @return false si l'entrée n'a certainement pas été ajoutée, true si elle l'a peut-être été.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retourne le nombre de fonctions de hachage utilisées.
+     *
+     * @return Le nombre de fonctions de hachage.
+     */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Ramener une valeur de hachage dans l'intervalle des bits du filtre.
+     *
+     * @param combined La valeur de hachage combinée.
+     * @return L'index du bit.
+     */
+    private int index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitCount;
+    }
+
+    /**
+     * Calculer une empreinte 64 bits (FNV-1a suivi d'un mélange final) d'une chaîne.
+     * Les deux moitiés servent au double hachage (h1 + i * h2) qui simule les k fonctions.
+     *
+     * @param value La chaîne à hacher.
+     * @return L'empreinte 64 bits.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
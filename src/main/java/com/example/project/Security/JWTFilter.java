@@ -1,19 +1,17 @@
 package com.example.project.Security;
+import com.example.project.Service.TokenRevocationService;
 import jakarta.servlet.ServletException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
-import java.util.Collections;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.Optional;
 
 /**
  * Filtre de sécurité qui intercepte chaque requête HTTP pour extraire et valider un token JWT.
@@ -28,13 +26,20 @@ public class JWTFilter extends OncePerRequestFilter {
      */
     private final JWTUtil jwtUtil;
 
+    /**
+     * Service de révocation des jetons.
+     */
+    private final TokenRevocationService tokenRevocationService;
+
     /**
      * Constructeur pour injecter l'utilitaire de gestion du JWT.
      *
      * @param jwtUtil L'utilitaire JWT utilisé pour extraire et valider les tokens.
+     * @param tokenRevocationService Le service de révocation des jetons.
      */
-    public JWTFilter(JWTUtil jwtUtil) {
+    public JWTFilter(JWTUtil jwtUtil, TokenRevocationService tokenRevocationService) {
         this.jwtUtil = jwtUtil;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     /**
@@ -55,11 +60,20 @@ public class JWTFilter extends OncePerRequestFilter {
         // Extraire le token du header Authorization
         String token = extractToken(request);
 
-        if (token != null && jwtUtil.validateToken(token)) {
-            // Si le token est valide, on crée l'authentification et on la place dans le SecurityContext
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
-                    jwtUtil.extractUserId(token), null, Collections.emptyList());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        if (token != null) {
+            // Le token n'est analysé et vérifié qu'une seule fois
+            Optional<VerifiedToken> verified = jwtUtil.verify(token);
+            // Un jeton révoqué est traité comme absent (le filtre de Bloom évite la base pour les autres)
+            if (verified.isPresent() && !tokenRevocationService.isRevoked(verified.get())) {
+                // Si le token est valide, on crée l'authentification et on la place dans le SecurityContext :
+                // le principal typé et les autorités proviennent des revendications du jeton
+                AuthenticatedUser principal = verified.get().getPrincipal();
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities());
+                // Le jeton vérifié reste accessible (déconnexion, révocation)
+                authentication.setDetails(verified.get());
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
 
         filterChain.doFilter(request, response);
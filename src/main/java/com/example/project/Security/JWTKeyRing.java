@@ -0,0 +1,160 @@
+package com.example.project.Security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Trousseau des clés HMAC utilisées pour signer et vérifier les JWT.
+ * Les clés sont chargées depuis la propriété `security.jwt.keyring` (alimentable par la variable
+ * d'environnement `SECURITY_JWT_KEYRING`) ou depuis le fichier désigné par `security.jwt.keyring-file`.
+ * Chaque entrée a la forme `kid:secretBase64` ; les entrées sont séparées par des virgules,
+ * des points-virgules ou des retours à la ligne, et les lignes commençant par `#` sont ignorées.
+ *
+ * Toutes les clés du trousseau sont acceptées pour la vérification, seule la clé active signe
+ * les nouveaux jetons. Pour une rotation sans coupure : ajouter la nouvelle clé sur tous les nœuds,
+ * puis la rendre active (`security.jwt.active-kid`), puis retirer l'ancienne une fois ses jetons expirés.
+ */
+@Component
+public class JWTKeyRing {
+
+    private static final Logger log = LoggerFactory.getLogger(JWTKeyRing.class);
+
+    /**
+     * Clés de vérification indexées par identifiant (`kid`), dans l'ordre de déclaration.
+     */
+    private final Map<String, Key> keys;
+
+    /**
+     * Identifiant de la clé utilisée pour signer les nouveaux jetons.
+     */
+    private final String activeKid;
+
+    /**
+     * Constructeur du trousseau.
+     * Si aucune clé n'est configurée, une clé éphémère est générée : les jetons ne sont alors valides
+     * que sur cette instance et jusqu'à son redémarrage (adapté au développement uniquement).
+     *
+     * @param inlineKeys Les clés déclarées directement dans la configuration.
+     * @param keyFile Le chemin d'un fichier contenant les clés.
+     * @param activeKid L'identifiant de la clé de signature (par défaut, la première clé déclarée).
+     */
+    public JWTKeyRing(@Value("${security.jwt.keyring:}") String inlineKeys,
+                      @Value("${security.jwt.keyring-file:}") String keyFile,
+                      @Value("${security.jwt.active-kid:}") String activeKid) {
+        Map<String, Key> loaded = new LinkedHashMap<>();
+        parse(inlineKeys, loaded);
+        if (keyFile != null && !keyFile.isBlank()) {
+            try {
+                parse(Files.readString(Path.of(keyFile)), loaded);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible de lire le trousseau JWT : " + keyFile, e);
+            }
+        }
+
+        if (loaded.isEmpty()) {
+            String kid = "ephemeral-" + UUID.randomUUID();
+            loaded.put(kid, Keys.secretKeyFor(SignatureAlgorithm.HS256));
+            log.warn("Aucun trousseau JWT configuré : utilisation d'une clé éphémère, "
+                    + "les jetons ne seront pas reconnus par les autres instances");
+        }
+
+        String active = (activeKid == null || activeKid.isBlank()) ? loaded.keySet().iterator().next() : activeKid;
+        if (!loaded.containsKey(active)) {
+            throw new IllegalStateException("La clé active '" + active + "' est absente du trousseau JWT");
+        }
+
+        this.keys = Collections.unmodifiableMap(loaded);
+        this.activeKid = active;
+    }
+
+    /**
+     * Créer un trousseau contenant une seule clé aléatoire.
+     *
+     * @return Un trousseau éphémère.
+     */
+    public static JWTKeyRing ephemeral() {
+        return new JWTKeyRing(null, null, null);
+    }
+
+    /**
+     * Générer une entrée de trousseau avec une clé aléatoire de 256 bits.
+     *
+     * @param kid L'identifiant de la clé.
+     * @return L'entrée au format `kid:secretBase64`.
+     */
+    public static String generateEntry(String kid) {
+        return kid + ":" + Base64.getEncoder().encodeToString(Keys.secretKeyFor(SignatureAlgorithm.HS256).getEncoded());
+    }
+
+    /**
+     * Retourne l'identifiant de la clé de signature.
+     *
+     * @return Le `kid` de la clé active.
+     */
+    public String getActiveKid() {
+        return activeKid;
+    }
+
+    /**
+     * Retourne la clé utilisée pour signer les nouveaux jetons.
+     *
+     * @return La clé active.
+     */
+    public Key getSigningKey() {
+        return keys.get(activeKid);
+    }
+
+    /**
+     * Retourne la clé de vérification associée à un identifiant.
+     *
+     * @param kid L'identifiant de la clé (en-tête `kid` du jeton).
+     * @return La clé correspondante, ou null si elle n'appartient pas au trousseau.
+     */
+    public Key resolve(String kid) {
+        return kid == null ? null : keys.get(kid);
+    }
+
+    /**
+     * Analyser une liste d'entrées `kid:secretBase64`.
+     *
+     * @param source Le texte à analyser.
+     * @param target La table dans laquelle ajouter les clés.
+     */
+    private static void parse(String source, Map<String, Key> target) {
+        if (source == null) {
+            return;
+        }
+        for (String entry : source.split("[,;\\r\\n]+")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("Entrée de trousseau JWT invalide (attendu kid:secretBase64)");
+            }
+            String kid = trimmed.substring(0, separator).trim();
+            // Keys.hmacShaKeyFor refuse les secrets de moins de 256 bits
+            Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(trimmed.substring(separator + 1).trim()));
+            if (target.putIfAbsent(kid, key) != null) {
+                throw new IllegalStateException("Identifiant de clé JWT dupliqué : " + kid);
+            }
+        }
+    }
+}
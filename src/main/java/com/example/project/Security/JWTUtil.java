@@ -1,22 +1,109 @@
 package com.example.project.Security;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 /**
  * Utilitaire pour la gestion des JSON Web Tokens (JWT).
  * Cette classe permet de générer, valider et extraire des informations d'un JWT.
  * Elle utilise la bibliothèque `io.jsonwebtoken` pour la création et la validation des tokens.
+ * Chaque jeton n'est analysé et vérifié qu'une seule fois : le résultat est conservé dans un cache borné
+ * jusqu'à son expiration.
+ * Les clés proviennent d'un {@link JWTKeyRing} partagé : un jeton émis par une instance est accepté
+ * par toutes les instances configurées avec le même trousseau, y compris après un redémarrage.
  */
 @Component
 public class JWTUtil {
 
-    //private final String SECRET_KEY = "your-very-secret-key-here"; // Utilisez une clé sécurisée et gardez-la privée !
-    private final int EXPIRATION_TIME = 1000 * 60 * 60 * 10; // 10 heures
+    private static final Logger log = LoggerFactory.getLogger(JWTUtil.class);
 
-    private final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    /**
+     * Revendication portant le rôle de l'utilisateur.
+     */
+    public static final String CLAIM_ROLE = "role";
+
+    /**
+     * Revendication portant les IDs des projets de l'utilisateur, encodés de façon compacte
+     * (IDs triés, écarts successifs en base 36 séparés par des points).
+     */
+    public static final String CLAIM_PROJECTS = "prj";
+
+    /**
+     * Revendication portant les microsecondes de la date d'émission, que `iat` tronque à la seconde :
+     * une révocation ne vise ainsi que les jetons émis avant elle, même dans la même seconde.
+     */
+    public static final String CLAIM_ISSUED_AT_MICROS = "ius";
+
+    /**
+     * Durée de validité des JWT d'accès (courte : le client la prolonge avec son jeton de rafraîchissement).
+     */
+    private final Duration accessTokenTtl;
+
+    /**
+     * Trousseau des clés de signature et de vérification.
+     */
+    private final JWTKeyRing keyRing;
+
+    /**
+     * Analyseur construit une seule fois et partagé entre les requêtes (il est thread-safe).
+     */
+    private final JwtParser parser;
+
+    /**
+     * Cache des jetons déjà vérifiés.
+     */
+    private final VerifiedTokenCache cache;
+
+    /**
+     * Constructeur de l'utilitaire JWT.
+     *
+     * @param keyRing Le trousseau de clés partagé entre les instances.
+     * @param accessTokenTtl La durée de validité des JWT d'accès.
+     * @param cacheSize Le nombre maximal de jetons vérifiés conservés en cache (0 pour désactiver le cache).
+     */
+    public JWTUtil(JWTKeyRing keyRing,
+                   @Value("${security.jwt.access-token-ttl:15m}") Duration accessTokenTtl,
+                   @Value("${security.jwt.cache-size:10000}") int cacheSize) {
+        this.keyRing = keyRing;
+        this.accessTokenTtl = accessTokenTtl;
+        this.cache = new VerifiedTokenCache(cacheSize);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    // SigningKeyResolver (jjwt 0.11) déclare l'en-tête sans paramètre de type : la signature
+                    // doit rester brute pour redéfinir la méthode, l'avertissement est limité à celle-ci
+                    @Override
+                    @SuppressWarnings("rawtypes")
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // Sélectionner la clé de vérification d'après l'en-tête `kid`
+                        Key key = keyRing.resolve(header.getKeyId());
+                        if (key == null) {
+                            throw new UnsupportedJwtException("Clé de signature inconnue : " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Retourne la durée de validité des JWT d'accès.
+     *
+     * @return La durée de validité.
+     */
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
 
     /**
      * Générer un JWT avec l'ID utilisateur comme sujet.
@@ -25,71 +112,145 @@ public class JWTUtil {
      * @return le token JWT généré
      */
     public String generateToken(Long userId) {
-        return Jwts.builder()
-                .setSubject(String.valueOf(userId))
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+        return generateToken(userId, null, Set.of());
     }
 
     /**
-     * Extraire l'ID utilisateur (sujet) du JWT.
+     * Générer un JWT portant, en plus de l'ID utilisateur, son rôle et ses projets.
+     * Le filtre JWT en déduit les autorités et les appartenances sans interroger la base de données.
      *
-     * @param token le token JWT
-     * @return l'ID utilisateur
+     * @param userId l'ID de l'utilisateur
+     * @param role le rôle de l'utilisateur (peut être null)
+     * @param projectIds les IDs des projets dont l'utilisateur est créateur ou membre
+     * @return le token JWT généré
      */
-    public String extractUserId(String token) {
-        return getClaims(token).getSubject();
+    public String generateToken(Long userId, String role, Collection<Long> projectIds) {
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(String.valueOf(userId));
+        if (role != null) {
+            builder.claim(CLAIM_ROLE, role);
+        }
+        if (!projectIds.isEmpty()) {
+            builder.claim(CLAIM_PROJECTS, encodeProjectIds(projectIds));
+        }
+        Instant issuedAt = Instant.now();
+        return builder
+                .setId(UUID.randomUUID().toString())
+                .setIssuedAt(Date.from(issuedAt))
+                .claim(CLAIM_ISSUED_AT_MICROS, issuedAt.getNano() / 1_000)
+                .setExpiration(Date.from(issuedAt.plus(accessTokenTtl)))
+                .setHeaderParam(JwsHeader.KEY_ID, keyRing.getActiveKid())
+                .signWith(keyRing.getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
     }
 
     /**
-     * Valider le JWT (signature, expiration, structure).
+     * Vérifier le JWT (signature, expiration, structure) et retourner son contenu typé.
+     * Le jeton n'est analysé qu'une fois ; les appels suivants avec le même jeton sont servis par le cache
+     * sans aucune opération cryptographique.
      *
      * @param token le token JWT
-     * @return true si le token est valide, false sinon
+     * @return le jeton vérifié, ou vide si le token est invalide ou expiré
      */
-    public boolean validateToken(String token) {
+    public Optional<VerifiedToken> verify(String token) {
+        Instant now = Instant.now();
+        VerifiedToken cached = cache.get(token, now);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
         try {
-            // Si l'analyse du jeton échoue, une exception sera levée
-            getClaims(token); // Vérifie la signature du jeton
-            return !isTokenExpired(token); // Vérifie si le jeton est expiré
+            // Si l'analyse du jeton échoue, une exception sera levée (signature, structure ou expiration)
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null) {
+                throw new UnsupportedJwtException("Jeton sans date d'expiration");
+            }
+            Long userId = Long.valueOf(claims.getSubject());
+            AuthenticatedUser principal = new AuthenticatedUser(userId, claims.get(CLAIM_ROLE, String.class),
+                    decodeProjectIds(claims.get(CLAIM_PROJECTS, String.class)));
+            VerifiedToken verified = new VerifiedToken(userId, claims.getExpiration().toInstant(), claims, principal);
+            cache.put(token, verified, now);
+            return Optional.of(verified);
         } catch (ExpiredJwtException e) {
-            System.out.println("Le token est expiré");
+            // Jetons refusés en DEBUG : ils sont fournis par les clients et peuvent arriver à chaque requête
+            log.debug("Le token est expiré");
         } catch (UnsupportedJwtException e) {
-            System.out.println("Jeton non pris en charge");
+            log.debug("Jeton non pris en charge : {}", e.getMessage());
         } catch (MalformedJwtException e) {
-            System.out.println("Jeton mal formé");
+            log.debug("Jeton mal formé");
         } catch (JwtException e) {
             // Capturer toutes les autres exceptions liées à JWT (y compris les erreurs de signature)
-            System.out.println("Erreur lors de la validation du jeton : " + e.getMessage());
+            log.debug("Erreur lors de la validation du jeton : {}", e.getMessage());
         } catch (Exception e) {
-            System.out.println("Erreur générale lors de la validation du jeton");
+            log.warn("Erreur générale lors de la validation du jeton", e);
         }
-        return false; // Le token est invalide ou a échoué aux vérifications
+        return Optional.empty(); // Le token est invalide ou a échoué aux vérifications
     }
 
     /**
-     * Extraire les revendications (claims) du JWT.
+     * Extraire l'ID utilisateur (sujet) du JWT.
      *
      * @param token le token JWT
-     * @return les revendications extraites
-     */
-    private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key) // Utiliser la même clé secrète pour valider le jeton
-                .build()
-                .parseClaimsJws(token) // Analyser le jeton
-                .getBody(); // Extraire les revendications
+     * @return l'ID utilisateur
+     * @throws JwtException si le token est invalide
+     */
+    public String extractUserId(String token) {
+        return verify(token)
+                .map(verified -> String.valueOf(verified.getUserId()))
+                .orElseThrow(() -> new JwtException("Jeton invalide"));
     }
 
     /**
-     * Vérifier si le token est expiré.
+     * Valider le JWT (signature, expiration, structure).
      *
      * @param token le token JWT
-     * @return true si le token est expiré, false sinon
+     * @return true si le token est valide, false sinon
+     */
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    /**
+     * Encoder une liste d'IDs de projets : IDs triés, écarts successifs en base 36 séparés par des points.
+     * Des IDs proches donnent des écarts d'un ou deux caractères.
+     *
+     * @param projectIds les IDs des projets
+     * @return la représentation compacte
+     */
+    static String encodeProjectIds(Collection<Long> projectIds) {
+        StringBuilder encoded = new StringBuilder();
+        long previous = 0;
+        for (long id : projectIds.stream().sorted().distinct().toList()) {
+            if (encoded.length() > 0) {
+                encoded.append('.');
+            }
+            encoded.append(Long.toString(id - previous, 36));
+            previous = id;
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Décoder la représentation compacte produite par {@link #encodeProjectIds(Collection)}.
+     *
+     * @param encoded la représentation compacte (peut être null)
+     * @return les IDs des projets
+     * @throws MalformedJwtException si la revendication est mal formée
      */
-    private boolean isTokenExpired(String token) {
-        return getClaims(token).getExpiration().before(new Date()); // Comparer la date d'expiration avec la date actuelle
+    static Set<Long> decodeProjectIds(String encoded) {
+        Set<Long> projectIds = new HashSet<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return projectIds;
+        }
+        long current = 0;
+        try {
+            for (String delta : encoded.split("\\.")) {
+                current += Long.parseLong(delta, 36);
+                projectIds.add(current);
+            }
+        } catch (NumberFormatException e) {
+            throw new MalformedJwtException("Revendication de projets mal formée");
+        }
+        return projectIds;
     }
 }
@@ -0,0 +1,249 @@
+package com.example.project.Security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Limitation du débit des tentatives de connexion, avant toute vérification de mot de passe.
+ * Deux seaux à jetons sont consultés : l'un par adresse IP du client (bourrage d'identifiants depuis une source),
+ * l'autre par email visé (attaque d'un compte depuis plusieurs sources), que le compte existe ou non.
+ * Une tentative refusée ne coûte ni requête SQL ni calcul BCrypt.
+ *
+ * Derrière un répartiteur de charge, l'adresse de la socket est celle du répartiteur : l'adresse du client
+ * est alors lue dans les en-têtes `Forwarded` ou `X-Forwarded-For`, uniquement si la requête provient d'un
+ * mandataire déclaré dans `security.login-rate-limit.trusted-proxies`. Sans cette liste, les en-têtes
+ * sont ignorés (un client ne peut pas choisir son propre seau).
+ */
+@Component
+public class LoginRateLimiter {
+
+    /**
+     * Adresse IPv4 ou IPv6 littérale.
+     */
+    private static final Pattern IP_LITERAL = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}|[0-9a-fA-F:.]*:[0-9a-fA-F:.]*");
+
+    /**
+     * Seaux indexés par adresse IP.
+     */
+    private final TokenBucketLimiter byIp;
+
+    /**
+     * Seaux indexés par email.
+     */
+    private final TokenBucketLimiter byEmail;
+
+    /**
+     * Tentatives refusées par le seau de l'adresse IP.
+     */
+    private final Counter rejectedByIp;
+
+    /**
+     * Tentatives refusées par le seau de l'email.
+     */
+    private final Counter rejectedByEmail;
+
+    /**
+     * Mandataires de confiance (adresses ou plages CIDR) dont les en-têtes de transfert sont pris en compte.
+     */
+    private final List<IpAddressMatcher> trustedProxies;
+
+    /**
+     * Constructeur du limiteur, sans mandataire de confiance.
+     *
+     * @param ipCapacity Le nombre de tentatives autorisées en rafale pour une adresse IP.
+     * @param emailCapacity Le nombre de tentatives autorisées en rafale pour un email.
+     * @param refillPeriod La durée de remplissage complet d'un seau.
+     * @param maxKeys Le nombre de clés suivies au-delà duquel les seaux pleins sont purgés immédiatement.
+     * @param meterRegistry Le registre de métriques.
+     */
+    public LoginRateLimiter(int ipCapacity, int emailCapacity, Duration refillPeriod, int maxKeys,
+                            MeterRegistry meterRegistry) {
+        this(ipCapacity, emailCapacity, refillPeriod, maxKeys, List.of(), meterRegistry);
+    }
+
+    /**
+     * Constructeur du limiteur.
+     *
+     * @param ipCapacity Le nombre de tentatives autorisées en rafale pour une adresse IP.
+     * @param emailCapacity Le nombre de tentatives autorisées en rafale pour un email.
+     * @param refillPeriod La durée de remplissage complet d'un seau.
+     * @param maxKeys Le nombre de clés suivies au-delà duquel les seaux pleins sont purgés immédiatement.
+     * @param trustedProxies Les adresses ou plages CIDR des mandataires de confiance.
+     * @param meterRegistry Le registre de métriques.
+     */
+    @Autowired
+    public LoginRateLimiter(@Value("${security.login-rate-limit.ip-capacity:20}") int ipCapacity,
+                            @Value("${security.login-rate-limit.email-capacity:5}") int emailCapacity,
+                            @Value("${security.login-rate-limit.refill-period:1m}") Duration refillPeriod,
+                            @Value("${security.login-rate-limit.max-keys:100000}") int maxKeys,
+                            @Value("${security.login-rate-limit.trusted-proxies:}") List<String> trustedProxies,
+                            MeterRegistry meterRegistry) {
+        this.byIp = new TokenBucketLimiter(ipCapacity, refillPeriod.toNanos(), maxKeys);
+        this.byEmail = new TokenBucketLimiter(emailCapacity, refillPeriod.toNanos(), maxKeys);
+        List<IpAddressMatcher> matchers = new ArrayList<>();
+        for (String proxy : trustedProxies) {
+            if (!proxy.isBlank()) {
+                matchers.add(new IpAddressMatcher(proxy.trim()));
+            }
+        }
+        this.trustedProxies = Collections.unmodifiableList(matchers);
+
+        this.rejectedByIp = Counter.builder("login.rate-limit.rejected")
+                .tag("key", "ip")
+                .description("Tentatives de connexion refusées par le limiteur")
+                .register(meterRegistry);
+        this.rejectedByEmail = Counter.builder("login.rate-limit.rejected")
+                .tag("key", "email")
+                .description("Tentatives de connexion refusées par le limiteur")
+                .register(meterRegistry);
+        Gauge.builder("login.rate-limit.tracked", this, limiter -> limiter.byIp.size() + limiter.byEmail.size())
+                .description("Nombre de seaux suivis par le limiteur de connexion")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Consommer une tentative de connexion pour ce client et cet email.
+     * Le seau de l'email n'est pas entamé si l'adresse IP est déjà limitée.
+     *
+     * @param clientIp L'adresse IP du client.
+     * @param email L'email visé par la tentative.
+     * @return {@link Duration#ZERO} si la tentative est autorisée, sinon le délai avant la prochaine tentative possible.
+     */
+    public Duration tryAcquire(String clientIp, String email) {
+        long now = System.nanoTime();
+
+        long wait = byIp.tryAcquire(clientIp, now);
+        if (wait > 0) {
+            rejectedByIp.increment();
+            return Duration.ofNanos(wait);
+        }
+
+        if (email != null) {
+            wait = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+            if (wait > 0) {
+                rejectedByEmail.increment();
+                return Duration.ofNanos(wait);
+            }
+        }
+        return Duration.ZERO;
+    }
+
+    /**
+     * Déterminer l'adresse IP du client à l'origine de la requête.
+     * Si la requête provient d'un mandataire de confiance, la chaîne `Forwarded` (ou à défaut
+     * `X-Forwarded-For`) est parcourue depuis la fin : la première adresse qui n'est pas un mandataire
+     * de confiance est celle du client. Sinon, l'adresse de la socket est retenue.
+     *
+     * @param request La requête HTTP.
+     * @return L'adresse IP du client.
+     */
+    public String resolveClientIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
+
+        List<String> chain = forwardedFor(request);
+        for (int i = chain.size() - 1; i >= 0; i--) {
+            String hop = chain.get(i);
+            if (!isTrustedProxy(hop)) {
+                return hop;
+            }
+        }
+        // Toute la chaîne est de confiance : le client le plus éloigné est retenu
+        return chain.isEmpty() ? remoteAddr : chain.get(0);
+    }
+
+    /**
+     * Lire la liste des adresses transmises par les mandataires, de la plus éloignée à la plus proche.
+     *
+     * @param request La requête HTTP.
+     * @return Les adresses de la chaîne, vide si aucun en-tête n'est présent.
+     */
+    private static List<String> forwardedFor(HttpServletRequest request) {
+        List<String> chain = new ArrayList<>();
+        String forwarded = request.getHeader("Forwarded");
+        if (forwarded != null && !forwarded.isBlank()) {
+            // Forwarded: for=192.0.2.60;proto=http, for="[2001:db8::1]:4711"
+            for (String element : forwarded.split(",")) {
+                for (String pair : element.split(";")) {
+                    String trimmed = pair.trim();
+                    if (trimmed.regionMatches(true, 0, "for=", 0, 4)) {
+                        chain.add(stripPort(trimmed.substring(4).replace("\"", "").trim()));
+                    }
+                }
+            }
+            return chain;
+        }
+
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null) {
+            for (String hop : xForwardedFor.split(",")) {
+                if (!hop.isBlank()) {
+                    chain.add(stripPort(hop.trim()));
+                }
+            }
+        }
+        return chain;
+    }
+
+    /**
+     * Retirer le port et les crochets d'une adresse transmise (`192.0.2.60:4711`, `[2001:db8::1]:4711`).
+     *
+     * @param address L'adresse transmise.
+     * @return L'adresse IP seule.
+     */
+    private static String stripPort(String address) {
+        if (address.startsWith("[")) {
+            int end = address.indexOf(']');
+            return end > 0 ? address.substring(1, end) : address;
+        }
+        int colon = address.indexOf(':');
+        // Une seule occurrence de ':' : adresse IPv4 suivie d'un port
+        return colon > 0 && colon == address.lastIndexOf(':') ? address.substring(0, colon) : address;
+    }
+
+    /**
+     * Indiquer si une adresse appartient à un mandataire de confiance.
+     *
+     * @param address L'adresse à vérifier.
+     * @return true si l'adresse est couverte par la liste des mandataires de confiance.
+     */
+    private boolean isTrustedProxy(String address) {
+        // Valeur transmise qui n'est pas une adresse IP littérale (ex. "unknown", identifiant obfusqué) :
+        // jamais de confiance, et aucune résolution DNS n'est tentée
+        if (address == null || !IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher proxy : trustedProxies) {
+            if (proxy.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Oublier périodiquement les seaux pleins, pour borner la mémoire utilisée.
+     */
+    @Scheduled(fixedDelayString = "${security.login-rate-limit.cleanup-interval:1m}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        byIp.evictFull(now);
+        byEmail.evictFull(now);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.project.Security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Calibration du facteur de coût BCrypt sur la machine courante.
+ * Le coût double à chaque incrément : on mesure le temps de hachage pour des coûts croissants
+ * et on retient le plus élevé dont la durée reste sous la latence cible.
+ */
+public final class PasswordEncoderCalibrator {
+
+    /**
+     * Mot de passe arbitraire utilisé pour les mesures.
+     */
+    private static final String SAMPLE_PASSWORD = "calibration-sample-password";
+
+    private PasswordEncoderCalibrator() {
+    }
+
+    /**
+     * Déterminer le facteur de coût BCrypt adapté à la latence cible.
+     *
+     * @param target La durée de hachage visée pour un mot de passe.
+     * @param minStrength Le coût minimal accepté, retenu même si la machine est plus lente que la cible.
+     * @param maxStrength Le coût maximal accepté.
+     * @return Le facteur de coût retenu, compris entre minStrength et maxStrength.
+     */
+    public static int calibrate(Duration target, int minStrength, int maxStrength) {
+        // Préchauffage pour ne pas mesurer le chargement des classes et la compilation JIT
+        new BCryptPasswordEncoder(4).encode(SAMPLE_PASSWORD);
+
+        int chosen = minStrength;
+        for (int strength = minStrength; strength <= maxStrength; strength++) {
+            Duration elapsed = measure(strength);
+            if (elapsed.compareTo(target) > 0) {
+                break;
+            }
+            chosen = strength;
+            // Le coût suivant prendra environ deux fois plus de temps : inutile de le mesurer s'il dépasse la cible
+            if (elapsed.multipliedBy(2).compareTo(target) > 0) {
+                break;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Mesurer la durée d'un hachage pour un coût donné (meilleur de deux essais).
+     *
+     * @param strength Le facteur de coût BCrypt.
+     * @return La durée mesurée.
+     */
+    private static Duration measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Duration.ofNanos(best);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.project.Security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Exécuteur dédié aux opérations de hachage de mots de passe (BCrypt).
+ * Le hachage est volontairement coûteux en CPU : il est isolé dans un pool de taille fixe,
+ * avec une file d'attente bornée, afin qu'une rafale de connexions n'occupe pas les threads
+ * du serveur HTTP qui servent le reste de l'API.
+ * Lorsque la file est pleine, la tâche est refusée immédiatement ({@link PasswordHashingRejectedException}).
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    /**
+     * Pool de threads dédié au hachage.
+     */
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Durée d'exécution des tâches de hachage.
+     */
+    private final Timer hashTimer;
+
+    /**
+     * Temps passé dans la file d'attente avant exécution.
+     */
+    private final Timer queueWaitTimer;
+
+    /**
+     * Nombre de tâches refusées faute de capacité.
+     */
+    private final Counter rejectedCounter;
+
+    /**
+     * Constructeur de l'exécuteur.
+     *
+     * @param threads Le nombre de threads de hachage (0 pour le nombre de processeurs).
+     * @param queueCapacity La capacité de la file d'attente.
+     * @param meterRegistry Le registre de métriques.
+     */
+    public PasswordHashingExecutor(@Value("${security.password-hashing.threads:0}") int threads,
+                                   @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+        this.hashTimer = Timer.builder("password.hashing.duration")
+                .description("Durée d'exécution des tâches de hachage de mot de passe")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("password.hashing.queue.wait")
+                .description("Temps d'attente des tâches de hachage dans la file")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("password.hashing.rejected")
+                .description("Tâches de hachage refusées car la file est pleine")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.queue.size", executor, e -> e.getQueue().size())
+                .description("Nombre de tâches de hachage en attente")
+                .register(meterRegistry);
+        Gauge.builder("password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Nombre de tâches de hachage en cours d'exécution")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Soumettre une tâche de hachage.
+     *
+     * @param task La tâche à exécuter.
+     * @param <T> Le type du résultat.
+     * @return Un futur complété avec le résultat de la tâche, ou en erreur si la tâche échoue.
+     * @throws PasswordHashingRejectedException Si la file d'attente est pleine.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Capacité de hachage des mots de passe saturée");
+        }
+        return result;
+    }
+
+    /**
+     * Arrêter le pool à l'arrêt de l'application.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Fabrique de threads nommés pour le pool de hachage.
+     */
+    private static final class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Exception levée lorsque la file d'attente de hachage est pleine.
+     */
+    public static class PasswordHashingRejectedException extends RuntimeException {
+        public PasswordHashingRejectedException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.project.Security;
+
+import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.TaskRepository;
+import com.example.project.Service.TokenRevocationService;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Décisions d'accès aux projets, utilisées dans les expressions `@PreAuthorize`
+ * (par exemple `@projectAccess.isMember(authentication, #projectId)`).
+ * Les appartenances sont lues dans le JWT : le cas courant ne fait aucun aller-retour en base.
+ * Un projet absent du jeton n'est vérifié en base que pour couvrir les appartenances
+ * acquises depuis l'émission du jeton (projet créé ou rejoint entre deux rafraîchissements).
+ * À l'inverse, un membre retiré depuis l'émission du jeton voit l'appartenance qu'il porte révoquée
+ * ({@link TokenRevocationService#revokeMembership(Long, Long)}) : elle est alors revérifiée en base.
+ * Les routes désignant des tâches par leur ID sont autorisées d'après les projets de ces tâches.
+ */
+@Component("projectAccess")
+public class ProjectAccess {
+
+    /**
+     * Repository des projets, consulté uniquement lorsque le jeton ne suffit pas.
+     */
+    private final ProjectRepository projectRepository;
+
+    /**
+     * Repository des tâches, pour retrouver le projet d'une tâche.
+     */
+    private final TaskRepository taskRepository;
+
+    /**
+     * Service de révocation, pour écarter les appartenances du jeton révoquées par un retrait.
+     */
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Constructeur de la classe ProjectAccess.
+     *
+     * @param projectRepository Le repository des projets.
+     * @param taskRepository Le repository des tâches.
+     * @param tokenRevocationService Le service de révocation des jetons.
+     */
+    public ProjectAccess(ProjectRepository projectRepository, TaskRepository taskRepository,
+                         TokenRevocationService tokenRevocationService) {
+        this.projectRepository = projectRepository;
+        this.taskRepository = taskRepository;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    /**
+     * Indiquer si l'utilisateur authentifié peut accéder au projet : administrateur, créateur ou membre.
+     *
+     * @param authentication L'authentification courante.
+     * @param projectId L'ID du projet.
+     * @return true si l'accès est autorisé, false sinon.
+     */
+    public boolean isMember(Authentication authentication, Long projectId) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            return false;
+        }
+        if (user.isAdmin() || user.isMemberOf(projectId) && !isMembershipRevoked(authentication, projectId)) {
+            return true;
+        }
+        return projectRepository.isCreatorOrMember(projectId, user.getUserId());
+    }
+
+    /**
+     * Indiquer si l'utilisateur authentifié peut gérer les membres du projet : administrateur ou créateur.
+     *
+     * @param authentication L'authentification courante.
+     * @param projectId L'ID du projet.
+     * @return true si l'accès est autorisé, false sinon.
+     */
+    public boolean isCreatorOrAdmin(Authentication authentication, Long projectId) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            return false;
+        }
+        return user.isAdmin() || projectRepository.existsByIdAndCreatorId(projectId, user.getUserId());
+    }
+
+    /**
+     * Indiquer si l'utilisateur authentifié peut modifier une tâche : administrateur, créateur ou membre de son projet.
+     * Une tâche inexistante est autorisée, pour que la route réponde 404 plutôt que 403.
+     *
+     * @param authentication L'authentification courante.
+     * @param taskId L'ID de la tâche.
+     * @return true si l'accès est autorisé, false sinon.
+     */
+    public boolean canAccessTask(Authentication authentication, Long taskId) {
+        return canAccessTasks(authentication, taskId != null ? List.of(taskId) : List.of());
+    }
+
+    /**
+     * Indiquer si l'utilisateur authentifié peut modifier toutes les tâches d'un lot :
+     * administrateur, ou créateur ou membre du projet de chacune d'elles.
+     * Les tâches inexistantes sont ignorées, pour être signalées `NOT_FOUND` dans le résultat du lot.
+     *
+     * @param authentication L'authentification courante.
+     * @param taskIds Les IDs des tâches.
+     * @return true si l'accès est autorisé, false sinon.
+     */
+    public boolean canAccessTasks(Authentication authentication, Collection<Long> taskIds) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            return false;
+        }
+        if (user.isAdmin() || taskIds == null || taskIds.isEmpty()) {
+            return true;
+        }
+        return taskRepository.findProjectIdsByIdIn(taskIds).stream()
+                .allMatch(projectId -> isMember(authentication, projectId));
+    }
+
+    /**
+     * Indiquer si l'appartenance au projet portée par le jeton de la requête a été révoquée depuis son émission.
+     *
+     * @param authentication L'authentification courante, dont les détails sont le jeton vérifié.
+     * @param projectId L'ID du projet.
+     * @return true si l'appartenance doit être revérifiée en base, false sinon.
+     */
+    private boolean isMembershipRevoked(Authentication authentication, Long projectId) {
+        return authentication.getDetails() instanceof VerifiedToken token
+                && tokenRevocationService.isMembershipRevoked(token, projectId);
+    }
+}
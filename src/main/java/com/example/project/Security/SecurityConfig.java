@@ -1,22 +1,35 @@
 package com.example.project.Security;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+import java.util.Map;
+
 /**
  * Configuration de la sécurité de l'application.
  * Cette classe configure les règles de sécurité pour l'application,
  * y compris la gestion des requêtes HTTP, les filtres de sécurité et
  * la gestion des sessions.
  * Elle permet aussi de configurer les accès aux différentes routes de l'application.
+ * Les annotations `@PreAuthorize` des contrôleurs sont évaluées à partir des autorités et des projets
+ * portés par le JWT (voir {@link AuthenticatedUser} et {@link ProjectAccess}).
  */
 @Configuration
+@EnableMethodSecurity
 public class SecurityConfig {
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
     private final JWTFilter jwtFilter;
 
     /**
@@ -43,7 +56,7 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf
                         .disable()) // Désactiver CSRF pour toute l'application
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/login", "/users/register").permitAll() // Routes publiques sans authentification
+                        .requestMatchers("/auth/login", "/auth/refresh", "/users/register").permitAll() // Routes publiques sans authentification
                         .requestMatchers("/h2-console/**").permitAll() // Autoriser l'accès à la console H2
                         .anyRequest().authenticated() // Requiert une authentification pour toutes les autres routes
                 )
@@ -63,13 +76,32 @@ public class SecurityConfig {
     /**
      * Définir un encodeur de mot de passe.
      * Cette méthode définit un encodeur de mot de passe, utilisé pour sécuriser les mots de passe dans l'application.
-     * Ici, on utilise BCrypt pour l'encodeur.
+     * Ici, on utilise BCrypt, dont le facteur de coût est calibré au démarrage pour respecter la latence cible
+     * sur la machine courante (sauf si `security.password.strength` impose un coût fixe).
+     * L'encodeur délégant préfixe les nouveaux hachages par `{bcrypt}` et reconnaît encore les hachages
+     * historiques sans préfixe, qui sont mis à niveau lors de la connexion suivante.
      *
+     * @param targetMillis La durée de hachage visée, en millisecondes.
+     * @param fixedStrength Un facteur de coût imposé (0 pour calibrer).
+     * @param minStrength Le facteur de coût minimal.
+     * @param maxStrength Le facteur de coût maximal.
      * @return L'encodeur de mot de passe.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
+    public PasswordEncoder passwordEncoder(@Value("${security.password.target-hash-ms:100}") long targetMillis,
+                                           @Value("${security.password.strength:0}") int fixedStrength,
+                                           @Value("${security.password.min-strength:10}") int minStrength,
+                                           @Value("${security.password.max-strength:16}") int maxStrength) {
+        int strength = fixedStrength > 0
+                ? fixedStrength
+                : PasswordEncoderCalibrator.calibrate(Duration.ofMillis(targetMillis), minStrength, maxStrength);
+        log.info("Facteur de coût BCrypt retenu : {}", strength);
+
         // Ici, on utilise BCrypt pour sécuriser les mots de passe
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // Les hachages enregistrés avant l'ajout du préfixe {bcrypt} restent vérifiables
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 }
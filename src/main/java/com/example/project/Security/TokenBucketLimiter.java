@@ -0,0 +1,98 @@
+package com.example.project.Security;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ensemble de seaux à jetons indexés par clé, sans verrou.
+ * Chaque seau est réduit à un seul horodatage (algorithme GCRA) : la date théorique à laquelle le seau
+ * sera de nouveau plein. Une tentative consomme un jeton par une seule opération compare-and-set,
+ * et un seau plein peut être oublié sans perte d'information.
+ */
+class TokenBucketLimiter {
+
+    /**
+     * Intervalle de régénération d'un jeton, en nanosecondes.
+     */
+    private final long emissionInterval;
+
+    /**
+     * Durée correspondant à la capacité du seau, en nanosecondes.
+     */
+    private final long burstTolerance;
+
+    /**
+     * Nombre de clés au-delà duquel les seaux pleins sont purgés lors d'un ajout.
+     */
+    private final int maxKeys;
+
+    /**
+     * Date théorique à laquelle chaque seau sera plein (en nanosecondes, horloge monotone).
+     */
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur du limiteur.
+     *
+     * @param capacity Le nombre de tentatives autorisées en rafale.
+     * @param refillNanos La durée de remplissage complet d'un seau vide, en nanosecondes.
+     * @param maxKeys Le nombre de clés au-delà duquel les seaux pleins sont purgés.
+     */
+    TokenBucketLimiter(int capacity, long refillNanos, int maxKeys) {
+        if (capacity <= 0 || refillNanos <= 0) {
+            throw new IllegalArgumentException("Capacité et durée de remplissage doivent être positives");
+        }
+        this.emissionInterval = refillNanos / capacity;
+        this.burstTolerance = emissionInterval * capacity;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Consommer un jeton du seau associé à la clé.
+     *
+     * @param key La clé du seau.
+     * @param now L'instant courant (horloge monotone, en nanosecondes).
+     * @return 0 si la tentative est autorisée, sinon le délai d'attente en nanosecondes avant le prochain jeton.
+     */
+    long tryAcquire(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxKeys) {
+                evictFull(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long base = Math.max(fullAt, now);
+            long next = base + emissionInterval;
+            long wait = next - burstTolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Oublier les seaux pleins : ils sont équivalents à un seau absent.
+     *
+     * @param now L'instant courant (horloge monotone, en nanosecondes).
+     */
+    void evictFull(long now) {
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    /**
+     * Retourne le nombre de seaux suivis.
+     *
+     * @return Le nombre de clés suivies.
+     */
+    int size() {
+        return buckets.size();
+    }
+}
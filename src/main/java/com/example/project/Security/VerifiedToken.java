@@ -0,0 +1,131 @@
+package com.example.project.Security;
+
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+/**
+ * Résultat typé de la vérification d'un JWT.
+ * Une instance n'est créée qu'après vérification de la signature HMAC et de l'expiration,
+ * ce qui permet de la réutiliser sans analyser de nouveau le jeton.
+ */
+public final class VerifiedToken {
+
+    /**
+     * ID de l'utilisateur porté par le sujet du jeton.
+     */
+    private final Long userId;
+
+    /**
+     * Date d'expiration du jeton (revendication `exp`).
+     */
+    private final Instant expiresAt;
+
+    /**
+     * Revendications complètes du jeton.
+     */
+    private final Claims claims;
+
+    /**
+     * Principal construit une seule fois à partir des revendications (rôle, projets).
+     */
+    private final AuthenticatedUser principal;
+
+    /**
+     * Constructeur pour un jeton sans revendication d'autorisation.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @param expiresAt La date d'expiration du jeton.
+     * @param claims Les revendications du jeton.
+     */
+    public VerifiedToken(Long userId, Instant expiresAt, Claims claims) {
+        this(userId, expiresAt, claims, new AuthenticatedUser(userId, null, Set.of()));
+    }
+
+    /**
+     * Constructeur avec tous les attributs du jeton vérifié.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @param expiresAt La date d'expiration du jeton.
+     * @param claims Les revendications du jeton.
+     * @param principal Le principal décrit par le jeton.
+     */
+    public VerifiedToken(Long userId, Instant expiresAt, Claims claims, AuthenticatedUser principal) {
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.claims = claims;
+        this.principal = principal;
+    }
+
+    /**
+     * Retourne l'ID de l'utilisateur porté par le jeton.
+     *
+     * @return L'ID de l'utilisateur.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Retourne la date d'expiration du jeton.
+     *
+     * @return La date d'expiration.
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Retourne les revendications du jeton.
+     *
+     * @return Les revendications.
+     */
+    public Claims getClaims() {
+        return claims;
+    }
+
+    /**
+     * Retourne l'identifiant unique du jeton (revendication `jti`).
+     *
+     * @return L'identifiant du jeton, ou null pour un jeton émis sans identifiant.
+     */
+    public String getTokenId() {
+        return claims != null ? claims.getId() : null;
+    }
+
+    /**
+     * Retourne la date d'émission du jeton (revendication `iat`), précisée à la microseconde
+     * par la revendication {@link JWTUtil#CLAIM_ISSUED_AT_MICROS} si le jeton la porte.
+     *
+     * @return La date d'émission, ou l'origine des temps si le jeton n'en porte pas.
+     */
+    public Instant getIssuedAt() {
+        if (claims == null || claims.getIssuedAt() == null) {
+            return Instant.EPOCH;
+        }
+        Instant issuedAt = claims.getIssuedAt().toInstant();
+        Integer micros = claims.get(JWTUtil.CLAIM_ISSUED_AT_MICROS, Integer.class);
+        return micros != null ? issuedAt.plus(micros, ChronoUnit.MICROS) : issuedAt;
+    }
+
+    /**
+     * Retourne le principal décrit par le jeton.
+     *
+     * @return Le principal de l'utilisateur authentifié.
+     */
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+
+    /**
+     * Indique si le jeton est expiré à l'instant donné.
+     *
+     * @param now L'instant de référence.
+     * @return true si le jeton est expiré, false sinon.
+     */
+    public boolean isExpiredAt(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.project.Security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache borné des jetons déjà vérifiés.
+ * Les entrées sont indexées par l'empreinte SHA-256 du jeton (le jeton lui-même n'est jamais conservé)
+ * et expirent à la date `exp` du jeton. Un client qui renvoie le même jeton évite ainsi
+ * l'analyse et la vérification HMAC à chaque requête.
+ * Une entrée n'est jamais retirée à la déconnexion : la révocation est vérifiée à chaque requête,
+ * après le cache, par {@link com.example.project.Service.TokenRevocationService}.
+ */
+class VerifiedTokenCache {
+
+    /**
+     * Nombre maximal d'entrées conservées.
+     */
+    private final int maxEntries;
+
+    /**
+     * Jetons vérifiés, indexés par empreinte.
+     */
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur du cache.
+     *
+     * @param maxEntries Le nombre maximal d'entrées (0 désactive le cache).
+     */
+    VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Retourne le jeton vérifié associé à ce jeton brut, s'il est présent et non expiré.
+     *
+     * @param token Le jeton brut.
+     * @param now L'instant de référence pour l'expiration.
+     * @return Le jeton vérifié, ou null si absent ou expiré.
+     */
+    VerifiedToken get(String token, Instant now) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        String key = digest(token);
+        VerifiedToken verified = entries.get(key);
+        if (verified != null && verified.isExpiredAt(now)) {
+            entries.remove(key, verified);
+            return null;
+        }
+        return verified;
+    }
+
+    /**
+     * Ajoute un jeton vérifié au cache.
+     * Lorsque le cache est plein, les entrées expirées sont purgées ; s'il reste plein,
+     * une partie des entrées est évincée pour laisser la place aux jetons récents.
+     *
+     * @param token Le jeton brut.
+     * @param verified Le résultat de la vérification.
+     * @param now L'instant de référence pour l'expiration.
+     */
+    void put(String token, VerifiedToken verified, Instant now) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(digest(token), verified);
+    }
+
+    /**
+     * Retourne le nombre d'entrées actuellement en cache.
+     *
+     * @return Le nombre d'entrées.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Purge les entrées expirées puis, si nécessaire, évince un dixième du cache.
+     *
+     * @param now L'instant de référence pour l'expiration.
+     */
+    private void evict(Instant now) {
+        entries.values().removeIf(verified -> verified.isExpiredAt(now));
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (excess-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * Calcule l'empreinte SHA-256 d'un jeton.
+     *
+     * @param token Le jeton brut.
+     * @return L'empreinte encodée en Base64.
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.project.Service;
 
+import com.example.project.Security.AuthenticatedUser;
 import com.example.project.Security.JWTUtil;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.security.core.context.SecurityContextHolder;
 
@@ -23,21 +25,27 @@ public class AuthenticationService {
     }
 
     /**
-     * Extraire l'ID de l'utilisateur authentifié à partir du token JWT dans le SecurityContext.
+     * Retourner le principal typé de l'utilisateur authentifié, placé dans le SecurityContext par le filtre JWT.
      *
-     * Cette méthode accède au contexte de sécurité pour récupérer le nom de l'utilisateur actuellement authentifié.
-     * Elle suppose que le nom de l'utilisateur est l'ID de l'utilisateur sous forme de chaîne de caractères.
-     * Ensuite, l'ID est converti en un type Long et retourné.
+     * @return Le principal de l'utilisateur authentifié.
+     * @throws IllegalStateException Si aucun utilisateur authentifié par JWT n'est présent.
+     */
+    public AuthenticatedUser getAuthenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            throw new IllegalStateException("Aucun utilisateur authentifié");
+        }
+        return principal;
+    }
+
+    /**
+     * Extraire l'ID de l'utilisateur authentifié à partir du principal placé dans le SecurityContext.
+     * L'ID est lu directement depuis le principal typé, sans conversion de chaîne.
      *
      * @return L'ID de l'utilisateur authentifié sous forme de Long.
-     * @throws NumberFormatException Si le nom de l'utilisateur dans le SecurityContext ne peut pas être converti en Long.
+     * @throws IllegalStateException Si aucun utilisateur authentifié par JWT n'est présent.
      */
     public Long getAuthenticatedUserId() {
-        String userIdString = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        // Convertir l'ID utilisateur en Long (vérifiez si c'est possible)
-        Long userId = Long.parseLong(userIdString);
-
-        return userId;
+        return getAuthenticatedUser().getUserId();
     }
 }
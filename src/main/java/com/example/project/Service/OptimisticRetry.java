@@ -0,0 +1,115 @@
+package com.example.project.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Exécution d'une modification sous verrouillage optimiste, avec nouvelles tentatives.
+ * Chaque tentative relit les entités et s'exécute dans sa propre transaction : si une écriture concurrente
+ * a changé la version d'une entité entre-temps, la transaction est annulée et l'opération rejouée
+ * après une attente aléatoire croissante. Aucune tentative ne bloque un verrou ; passé le nombre de tentatives,
+ * {@link ConcurrentUpdateException} est levée (HTTP 409).
+ */
+@Component
+public class OptimisticRetry {
+
+    private final TransactionOperations transactions;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    /**
+     * Constructeur utilisé par Spring : chaque tentative est une nouvelle transaction.
+     *
+     * @param transactionManager Le gestionnaire de transactions.
+     * @param maxAttempts Nombre maximal de tentatives.
+     * @param backoff Attente de base entre deux tentatives, doublée à chaque échec.
+     */
+    @Autowired
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${concurrency.optimistic.max-attempts:3}") int maxAttempts,
+                           @Value("${concurrency.optimistic.backoff:20ms}") Duration backoff) {
+        this(newTransactionTemplate(transactionManager), maxAttempts, backoff);
+    }
+
+    /**
+     * Constructeur avec des opérations transactionnelles explicites.
+     *
+     * @param transactions Les opérations transactionnelles exécutant chaque tentative.
+     * @param maxAttempts Nombre maximal de tentatives.
+     * @param backoff Attente de base entre deux tentatives, doublée à chaque échec.
+     */
+    public OptimisticRetry(TransactionOperations transactions, int maxAttempts, Duration backoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Le nombre de tentatives doit être positif");
+        }
+        this.transactions = transactions;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoff.toMillis();
+    }
+
+    private static TransactionTemplate newTransactionTemplate(PlatformTransactionManager transactionManager) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    /**
+     * Exécuter une modification, en la rejouant en cas de conflit de version.
+     * L'opération doit relire les entités qu'elle modifie : elle est exécutée entièrement à chaque tentative.
+     *
+     * @param operation L'opération à exécuter.
+     * @param <T> Le type du résultat.
+     * @return Le résultat de la tentative réussie.
+     * @throws ConcurrentUpdateException Si toutes les tentatives ont échoué sur un conflit de version.
+     */
+    public <T> T execute(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactions.execute(status -> operation.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new ConcurrentUpdateException("Concurrent update, please retry", e);
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Attendre avant la tentative suivante : durée aléatoire (« full jitter ») bornée par
+     * l'attente de base doublée à chaque échec, pour désynchroniser les requêtes en conflit.
+     *
+     * @param attempt Le numéro de la tentative qui vient d'échouer.
+     */
+    private void backoff(int attempt) {
+        if (backoffMillis <= 0) {
+            return;
+        }
+        long bound = backoffMillis << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying a concurrent update", e);
+        }
+    }
+
+    /**
+     * Exception levée lorsqu'une modification reste en conflit après toutes les tentatives.
+     */
+    public static class ConcurrentUpdateException extends RuntimeException {
+        public ConcurrentUpdateException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -1,16 +1,33 @@
 package com.example.project.Service;
 
+import com.example.project.DTO.BulkMembershipResult;
+import com.example.project.DTO.CursorPage;
 import com.example.project.DTO.ProjectCreationDTO;
 import com.example.project.DTO.ProjectDTO;
+import com.example.project.DTO.ProjectMemberView;
+import com.example.project.DTO.ProjectRevisionView;
+import com.example.project.DTO.ProjectSummaryView;
 import com.example.project.DTO.UserDTO;
 import com.example.project.Entity.Project;
 import com.example.project.Entity.User;
+import com.example.project.Events.MemberRemovedEvent;
+import com.example.project.Repository.ProjectMembersCache;
 import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.ProjectRevisionRepository;
+import com.example.project.Repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -18,21 +35,46 @@ import java.util.stream.Collectors;
  * Service pour la gestion des projets.
  * Cette classe contient la logique métier pour la création, l'attribution d'utilisateurs aux projets,
  * la récupération des projets d'un utilisateur, ainsi que la gestion des membres d'un projet.
+ * Chaque méthode délimite sa transaction ; les lectures sont en lecture seule (ni instantané des entités, ni vérification
+ * des modifications à la validation) et retournent des DTO construits avant la fin de la transaction.
+ * Toute modification d'un projet ou de ses membres incrémente sa révision (ETag des listes de projets).
  */
 @Service
 public class ProjectService {
     private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
     private final UserService userService;
+    private final ProjectMembersCache projectMembersCache;
+    private final ProjectRevisionRepository projectRevisionRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Nombre maximal d'utilisateurs acceptés par un ajout de membres en masse (une seule instruction INSERT ... IN).
+     */
+    public static final int MAX_BULK_MEMBERS = 1_000;
 
     /**
      * Constructeur de la classe ProjectService.
      *
      * @param projectRepository Le repository pour accéder aux données des projets.
+     * @param userRepository Le repository pour lire les membres des projets.
      * @param userService Le service pour accéder aux données des utilisateurs.
+     * @param projectMembersCache L'invalidation des membres en cache après une écriture dans la table d'association.
+     * @param projectRevisionRepository Le repository des révisions des projets, incrémentées à chaque modification.
+     * @param tokenRevocationService La révocation de l'appartenance portée par les jetons d'un membre retiré.
+     * @param eventPublisher La publication des retraits de membres, qui terminent leurs abonnements aux tâches.
      */
-    public ProjectService(ProjectRepository projectRepository, UserService userService) {
+    public ProjectService(ProjectRepository projectRepository, UserRepository userRepository, UserService userService,
+                          ProjectMembersCache projectMembersCache, ProjectRevisionRepository projectRevisionRepository,
+                          TokenRevocationService tokenRevocationService, ApplicationEventPublisher eventPublisher) {
         this.projectRepository = projectRepository;
+        this.userRepository = userRepository;
         this.userService = userService;
+        this.projectMembersCache = projectMembersCache;
+        this.projectRevisionRepository = projectRevisionRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -44,6 +86,7 @@ public class ProjectService {
      * @param projectCreationDTO Les informations du projet à créer.
      * @return Le projet créé.
      */
+    @Transactional
     public Project createProject(Long userId, ProjectCreationDTO projectCreationDTO) {
         User creator = userService.findById(userId);
 
@@ -57,96 +100,233 @@ public class ProjectService {
         // Ajouter le créateur comme membre du projet
         project.addMember(creator);
 
-        // Enregistrer le projet dans la base de données
-        return projectRepository.save(project);
+        // Enregistrer le projet dans la base de données, avec sa première révision
+        Project saved = projectRepository.save(project);
+        projectRevisionRepository.create(saved.getId());
+        return saved;
     }
 
     /**
-     * Récupérer tous les projets d'un utilisateur.
-     * Cette méthode retourne la liste de tous les projets associés à un utilisateur,
+     * Récupérer une page des projets d'un utilisateur.
+     * Cette méthode retourne les projets associés à un utilisateur,
      * qu'il en soit le créateur ou un membre.
+     * Le nombre de requêtes est fixe (deux au plus) quelle que soit la taille de la page : les projets et leur créateur,
+     * puis les membres de ces projets, sont lus sous forme de projections sans charger d'entité.
      *
      * @param userId L'ID de l'utilisateur dont on veut récupérer les projets.
-     * @return La liste des projets associés à l'utilisateur.
+     * @param after Le curseur de la page précédente, ou null pour la première page.
+     * @param limit La taille de page demandée, ou null pour la taille par défaut.
+     * @return Une page des projets associés à l'utilisateur, triée par ID, avec le curseur de la page suivante.
+     * @throws CursorPage.InvalidCursorException Si le curseur est mal formé.
      */
-    public List<ProjectDTO> getProjectsByUser(Long userId) {
-        User user = userService.findById(userId);
-
-        List<Project> projectsCreatedByUser = projectRepository.findByCreator(user);
-        List<Project> projectsUserIsMemberOf = projectRepository.findByMembersContains(user);
-
-        Set<Project> allProjects = new HashSet<>();
-        allProjects.addAll(projectsCreatedByUser);
-        allProjects.addAll(projectsUserIsMemberOf);
-
-        return allProjects.stream().map(project -> {
-            UserDTO creatorDTO = new UserDTO(project.getCreator().getId(), project.getCreator().getUsername(), project.getCreator().getEmail());
-            List<UserDTO> membersDTO = project.getMembers().stream()
-                    .map(member -> new UserDTO(member.getId(), member.getUsername(), member.getEmail()))
-                    .collect(Collectors.toList());
-
-            return new ProjectDTO(
-                    project.getId(),
-                    project.getName(),
-                    project.getDescription(),
-                    project.getDateCreation(),
-                    project.getState().toString(),
-                    creatorDTO,
-                    membersDTO
-            );
-        }).collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectDTO> getProjectsByUser(Long userId, String after, Integer limit) {
+        Slice<ProjectSummaryView> slice = projectRepository.findProjectSummariesByUserIdAfter(
+                userId, CursorPage.decode(after), CursorPage.limit(limit, after));
+        List<ProjectSummaryView> projects = slice.getContent();
+        String nextCursor = CursorPage.of(slice, ProjectSummaryView::getId).getNextCursor();
+        if (projects.isEmpty()) {
+            return new CursorPage<>(new ArrayList<>(), nextCursor);
+        }
+
+        // Regrouper les membres des projets de la page
+        List<Long> projectIds = projects.stream().map(ProjectSummaryView::getId).collect(Collectors.toList());
+        Map<Long, List<UserDTO>> membersByProject = new HashMap<>();
+        for (ProjectMemberView member : projectRepository.findMembersByProjectIds(projectIds)) {
+            membersByProject.computeIfAbsent(member.getProjectId(), id -> new ArrayList<>())
+                    .add(new UserDTO(member.getId(), member.getUsername(), member.getEmail()));
+        }
+
+        List<ProjectDTO> items = projects.stream().map(project -> new ProjectDTO(
+                project.getId(),
+                project.getName(),
+                project.getDescription(),
+                project.getDateCreation(),
+                project.getState().toString(),
+                new UserDTO(project.getCreatorId(), project.getCreatorUsername(), project.getCreatorEmail()),
+                membersByProject.getOrDefault(project.getId(), new ArrayList<>())
+        )).collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    /**
+     * Obtenir l'ETag d'une page des projets d'un utilisateur, sans lire les projets ni leurs membres :
+     * seuls les IDs des projets de la page et leurs révisions sont lus.
+     * Il est lu avant la page : si une modification s'intercale, le client reçoit la page à jour avec l'ancien ETag
+     * et la relira à la requête suivante, jamais l'inverse.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @param after Le curseur de la page précédente, ou null pour la première page.
+     * @param limit La taille de page demandée, ou null pour la taille par défaut.
+     * @return L'ETag fort de la page.
+     * @throws CursorPage.InvalidCursorException Si le curseur est mal formé.
+     */
+    @Transactional(readOnly = true)
+    public String getProjectsETag(Long userId, String after, Integer limit) {
+        Slice<ProjectRevisionView> revisions = projectRevisionRepository.findRevisionsByUserIdAfter(
+                userId, CursorPage.decode(after), CursorPage.limit(limit, after));
+        return RevisionTags.ofPage(userId, revisions.getContent(), revisions.hasNext());
     }
 
     /**
      * Assigner un utilisateur à un projet.
      * Cette méthode ajoute un utilisateur au projet spécifié. Si l'utilisateur est déjà membre,
-     * une exception est levée. Le processus d'ajout est sécurisé par un verrou pour éviter les conflits
-     * en cas de modification simultanée des membres du projet.
+     * une exception est levée. L'ajout est une seule insertion conditionnelle dans la table d'association :
+     * ni le projet ni ses membres ne sont chargés, si bien que le coût ne dépend pas du nombre de membres.
      *
      * @param projectId L'ID du projet auquel l'utilisateur doit être assigné.
      * @param userId L'ID de l'utilisateur à assigner.
-     * @return Le projet mis à jour.
      * @throws IllegalArgumentException Si le projet ou l'utilisateur est introuvable ou si l'utilisateur est déjà membre du projet.
      */
-    public Project assignUserToProject(Long projectId, Long userId) {
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new IllegalArgumentException("Project not found"));
+    @Transactional
+    public void assignUserToProject(Long projectId, Long userId) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException("Project not found");
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User not found");
+        }
 
-        User user = userService.findById(userId);
+        if (!insertMember(projectId, userId)) {
+            throw new IllegalArgumentException("User is already assigned to the project");
+        }
+    }
 
-        // Utilisation du verrou pour gérer la concurrence
-        try {
-            project.lockProject();
+    /**
+     * Ajouter plusieurs utilisateurs à un projet.
+     * Les utilisateurs sont lus en une requête, les membres existants parmi eux en une autre, et les autres
+     * sont insérés en une seule instruction ; le coût ne dépend ni du nombre de membres du projet, ni de la taille du lot.
+     * Les utilisateurs inconnus ou déjà membres sont signalés dans le résultat sans faire échouer les autres.
+     *
+     * @param projectId L'ID du projet.
+     * @param userIds Les IDs des utilisateurs à ajouter (les doublons sont ignorés).
+     * @return Le résultat pour chaque utilisateur, dans l'ordre de la requête.
+     * @throws IllegalArgumentException Si le projet est introuvable ou si le lot dépasse {@link #MAX_BULK_MEMBERS} utilisateurs.
+     */
+    @Transactional
+    public BulkMembershipResult addUsersToProject(Long projectId, List<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (userIds != null) {
+            userIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        if (ids.size() > MAX_BULK_MEMBERS) {
+            throw new IllegalArgumentException("Too many users: at most " + MAX_BULK_MEMBERS + " per request");
+        }
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException("Project not found");
+        }
 
-            if (project.getMembers().contains(user)) {
-                throw new IllegalArgumentException("User is already assigned to the project");
+        BulkMembershipResult result = new BulkMembershipResult();
+        if (ids.isEmpty()) {
+            return result;
+        }
+        Set<Long> found = userService.getUsersByIds(new ArrayList<>(ids)).stream()
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        Set<Long> members = found.isEmpty()
+                ? Set.of()
+                : new HashSet<>(projectRepository.findMemberIdsIn(projectId, found));
+        List<Long> toAdd = ids.stream()
+                .filter(id -> found.contains(id) && !members.contains(id))
+                .collect(Collectors.toList());
+        if (!toAdd.isEmpty()) {
+            // Incrément d'abord : comme pour insertMember, il sérialise les ajouts simultanés au même projet
+            projectRevisionRepository.increment(projectId);
+            projectRepository.insertMembers(projectId, toAdd);
+            projectMembersCache.evict(projectId);
+        }
+
+        for (Long id : ids) {
+            if (!found.contains(id)) {
+                result.add(id, BulkMembershipResult.Status.USER_NOT_FOUND);
+            } else {
+                result.add(id, members.contains(id) ? BulkMembershipResult.Status.ALREADY_MEMBER : BulkMembershipResult.Status.ADDED);
             }
+        }
+        return result;
+    }
+
+    /**
+     * Retirer un utilisateur d'un projet, par une seule suppression dans la table d'association.
+     * L'appartenance portée par ses jetons déjà émis est révoquée et ses abonnements aux tâches du projet
+     * sont terminés après la validation : il perd l'accès sans attendre l'expiration de son jeton.
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur à retirer.
+     * @throws IllegalArgumentException Si l'utilisateur n'est pas membre du projet.
+     */
+    @Transactional
+    public void removeUserFromProject(Long projectId, Long userId) {
+        if (projectRepository.deleteMember(projectId, userId) == 0) {
+            throw new IllegalArgumentException("User is not a member of the project");
+        }
+        projectMembersCache.evict(projectId);
+        projectRevisionRepository.increment(projectId);
+        tokenRevocationService.revokeMembership(userId, projectId);
+        eventPublisher.publishEvent(new MemberRemovedEvent(projectId, userId));
+    }
+
+    /**
+     * Vérifier qu'un utilisateur est membre d'un projet, sans charger le projet ni ses membres.
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur.
+     * @return true si l'utilisateur est membre du projet, false sinon.
+     */
+    @Transactional(readOnly = true)
+    public boolean isMember(Long projectId, Long userId) {
+        return projectRepository.isMember(projectId, userId);
+    }
 
-            project.addMember(user);
-            return projectRepository.save(project);
-        } finally {
-            project.unlockProject();
+    /**
+     * Insérer une ligne dans la table d'association si l'utilisateur n'est pas déjà membre.
+     * La révision du projet est incrémentée d'abord : le verrou de sa ligne, tenu jusqu'à la fin de la transaction,
+     * sérialise les ajouts simultanés au même projet, si bien que la condition `not exists` de l'insertion voit
+     * toujours les membres validés par les autres transactions et que la clé primaire ne refuse jamais de doublon.
+     * Si l'utilisateur était déjà membre, l'appelant lève une exception et l'incrément est annulé avec la transaction.
+     *
+     * @param projectId L'ID du projet.
+     * @param userId L'ID de l'utilisateur.
+     * @return true si l'utilisateur a été ajouté, false s'il était déjà membre.
+     */
+    private boolean insertMember(Long projectId, Long userId) {
+        projectRevisionRepository.increment(projectId);
+        if (projectRepository.insertMember(projectId, userId) == 0) {
+            return false;
         }
+        projectMembersCache.evict(projectId);
+        return true;
     }
 
     /**
-     * Récupérer tous les utilisateurs d'un projet.
-     * Cette méthode retourne tous les membres du projet spécifié sous forme de liste de UserDTO.
+     * Récupérer une page des utilisateurs d'un projet.
+     * Les membres sont lus directement sous forme de UserDTO, sans charger le projet ni sa collection de membres.
      *
      * @param projectId L'ID du projet pour lequel récupérer les utilisateurs.
-     * @return La liste des utilisateurs associés au projet.
+     * @param after Le curseur de la page précédente, ou null pour la première page.
+     * @param limit La taille de page demandée, ou null pour la taille par défaut.
+     * @return Une page des utilisateurs associés au projet, triée par ID, avec le curseur de la page suivante.
+     * @throws CursorPage.InvalidCursorException Si le curseur est mal formé.
      * @throws IllegalArgumentException Si le projet n'est pas trouvé.
      */
-    public List<UserDTO> getUsersByProject(Long projectId) {
-        // Récupérer le projet
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new IllegalArgumentException("Project not found"));
-
-        // Mapper les membres en UserDTO
-        List<UserDTO> members = project.getMembers().stream()
-                .map(user -> new UserDTO(user.getId(), user.getUsername(), user.getEmail()))
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> getUsersByProject(Long projectId, String after, Integer limit) {
+        long afterId = CursorPage.decode(after);
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException("Project not found");
+        }
+
+        return CursorPage.of(userRepository.findMembersByProjectIdAfter(projectId, afterId, CursorPage.limit(limit, after)),
+                UserDTO::getId);
+    }
 
-        return members; // Retourne la liste des utilisateurs
+    /**
+     * Exception levée lorsqu'un projet est introuvable.
+     * Elle étend IllegalArgumentException, comme les autres erreurs de validation de ce service.
+     */
+    public static class ProjectNotFoundException extends IllegalArgumentException {
+        public ProjectNotFoundException(String message) {
+            super(message);
+        }
     }
 }
@@ -0,0 +1,171 @@
+package com.example.project.Service;
+
+import com.example.project.DTO.AuthTokens;
+import com.example.project.Entity.RefreshToken;
+import com.example.project.Entity.User;
+import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.RefreshTokenRepository;
+import com.example.project.Repository.UserRepository;
+import com.example.project.Security.JWTUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Service pour la gestion des jetons de rafraîchissement.
+ * Un jeton de rafraîchissement est un secret aléatoire à usage unique : sa vérification se réduit à une recherche
+ * indexée de son empreinte, sans hachage de mot de passe. Chaque utilisation le remplace par un nouveau jeton.
+ */
+@Service
+public class RefreshTokenService {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final JWTUtil jwtUtil;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Constructeur de la classe RefreshTokenService.
+     *
+     * @param refreshTokenRepository Le repository des jetons de rafraîchissement.
+     * @param userRepository Le repository pour accéder aux utilisateurs.
+     * @param projectRepository Le repository pour lire les projets de l'utilisateur à inscrire dans le JWT.
+     * @param jwtUtil L'utilitaire pour générer les tokens JWT d'accès.
+     * @param ttl La durée de validité d'un jeton de rafraîchissement.
+     */
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository,
+                               ProjectRepository projectRepository, JWTUtil jwtUtil,
+                               @Value("${security.jwt.refresh-token-ttl:14d}") Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.jwtUtil = jwtUtil;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Délivrer à un utilisateur un JWT d'accès et un jeton de rafraîchissement.
+     * Le JWT porte le rôle et les projets de l'utilisateur à cet instant ; ils sont relus à chaque rafraîchissement.
+     *
+     * @param user L'utilisateur authentifié.
+     * @return Le JWT d'accès et le jeton de rafraîchissement.
+     */
+    @Transactional
+    public AuthTokens issueTokens(User user) {
+        String role = user.getRole() != null ? user.getRole().name() : null;
+        String accessToken = jwtUtil.generateToken(user.getId(), role,
+                projectRepository.findProjectIdsByUserId(user.getId()));
+        return new AuthTokens(accessToken, issue(user.getId()));
+    }
+
+    /**
+     * Délivrer un nouveau jeton de rafraîchissement à un utilisateur.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @return Le jeton en clair (seule son empreinte est enregistrée).
+     */
+    @Transactional
+    public String issue(Long userId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(new RefreshToken(hash(token), userRepository.getReferenceById(userId),
+                Instant.now().plus(ttl)));
+        return token;
+    }
+
+    /**
+     * Échanger un jeton de rafraîchissement contre un nouveau JWT d'accès et un nouveau jeton de rafraîchissement.
+     * Le jeton présenté est consommé : une seconde utilisation du même jeton est refusée.
+     *
+     * @param refreshToken Le jeton de rafraîchissement présenté par le client.
+     * @return Les nouveaux jetons.
+     * @throws InvalidRefreshTokenException Si le jeton est inconnu, expiré ou déjà utilisé.
+     */
+    @Transactional
+    public AuthTokens refresh(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new InvalidRefreshTokenException("Jeton de rafraîchissement manquant");
+        }
+
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Jeton de rafraîchissement invalide"));
+
+        if (stored.getExpiresAt().isBefore(Instant.now())) {
+            throw new InvalidRefreshTokenException("Jeton de rafraîchissement expiré");
+        }
+
+        // Supprimer le jeton : s'il a déjà été consommé par une requête concurrente, aucune ligne n'est supprimée
+        if (refreshTokenRepository.consume(stored.getId()) == 0) {
+            throw new InvalidRefreshTokenException("Jeton de rafraîchissement déjà utilisé");
+        }
+
+        // Le rôle et les appartenances sont relus pour que le nouveau JWT reflète les changements récents
+        return issueTokens(stored.getUser());
+    }
+
+    /**
+     * Révoquer un jeton de rafraîchissement (déconnexion). Un jeton inconnu est ignoré.
+     *
+     * @param refreshToken Le jeton de rafraîchissement présenté par le client.
+     */
+    public void revoke(String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.deleteByTokenHash(hash(refreshToken));
+        }
+    }
+
+    /**
+     * Retourne la durée de validité des jetons de rafraîchissement.
+     *
+     * @return La durée de validité.
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /**
+     * Supprimer périodiquement les jetons expirés.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-token-cleanup-interval:1h}")
+    @Transactional
+    public void deleteExpiredTokens() {
+        refreshTokenRepository.deleteExpired(Instant.now());
+    }
+
+    /**
+     * Calculer l'empreinte SHA-256 d'un jeton.
+     *
+     * @param token Le jeton en clair.
+     * @return L'empreinte hexadécimale.
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Exception levée lorsqu'un jeton de rafraîchissement est refusé.
+     */
+    public static class InvalidRefreshTokenException extends IllegalArgumentException {
+        public InvalidRefreshTokenException(String message) {
+            super(message);
+        }
+    }
+}
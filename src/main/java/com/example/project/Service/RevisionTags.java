@@ -0,0 +1,54 @@
+package com.example.project.Service;
+
+import com.example.project.DTO.ProjectRevisionView;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Construction des ETags forts des listes de projets et de tâches à partir des révisions des projets.
+ * Une même révision produit toujours la même représentation JSON : l'ETag peut donc être fort.
+ */
+final class RevisionTags {
+
+    private RevisionTags() {
+    }
+
+    /**
+     * ETag des tâches d'un projet : identique pour toutes les pages, chaque page ayant sa propre URL.
+     *
+     * @param projectId L'ID du projet.
+     * @param revision La révision du projet.
+     * @return L'ETag, entre guillemets.
+     */
+    static String ofProject(Long projectId, long revision) {
+        return "\"" + projectId + "." + revision + "\"";
+    }
+
+    /**
+     * ETag d'une page de projets : empreinte des projets de la page et de leurs révisions.
+     * Un projet ajouté, retiré ou modifié, ou une page suivante apparue, change l'empreinte.
+     *
+     * @param userId L'ID de l'utilisateur dont la page est lue (deux utilisateurs n'ont jamais le même ETag).
+     * @param revisions Les révisions des projets de la page, triées par ID.
+     * @param hasNext true si d'autres projets suivent la page.
+     * @return L'ETag, entre guillemets.
+     */
+    static String ofPage(Long userId, List<ProjectRevisionView> revisions, boolean hasNext) {
+        StringBuilder state = new StringBuilder().append(userId).append('|');
+        for (ProjectRevisionView revision : revisions) {
+            state.append(revision.getProjectId()).append(':').append(revision.getRevision()).append(',');
+        }
+        state.append('|').append(hasNext);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(state.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.project.Service;
 
+import com.example.project.DTO.BulkTaskResult;
+import com.example.project.DTO.CursorPage;
+import com.example.project.DTO.TaskChanges;
 import com.example.project.DTO.TaskDto;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public interface TaskService {
     public TaskDto addTaskToProject(Long projectId, TaskDto taskDto);
-    public List<TaskDto> getAllTasksByProject(Long projectId);
+    public List<TaskDto> addTasksToProject(Long projectId, List<TaskDto> taskDtos);
+    public CursorPage<TaskDto> getTasksByProject(Long projectId, String after, Integer limit);
+    public Optional<String> getTasksETag(Long projectId);
+    public TaskChanges getTaskChanges(Long projectId, Long since);
+    public void streamTasksByProject(Long projectId, Consumer<TaskDto> consumer);
     public TaskDto assignUserToTask(Long taskId, Long userId);
+    public void deleteTask(Long taskId);
 
-    public TaskDto changeTaskState(Long taskId, String newState);
+    public BulkTaskResult.Status changeTaskState(Long taskId, String newState);
+    public BulkTaskResult changeTasksState(List<Long> taskIds, String newState);
+    public BulkTaskResult assignUserToTasks(List<Long> taskIds, Long userId);
 }
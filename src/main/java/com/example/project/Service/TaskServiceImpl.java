@@ -1,28 +1,70 @@
 package com.example.project.Service;
 
+import com.example.project.DTO.BulkTaskResult;
+import com.example.project.DTO.CursorPage;
+import com.example.project.DTO.TaskChanges;
 import com.example.project.DTO.TaskDto;
+import com.example.project.DTO.TaskStateView;
 import com.example.project.Entity.Project;
 import com.example.project.Entity.Task;
 import com.example.project.Entity.User;
+import com.example.project.Events.TaskChangedEvent;
 import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.ProjectRevisionRepository;
 import com.example.project.Repository.TaskRepository;
+import com.example.project.Repository.TaskTombstoneRepository;
 import com.example.project.Repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implémentation du service de gestion des tâches.
  * Cette classe contient les méthodes pour ajouter, récupérer et assigner des tâches aux projets et aux utilisateurs.
  * Elle implémente l'interface TaskService.
+ * Chaque méthode délimite sa transaction, en lecture seule pour les consultations ; les associations d'une tâche
+ * sont chargées à la demande et seuls leurs IDs sont lus pour construire les DTO.
+ * Toute modification de tâches incrémente d'abord, dans la même transaction, la révision de leur projet (ETag de la liste),
+ * puis enregistre cette révision sur les tâches modifiées ou dans la trace d'une suppression : c'est l'index de la synchronisation
+ * incrémentale. La ligne de révision restant verrouillée jusqu'à la validation, les révisions d'un projet sont validées dans l'ordre,
+ * et un client qui reprend après une révision ne manque aucune modification.
+ * Chaque modification publie aussi un {@link TaskChangedEvent}, diffusé aux abonnés du projet après la validation.
  */
 @Service
 public class TaskServiceImpl implements TaskService {
 
+    /**
+     * Nombre maximal de tâches acceptées par une création en masse.
+     */
+    public static final int MAX_BULK_TASKS = 10_000;
+
+    /**
+     * Nombre maximal de tâches visées par une modification en masse (une seule instruction UPDATE ... IN).
+     */
+    public static final int MAX_BULK_UPDATE = 1_000;
+
     private final TaskRepository taskRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ProjectRevisionRepository projectRevisionRepository;
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final OptimisticRetry optimisticRetry;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructeur de la classe TaskServiceImpl.
@@ -30,19 +72,32 @@ public class TaskServiceImpl implements TaskService {
      * @param taskRepository Le repository pour accéder aux tâches.
      * @param projectRepository Le repository pour accéder aux projets.
      * @param userRepository Le repository pour accéder aux utilisateurs.
+     * @param projectRevisionRepository Le repository des révisions des projets, incrémentées à chaque modification.
+     * @param taskTombstoneRepository Le repository des traces de suppression des tâches.
+     * @param optimisticRetry L'exécution des modifications avec nouvelles tentatives sur conflit de version.
+     * @param eventPublisher La publication des événements de modification des tâches.
      */
     public TaskServiceImpl(TaskRepository taskRepository,
                            ProjectRepository projectRepository,
-                           UserRepository userRepository) {
+                           UserRepository userRepository,
+                           ProjectRevisionRepository projectRevisionRepository,
+                           TaskTombstoneRepository taskTombstoneRepository,
+                           OptimisticRetry optimisticRetry,
+                           ApplicationEventPublisher eventPublisher) {
         this.taskRepository = taskRepository;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
+        this.projectRevisionRepository = projectRevisionRepository;
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.optimisticRetry = optimisticRetry;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Ajouter une tâche à un projet avec gestion de la concurrence.
+     * Ajouter une tâche à un projet.
      * Si l'utilisateur spécifié existe, la tâche sera assignée à cet utilisateur.
      * Si l'état de la tâche n'est pas précisé, l'état par défaut sera 'TO_DO'.
+     * L'identifiant éventuellement fourni dans le DTO est ignoré.
      *
      * @param projectId L'ID du projet auquel ajouter la tâche.
      * @param taskDto Les informations de la tâche à ajouter.
@@ -51,6 +106,7 @@ public class TaskServiceImpl implements TaskService {
      * @throws UserNotFoundException Si l'utilisateur spécifié n'est pas trouvé.
      */
     @Override
+    @Transactional
     public TaskDto addTaskToProject(Long projectId, TaskDto taskDto) {
         Project project = projectRepository.findById(projectId)
                 .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
@@ -68,91 +124,423 @@ public class TaskServiceImpl implements TaskService {
             task.setUser(user);
         }
 
-        try {
-            task.lockTask();
-            Task savedTask = taskRepository.save(task);
-            return mapToDto(savedTask);
-        } finally {
-            task.unlockTask();
+        task.setChangeRevision(nextRevision(projectId));
+        Task savedTask = taskRepository.save(task);
+        TaskDto created = mapToDto(savedTask);
+        eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(created)));
+        return created;
+    }
+
+    /**
+     * Ajouter plusieurs tâches à un projet en une seule transaction.
+     * Le projet est lu une fois et tous les utilisateurs assignés en une requête ;
+     * les identifiants étant tirés de la séquence par blocs, les insertions partent en lots JDBC.
+     * Les identifiants éventuellement fournis dans les DTO sont ignorés. Si un utilisateur est introuvable,
+     * aucune tâche n'est créée.
+     *
+     * @param projectId L'ID du projet auquel ajouter les tâches.
+     * @param taskDtos Les informations des tâches à ajouter.
+     * @return Les DTO des tâches créées, dans l'ordre de la requête.
+     * @throws ProjectNotFoundException Si le projet n'est pas trouvé.
+     * @throws UserNotFoundException Si un utilisateur spécifié n'est pas trouvé.
+     * @throws IllegalArgumentException Si le lot dépasse {@link #MAX_BULK_TASKS} tâches ou si un état est invalide.
+     */
+    @Override
+    @Transactional
+    public List<TaskDto> addTasksToProject(Long projectId, List<TaskDto> taskDtos) {
+        if (taskDtos.size() > MAX_BULK_TASKS) {
+            throw new IllegalArgumentException("Too many tasks: at most " + MAX_BULK_TASKS + " per request");
+        }
+
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+
+        // Tous les utilisateurs assignés, en une seule requête
+        Set<Long> userIds = taskDtos.stream()
+                .map(TaskDto::getUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, User> users = new HashMap<>();
+        if (!userIds.isEmpty()) {
+            for (User user : userRepository.findAllById(userIds)) {
+                users.put(user.getId(), user);
+            }
+        }
+
+        long revision = taskDtos.isEmpty() ? 0L : nextRevision(projectId);
+        List<Task> tasks = new ArrayList<>(taskDtos.size());
+        for (TaskDto taskDto : taskDtos) {
+            Task task = mapToEntity(taskDto);
+            task.setProject(project);
+            task.setChangeRevision(revision);
+            if (task.getState() == null) {
+                task.setState(Task.StateTask.TO_DO);
+            }
+            if (taskDto.getUserId() != null) {
+                User user = users.get(taskDto.getUserId());
+                if (user == null) {
+                    throw new UserNotFoundException("User not found with id: " + taskDto.getUserId());
+                }
+                task.setUser(user);
+            }
+            tasks.add(task);
+        }
+
+        List<TaskDto> created = taskRepository.saveAll(tasks).stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+        if (!created.isEmpty()) {
+            eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, created));
         }
+        return created;
     }
 
     /**
-     * Récupérer toutes les tâches associées à un projet.
+     * Récupérer une page des tâches associées à un projet, triées par ID.
+     * Sans curseur ni taille, toutes les tâches du projet sont retournées.
      *
      * @param projectId L'ID du projet.
-     * @return Une liste de DTO de tâches associées au projet.
+     * @param after Le curseur de la page précédente, ou null pour la première page.
+     * @param limit La taille de page demandée, ou null pour la taille par défaut.
+     * @return Une page de DTO de tâches associées au projet, avec le curseur de la page suivante.
      * @throws ProjectNotFoundException Si le projet n'est pas trouvé.
+     * @throws CursorPage.InvalidCursorException Si le curseur est mal formé.
      */
     @Override
-    public List<TaskDto> getAllTasksByProject(Long projectId) {
+    @Transactional(readOnly = true)
+    public CursorPage<TaskDto> getTasksByProject(Long projectId, String after, Integer limit) {
+        long afterId = CursorPage.decode(after);
         if (!projectRepository.existsById(projectId)) {
             throw new ProjectNotFoundException("Project not found with id: " + projectId);
         }
 
-        List<Task> tasks = taskRepository.findByProjectId(projectId);
-        return tasks.stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        // Projection directe en DTO : ni entité, ni chargement des utilisateurs assignés
+        return CursorPage.of(taskRepository.findDtosByProjectIdAfter(projectId, afterId, CursorPage.limit(limit, after)),
+                TaskDto::getId);
     }
 
     /**
-     * Assigner un utilisateur à une tâche avec gestion de la concurrence.
+     * Obtenir l'ETag de la liste des tâches d'un projet, par la seule lecture de sa révision.
+     * Il est lu avant les tâches : si une modification s'intercale, le client reçoit les tâches à jour avec l'ancien ETag
+     * et les relira à la requête suivante, jamais l'inverse.
+     *
+     * @param projectId L'ID du projet.
+     * @return L'ETag fort de la liste, ou vide si le projet n'a pas de révision (projet inexistant).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getTasksETag(Long projectId) {
+        return projectRevisionRepository.findRevision(projectId)
+                .map(revision -> RevisionTags.ofProject(projectId, revision));
+    }
+
+    /**
+     * Obtenir les modifications des tâches d'un projet depuis une révision connue du client.
+     * Deux lectures indexées, dont le coût dépend du nombre de modifications et non de la taille du projet :
+     * les tâches modifiées depuis, et les traces des tâches supprimées depuis.
+     * Sans révision, toutes les tâches sont retournées (première synchronisation) et le client remplace sa copie.
+     * La révision est lue en premier : une modification validée entre-temps sera retournée de nouveau, jamais manquée.
+     * La révision purgée est lue en dernier : si une purge a retiré des traces utiles au client avant leur lecture,
+     * la synchronisation incrémentale est refusée.
+     *
+     * @param projectId L'ID du projet.
+     * @param since La dernière révision connue du client, ou null pour une synchronisation complète.
+     * @return Les modifications et la révision à laquelle elles mettent la copie du client à jour.
+     * @throws ProjectNotFoundException Si le projet n'est pas trouvé.
+     * @throws IllegalArgumentException Si la révision est négative ou postérieure à la révision courante.
+     * @throws ChangesExpiredException Si des traces de suppression postérieures à la révision ont été purgées.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskChanges getTaskChanges(Long projectId, Long since) {
+        long revision = projectRevisionRepository.findRevision(projectId)
+                .orElseThrow(() -> new ProjectNotFoundException("Project not found with id: " + projectId));
+        if (since == null) {
+            return new TaskChanges(revision, taskRepository.findDtosChangedSince(projectId, -1L), List.of());
+        }
+        if (since < 0 || since > revision) {
+            throw new IllegalArgumentException("Invalid revision: " + since);
+        }
+        if (since == revision) {
+            return new TaskChanges(revision, List.of(), List.of());
+        }
+        List<TaskDto> tasks = taskRepository.findDtosChangedSince(projectId, since);
+        List<Long> deleted = taskTombstoneRepository.findDeletedIdsSince(projectId, since);
+        long prunedRevision = projectRevisionRepository.findPrunedRevision(projectId).orElse(0L);
+        if (since < prunedRevision) {
+            throw new ChangesExpiredException("Revision " + since + " is older than the retained deletions (revision "
+                    + prunedRevision + "): synchronize again without since");
+        }
+        return new TaskChanges(revision, tasks, deleted);
+    }
+
+    /**
+     * Parcourir toutes les tâches d'un projet, triées par ID, sans les accumuler en mémoire.
+     * Les DTO sont lus depuis le curseur de la base dans une transaction en lecture seule
+     * et transmis un par un au consommateur : la mémoire utilisée ne dépend pas du nombre de tâches.
+     *
+     * @param projectId L'ID du projet.
+     * @param consumer Le consommateur appelé pour chaque tâche, dans l'ordre.
+     * @throws ProjectNotFoundException Si le projet n'est pas trouvé.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTasksByProject(Long projectId, Consumer<TaskDto> consumer) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException("Project not found with id: " + projectId);
+        }
+
+        try (Stream<TaskDto> tasks = taskRepository.streamDtosByProjectId(projectId)) {
+            tasks.forEach(consumer);
+        }
+    }
+
+    /**
+     * Assigner un utilisateur à une tâche.
      * Cette méthode associe un utilisateur à une tâche en vérifiant que la tâche et l'utilisateur existent.
+     * La modification est contrôlée par la version de la tâche et rejouée si une écriture concurrente l'a devancée.
+     * Chaque tentative est sa propre transaction ({@link OptimisticRetry}) : aucune transaction englobante n'est ouverte.
      *
      * @param taskId L'ID de la tâche.
      * @param userId L'ID de l'utilisateur à associer à la tâche.
      * @return Le DTO de la tâche mise à jour.
      * @throws TaskNotFoundException Si la tâche n'est pas trouvée.
      * @throws UserNotFoundException Si l'utilisateur n'est pas trouvé.
+     * @throws OptimisticRetry.ConcurrentUpdateException Si le conflit persiste après toutes les tentatives.
      */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TaskDto assignUserToTask(Long taskId, Long userId) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
+        return optimisticRetry.execute(() -> {
+            Task task = taskRepository.findById(taskId)
+                    .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + taskId));
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
 
-        try {
-            task.lockTask();
             task.setUser(user);
-            Task savedTask = taskRepository.save(task);
-            return mapToDto(savedTask);
-        } finally {
-            task.unlockTask();
-        }
+            task.setChangeRevision(nextRevision(task.getProject().getId()));
+            Task savedTask = taskRepository.saveAndFlush(task);
+            TaskDto assigned = mapToDto(savedTask);
+            // Publié dans la transaction de la tentative : une tentative annulée ne diffuse rien
+            eventPublisher.publishEvent(TaskChangedEvent.of(TaskChangedEvent.Type.ASSIGNED, List.of(assigned)));
+            return assigned;
+        });
     }
 
     /**
-     * Changer l'état d'une tâche.
+     * Changer l'état d'une tâche par une seule instruction UPDATE conditionnelle (compare-and-set).
+     * La tâche n'est modifiée que si son état courant autorise la transition (voir {@link Task.StateTask#allowedSources()}) ;
+     * le nombre de lignes modifiées suffit à conclure dans le cas nominal. Sinon, l'état courant est relu pour distinguer
+     * une tâche absente, une tâche déjà dans l'état demandé (sans effet) et une transition refusée ;
+     * la révision du projet n'est alors pas incrémentée.
      *
      * @param taskId L'ID de la tâche dont l'état doit être modifié.
      * @param newState Le nouvel état sous forme de chaîne (ex. "TO_DO", "IN_PROGRESS", "DONE").
-     * @return Le DTO de la tâche mise à jour.
-     * @throws TaskNotFoundException Si la tâche n'est pas trouvée.
-     * @throws RuntimeException Si l'état est invalide.
+     * @return UPDATED si la tâche est dans l'état demandé, CONFLICT si la transition est refusée, NOT_FOUND si la tâche n'existe pas.
+     * @throws IllegalArgumentException Si l'état est invalide.
      */
-    public TaskDto changeTaskState(Long taskId, String newState) {
-        // Récupérer la tâche
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException(
-                        "Task not found with id: " + taskId
-                ));
+    @Override
+    @Transactional
+    public BulkTaskResult.Status changeTaskState(Long taskId, String newState) {
+        Task.StateTask state = parseState(newState);
+        // Révision verrouillée avant la tâche, comme pour les autres écritures, mais incrémentée seulement si la tâche change
+        projectRevisionRepository.lockForTasks(Set.of(taskId));
+        if (taskRepository.compareAndSetState(taskId, state.allowedSources(), state) == 1) {
+            projectRevisionRepository.incrementForTasks(Set.of(taskId));
+            eventPublisher.publishEvent(TaskChangedEvent.ofIds(TaskChangedEvent.Type.STATE_CHANGED, List.of(taskId)));
+            return BulkTaskResult.Status.UPDATED;
+        }
+
+        // Aucune ligne modifiée : tâche absente, déjà dans l'état demandé ou transition interdite
+        return taskRepository.findStateById(taskId)
+                .map(current -> current == state ? BulkTaskResult.Status.UPDATED : BulkTaskResult.Status.CONFLICT)
+                .orElse(BulkTaskResult.Status.NOT_FOUND);
+    }
+
+    /**
+     * Changer l'état de plusieurs tâches en une seule instruction UPDATE.
+     * Seules les tâches dont l'état courant autorise la transition sont modifiées ; celles déjà dans l'état demandé
+     * sont signalées inchangées, les autres en conflit, et les IDs inexistants comme introuvables,
+     * sans faire échouer le reste du lot. Seuls les projets dont une tâche a été modifiée changent de révision.
+     *
+     * @param taskIds Les IDs des tâches à modifier (les doublons sont ignorés).
+     * @param newState Le nouvel état sous forme de chaîne (ex. "TO_DO", "IN_PROGRESS", "DONE").
+     * @return Le résultat pour chaque ID, dans l'ordre de la requête.
+     * @throws IllegalArgumentException Si l'état est invalide ou si le lot dépasse {@link #MAX_BULK_UPDATE} tâches.
+     */
+    @Override
+    @Transactional
+    public BulkTaskResult changeTasksState(List<Long> taskIds, String newState) {
+        Set<Long> ids = distinctIds(taskIds);
+        Task.StateTask state = parseState(newState);
+        if (ids.isEmpty()) {
+            return new BulkTaskResult();
+        }
+
+        Set<Task.StateTask> allowedSources = state.allowedSources();
+        BulkTaskResult result = new BulkTaskResult();
+        Set<Long> updated = new HashSet<>();
+        for (Map.Entry<Long, TaskStateView> entry : lockAndReadStates(ids).entrySet()) {
+            TaskStateView current = entry.getValue();
+            if (current == null) {
+                result.add(entry.getKey(), BulkTaskResult.Status.NOT_FOUND);
+            } else if (current.getState() == state) {
+                result.add(entry.getKey(), BulkTaskResult.Status.UNCHANGED);
+            } else if (allowedSources.contains(current.getState())) {
+                result.add(entry.getKey(), BulkTaskResult.Status.UPDATED);
+                updated.add(entry.getKey());
+            } else {
+                result.add(entry.getKey(), BulkTaskResult.Status.CONFLICT);
+            }
+        }
+        if (!updated.isEmpty()) {
+            taskRepository.updateStateByIdIn(updated, allowedSources, state);
+            projectRevisionRepository.incrementForTasks(updated);
+            eventPublisher.publishEvent(TaskChangedEvent.ofIds(TaskChangedEvent.Type.STATE_CHANGED, updatedIds(result)));
+        }
+        return result;
+    }
+
+    /**
+     * Supprimer une tâche, en laissant une trace pour la synchronisation incrémentale.
+     * Trois instructions, sans charger la tâche : incrément de la révision du projet, trace à cette révision, suppression.
+     *
+     * @param taskId L'ID de la tâche à supprimer.
+     * @throws TaskNotFoundException Si la tâche n'existe pas.
+     */
+    @Override
+    @Transactional
+    public void deleteTask(Long taskId) {
+        projectRevisionRepository.incrementForTasks(Set.of(taskId));
+        taskTombstoneRepository.recordDeletion(taskId);
+        if (taskRepository.deleteTask(taskId) == 0) {
+            throw new TaskNotFoundException("Task not found with id: " + taskId);
+        }
+        eventPublisher.publishEvent(TaskChangedEvent.ofIds(TaskChangedEvent.Type.DELETED, List.of(taskId)));
+    }
 
-        // Convertir la chaine 'newState' en valeur de l'enum
+    /**
+     * Incrémenter la révision d'un projet avant d'y modifier des tâches, et la retourner.
+     *
+     * @param projectId L'ID du projet.
+     * @return La nouvelle révision, à enregistrer sur les tâches modifiées.
+     */
+    private long nextRevision(Long projectId) {
+        projectRevisionRepository.increment(projectId);
+        return projectRevisionRepository.findRevision(projectId).orElse(0L);
+    }
+
+    /**
+     * Convertir un état reçu sous forme de chaîne.
+     *
+     * @param newState L'état (ex. "TO_DO", "IN_PROGRESS", "DONE").
+     * @return La valeur de l'enum correspondante.
+     * @throws IllegalArgumentException Si l'état est absent ou invalide.
+     */
+    private Task.StateTask parseState(String newState) {
         try {
-            Task.StateTask state = Task.StateTask.valueOf(newState);
-            task.setState(state);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Invalid state: " + newState);
+            return Task.StateTask.valueOf(newState);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid state: " + newState);
         }
+    }
 
-        // Sauvegarder la tâche
-        Task savedTask = taskRepository.save(task);
+    /**
+     * Assigner un utilisateur à plusieurs tâches en une seule instruction UPDATE.
+     * Les tâches déjà assignées à l'utilisateur sont signalées inchangées et les IDs inexistants comme introuvables,
+     * sans faire échouer les autres. Seuls les projets dont une tâche a été modifiée changent de révision.
+     *
+     * @param taskIds Les IDs des tâches à modifier (les doublons sont ignorés).
+     * @param userId L'ID de l'utilisateur à assigner.
+     * @return Le résultat pour chaque ID, dans l'ordre de la requête.
+     * @throws UserNotFoundException Si l'utilisateur n'est pas trouvé.
+     * @throws IllegalArgumentException Si l'utilisateur est absent ou si le lot dépasse {@link #MAX_BULK_UPDATE} tâches.
+     */
+    @Override
+    @Transactional
+    public BulkTaskResult assignUserToTasks(List<Long> taskIds, Long userId) {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required");
+        }
+        Set<Long> ids = distinctIds(taskIds);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found with id: " + userId));
+        if (ids.isEmpty()) {
+            return new BulkTaskResult();
+        }
 
-        // Retourner un TaskDto mis à jour
-        return mapToDto(savedTask);
+        BulkTaskResult result = new BulkTaskResult();
+        Set<Long> updated = new HashSet<>();
+        for (Map.Entry<Long, TaskStateView> entry : lockAndReadStates(ids).entrySet()) {
+            TaskStateView current = entry.getValue();
+            if (current == null) {
+                result.add(entry.getKey(), BulkTaskResult.Status.NOT_FOUND);
+            } else if (userId.equals(current.getUserId())) {
+                result.add(entry.getKey(), BulkTaskResult.Status.UNCHANGED);
+            } else {
+                result.add(entry.getKey(), BulkTaskResult.Status.UPDATED);
+                updated.add(entry.getKey());
+            }
+        }
+        if (!updated.isEmpty()) {
+            taskRepository.updateUserByIdIn(updated, user);
+            projectRevisionRepository.incrementForTasks(updated);
+            eventPublisher.publishEvent(TaskChangedEvent.ofIds(TaskChangedEvent.Type.ASSIGNED, updatedIds(result)));
+        }
+        return result;
+    }
+
+    /**
+     * Dédoublonner les IDs d'une modification en masse en conservant leur ordre, et vérifier la taille du lot.
+     *
+     * @param taskIds Les IDs reçus.
+     * @return Les IDs distincts, dans l'ordre de la requête.
+     * @throws IllegalArgumentException Si le lot dépasse {@link #MAX_BULK_UPDATE} tâches.
+     */
+    private Set<Long> distinctIds(List<Long> taskIds) {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (taskIds != null) {
+            taskIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        if (ids.size() > MAX_BULK_UPDATE) {
+            throw new IllegalArgumentException("Too many tasks: at most " + MAX_BULK_UPDATE + " per request");
+        }
+        return ids;
+    }
+
+    /**
+     * Verrouiller les révisions des projets d'un lot de tâches, puis lire l'état courant de ces tâches.
+     * Toute écriture d'une tâche commence par la révision de son projet : tant que la transaction détient ces verrous,
+     * les états lus ne peuvent plus changer, et le lot peut être classé avant l'UPDATE.
+     *
+     * @param ids Les IDs demandés, dans l'ordre de la requête.
+     * @return L'état de chaque tâche, ou null si elle n'existe pas, dans l'ordre de la requête.
+     */
+    private Map<Long, TaskStateView> lockAndReadStates(Set<Long> ids) {
+        projectRevisionRepository.lockForTasks(ids);
+        Map<Long, TaskStateView> states = new HashMap<>();
+        for (TaskStateView view : taskRepository.findStatesByIdIn(ids)) {
+            states.put(view.getId(), view);
+        }
+        Map<Long, TaskStateView> ordered = new LinkedHashMap<>();
+        for (Long id : ids) {
+            ordered.put(id, states.get(id));
+        }
+        return ordered;
+    }
+
+    /**
+     * IDs des tâches modifiées par une modification en masse, dans l'ordre de la requête.
+     *
+     * @param result Le résultat de la modification.
+     * @return Les IDs des tâches dont le statut est `UPDATED`.
+     */
+    private static List<Long> updatedIds(BulkTaskResult result) {
+        return result.getResults().stream()
+                .filter(item -> item.getStatus() == BulkTaskResult.Status.UPDATED)
+                .map(BulkTaskResult.Item::getId)
+                .toList();
     }
 
     /**
@@ -179,14 +567,15 @@ public class TaskServiceImpl implements TaskService {
     }
 
     /**
-     * Mapper un DTO TaskDto en une entité Task.
+     * Mapper un DTO TaskDto en une nouvelle entité Task.
+     * L'identifiant éventuellement fourni par le client est ignoré : il est attribué par la séquence,
+     * une tâche portant un ID serait fusionnée avec une tâche existante au lieu d'être insérée.
      *
      * @param taskDto Le DTO TaskDto à mapper.
-     * @return L'entité Task correspondante.
+     * @return L'entité Task correspondante, sans identifiant.
      */
     private Task mapToEntity(TaskDto taskDto) {
         Task task = new Task();
-        task.setId(taskDto.getId());
         task.setDescription(taskDto.getDescription());
         task.setDueDate(taskDto.getDueDate());
         if (taskDto.getState() != null) {
@@ -213,4 +602,10 @@ public class TaskServiceImpl implements TaskService {
             super(message);
         }
     }
+
+    public static class ChangesExpiredException extends RuntimeException {
+        public ChangesExpiredException(String message) {
+            super(message);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.example.project.Service;
+
+import com.example.project.Repository.ProjectRevisionRepository;
+import com.example.project.Repository.TaskTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Service de rétention des traces des tâches supprimées.
+ * Les traces plus anciennes que la durée de rétention sont purgées périodiquement ; chaque projet retient
+ * la plus haute révision purgée, en deçà de laquelle la synchronisation incrémentale est refusée
+ * (voir {@link TaskServiceImpl#getTaskChanges}).
+ */
+@Service
+public class TaskTombstoneService {
+    private final TaskTombstoneRepository taskTombstoneRepository;
+    private final ProjectRevisionRepository projectRevisionRepository;
+    private final Duration retention;
+
+    /**
+     * Constructeur de la classe TaskTombstoneService.
+     *
+     * @param taskTombstoneRepository Le repository des traces de suppression des tâches.
+     * @param projectRevisionRepository Le repository des révisions des projets.
+     * @param retention La durée de conservation d'une trace de suppression.
+     */
+    public TaskTombstoneService(TaskTombstoneRepository taskTombstoneRepository,
+                                ProjectRevisionRepository projectRevisionRepository,
+                                @Value("${tasks.tombstones.retention:30d}") Duration retention) {
+        this.taskTombstoneRepository = taskTombstoneRepository;
+        this.projectRevisionRepository = projectRevisionRepository;
+        this.retention = retention;
+    }
+
+    /**
+     * Purger périodiquement les traces plus anciennes que la durée de rétention.
+     * La révision purgée des projets est relevée dans la même transaction que la suppression des traces :
+     * une synchronisation ne peut pas lire l'une sans l'autre.
+     *
+     * @return Le nombre de traces supprimées.
+     */
+    @Scheduled(fixedDelayString = "${tasks.tombstones.purge-interval:1h}")
+    @Transactional
+    public int purgeExpiredTombstones() {
+        Instant before = Instant.now().minus(retention);
+        projectRevisionRepository.raisePrunedRevisions(before);
+        return taskTombstoneRepository.deleteRecordedBefore(before);
+    }
+}
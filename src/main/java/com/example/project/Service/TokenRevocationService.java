@@ -0,0 +1,228 @@
+package com.example.project.Service;
+
+import com.example.project.Entity.RevokedToken;
+import com.example.project.Repository.RefreshTokenRepository;
+import com.example.project.Repository.RevokedTokenRepository;
+import com.example.project.Security.BloomFilter;
+import com.example.project.Security.JWTUtil;
+import com.example.project.Security.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service de révocation des JWT d'accès avant leur expiration (déconnexion, révocation par un administrateur),
+ * ou de la seule appartenance à un projet qu'ils portent (retrait d'un membre).
+ * Chaque requête authentifiée est d'abord confrontée à un filtre de Bloom en mémoire : un jeton jamais révoqué
+ * est accepté sans requête SQL. La base n'est interrogée que sur une réponse positive du filtre.
+ * Les révocations expirent avec les jetons qu'elles visent ; le filtre est reconstruit périodiquement
+ * à partir des révocations encore utiles, ce qui le garde petit et propage les révocations
+ * enregistrées par les autres instances.
+ */
+@Service
+public class TokenRevocationService {
+    private static final String JTI_PREFIX = "jti:";
+    private static final String USER_PREFIX = "user:";
+    private static final String MEMBER_PREFIX = "member:";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration accessTokenTtl;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+
+    /**
+     * Filtre consulté par les requêtes.
+     */
+    private volatile BloomFilter current;
+
+    /**
+     * Filtre en cours de reconstruction : les révocations enregistrées pendant la reconstruction y sont aussi ajoutées.
+     */
+    private volatile BloomFilter building;
+
+    private final Counter bloomHits;
+    private final Counter confirmedRevocations;
+
+    /**
+     * Constructeur de la classe TokenRevocationService.
+     *
+     * @param revokedTokenRepository Le repository des révocations.
+     * @param refreshTokenRepository Le repository des jetons de rafraîchissement.
+     * @param jwtUtil L'utilitaire JWT, pour la durée de validité des jetons d'accès.
+     * @param expectedRevocations Le nombre de révocations actives prévu (dimensionnement du filtre).
+     * @param falsePositiveRate Le taux de faux positifs visé pour le filtre.
+     * @param meterRegistry Le registre de métriques.
+     */
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  RefreshTokenRepository refreshTokenRepository,
+                                  JWTUtil jwtUtil,
+                                  @Value("${security.jwt.revocation.expected-entries:10000}") int expectedRevocations,
+                                  @Value("${security.jwt.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.accessTokenTtl = jwtUtil.getAccessTokenTtl();
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = new BloomFilter(expectedRevocations, falsePositiveRate);
+        this.bloomHits = Counter.builder("jwt.revocation.bloom.hits")
+                .description("Jetons signalés par le filtre de Bloom et vérifiés en base")
+                .register(meterRegistry);
+        this.confirmedRevocations = Counter.builder("jwt.revocation.rejected")
+                .description("Jetons refusés car révoqués")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indiquer si un jeton vérifié a été révoqué.
+     * Sans réponse positive du filtre de Bloom, aucune requête SQL n'est exécutée.
+     *
+     * @param token Le jeton vérifié.
+     * @return true si le jeton est révoqué, false sinon.
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        BloomFilter filter = current;
+        List<String> candidates = new ArrayList<>(2);
+        if (token.getTokenId() != null && filter.mightContain(JTI_PREFIX + token.getTokenId())) {
+            candidates.add(JTI_PREFIX + token.getTokenId());
+        }
+        if (filter.mightContain(USER_PREFIX + token.getUserId())) {
+            candidates.add(USER_PREFIX + token.getUserId());
+        }
+        if (candidates.isEmpty()) {
+            return false;
+        }
+
+        bloomHits.increment();
+        boolean revoked = revokedTokenRepository.isRevoked(candidates, token.getIssuedAt());
+        if (revoked) {
+            confirmedRevocations.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Révoquer un jeton d'accès précis (déconnexion).
+     * Un jeton émis sans identifiant ne peut pas être visé seul : tous les jetons de l'utilisateur sont alors révoqués.
+     *
+     * @param token Le jeton vérifié à révoquer.
+     */
+    public void revoke(VerifiedToken token) {
+        if (token.getTokenId() == null) {
+            revokeAllForUser(token.getUserId());
+            return;
+        }
+        record(new RevokedToken(JTI_PREFIX + token.getTokenId(), revocationInstant(), token.getExpiresAt()));
+    }
+
+    /**
+     * Révoquer tous les jetons déjà émis pour un utilisateur (révocation par un administrateur, changement de mot de passe).
+     * Ses jetons de rafraîchissement sont supprimés : il doit se reconnecter.
+     *
+     * @param userId L'ID de l'utilisateur.
+     */
+    public void revokeAllForUser(Long userId) {
+        Instant revokedAt = revocationInstant();
+        // Tous les jetons émis avant la révocation auront expiré après une durée de validité
+        record(new RevokedToken(USER_PREFIX + userId, revokedAt, revokedAt.plus(accessTokenTtl)));
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Révoquer l'appartenance à un projet portée par les jetons déjà émis pour un utilisateur (retrait d'un membre).
+     * Les jetons restent valides pour ses autres projets, et ses jetons de rafraîchissement sont conservés :
+     * le prochain rafraîchissement émet un jeton sans ce projet.
+     *
+     * @param userId L'ID de l'utilisateur.
+     * @param projectId L'ID du projet.
+     */
+    public void revokeMembership(Long userId, Long projectId) {
+        Instant revokedAt = revocationInstant();
+        record(new RevokedToken(memberKey(projectId, userId), revokedAt, revokedAt.plus(accessTokenTtl)));
+    }
+
+    /**
+     * Indiquer si l'appartenance à un projet portée par un jeton vérifié a été révoquée depuis son émission.
+     * Comme pour {@link #isRevoked(VerifiedToken)}, la base n'est interrogée que sur une réponse positive du filtre.
+     *
+     * @param token Le jeton vérifié.
+     * @param projectId L'ID du projet.
+     * @return true si l'appartenance portée par le jeton n'est plus valable, false sinon.
+     */
+    public boolean isMembershipRevoked(VerifiedToken token, Long projectId) {
+        String key = memberKey(projectId, token.getUserId());
+        if (!current.mightContain(key)) {
+            return false;
+        }
+        bloomHits.increment();
+        return revokedTokenRepository.isRevoked(List.of(key), token.getIssuedAt());
+    }
+
+    /**
+     * Reconstruire le filtre de Bloom à partir des révocations non expirées, après avoir supprimé les autres.
+     * Appelée au démarrage puis périodiquement.
+     */
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.rebuild-interval:30s}",
+            initialDelayString = "${security.jwt.revocation.rebuild-interval:30s}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(now);
+
+        BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveRate);
+        // Publier le nouveau filtre avant la lecture : une révocation concurrente y est ajoutée directement
+        building = next;
+        List<String> keys = revokedTokenRepository.findActiveKeys(now);
+        if (keys.size() > expectedRevocations) {
+            // Redimensionner pour conserver le taux de faux positifs visé
+            next = new BloomFilter(keys.size() * 2, falsePositiveRate);
+            building = next;
+            keys = revokedTokenRepository.findActiveKeys(now);
+        }
+        keys.forEach(next::put);
+        current = next;
+        building = null;
+    }
+
+    /**
+     * Enregistrer une révocation en base puis l'ajouter au filtre.
+     * L'ajout au filtre suit l'écriture validée : une reconstruction concurrente la lit donc en base
+     * ou la reçoit directement.
+     *
+     * @param revokedToken La révocation à enregistrer.
+     */
+    private void record(RevokedToken revokedToken) {
+        revokedTokenRepository.save(revokedToken);
+        BloomFilter pending = building;
+        if (pending != null) {
+            pending.put(revokedToken.getRevocationKey());
+        }
+        current.put(revokedToken.getRevocationKey());
+    }
+
+    private static String memberKey(Long projectId, Long userId) {
+        return MEMBER_PREFIX + projectId + ":" + userId;
+    }
+
+    /**
+     * Date de révocation arrondie à la microseconde supérieure, précision de la date d'émission des jetons
+     * (voir {@link VerifiedToken#getIssuedAt()}) : un jeton émis juste après la révocation, par exemple à la connexion
+     * qui suit une déconnexion de toutes les sessions, reste valide. Un jeton sans les microsecondes d'émission
+     * a une date tronquée à la seconde, donc antérieure : il est révoqué par prudence s'il date de la même seconde.
+     *
+     * @return La date de révocation.
+     */
+    private static Instant revocationInstant() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+    }
+}
@@ -1,24 +1,33 @@
 package com.example.project.Service;
 
+import com.example.project.DTO.AuthTokens;
 import com.example.project.Repository.UserRepository;
 import com.example.project.Entity.User;
 import com.example.project.Security.JWTUtil;
+import com.example.project.Security.PasswordHashingExecutor;
 import org.springframework.stereotype.Service;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service pour la gestion des utilisateurs.
  * Cette classe contient les méthodes de gestion des utilisateurs, y compris l'enregistrement,
  * l'authentification, la recherche d'un utilisateur par son ID et la récupération des utilisateurs par une liste d'IDs.
+ * Les méthodes qui hachent un mot de passe ne s'exécutent dans aucune transaction : chaque accès au repository
+ * est une transaction courte, et aucune connexion n'est retenue pendant le hachage.
  */
 @Service
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JWTUtil jwtUtil;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final RefreshTokenService refreshTokenService;
 
     /**
      * Constructeur de la classe UserService.
@@ -26,25 +35,72 @@ public class UserService {
      * @param userRepository Le repository pour accéder aux utilisateurs dans la base de données.
      * @param passwordEncoder L'encodeur pour sécuriser les mots de passe des utilisateurs.
      * @param jwtUtil L'utilitaire pour générer et valider les tokens JWT.
+     * @param hashingExecutor L'exécuteur dédié au hachage des mots de passe.
+     * @param refreshTokenService Le service de délivrance des jetons de rafraîchissement.
      */
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JWTUtil jwtUtil) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JWTUtil jwtUtil,
+                       PasswordHashingExecutor hashingExecutor, RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
+        this.hashingExecutor = hashingExecutor;
+        this.refreshTokenService = refreshTokenService;
     }
 
     /**
      * Enregistrer un nouvel utilisateur dans la base de données.
      * Cette méthode encode le mot de passe de l'utilisateur avant de l'enregistrer.
+     * L'utilisateur est toujours créé comme membre, quel que soit le rôle reçu, et jamais à la place
+     * d'un utilisateur existant, quel que soit l'ID reçu.
      *
      * @param user L'utilisateur à enregistrer.
      * @return L'utilisateur enregistré avec le mot de passe encodé.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User saveUser(User user) {
+        user.setId(null);
+        user.setRole(User.Role.member);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         return userRepository.save(user);
     }
 
+    /**
+     * Enregistrer un nouvel utilisateur sur l'exécuteur de hachage, sans bloquer le thread appelant.
+     *
+     * @param user L'utilisateur à enregistrer.
+     * @return Un futur complété avec l'utilisateur enregistré.
+     * @throws PasswordHashingExecutor.PasswordHashingRejectedException Si la capacité de hachage est saturée.
+     */
+    public CompletableFuture<User> saveUserAsync(User user) {
+        return hashingExecutor.submit(() -> saveUser(user));
+    }
+
+    /**
+     * Connecter un utilisateur sur l'exécuteur de hachage, sans bloquer le thread appelant.
+     *
+     * @param email L'email de l'utilisateur pour l'authentification.
+     * @param password Le mot de passe de l'utilisateur pour l'authentification.
+     * @return Un futur complété avec les jetons délivrés, ou en erreur si l'authentification échoue.
+     * @throws PasswordHashingExecutor.PasswordHashingRejectedException Si la capacité de hachage est saturée.
+     */
+    public CompletableFuture<AuthTokens> loginAsync(String email, String password) {
+        return hashingExecutor.submit(() -> login(email, password));
+    }
+
+    /**
+     * Connecter un utilisateur : vérifier ses identifiants puis délivrer un JWT d'accès de courte durée,
+     * portant son rôle et ses projets, et un jeton de rafraîchissement.
+     *
+     * @param email L'email de l'utilisateur pour l'authentification.
+     * @param password Le mot de passe de l'utilisateur pour l'authentification.
+     * @return Le JWT d'accès et le jeton de rafraîchissement.
+     * @throws IllegalArgumentException Si l'utilisateur n'est pas trouvé ou si le mot de passe est incorrect.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public AuthTokens login(String email, String password) {
+        return refreshTokenService.issueTokens(verifyCredentials(email, password));
+    }
+
     /**
      * Authentifier un utilisateur en fonction de son email et mot de passe.
      * Si l'authentification est réussie, un token JWT est généré et retourné.
@@ -54,7 +110,22 @@ public class UserService {
      * @return Le token JWT de l'utilisateur si l'authentification réussit.
      * @throws IllegalArgumentException Si l'utilisateur n'est pas trouvé ou si le mot de passe est incorrect.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public String authenticate(String email, String password) {
+        // Générer un JWT
+        return jwtUtil.generateToken(verifyCredentials(email, password).getId());
+    }
+
+    /**
+     * Vérifier l'email et le mot de passe d'un utilisateur.
+     * Si le hachage enregistré utilise un coût inférieur au coût calibré, il est recalculé et enregistré.
+     *
+     * @param email L'email de l'utilisateur.
+     * @param password Le mot de passe en clair.
+     * @return L'utilisateur authentifié.
+     * @throws IllegalArgumentException Si l'utilisateur n'est pas trouvé ou si le mot de passe est incorrect.
+     */
+    private User verifyCredentials(String email, String password) {
         // Chercher l'utilisateur par email
         Optional<User> optionalUser = userRepository.findByEmail(email);
 
@@ -63,8 +134,12 @@ public class UserService {
 
             // Vérifier le mot de passe
             if (passwordEncoder.matches(password, user.getPassword())) {
-                // Générer un JWT
-                return jwtUtil.generateToken(user.getId());
+                // Mettre à niveau le hachage s'il utilise un format ou un coût obsolète
+                if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                    user.setPassword(passwordEncoder.encode(password));
+                    userRepository.save(user);
+                }
+                return user;
             } else {
                 throw new IllegalArgumentException("Mot de passe incorrect");
             }
@@ -80,6 +155,7 @@ public class UserService {
      * @return L'utilisateur trouvé.
      * @throws RuntimeException Si l'utilisateur avec l'ID spécifié n'est pas trouvé.
      */
+    @Transactional(readOnly = true)
     public User findById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Utilisateur avec l'ID " + id + " non trouvé"));
@@ -91,6 +167,7 @@ public class UserService {
      * @param userIds La liste des IDs des utilisateurs à récupérer.
      * @return La liste des utilisateurs trouvés.
      */
+    @Transactional(readOnly = true)
     public List<User> getUsersByIds(List<Long> userIds) {
         // Récupère tous les utilisateurs correspondant aux IDs
         return userRepository.findAllById(userIds);
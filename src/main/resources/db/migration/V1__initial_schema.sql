@@ -0,0 +1,75 @@
+-- Schéma initial, repris du schéma généré jusqu'ici par Hibernate (ddl-auto=update),
+-- complété par les index secondaires des requêtes des repositories.
+-- Les clés étrangères sont déclarées en fin de script, une fois toutes les tables créées.
+
+create table users (
+    id       bigint generated by default as identity primary key,
+    username varchar(255) not null,
+    email    varchar(255) not null,
+    password varchar(255) not null,
+    role     enum ('admin', 'member'),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table project (
+    id            bigint generated by default as identity primary key,
+    name          varchar(255),
+    description   varchar(255),
+    date_creation date,
+    state         enum ('EN_COURS', 'TERMINE', 'TO_DO'),
+    creator_id    bigint not null
+);
+
+create table projet_utilisateur (
+    projet_id bigint not null,
+    user_id   bigint not null,
+    primary key (projet_id, user_id)
+);
+
+create table task (
+    id          bigint generated by default as identity primary key,
+    description varchar(255),
+    due_date    date,
+    state       enum ('DONE', 'IN_PROGRESS', 'TO_DO'),
+    project_id  bigint not null,
+    user_id     bigint
+);
+
+create table refresh_token (
+    id         bigint generated by default as identity primary key,
+    token_hash varchar(64) not null,
+    user_id    bigint not null,
+    expires_at timestamp(6) with time zone not null,
+    constraint uk_refresh_token_hash unique (token_hash)
+);
+
+create table revoked_token (
+    id             bigint generated by default as identity primary key,
+    revocation_key varchar(64) not null,
+    revoked_at     timestamp(6) with time zone not null,
+    expires_at     timestamp(6) with time zone not null
+);
+
+-- ProjectRepository.findByCreator, findProjectSummariesByUserId
+create index idx_project_creator on project (creator_id, id);
+-- ProjectRepository.findByMembersContains : projets d'un membre
+-- (la clé primaire (projet_id, user_id) couvre la recherche des membres d'un projet)
+create index idx_projet_utilisateur_user on projet_utilisateur (user_id, projet_id);
+-- TaskRepository.findByProjectId, findDtosByProjectId (tri par id)
+create index idx_task_project on task (project_id, id);
+-- Tâches assignées à un utilisateur
+create index idx_task_user on task (user_id);
+-- RefreshTokenRepository.deleteByUserId, deleteExpired
+create index idx_refresh_token_user on refresh_token (user_id);
+create index idx_refresh_token_expires on refresh_token (expires_at);
+-- RevokedTokenRepository.isRevoked, findActiveKeys, deleteExpired
+create index idx_revoked_token_key on revoked_token (revocation_key, revoked_at);
+create index idx_revoked_token_expires on revoked_token (expires_at);
+
+alter table project add constraint fk_project_creator foreign key (creator_id) references users (id);
+alter table projet_utilisateur add constraint fk_projet_utilisateur_projet foreign key (projet_id) references project (id);
+alter table projet_utilisateur add constraint fk_projet_utilisateur_user foreign key (user_id) references users (id);
+alter table task add constraint fk_task_project foreign key (project_id) references project (id);
+alter table task add constraint fk_task_user foreign key (user_id) references users (id);
+alter table refresh_token add constraint fk_refresh_token_user foreign key (user_id) references users (id);
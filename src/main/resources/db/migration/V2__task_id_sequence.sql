@@ -0,0 +1,8 @@
+-- Identifiants des tâches tirés d'une séquence par blocs de 50 (optimiseur "pooled" d'Hibernate) :
+-- les insertions de tâches peuvent alors être regroupées en lots JDBC, ce qu'interdit une colonne identity.
+-- Avec cet optimiseur, la valeur retournée par la séquence est la borne haute du bloc réservé :
+-- la séquence démarre donc 50 au-delà du plus grand identifiant existant.
+create sequence task_seq start with 50 increment by 50;
+alter sequence task_seq restart with (select coalesce(max(id), 0) + 50 from task);
+
+alter table task alter column id drop identity;
@@ -0,0 +1,4 @@
+-- Verrouillage optimiste des tâches et des projets (@Version) : remplace les verrous en mémoire,
+-- inopérants entre deux instances d'entité ou deux nœuds.
+alter table task add column version bigint default 0 not null;
+alter table project add column version bigint default 0 not null;
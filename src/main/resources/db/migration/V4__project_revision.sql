@@ -0,0 +1,13 @@
+-- Révision de chaque projet, incrémentée à chaque modification du projet, de ses membres ou de ses tâches.
+-- Elle sert d'ETag aux listes de projets et de tâches : une requête conditionnelle ne lit qu'une ligne.
+-- Table séparée de project : l'incrément ne touche ni la version optimiste ni le cache de second niveau des projets.
+create table project_revision (
+    project_id bigint not null,
+    revision bigint default 0 not null,
+    primary key (project_id)
+);
+
+insert into project_revision (project_id, revision) select id, 0 from project;
+
+alter table project_revision add constraint fk_project_revision_project
+    foreign key (project_id) references project (id) on delete cascade;
@@ -0,0 +1,19 @@
+-- Synchronisation incrémentale des tâches (GET /api/projects/{id}/tasks/changes?since=) :
+-- chaque tâche porte la révision de son projet lors de sa dernière modification,
+-- et chaque suppression laisse une trace (tombstone) à la révision de la suppression.
+-- Les tâches existantes n'ont pas changé depuis la révision 0.
+alter table task add column change_revision bigint default 0 not null;
+
+create table task_tombstone (
+    task_id bigint not null,
+    project_id bigint not null,
+    revision bigint not null,
+    primary key (task_id)
+);
+
+-- TaskRepository.findDtosChangedSince, TaskTombstoneRepository.findDeletedIdsSince
+create index idx_task_project_change on task (project_id, change_revision);
+create index idx_task_tombstone_project on task_tombstone (project_id, revision);
+
+alter table task_tombstone add constraint fk_task_tombstone_project
+    foreign key (project_id) references project (id) on delete cascade;
@@ -0,0 +1,9 @@
+-- Rétention des traces de suppression : les traces plus anciennes que tasks.tombstones.retention
+-- sont purgées périodiquement. pruned_revision retient, par projet, la plus haute révision purgée :
+-- un client dont la révision est antérieure ne peut plus apprendre toutes les suppressions
+-- et doit recharger toutes les tâches.
+alter table task_tombstone add column deleted_at timestamp(6) with time zone default current_timestamp not null;
+alter table project_revision add column pruned_revision bigint default 0 not null;
+
+-- TaskTombstoneRepository.deleteRecordedBefore, ProjectRevisionRepository.raisePrunedRevisions
+create index idx_task_tombstone_deleted_at on task_tombstone (deleted_at);
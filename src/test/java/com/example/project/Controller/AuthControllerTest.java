@@ -1,19 +1,42 @@
 package com.example.project.Controller;
 
+import com.example.project.DTO.AuthTokens;
 import com.example.project.DTO.LoginRequest;
+import com.example.project.Security.PasswordHashingExecutor.PasswordHashingRejectedException;
+import com.example.project.Security.AuthenticatedUser;
+import com.example.project.Security.LoginRateLimiter;
+import com.example.project.Security.VerifiedToken;
+import com.example.project.Service.RefreshTokenService;
+import com.example.project.Service.TokenRevocationService;
 import com.example.project.Service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,9 +47,22 @@ public class AuthControllerTest {
     @Mock
     private UserService userService;
 
-    @InjectMocks
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     private AuthController authController;
 
+    @BeforeEach
+    public void setup() {
+        LoginRateLimiter loginRateLimiter = new LoginRateLimiter(3, 2, Duration.ofMinutes(1), 1000, new SimpleMeterRegistry());
+        authController = new AuthController(userService, refreshTokenService, tokenRevocationService,
+                loginRateLimiter, true);
+        mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
+    }
+
     @Test
     public void login_With_Valid_Credentials_Returns_JwtToken() throws Exception {
         // Préparation des données
@@ -39,10 +75,9 @@ public class AuthControllerTest {
         loginRequest.setPassword(password);
 
         // Simulation du comportement du service
-        when(userService.authenticate(email, password)).thenReturn(jwt);
-
-        // Configuration de MockMvc
-        mockMvc = MockMvcBuilders.standaloneSetup(authController).build();
+        when(userService.loginAsync(email, password))
+                .thenReturn(CompletableFuture.completedFuture(new AuthTokens(jwt, "dummy-refresh-token")));
+        when(refreshTokenService.getTtl()).thenReturn(Duration.ofDays(14));
 
         // Corps de la requête JSON
         String requestBody = """
@@ -52,13 +87,136 @@ public class AuthControllerTest {
                 }
                 """;
 
-        // Exécution de la requête POST et vérifications
-        mockMvc.perform(post("/auth/login")
+        // Exécution de la requête POST (asynchrone) et vérifications
+        MvcResult result = mockMvc.perform(post("/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(requestBody))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(content().string(jwt));
+                .andExpect(content().string(jwt))
+                .andExpect(header().string("Set-Cookie", containsString("refresh_token=dummy-refresh-token")))
+                .andExpect(header().string("Set-Cookie", containsString("HttpOnly")));
     }
-}
 
+    @Test
+    public void login_With_Wrong_Password_Returns_Unauthorized() throws Exception {
+        when(userService.loginAsync("test@example.com", "wrong"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("Mot de passe incorrect")));
+
+        MvcResult result = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"test@example.com\", \"password\": \"wrong\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isUnauthorized())
+                .andExpect(content().string("Mot de passe incorrect"));
+    }
+
+    @Test
+    public void login_When_Hashing_Saturated_Returns_ServiceUnavailable() throws Exception {
+        when(userService.loginAsync("test@example.com", "password123"))
+                .thenThrow(new PasswordHashingRejectedException("saturé"));
+
+        MvcResult result = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"test@example.com\", \"password\": \"password123\"}"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    public void login_Beyond_Rate_Limit_Returns_TooManyRequests_Without_Authenticating() throws Exception {
+        when(userService.loginAsync(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("Mot de passe incorrect")));
+        String body = "{\"email\": \"victim@example.com\", \"password\": \"guess\"}";
+
+        // Le seau de l'email autorise deux tentatives
+        for (int i = 0; i < 2; i++) {
+            MvcResult result = mockMvc.perform(post("/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().isUnauthorized());
+        }
+
+        MvcResult result = mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
 
+        verify(userService, times(2)).loginAsync(anyString(), anyString());
+    }
+
+    @Test
+    public void refresh_With_Valid_Cookie_Returns_New_JwtToken() throws Exception {
+        when(refreshTokenService.refresh("old-refresh-token"))
+                .thenReturn(new AuthTokens("new-jwt-token", "new-refresh-token"));
+        when(refreshTokenService.getTtl()).thenReturn(Duration.ofDays(14));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .cookie(new Cookie("refresh_token", "old-refresh-token")))
+                .andExpect(status().isOk())
+                .andExpect(content().string("new-jwt-token"))
+                .andExpect(header().string("Set-Cookie", containsString("refresh_token=new-refresh-token")));
+    }
+
+    @Test
+    public void refresh_With_Body_Token_Returns_New_JwtToken() throws Exception {
+        when(refreshTokenService.refresh("body-refresh-token"))
+                .thenReturn(new AuthTokens("new-jwt-token", "new-refresh-token"));
+        when(refreshTokenService.getTtl()).thenReturn(Duration.ofDays(14));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\": \"body-refresh-token\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("new-jwt-token"));
+    }
+
+    @Test
+    public void refresh_With_Invalid_Token_Returns_Unauthorized() throws Exception {
+        when(refreshTokenService.refresh("used-token"))
+                .thenThrow(new RefreshTokenService.InvalidRefreshTokenException("Jeton de rafraîchissement déjà utilisé"));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .cookie(new Cookie("refresh_token", "used-token")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void logout_Revokes_Access_And_Refresh_Tokens() throws Exception {
+        AuthenticatedUser principal = new AuthenticatedUser(1L, null, Set.of());
+        VerifiedToken token = new VerifiedToken(1L, Instant.now().plusSeconds(60), null, principal);
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        authentication.setDetails(token);
+
+        mockMvc.perform(post("/auth/logout")
+                        .principal(authentication)
+                        .cookie(new Cookie("refresh_token", "refresh-token")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Set-Cookie", containsString("Max-Age=0")));
+
+        verify(tokenRevocationService).revoke(token);
+        verify(refreshTokenService).revoke("refresh-token");
+    }
+
+    @Test
+    public void revokeUserTokens_Revokes_All_Tokens_Of_User() throws Exception {
+        mockMvc.perform(post("/auth/users/7/revoke"))
+                .andExpect(status().isOk());
+
+        verify(tokenRevocationService).revokeAllForUser(7L);
+    }
+}
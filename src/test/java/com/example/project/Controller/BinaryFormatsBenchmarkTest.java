@@ -0,0 +1,149 @@
+package com.example.project.Controller;
+
+import com.example.project.DTO.ProjectDTO;
+import com.example.project.DTO.TaskDto;
+import com.example.project.DTO.UserDTO;
+import com.example.project.Entity.Task;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comparaison JSON / CBOR / Smile sur les listes de tâches et de projets : taille des corps et temps médian
+ * d'encodage et de décodage, avec les mappers configurés par {@link BinaryFormatsConfig}.
+ * Seules la fidélité des décodages et la taille des corps sont vérifiées ; les temps, qui dépendent de la machine,
+ * sont publiés dans le journal du test.
+ */
+class BinaryFormatsBenchmarkTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryFormatsBenchmarkTest.class);
+
+    private static final int TASKS = 2_000;
+    private static final int PROJECTS = 100;
+    private static final int MEMBERS_PER_PROJECT = 10;
+    private static final int WARMUP = 20;
+    private static final int RUNS = 30;
+
+    private static final TypeReference<List<TaskDto>> TASK_LIST = new TypeReference<>() {};
+
+    private static Map<String, ObjectMapper> mappers() {
+        BinaryFormatsConfig config = new BinaryFormatsConfig();
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("cbor", config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper());
+        mappers.put("smile", config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper());
+        return mappers;
+    }
+
+    private static List<TaskDto> tasks() {
+        Task.StateTask[] states = Task.StateTask.values();
+        List<TaskDto> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            tasks.add(new TaskDto((long) i + 1, "Task " + i + " - préparer la revue du lot " + (i % 50),
+                    i % 3 == 0 ? null : LocalDate.of(2025, 1, 1).plusDays(i % 365),
+                    states[i % states.length], i % 4 == 0 ? null : (long) (i % 200), (long) (i % 40)));
+        }
+        return tasks;
+    }
+
+    private static List<ProjectDTO> projects() {
+        List<ProjectDTO> projects = new ArrayList<>(PROJECTS);
+        for (int i = 0; i < PROJECTS; i++) {
+            List<UserDTO> members = new ArrayList<>(MEMBERS_PER_PROJECT);
+            for (int j = 0; j < MEMBERS_PER_PROJECT; j++) {
+                long userId = (long) i * MEMBERS_PER_PROJECT + j;
+                members.add(new UserDTO(userId, "user" + userId, "user" + userId + "@example.com"));
+            }
+            projects.add(new ProjectDTO((long) i + 1, "Project " + i, "Description du projet " + i,
+                    LocalDate.of(2024, 6, 1).plusDays(i), "IN_PROGRESS", members.get(0), members));
+        }
+        return projects;
+    }
+
+    /**
+     * Mesurer le temps médian d'une opération, après des exécutions d'échauffement.
+     *
+     * @return Le temps médian, en microsecondes.
+     */
+    private static long medianMicros(Callable<?> operation) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.call();
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            operation.call();
+            samples[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+
+    @Test
+    @DisplayName("Listes de tâches - décodage fidèle et corps binaires plus petits que JSON")
+    void testTaskListFormats() throws Exception {
+        List<TaskDto> tasks = tasks();
+        Map<String, ObjectMapper> mappers = mappers();
+        ObjectMapper json = mappers.get("json");
+        byte[] reference = json.writeValueAsBytes(tasks);
+
+        StringBuilder report = new StringBuilder("TaskDto x " + TASKS + " :");
+        for (Map.Entry<String, ObjectMapper> format : mappers.entrySet()) {
+            ObjectMapper mapper = format.getValue();
+            byte[] encoded = mapper.writeValueAsBytes(tasks);
+            List<TaskDto> decoded = mapper.readValue(encoded, TASK_LIST);
+            assertArrayEquals(reference, json.writeValueAsBytes(decoded), "Décodage " + format.getKey() + " infidèle");
+            if (!format.getKey().equals("json")) {
+                assertTrue(encoded.length < reference.length,
+                        format.getKey() + " : " + encoded.length + " octets, JSON : " + reference.length);
+            }
+
+            long encode = medianMicros(() -> mapper.writeValueAsBytes(tasks));
+            long decode = medianMicros(() -> mapper.readValue(encoded, TASK_LIST));
+            report.append(String.format("%n  %-5s %8d octets (%3d %%)  encodage %6d µs  décodage %6d µs",
+                    format.getKey(), encoded.length, 100L * encoded.length / reference.length, encode, decode));
+        }
+        LOGGER.info(report.toString());
+    }
+
+    @Test
+    @DisplayName("Listes de projets - décodage fidèle et corps binaires plus petits que JSON")
+    void testProjectListFormats() throws Exception {
+        List<ProjectDTO> projects = projects();
+        Map<String, ObjectMapper> mappers = mappers();
+        ObjectMapper json = mappers.get("json");
+        byte[] reference = json.writeValueAsBytes(projects);
+
+        StringBuilder report = new StringBuilder("ProjectDTO x " + PROJECTS + " (" + MEMBERS_PER_PROJECT + " membres) :");
+        for (Map.Entry<String, ObjectMapper> format : mappers.entrySet()) {
+            ObjectMapper mapper = format.getValue();
+            byte[] encoded = mapper.writeValueAsBytes(projects);
+            // ProjectDTO n'a pas de constructeur par défaut : les clients le lisent comme un arbre
+            assertEquals(json.readTree(reference), mapper.readTree(encoded), "Décodage " + format.getKey() + " infidèle");
+            if (!format.getKey().equals("json")) {
+                assertTrue(encoded.length < reference.length,
+                        format.getKey() + " : " + encoded.length + " octets, JSON : " + reference.length);
+            }
+
+            long encode = medianMicros(() -> mapper.writeValueAsBytes(projects));
+            long decode = medianMicros(() -> mapper.readTree(encoded));
+            report.append(String.format("%n  %-5s %8d octets (%3d %%)  encodage %6d µs  décodage %6d µs",
+                    format.getKey(), encoded.length, 100L * encoded.length / reference.length, encode, decode));
+        }
+        LOGGER.info(report.toString());
+    }
+}
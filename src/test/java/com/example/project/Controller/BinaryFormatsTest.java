@@ -0,0 +1,148 @@
+package com.example.project.Controller;
+
+import com.example.project.DTO.CursorPage;
+import com.example.project.DTO.TaskDto;
+import com.example.project.Entity.Task;
+import com.example.project.Events.TaskEventBroker;
+import com.example.project.Service.AuthenticationService;
+import com.example.project.Service.TaskService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Négociation de contenu CBOR / Smile sur les routes existantes : mêmes DTO, encodage choisi par `Accept`
+ * (réponses) ou `Content-Type` (requêtes), et un ETag propre à chaque encodage.
+ */
+@ExtendWith(MockitoExtension.class)
+class BinaryFormatsTest {
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskEventBroker taskEventBroker;
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    private ObjectMapper cborMapper;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        BinaryFormatsConfig config = new BinaryFormatsConfig();
+        ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+        MappingJackson2CborHttpMessageConverter cbor = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+        cborMapper = cbor.getObjectMapper();
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(taskService, jsonMapper, taskEventBroker,
+                        authenticationService))
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(jsonMapper), cbor,
+                        config.smileHttpMessageConverter(Jackson2ObjectMapperBuilder.json()))
+                .setControllerAdvice(new VariantETagAdvice())
+                .build();
+    }
+
+    private void stubTasks() {
+        when(taskService.getTasksETag(1L)).thenReturn(Optional.of("\"1.7\""));
+        when(taskService.getTasksByProject(1L, null, null)).thenReturn(new CursorPage<>(List.of(
+                new TaskDto(101L, "Task 1", LocalDate.of(2025, 1, 31), Task.StateTask.TO_DO, null, 1L),
+                new TaskDto(102L, "Task 2", null, Task.StateTask.DONE, 10L, 1L)), null));
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/tasks (Accept: application/cbor) -> mêmes DTO en CBOR, ETag propre à l'encodage")
+    void testGetTasksAsCbor() throws Exception {
+        stubTasks();
+
+        byte[] body = mockMvc.perform(get("/api/projects/{projectId}/tasks", 1L).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"1.7+cbor\""))
+                .andExpect(header().stringValues("Vary", org.hamcrest.Matchers.hasItem("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<TaskDto> tasks = cborMapper.readValue(body, new TypeReference<>() {});
+        assertEquals(2, tasks.size());
+        assertEquals(LocalDate.of(2025, 1, 31), tasks.get(0).getDueDate());
+        assertEquals("DONE", tasks.get(1).getState());
+        assertEquals(10L, tasks.get(1).getUserId());
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/tasks (Accept: Smile) -> ETag suffixé ; JSON reste l'encodage par défaut")
+    void testGetTasksAsSmileAndJson() throws Exception {
+        stubTasks();
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", 1L).accept(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(BinaryFormatsConfig.APPLICATION_SMILE))
+                .andExpect(header().string("ETag", "\"1.7+smile\""));
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"1.7\""));
+    }
+
+    @Test
+    @DisplayName("If-None-Match avec l'ETag CBOR courant -> 304 confirmant la copie CBOR ; ETag périmé -> 200")
+    void testConditionalGetWithBinaryETag() throws Exception {
+        stubTasks();
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", 1L).accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "\"1.7+cbor\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1.7+cbor\""))
+                .andExpect(header().string("Vary", "Accept"));
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", 1L).accept(MediaType.APPLICATION_CBOR)
+                        .header("If-None-Match", "\"1.6+cbor\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1.7+cbor\""));
+    }
+
+    @Test
+    @DisplayName("POST /api/projects/{projectId}/tasks (Content-Type: application/cbor) -> corps décodé en TaskDto")
+    void testAddTaskFromCbor() throws Exception {
+        byte[] body = cborMapper.writeValueAsBytes(
+                new TaskDto(null, "Binary task", LocalDate.of(2025, 2, 1), Task.StateTask.IN_PROGRESS, 10L, null));
+
+        mockMvc.perform(post("/api/projects/{projectId}/tasks", 1L)
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Task added to project successfully"));
+
+        ArgumentCaptor<TaskDto> captor = ArgumentCaptor.forClass(TaskDto.class);
+        verify(taskService).addTaskToProject(eq(1L), captor.capture());
+        assertEquals("Binary task", captor.getValue().getDescription());
+        assertEquals(LocalDate.of(2025, 2, 1), captor.getValue().getDueDate());
+        assertEquals("IN_PROGRESS", captor.getValue().getState());
+        assertEquals(10L, captor.getValue().getUserId());
+    }
+}
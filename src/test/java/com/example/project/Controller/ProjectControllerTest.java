@@ -1,5 +1,7 @@
 package com.example.project.Controller;
 
+import com.example.project.DTO.BulkMembershipResult;
+import com.example.project.DTO.CursorPage;
 import com.example.project.DTO.ProjectCreationDTO;
 import com.example.project.DTO.ProjectDTO;
 import com.example.project.Entity.Project;
@@ -92,7 +94,7 @@ public class ProjectControllerTest {
         );
 
         when(authenticationService.getAuthenticatedUserId()).thenReturn(userId);
-        when(projectService.getProjectsByUser(userId)).thenReturn(projects);
+        when(projectService.getProjectsByUser(userId, null, null)).thenReturn(new CursorPage<>(projects, null));
 
         // Exécution et vérifications
         mockMvc.perform(get("/api/projects/me"))
@@ -104,7 +106,20 @@ public class ProjectControllerTest {
                 .andExpect(jsonPath("$[1].name").value("Project 2"));
 
         verify(authenticationService, times(1)).getAuthenticatedUserId();
-        verify(projectService, times(1)).getProjectsByUser(userId);
+        verify(projectService, times(1)).getProjectsByUser(userId, null, null);
+    }
+
+    @Test
+    public void getUserProjects_WithCurrentETag_ShouldReturnNotModified() throws Exception {
+        when(authenticationService.getAuthenticatedUserId()).thenReturn(1L);
+        when(projectService.getProjectsETag(1L, null, null)).thenReturn("\"abc\"");
+
+        mockMvc.perform(get("/api/projects/me").header("If-None-Match", "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc\""))
+                .andExpect(content().string(""));
+
+        verify(projectService, never()).getProjectsByUser(any(), any(), any());
     }
 
     @Test
@@ -115,7 +130,6 @@ public class ProjectControllerTest {
 
         // Mock des dépendances
         when(authenticationService.getAuthenticatedUserId()).thenReturn(authenticatedUserId);
-        when(projectService.assignUserToProject(projectId, authenticatedUserId)).thenReturn(null);
 
         // Exécution et vérifications
         mockMvc.perform(post("/api/projects/{projectId}/assign", projectId))
@@ -188,4 +202,42 @@ public class ProjectControllerTest {
         verify(authenticationService, times(1)).getAuthenticatedUserId();
         verify(projectService, times(1)).assignUserToProject(projectId, authenticatedUserId);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void addUsersToProject_ShouldReturnResultPerUser() throws Exception {
+        BulkMembershipResult result = new BulkMembershipResult();
+        result.add(2L, BulkMembershipResult.Status.ADDED);
+        result.add(3L, BulkMembershipResult.Status.ALREADY_MEMBER);
+        when(projectService.addUsersToProject(1L, List.of(2L, 3L))).thenReturn(result);
+
+        mockMvc.perform(post("/api/projects/{projectId}/members", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userIds\": [2, 3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.added").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("ALREADY_MEMBER"));
+    }
+
+    @Test
+    public void addUsersToProject_UnknownProject_ShouldReturnNotFound() throws Exception {
+        when(projectService.addUsersToProject(9L, List.of(2L)))
+                .thenThrow(new ProjectService.ProjectNotFoundException("Project not found"));
+
+        mockMvc.perform(post("/api/projects/{projectId}/members", 9L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userIds\": [2]}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Project not found"));
+    }
+
+    @Test
+    public void removeUserFromProject_ShouldReturnNoContentOrNotFound() throws Exception {
+        mockMvc.perform(delete("/api/projects/{projectId}/members/{userId}", 1L, 2L))
+                .andExpect(status().isNoContent());
+
+        doThrow(new IllegalArgumentException("User is not a member of the project"))
+                .when(projectService).removeUserFromProject(1L, 3L);
+        mockMvc.perform(delete("/api/projects/{projectId}/members/{userId}", 1L, 3L))
+                .andExpect(status().isNotFound());
+    }
+}
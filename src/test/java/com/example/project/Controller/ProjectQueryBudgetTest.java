@@ -0,0 +1,142 @@
+package com.example.project.Controller;
+
+import com.example.project.Entity.Project;
+import com.example.project.Entity.User;
+import com.example.project.Monitoring.QueryStatistics;
+import com.example.project.Monitoring.QueryStatisticsFilter;
+import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.UserRepository;
+import com.example.project.Security.AuthenticatedUser;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Budgets de requêtes des routes de projets, sur la vraie base : le nombre de requêtes SQL ne doit pas
+ * dépendre du nombre de projets ni de membres retournés.
+ */
+@SpringBootTest
+class ProjectQueryBudgetTest {
+
+    private static final int PROJECTS = 5;
+    private static final int MEMBERS_PER_PROJECT = 3;
+
+    @Autowired
+    private ProjectController projectController;
+
+    @Autowired
+    private QueryStatisticsFilter queryStatisticsFilter;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private MockMvc mockMvc;
+    private final List<Long> projectIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(projectController).addFilters(queryStatisticsFilter).build();
+
+        User owner = userRepository.save(new User("budget-owner", "budget-owner@example.com", "password"));
+        userIds.add(owner.getId());
+        for (int i = 0; i < PROJECTS; i++) {
+            Project project = new Project("Budget " + i, "Description", LocalDate.now(), Project.EtatProjet.TO_DO, owner);
+            project.addMember(owner);
+            for (int j = 0; j < MEMBERS_PER_PROJECT - 1; j++) {
+                User member = userRepository.save(new User("budget-" + i + "-" + j,
+                        "budget-" + i + "-" + j + "@example.com", "password"));
+                userIds.add(member.getId());
+                project.addMember(member);
+            }
+            projectIds.add(projectRepository.save(project).getId());
+        }
+
+        AuthenticatedUser principal = new AuthenticatedUser(owner.getId(), "user", Set.copyOf(projectIds));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        projectRepository.deleteAllById(projectIds);
+        userRepository.deleteAllById(userIds);
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/me - trois requêtes quel que soit le nombre de projets et de membres")
+    void testProjectsOfUserStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/projects/me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(PROJECTS))
+                .andExpect(jsonPath("$[0].members.length()").value(MEMBERS_PER_PROJECT))
+                .andExpect(QueryBudget.statements(3))
+                .andExpect(QueryBudget.entityLoads(0))
+                .andExpect(QueryBudget.collectionFetches(0));
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/me avec If-None-Match - 304 après la seule lecture des révisions")
+    void testNotModifiedReadsOnlyRevisions() throws Exception {
+        String eTag = mockMvc.perform(get("/api/projects/me"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/projects/me").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(QueryBudget.statements(1));
+    }
+
+    @Test
+    @DisplayName("Budget dépassé - le test doit échouer avec les statistiques de la requête")
+    void testBudgetOverrunFails() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/projects/me")).andReturn();
+
+        AssertionError error = assertThrows(AssertionError.class, () -> QueryBudget.statements(2).match(result));
+        assertTrue(error.getMessage().contains("/api/projects/me"), error.getMessage());
+        assertTrue(error.getMessage().contains("statements=3"), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Métriques - les statistiques de la requête sont publiées par route")
+    void testStatisticsArePublishedAsMetrics() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/projects/me")).andReturn();
+        QueryStatistics statistics = QueryBudget.of(result);
+
+        assertTrue(statistics.getJdbcNanos() > 0);
+        var statements = meterRegistry.find("hibernate.request.statements")
+                .tags("method", "GET", "uri", "/api/projects/me").summary();
+        assertNotNull(statements);
+        assertTrue(statements.count() >= 1);
+        assertEquals(statistics.getStatements(), (long) statements.max());
+        assertNotNull(meterRegistry.find("hibernate.request.jdbc.time")
+                .tags("method", "GET", "uri", "/api/projects/me").timer());
+    }
+}
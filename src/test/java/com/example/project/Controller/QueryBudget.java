@@ -0,0 +1,73 @@
+package com.example.project.Controller;
+
+import com.example.project.Monitoring.QueryStatistics;
+import com.example.project.Monitoring.QueryStatisticsFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Budgets de requêtes pour les tests de contrôleurs : une route qui dépasse le nombre de requêtes SQL
+ * déclaré fait échouer le test, ce qui détecte les N+1 avant la mise en production.
+ * Les statistiques sont celles publiées par {@link QueryStatisticsFilter}, qui doit être ajouté au MockMvc :
+ * <pre>
+ * MockMvcBuilders.standaloneSetup(controller).addFilters(queryStatisticsFilter).build();
+ * mockMvc.perform(get("/api/projects/me")).andExpect(QueryBudget.statements(2));
+ * </pre>
+ */
+final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    /**
+     * @param max Le nombre maximal d'instructions JDBC préparées par la requête.
+     * @return Le vérificateur du budget.
+     */
+    static ResultMatcher statements(long max) {
+        return atMost("instructions JDBC", QueryStatistics::getStatements, max);
+    }
+
+    /**
+     * @param max Le nombre maximal d'entités chargées par la requête.
+     * @return Le vérificateur du budget.
+     */
+    static ResultMatcher entityLoads(long max) {
+        return atMost("entités chargées", QueryStatistics::getEntityLoads, max);
+    }
+
+    /**
+     * @param max Le nombre maximal de collections récupérées à la demande par la requête.
+     * @return Le vérificateur du budget.
+     */
+    static ResultMatcher collectionFetches(long max) {
+        return atMost("collections récupérées à la demande", QueryStatistics::getCollectionFetches, max);
+    }
+
+    /**
+     * Obtenir les statistiques d'une requête exécutée.
+     *
+     * @param result Le résultat MockMvc.
+     * @return Les statistiques de la requête.
+     */
+    static QueryStatistics of(MvcResult result) {
+        QueryStatistics statistics =
+                (QueryStatistics) result.getRequest().getAttribute(QueryStatistics.REQUEST_ATTRIBUTE);
+        assertNotNull(statistics, "Aucune statistique : QueryStatisticsFilter n'est pas ajouté au MockMvc");
+        return statistics;
+    }
+
+    private static ResultMatcher atMost(String label, ToLongFunction<QueryStatistics> counter, long max) {
+        return result -> {
+            QueryStatistics statistics = of(result);
+            long actual = counter.applyAsLong(statistics);
+            assertTrue(actual <= max, "Budget dépassé pour " + result.getRequest().getMethod() + " "
+                    + result.getRequest().getRequestURI() + " : " + actual + " " + label + " pour " + max
+                    + " autorisées (" + statistics + ")");
+        };
+    }
+}
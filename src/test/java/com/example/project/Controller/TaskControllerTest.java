@@ -1,21 +1,38 @@
 package com.example.project.Controller;
 
+import com.example.project.DTO.BulkTaskResult;
+import com.example.project.DTO.CursorPage;
+import com.example.project.DTO.TaskChanges;
 import com.example.project.DTO.TaskDto;
+import com.example.project.Entity.Task;
+import com.example.project.Events.TaskEventBroker;
+import com.example.project.Service.AuthenticationService;
+import com.example.project.Service.OptimisticRetry;
 import com.example.project.Service.TaskService;
+import com.example.project.Service.TaskServiceImpl;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
@@ -31,13 +48,20 @@ class TaskControllerTest {
     @Mock
     private TaskService taskService;
 
-    @InjectMocks
-    private TaskController taskController;
+    @Mock
+    private TaskEventBroker taskEventBroker;
+
+    @Mock
+    private AuthenticationService authenticationService;
 
     private MockMvc mockMvc;
 
     @BeforeEach
     void setUp() {
+        // Même configuration de dates que le mapper de Spring Boot (ISO-8601)
+        TaskController taskController = new TaskController(taskService, Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build(), taskEventBroker, authenticationService);
         // Construction d'un MockMvc standalone pour le controller
         mockMvc = MockMvcBuilders.standaloneSetup(taskController).build();
     }
@@ -74,6 +98,43 @@ class TaskControllerTest {
         verify(taskService, times(1)).addTaskToProject(eq(projectId), any(TaskDto.class));
     }
 
+    @Test
+    @DisplayName("POST /api/projects/{projectId}/tasks/bulk -> 200 OK et IDs des tâches créées")
+    void testAddTasksToProject() throws Exception {
+        TaskDto created1 = new TaskDto(51L, "A", null, Task.StateTask.TO_DO, null, 1L);
+        TaskDto created2 = new TaskDto(52L, "B", null, Task.StateTask.TO_DO, 10L, 1L);
+        when(taskService.addTasksToProject(eq(1L), anyList())).thenReturn(List.of(created1, created2));
+
+        mockMvc.perform(post("/api/projects/{projectId}/tasks/bulk", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"description\": \"A\"}, {\"description\": \"B\", \"userId\": 10}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Tasks added to project successfully"))
+                .andExpect(jsonPath("$.ids[0]").value(51))
+                .andExpect(jsonPath("$.ids[1]").value(52));
+
+        verify(taskService, times(1)).addTasksToProject(eq(1L), argThat(tasks -> tasks.size() == 2));
+    }
+
+    @Test
+    @DisplayName("POST /api/projects/{projectId}/tasks/bulk -> 404 si le projet n'existe pas, 400 si un utilisateur est inconnu")
+    void testAddTasksToProjectErrors() throws Exception {
+        when(taskService.addTasksToProject(eq(1L), anyList()))
+                .thenThrow(new TaskServiceImpl.ProjectNotFoundException("Project not found with id: 1"));
+        when(taskService.addTasksToProject(eq(2L), anyList()))
+                .thenThrow(new TaskServiceImpl.UserNotFoundException("User not found with id: 10"));
+
+        mockMvc.perform(post("/api/projects/{projectId}/tasks/bulk", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"description\": \"A\"}]"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/api/projects/{projectId}/tasks/bulk", 2L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"description\": \"A\", \"userId\": 10}]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("User not found with id: 10"));
+    }
+
     // ----------------------------------------------------------
     // 2) Test: changeTaskState (PUT /api/tasks/{taskId}/state)
     // ----------------------------------------------------------
@@ -81,6 +142,7 @@ class TaskControllerTest {
     @DisplayName("PUT /api/tasks/{taskId}/state -> 200 OK et message de succès")
     void testChangeTaskState() throws Exception {
         Long taskId = 100L;
+        when(taskService.changeTaskState(taskId, "DONE")).thenReturn(BulkTaskResult.Status.UPDATED);
         String requestBody = """
         {
           "newState": "DONE"
@@ -99,6 +161,75 @@ class TaskControllerTest {
         verify(taskService, times(1)).changeTaskState(taskId, "DONE");
     }
 
+    @Test
+    @DisplayName("PUT /api/tasks/{taskId}/state -> 409 si la transition est refusée, 404 si la tâche n'existe pas, 400 si l'état est invalide")
+    void testChangeTaskStateRejected() throws Exception {
+        when(taskService.changeTaskState(100L, "TO_DO")).thenReturn(BulkTaskResult.Status.CONFLICT);
+        when(taskService.changeTaskState(999L, "DONE")).thenReturn(BulkTaskResult.Status.NOT_FOUND);
+        when(taskService.changeTaskState(100L, "LATER")).thenThrow(new IllegalArgumentException("Invalid state: LATER"));
+
+        mockMvc.perform(put("/api/tasks/{taskId}/state", 100L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newState\": \"TO_DO\"}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/api/tasks/{taskId}/state", 999L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newState\": \"DONE\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Task not found with id: 999"));
+        mockMvc.perform(put("/api/tasks/{taskId}/state", 100L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newState\": \"LATER\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid state: LATER"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/tasks/bulk/state -> 200 OK et résultat par tâche")
+    void testChangeTasksState() throws Exception {
+        BulkTaskResult result = new BulkTaskResult();
+        result.add(1L, BulkTaskResult.Status.UPDATED);
+        result.add(2L, BulkTaskResult.Status.NOT_FOUND);
+        when(taskService.changeTasksState(List.of(1L, 2L), "DONE")).thenReturn(result);
+
+        mockMvc.perform(put("/api/tasks/bulk/state")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"taskIds\": [1, 2], \"newState\": \"DONE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[0].id").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"));
+
+        verify(taskService, never()).changeTaskState(any(), any());
+    }
+
+    @Test
+    @DisplayName("PUT /api/tasks/bulk/assign -> 404 si l'utilisateur n'existe pas")
+    void testAssignUserToTasksUnknownUser() throws Exception {
+        when(taskService.assignUserToTasks(List.of(1L), 99L))
+                .thenThrow(new TaskServiceImpl.UserNotFoundException("User not found with id: 99"));
+
+        mockMvc.perform(put("/api/tasks/bulk/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"taskIds\": [1], \"userId\": 99}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("User not found with id: 99"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/tasks/bulk/assign -> 400 si l'utilisateur est absent")
+    void testAssignUserToTasksWithoutUser() throws Exception {
+        when(taskService.assignUserToTasks(List.of(1L), null))
+                .thenThrow(new IllegalArgumentException("userId is required"));
+
+        mockMvc.perform(put("/api/tasks/bulk/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"taskIds\": [1]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("userId is required"));
+    }
+
     // ----------------------------------------------------------
     // 3) Test: getAllTasksByProject (GET /api/projects/{projectId}/tasks)
     // ----------------------------------------------------------
@@ -121,7 +252,7 @@ class TaskControllerTest {
         List<TaskDto> mockTasks = Arrays.asList(t1, t2);
 
         // Stubbing de la couche service
-        when(taskService.getAllTasksByProject(projectId)).thenReturn(mockTasks);
+        when(taskService.getTasksByProject(projectId, null, null)).thenReturn(new CursorPage<>(mockTasks, null));
 
         // Exécution
         mockMvc.perform(get("/api/projects/{projectId}/tasks", projectId))
@@ -130,10 +261,141 @@ class TaskControllerTest {
                 .andExpect(jsonPath("$[0].id").value(101L))
                 .andExpect(jsonPath("$[0].description").value("Task 1"))
                 .andExpect(jsonPath("$[1].id").value(102L))
-                .andExpect(jsonPath("$[1].description").value("Task 2"));
+                .andExpect(jsonPath("$[1].description").value("Task 2"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(header().doesNotExist("Link"));
 
         // Vérification
-        verify(taskService, times(1)).getAllTasksByProject(projectId);
+        verify(taskService, times(1)).getTasksByProject(projectId, null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/tasks?after=&limit= -> en-têtes de la page suivante")
+    void testGetAllTasksByProjectNextPage() throws Exception {
+        TaskDto t1 = new TaskDto();
+        t1.setId(101L);
+        String after = CursorPage.encode(100L);
+        String next = CursorPage.encode(101L);
+        when(taskService.getTasksByProject(1L, after, 1)).thenReturn(new CursorPage<>(List.of(t1), next));
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks?after={after}&limit=1", 1L, after))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(header().string("X-Next-Cursor", next))
+                .andExpect(header().string("Link",
+                        "<http://localhost/api/projects/1/tasks?limit=1&after=" + next + ">; rel=\"next\""));
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/tasks -> ETag de la révision du projet, 304 si If-None-Match correspond")
+    void testGetAllTasksByProjectConditional() throws Exception {
+        when(taskService.getTasksETag(1L)).thenReturn(Optional.of("\"1.7\""));
+        when(taskService.getTasksByProject(1L, null, null)).thenReturn(new CursorPage<>(List.of(), null));
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1.7\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"));
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", 1L).header("If-None-Match", "\"1.6\", W/\"1.7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1.7\""))
+                .andExpect(content().string(""));
+
+        // La réponse 304 ne lit pas les tâches
+        verify(taskService, times(1)).getTasksByProject(1L, null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/tasks?after=invalide -> 400 Bad Request")
+    void testGetAllTasksByProjectInvalidCursor() throws Exception {
+        when(taskService.getTasksByProject(1L, "???", null))
+                .thenThrow(new CursorPage.InvalidCursorException("Curseur de pagination invalide"));
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", 1L).param("after", "???"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/tasks/changes?since=5 -> 200 OK avec les modifications et la révision")
+    void testGetTaskChanges() throws Exception {
+        TaskDto changed = new TaskDto(101L, "Task 1", null, Task.StateTask.DONE, null, 1L);
+        when(taskService.getTaskChanges(1L, 5L)).thenReturn(new TaskChanges(7L, List.of(changed), List.of(102L)));
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks/changes", 1L).param("since", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revision").value(7))
+                .andExpect(jsonPath("$.tasks[0].id").value(101))
+                .andExpect(jsonPath("$.tasks[0].state").value("DONE"))
+                .andExpect(jsonPath("$.deleted[0]").value(102));
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/tasks/changes -> 400 si la révision est invalide, 404 si le projet n'existe pas")
+    void testGetTaskChangesErrors() throws Exception {
+        when(taskService.getTaskChanges(1L, 99L)).thenThrow(new IllegalArgumentException("Invalid revision: 99"));
+        when(taskService.getTaskChanges(2L, null))
+                .thenThrow(new TaskServiceImpl.ProjectNotFoundException("Project not found with id: 2"));
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks/changes", 1L).param("since", "99"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/projects/{projectId}/tasks/changes", 2L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/tasks/changes -> 410 si les suppressions postérieures à la révision ont été purgées")
+    void testGetTaskChangesExpired() throws Exception {
+        when(taskService.getTaskChanges(1L, 2L))
+                .thenThrow(new TaskServiceImpl.ChangesExpiredException("Revision 2 is older than the retained deletions"));
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks/changes", 1L).param("since", "2"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.message").value("Revision 2 is older than the retained deletions"));
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/events -> abonnement SSE, avec reprise après Last-Event-ID")
+    void testSubscribeToTaskEvents() throws Exception {
+        when(authenticationService.getAuthenticatedUserId()).thenReturn(7L);
+        when(taskEventBroker.subscribe(1L, 7L, "abc-41")).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/projects/{projectId}/events", 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "abc-41"))
+                .andExpect(request().asyncStarted());
+
+        verify(taskEventBroker).subscribe(1L, 7L, "abc-41");
+    }
+
+    @Test
+    @DisplayName("GET /api/projects/{projectId}/tasks (Accept: application/x-ndjson) -> une tâche JSON par ligne")
+    void testStreamTasksByProject() throws Exception {
+        TaskDto t1 = new TaskDto(101L, "Task 1", LocalDate.of(2025, 1, 31), Task.StateTask.TO_DO, null, 1L);
+        TaskDto t2 = new TaskDto(102L, "Task 2", null, Task.StateTask.DONE, 10L, 1L);
+        doAnswer(invocation -> {
+            Consumer<TaskDto> consumer = invocation.getArgument(1);
+            consumer.accept(t1);
+            consumer.accept(t2);
+            return null;
+        }).when(taskService).streamTasksByProject(eq(1L), any());
+
+        MvcResult result = mockMvc.perform(get("/api/projects/{projectId}/tasks", 1L)
+                        .accept(TaskController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(TaskController.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(body.endsWith("\n"), "Chaque tâche doit se terminer par un saut de ligne");
+        assertTrue(lines[0].contains("\"id\":101") && lines[0].contains("\"dueDate\":\"2025-01-31\""), lines[0]);
+        assertTrue(lines[1].contains("\"id\":102") && lines[1].contains("\"state\":\"DONE\""), lines[1]);
+        verify(taskService, never()).getTasksByProject(any(), any(), any());
     }
 
     // ----------------------------------------------------------
@@ -151,4 +413,35 @@ class TaskControllerTest {
 
         verify(taskService, times(1)).assignUserToTask(taskId, userId);
     }
+
+    @Test
+    @DisplayName("PUT /api/tasks/{taskId}/assign/{userId} -> 409 Conflict si les modifications concurrentes persistent")
+    void testAssignUserToTaskConflict() throws Exception {
+        when(taskService.assignUserToTask(100L, 50L))
+                .thenThrow(new OptimisticRetry.ConcurrentUpdateException("Concurrent update, please retry", null));
+
+        mockMvc.perform(put("/api/tasks/{taskId}/assign/{userId}", 100L, 50L))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Concurrent update, please retry"));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/tasks/{taskId} -> 204 No Content")
+    void testDeleteTask() throws Exception {
+        mockMvc.perform(delete("/api/tasks/{taskId}", 100L))
+                .andExpect(status().isNoContent());
+
+        verify(taskService).deleteTask(100L);
+    }
+
+    @Test
+    @DisplayName("DELETE /api/tasks/{taskId} -> 404 si la tâche n'existe pas")
+    void testDeleteTaskNotFound() throws Exception {
+        doThrow(new TaskServiceImpl.TaskNotFoundException("Task not found with id: 999"))
+                .when(taskService).deleteTask(999L);
+
+        mockMvc.perform(delete("/api/tasks/{taskId}", 999L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Task not found with id: 999"));
+    }
 }
@@ -0,0 +1,311 @@
+package com.example.project.Events;
+
+import com.example.project.Controller.TaskController;
+import com.example.project.DTO.TaskDto;
+import com.example.project.Entity.Task;
+import com.example.project.Repository.TaskRepository;
+import com.example.project.Repository.TaskTombstoneRepository;
+import com.example.project.Service.AuthenticationService;
+import com.example.project.Service.TaskService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Tests pour TaskEventBroker : diffusion aux seuls abonnés du projet, reprise après `Last-Event-ID`,
+ * resynchronisation lorsque la reprise est impossible, déconnexion des abonnés trop lents, des clients qui ne lisent
+ * plus et des membres retirés.
+ * Les abonnements passent par la route SSE de TaskController ; les événements sont écrits par un thread dédié.
+ */
+@ExtendWith(MockitoExtension.class)
+class TaskEventBrokerTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private AuthenticationService authenticationService;
+
+    private ExecutorService dispatcher;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskEventBroker broker;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = Executors.newSingleThreadExecutor();
+        meterRegistry = new SimpleMeterRegistry();
+        broker = newBroker(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        unstall.countDown();
+        broker.shutdown();
+    }
+
+    private TaskEventBroker newBroker(int subscriberBuffer) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        TaskEventBroker created = new TaskEventBroker(taskRepository, taskTombstoneRepository, objectMapper, meterRegistry,
+                dispatcher, 4, subscriberBuffer, Duration.ofMinutes(1), Duration.ofMillis(200));
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(taskService, objectMapper, created,
+                        authenticationService))
+                .addFilters(stallingFilter)
+                .build();
+        return created;
+    }
+
+    /**
+     * Active le blocage des écritures vers les abonnés qui ne lisent plus.
+     */
+    private final AtomicBoolean stall = new AtomicBoolean();
+
+    /**
+     * Libère les écritures vers les abonnés qui ne lisent plus, à la fin du test.
+     */
+    private final CountDownLatch unstall = new CountDownLatch(1);
+
+    /**
+     * Simule un client qui garde la connexion ouverte sans lire : pour les requêtes portant l'en-tête
+     * `X-Stalled`, une fois le blocage activé, toute écriture dans la réponse bloque sans réagir à une interruption
+     * (comme une socket pleine).
+     */
+    private final Filter stallingFilter = (request, response, chain) -> {
+        if (((HttpServletRequest) request).getHeader("X-Stalled") == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ServletOutputStream stalled = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                boolean interrupted = false;
+                while (stall.get() && unstall.getCount() > 0) {
+                    try {
+                        unstall.await();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return false;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+        chain.doFilter(request, new HttpServletResponseWrapper((HttpServletResponse) response) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return stalled;
+            }
+        });
+    };
+
+    private MockHttpServletResponse subscribe(Long projectId, String lastEventId) throws Exception {
+        return subscribe(projectId, 7L, lastEventId);
+    }
+
+    private MockHttpServletResponse subscribe(Long projectId, Long userId, String lastEventId) throws Exception {
+        return subscribe(projectId, userId, lastEventId, false);
+    }
+
+    private MockHttpServletResponse subscribe(Long projectId, Long userId, String lastEventId, boolean stalled)
+            throws Exception {
+        when(authenticationService.getAuthenticatedUserId()).thenReturn(userId);
+        var request = get("/api/projects/{projectId}/events", projectId).accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        if (stalled) {
+            request.header("X-Stalled", "true");
+        }
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn().getResponse();
+    }
+
+    /**
+     * Attendre que le thread d'écriture ait envoyé un texte à l'abonné.
+     */
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!response.getContentAsString().contains(expected)) {
+            assertTrue(System.nanoTime() < deadline, "Non reçu : " + expected + "\n" + response.getContentAsString());
+            Thread.sleep(5);
+        }
+        return response.getContentAsString();
+    }
+
+    private static TaskDto task(Long id, Long projectId) {
+        return new TaskDto(id, "Task " + id, null, Task.StateTask.TO_DO, null, projectId);
+    }
+
+    private static List<String> eventIds(String content) {
+        Matcher matcher = EVENT_ID.matcher(content);
+        return matcher.results().map(result -> result.group(1)).toList();
+    }
+
+    @Test
+    @DisplayName("Doit envoyer les modifications aux seuls abonnés du projet, sérialisées en JSON")
+    void testFanOutToProjectSubscribers() throws Exception {
+        MockHttpServletResponse project1 = subscribe(1L, null);
+        MockHttpServletResponse project2 = subscribe(2L, null);
+        assertEquals(2, broker.getSubscriberCount());
+
+        broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(101L, 1L))));
+        when(taskRepository.findDtosByIdIn(List.of(201L))).thenReturn(List.of(task(201L, 2L)));
+        broker.onTaskChanged(TaskChangedEvent.ofIds(TaskChangedEvent.Type.STATE_CHANGED, List.of(201L)));
+
+        String content = awaitContent(project1, "event:task-created");
+        assertTrue(content.contains("\"id\":101"), content);
+        assertTrue(content.contains("retry:3000"), content);
+        String other = awaitContent(project2, "event:task-state-changed");
+        assertTrue(other.contains("\"id\":201"), other);
+        assertFalse(other.contains("\"id\":101"), other);
+        assertFalse(project1.getContentAsString().contains("\"id\":201"));
+    }
+
+    @Test
+    @DisplayName("Doit rejouer les événements du projet postérieurs à Last-Event-ID")
+    void testResumeFromLastEventId() throws Exception {
+        MockHttpServletResponse first = subscribe(1L, null);
+        broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(101L, 1L))));
+        broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(102L, 1L))));
+        List<String> ids = eventIds(awaitContent(first, "\"id\":102"));
+        assertEquals(2, ids.size());
+
+        MockHttpServletResponse resumed = subscribe(1L, ids.get(0));
+
+        String content = awaitContent(resumed, "\"id\":102");
+        assertFalse(content.contains("\"id\":101"), content);
+        assertEquals(List.of(ids.get(1)), eventIds(content));
+    }
+
+    @Test
+    @DisplayName("Doit demander une resynchronisation si Last-Event-ID est inconnu ou si des événements n'ont pas été conservés")
+    void testResyncWhenReplayImpossible() throws Exception {
+        // Aucun abonné : rien n'est relu ni conservé
+        broker.onTaskChanged(TaskChangedEvent.ofIds(TaskChangedEvent.Type.STATE_CHANGED, List.of(101L)));
+        verifyNoInteractions(taskRepository);
+
+        MockHttpServletResponse unknown = subscribe(1L, "previous-instance-12");
+        awaitContent(unknown, "event:resync");
+
+        String resyncId = eventIds(unknown.getContentAsString()).get(0);
+        MockHttpServletResponse afterGap = subscribe(1L, resyncId.replaceAll("\\d+$", "0"));
+        awaitContent(afterGap, "event:resync");
+        assertEquals(2.0, meterRegistry.get("tasks.events.resync").counter().count());
+    }
+
+    @Test
+    @DisplayName("Doit déconnecter un abonné dont la file est pleine, sans retarder les autres")
+    void testSlowSubscriberIsEvicted() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        dispatcher.execute(() -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        subscribe(1L, null);
+        assertEquals(1, broker.getSubscriberCount());
+
+        // File de 2 événements (+ le premier envoi) : le troisième déconnecte l'abonné
+        for (long id = 101; id <= 103; id++) {
+            broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(id, 1L))));
+        }
+        blocked.countDown();
+
+        assertEquals(0, broker.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("tasks.events.evicted").counter().count());
+
+        MockHttpServletResponse fresh = subscribe(1L, null);
+        broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(104L, 1L))));
+        awaitContent(fresh, "\"id\":104");
+    }
+
+    @Test
+    @DisplayName("Doit terminer les abonnements d'un membre retiré du projet, et seulement ceux-là")
+    void testRemovedMemberSubscriptionsAreCompleted() throws Exception {
+        subscribe(1L, 7L, null);
+        MockHttpServletResponse otherMember = subscribe(1L, 8L, null);
+        MockHttpServletResponse otherProject = subscribe(2L, 7L, null);
+        assertEquals(3, broker.getSubscriberCount());
+
+        broker.onMemberRemoved(new MemberRemovedEvent(1L, 7L));
+
+        assertEquals(2, broker.getSubscriberCount());
+        broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(101L, 1L))));
+        broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(201L, 2L))));
+        awaitContent(otherMember, "\"id\":101");
+        awaitContent(otherProject, "\"id\":201");
+    }
+
+    @Test
+    @DisplayName("Doit déconnecter un abonné qui ne lit plus, sans bloquer l'écriture vers les autres abonnés")
+    void testStalledSubscriberDoesNotBlockOthers() throws Exception {
+        // Un seul thread d'écriture dans ce test : l'abonné bloqué l'occupe dès son premier envoi
+        subscribe(1L, 7L, null, true);
+        stall.set(true);
+        MockHttpServletResponse reader = subscribe(1L, 8L, null);
+        MockHttpServletResponse otherProject = subscribe(2L, 9L, null);
+        assertEquals(3, broker.getSubscriberCount());
+
+        broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(101L, 1L))));
+        broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(201L, 2L))));
+
+        awaitContent(reader, "\"id\":101");
+        awaitContent(otherProject, "\"id\":201");
+        assertEquals(2, broker.getSubscriberCount());
+        assertEquals(1.0, meterRegistry.get("tasks.events.evicted").counter().count());
+
+        // Le thread d'écriture reste disponible pour les événements suivants
+        broker.onTaskChanged(TaskChangedEvent.of(TaskChangedEvent.Type.CREATED, List.of(task(102L, 1L))));
+        awaitContent(reader, "\"id\":102");
+    }
+}
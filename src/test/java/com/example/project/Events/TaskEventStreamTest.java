@@ -0,0 +1,135 @@
+package com.example.project.Events;
+
+import com.example.project.Controller.TaskController;
+import com.example.project.DTO.TaskDto;
+import com.example.project.Entity.Project;
+import com.example.project.Entity.Task;
+import com.example.project.Entity.User;
+import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.ProjectRevisionRepository;
+import com.example.project.Repository.UserRepository;
+import com.example.project.Security.AuthenticatedUser;
+import com.example.project.Service.TaskService;
+import com.example.project.Service.TaskServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Vérifie, sur la vraie base et avec de vraies transactions, que les modifications validées par le service
+ * des tâches parviennent aux abonnés du projet, y compris celles effectuées par une seule instruction UPDATE
+ * ou DELETE, dont les tâches sont relues après la validation.
+ */
+@SpringBootTest
+class TaskEventStreamTest {
+
+    @Autowired
+    private TaskController taskController;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskEventBroker taskEventBroker;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectRevisionRepository projectRevisionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+    private Long userId;
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(taskController).build();
+        User user = userRepository.save(new User("events", "events@example.com", "password"));
+        Project project = new Project("Events project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user);
+        project.addMember(user);
+        userId = user.getId();
+        projectId = projectRepository.save(project).getId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> projectRevisionRepository.create(projectId));
+
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "user", Set.of(projectId));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        projectRepository.deleteById(projectId);
+        userRepository.deleteById(userId);
+    }
+
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!response.getContentAsString().contains(expected)) {
+            assertTrue(System.nanoTime() < deadline, "Non reçu : " + expected + "\n" + response.getContentAsString());
+            Thread.sleep(5);
+        }
+        return response.getContentAsString();
+    }
+
+    @Test
+    @DisplayName("Création, changement d'état, assignation et suppression validés -> événements SSE du projet")
+    void testCommittedChangesAreStreamed() throws Exception {
+        MockHttpServletResponse events = mockMvc.perform(get("/api/projects/{projectId}/events", projectId)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        assertEquals(1, taskEventBroker.getSubscriberCount());
+
+        TaskDto created = taskService.addTaskToProject(projectId,
+                new TaskDto(null, "Streamed", null, Task.StateTask.TO_DO, null, null));
+        awaitContent(events, "event:task-created");
+
+        taskService.changeTaskState(created.getId(), "IN_PROGRESS");
+        assertTrue(awaitContent(events, "event:task-state-changed").contains("\"state\":\"IN_PROGRESS\""));
+
+        taskService.assignUserToTask(created.getId(), userId);
+        assertTrue(awaitContent(events, "event:task-assigned").contains("\"userId\":" + userId));
+
+        taskService.deleteTask(created.getId());
+        awaitContent(events, "event:task-deleted");
+        // Un événement est écrit en plusieurs morceaux : attendre la ligne vide qui le termine
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!events.getContentAsString().endsWith("\n\n")) {
+            assertTrue(System.nanoTime() < deadline, events.getContentAsString());
+            Thread.sleep(5);
+        }
+
+        // Une modification annulée n'est pas diffusée
+        String before = events.getContentAsString();
+        assertThrows(TaskServiceImpl.TaskNotFoundException.class, () -> taskService.deleteTask(created.getId()));
+        Thread.sleep(50);
+        assertEquals(before, events.getContentAsString());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.project.Repository;
+
+import com.example.project.Entity.Project;
+import com.example.project.Entity.RefreshToken;
+import com.example.project.Entity.Task;
+import com.example.project.Entity.User;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie les plans de chargement : les associations ne sont chargées que lorsqu'un cas d'usage les déclare.
+ */
+@DataJpaTest
+class FetchPlanTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private Long projectId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(new User("fetch", "fetch@example.com", "password"));
+        Project project = new Project("Fetch plan", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user);
+        project.addMember(user);
+        entityManager.persist(project);
+        Task task = new Task();
+        task.setDescription("Task");
+        task.setProject(project);
+        task.setUser(user);
+        entityManager.persist(task);
+        entityManager.persist(new RefreshToken("fetch-plan-hash", user, Instant.now().plus(1, ChronoUnit.DAYS)));
+        entityManager.flush();
+        entityManager.clear();
+        projectId = project.getId();
+        taskId = task.getId();
+    }
+
+    @Test
+    @DisplayName("Task - l'utilisateur assigné et le projet ne sont pas chargés avec la tâche")
+    void testTaskAssociationsAreLazy() {
+        Task task = taskRepository.findById(taskId).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(task.getUser()));
+        assertFalse(Hibernate.isInitialized(task.getProject()));
+        // L'ID d'une association paresseuse est lu sans la charger
+        assertNotNull(task.getUser().getId());
+        assertFalse(Hibernate.isInitialized(task.getUser()));
+    }
+
+    @Test
+    @DisplayName("Project - le créateur n'est pas chargé avec le projet")
+    void testProjectCreatorIsLazy() {
+        Project project = projectRepository.findById(projectId).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(project.getCreator()));
+        assertFalse(Hibernate.isInitialized(project.getMembers()));
+    }
+
+    @Test
+    @DisplayName("RefreshToken - le rafraîchissement charge l'utilisateur avec le jeton")
+    void testRefreshTokenLoadsItsUser() {
+        RefreshToken token = refreshTokenRepository.findByTokenHash("fetch-plan-hash").orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(token.getUser()));
+        assertEquals("fetch", token.getUser().getUsername());
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.project.Repository;
+
+import com.example.project.Entity.Project;
+import com.example.project.Entity.Task;
+import com.example.project.Entity.User;
+import com.example.project.Service.OptimisticRetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie le verrouillage optimiste des tâches et des projets : une écriture fondée sur une version périmée
+ * est rejetée, {@link OptimisticRetry} la rejoue sur l'état à jour, et les modifications en masse
+ * incrémentent la version. Chaque étape a lieu dans sa propre transaction.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OptimisticVersioningTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private TransactionTemplate transaction;
+    private TransactionTemplate concurrentTransaction;
+    private Long userId;
+    private Long projectId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        concurrentTransaction = new TransactionTemplate(transactionManager);
+        concurrentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transaction.executeWithoutResult(status -> {
+            User user = userRepository.save(new User("versioned", "versioned@example.com", "password"));
+            Project project = new Project("Versioned project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user);
+            project.addMember(user);
+            projectRepository.save(project);
+            Task task = new Task();
+            task.setDescription("Versioned task");
+            task.setState(Task.StateTask.TO_DO);
+            task.setProject(project);
+            taskRepository.save(task);
+            userId = user.getId();
+            projectId = project.getId();
+            taskId = task.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            taskRepository.deleteById(taskId);
+            projectRepository.deleteById(projectId);
+            userRepository.deleteById(userId);
+        });
+    }
+
+    /**
+     * Modifier l'état de la tâche dans une transaction indépendante, comme le ferait une requête concurrente.
+     */
+    private void concurrentStateChange(Task.StateTask state) {
+        concurrentTransaction.executeWithoutResult(status ->
+                taskRepository.findById(taskId).orElseThrow().setState(state));
+    }
+
+    /**
+     * Modifier la description de la tâche dans une transaction indépendante.
+     */
+    private void concurrentDescriptionChange(String description) {
+        concurrentTransaction.executeWithoutResult(status ->
+                taskRepository.findById(taskId).orElseThrow().setDescription(description));
+    }
+
+    @Test
+    @DisplayName("Task - une écriture fondée sur une version périmée doit être rejetée")
+    void testStaleTaskUpdateIsRejected() {
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                transaction.executeWithoutResult(status -> {
+                    Task task = taskRepository.findById(taskId).orElseThrow();
+                    concurrentStateChange(Task.StateTask.IN_PROGRESS);
+                    task.setState(Task.StateTask.DONE);
+                    taskRepository.saveAndFlush(task);
+                }));
+
+        Task task = transaction.execute(status -> taskRepository.findById(taskId).orElseThrow());
+        assertEquals(Task.StateTask.IN_PROGRESS, task.getState(), "L'écriture concurrente doit être conservée");
+        assertEquals(1L, task.getVersion());
+    }
+
+    @Test
+    @DisplayName("OptimisticRetry - la modification en conflit doit être rejouée sur l'état à jour")
+    void testRetryReappliesOnFreshState() {
+        OptimisticRetry retry = new OptimisticRetry(transactionManager, 3, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String description = retry.execute(() -> {
+            Task task = taskRepository.findById(taskId).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                concurrentStateChange(Task.StateTask.IN_PROGRESS);
+            }
+            task.setDescription("Updated after " + task.getState());
+            return taskRepository.saveAndFlush(task).getDescription();
+        });
+
+        assertEquals(2, attempts.get());
+        assertEquals("Updated after IN_PROGRESS", description);
+        Task task = transaction.execute(status -> taskRepository.findById(taskId).orElseThrow());
+        assertEquals(2L, task.getVersion());
+    }
+
+    @Test
+    @DisplayName("OptimisticRetry - doit lever ConcurrentUpdateException quand le conflit persiste")
+    void testRetryGivesUp() {
+        OptimisticRetry retry = new OptimisticRetry(transactionManager, 2, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticRetry.ConcurrentUpdateException.class, () -> retry.execute(() -> {
+            int attempt = attempts.incrementAndGet();
+            Task task = taskRepository.findById(taskId).orElseThrow();
+            concurrentDescriptionChange("Concurrent " + attempt);
+            task.setState(Task.StateTask.DONE);
+            return taskRepository.saveAndFlush(task);
+        }));
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    @DisplayName("Project - ajouter un membre sur une version périmée doit être rejeté")
+    void testStaleMembershipChangeIsRejected() {
+        Long otherId = transaction.execute(status ->
+                userRepository.save(new User("other", "other@example.com", "password")).getId());
+        try {
+            assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                    transaction.executeWithoutResult(status -> {
+                        Project project = projectRepository.findById(projectId).orElseThrow();
+                        project.getMembers().size();
+                        concurrentTransaction.executeWithoutResult(inner ->
+                                projectRepository.findById(projectId).orElseThrow().setName("Renamed"));
+                        project.addMember(userRepository.findById(otherId).orElseThrow());
+                        projectRepository.saveAndFlush(project);
+                    }));
+
+            int members = transaction.execute(status ->
+                    projectRepository.findById(projectId).orElseThrow().getMembers().size());
+            assertEquals(1, members);
+        } finally {
+            transaction.executeWithoutResult(status -> userRepository.deleteById(otherId));
+        }
+    }
+
+    @Test
+    @DisplayName("updateStateByIdIn - la modification en masse doit incrémenter la version")
+    void testBulkUpdateIncrementsVersion() {
+        transaction.executeWithoutResult(status ->
+                taskRepository.updateStateByIdIn(List.of(taskId), Task.StateTask.DONE.allowedSources(), Task.StateTask.DONE));
+
+        Task task = transaction.execute(status -> taskRepository.findById(taskId).orElseThrow());
+        assertEquals(Task.StateTask.DONE, task.getState());
+        assertEquals(1L, task.getVersion());
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.project.Repository;
+
+import com.example.project.Entity.Project;
+import com.example.project.Entity.Task;
+import com.example.project.Entity.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie, avec `EXPLAIN`, que chaque requête des repositories utilise l'index prévu par les migrations.
+ * Les requêtes SQL réellement générées par Hibernate sont capturées, puis analysées par H2 :
+ * un parcours complet de table (`tableScan`) ou l'absence de l'index attendu fait échouer le test.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.project.Repository.RepositoryIndexPlanTest$SqlCapture")
+class RepositoryIndexPlanTest {
+
+    /**
+     * Capture des requêtes SQL préparées par Hibernate.
+     */
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectRevisionRepository projectRevisionRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // Quelques lignes pour que l'optimiseur ne travaille pas sur des tables vides
+        for (int i = 0; i < 20; i++) {
+            User other = entityManager.persist(new User("user" + i, "user" + i + "@example.com", "password"));
+            Project project = new Project("Project " + i, "Description", LocalDate.now(), Project.EtatProjet.TO_DO, other);
+            project.addMember(other);
+            entityManager.persist(project);
+            for (int j = 0; j < 5; j++) {
+                Task task = new Task();
+                task.setDescription("Task " + j);
+                task.setProject(project);
+                task.setUser(other);
+                entityManager.persist(task);
+            }
+            user = other;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        SqlCapture.STATEMENTS.clear();
+    }
+
+    /**
+     * Retourne les plans d'exécution des requêtes SELECT capturées depuis le dernier appel,
+     * dans l'ordre : la requête du repository d'abord, puis les éventuels chargements qu'elle déclenche.
+     *
+     * @return Les plans d'exécution, en minuscules.
+     */
+    private List<String> capturedPlans() {
+        List<String> plans = SqlCapture.STATEMENTS.stream()
+                .filter(statement -> statement.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .map(this::explain)
+                .toList();
+        SqlCapture.STATEMENTS.clear();
+        assertFalse(plans.isEmpty(), "Aucune requête SELECT capturée");
+        return plans;
+    }
+
+    /**
+     * Obtenir le plan d'exécution d'une requête préparée, sans valeur de paramètre.
+     *
+     * @param sql La requête SQL.
+     * @return Le plan d'exécution, en minuscules.
+     */
+    private String explain(String sql) {
+        int parameters = (int) sql.chars().filter(c -> c == '?').count();
+        String plan = jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement("explain " + sql);
+            for (int i = 1; i <= parameters; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+            return statement;
+        }, rs -> {
+            StringBuilder result = new StringBuilder();
+            while (rs.next()) {
+                result.append(rs.getString(1)).append('\n');
+            }
+            return result.toString();
+        });
+        return plan.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Vérifier que la requête du repository accède aux tables par des index sur les colonnes attendues
+     * et qu'aucune requête capturée ne parcourt une table entièrement.
+     * H2 peut choisir l'index qu'il crée pour une clé étrangère plutôt que l'index composite
+     * de même première colonne : seule la colonne de l'accès indexé est donc vérifiée.
+     *
+     * @param columns Les colonnes sur lesquelles portent les accès indexés (`creator_id`, `id`...).
+     */
+    private void assertIndexedOn(String... columns) {
+        List<String> plans = capturedPlans();
+        for (String plan : plans) {
+            assertFalse(plan.contains("tablescan"), "Parcours complet de table :\n" + plan);
+        }
+        for (String column : columns) {
+            assertTrue(plans.get(0).contains(": " + column + " "),
+                    "Pas d'accès indexé sur " + column + " :\n" + plans.get(0));
+        }
+    }
+
+    @Test
+    @DisplayName("ProjectRepository.findByCreator - doit accéder aux projets par creator_id")
+    void testFindByCreator() {
+        projectRepository.findByCreator(user);
+        assertIndexedOn("creator_id");
+    }
+
+    @Test
+    @DisplayName("ProjectRepository.findByMembersContains - doit accéder à projet_utilisateur par user_id")
+    void testFindByMembersContains() {
+        projectRepository.findByMembersContains(user);
+        assertIndexedOn("user_id");
+    }
+
+    @Test
+    @DisplayName("ProjectRepository.findMembersByProjectIds - doit accéder à projet_utilisateur par projet_id")
+    void testFindMembersByProjectIds() {
+        projectRepository.findMembersByProjectIds(List.of(1L, 2L));
+        assertIndexedOn("projet_id");
+    }
+
+    @Test
+    @DisplayName("ProjectRepository.isMember / findMemberIdsIn - doivent utiliser la clé primaire de projet_utilisateur")
+    void testMembershipChecks() {
+        projectRepository.isMember(1L, user.getId());
+        assertIndexedOn("projet_id");
+
+        projectRepository.findMemberIdsIn(1L, List.of(1L, 2L));
+        assertIndexedOn("projet_id");
+    }
+
+    @Test
+    @DisplayName("ProjectRepository.isCreatorOrMember - doit accéder au projet et à projet_utilisateur par clé")
+    void testIsCreatorOrMember() {
+        projectRepository.isCreatorOrMember(1L, user.getId());
+        assertIndexedOn("id");
+    }
+
+    @Test
+    @DisplayName("ProjectRepository.findProjectIdsByUserId - doit accéder aux projets par creator_id et à projet_utilisateur par user_id")
+    void testFindProjectIdsByUserId() {
+        projectRepository.findProjectIdsByUserId(user.getId());
+        assertIndexedOn("creator_id", "user_id");
+    }
+
+    @Test
+    @DisplayName("ProjectRepository.findProjectSummariesByUserIdAfter - doit accéder aux projets par creator_id et à projet_utilisateur par user_id")
+    void testFindProjectSummariesByUserIdAfter() {
+        projectRepository.findProjectSummariesByUserIdAfter(user.getId(), 0L, PageRequest.of(0, 10));
+        assertIndexedOn("id", "creator_id", "user_id");
+    }
+
+    @Test
+    @DisplayName("ProjectRevisionRepository.findRevisionsByUserIdAfter - doit accéder aux projets par creator_id et à projet_utilisateur par user_id")
+    void testFindRevisionsByUserIdAfter() {
+        projectRevisionRepository.findRevisionsByUserIdAfter(user.getId(), 0L, PageRequest.of(0, 10));
+        assertIndexedOn("id", "creator_id", "user_id");
+    }
+
+    @Test
+    @DisplayName("TaskRepository.findByProjectId - doit accéder aux tâches par project_id")
+    void testFindByProjectId() {
+        taskRepository.findByProjectId(1L);
+        assertIndexedOn("project_id");
+    }
+
+    @Test
+    @DisplayName("TaskRepository.findDtosByProjectIdAfter - doit accéder aux tâches par project_id")
+    void testFindDtosByProjectIdAfter() {
+        taskRepository.findDtosByProjectIdAfter(1L, 0L, PageRequest.of(0, 10));
+        assertIndexedOn("project_id");
+    }
+
+    @Test
+    @DisplayName("TaskRepository.streamDtosByProjectId - doit accéder aux tâches par project_id et tout lire")
+    void testStreamDtosByProjectId() {
+        Long projectId = entityManager.getEntityManager()
+                .createQuery("select min(p.id) from Project p", Long.class).getSingleResult();
+        SqlCapture.STATEMENTS.clear();
+        try (var tasks = taskRepository.streamDtosByProjectId(projectId)) {
+            assertEquals(5, tasks.count());
+        }
+        assertIndexedOn("project_id");
+    }
+
+    @Test
+    @DisplayName("TaskRepository.findDtosChangedSince / TaskTombstoneRepository.findDeletedIdsSince - doivent accéder par project_id")
+    void testFindChangedSince() {
+        taskRepository.findDtosChangedSince(1L, 0L);
+        assertIndexedOn("project_id");
+
+        taskTombstoneRepository.findDeletedIdsSince(1L, 0L);
+        assertIndexedOn("project_id");
+    }
+
+    @Test
+    @DisplayName("TaskRepository.findProjectIdsByIdIn - doit utiliser la clé primaire des tâches")
+    void testFindProjectIdsByIdIn() {
+        taskRepository.findProjectIdsByIdIn(List.of(1L, 2L));
+        assertIndexedOn("id");
+    }
+
+    @Test
+    @DisplayName("UserRepository.findMembersByProjectIdAfter - doit accéder à projet_utilisateur par projet_id")
+    void testFindMembersByProjectIdAfter() {
+        userRepository.findMembersByProjectIdAfter(1L, 0L, PageRequest.of(0, 10));
+        assertIndexedOn("projet_id");
+    }
+
+    @Test
+    @DisplayName("UserRepository.findByEmail - doit utiliser l'index unique sur email")
+    void testFindByEmail() {
+        userRepository.findByEmail("user1@example.com");
+        assertIndexedOn("email");
+    }
+
+    @Test
+    @DisplayName("UserRepository.findByUsername - doit utiliser l'index unique sur username")
+    void testFindByUsername() {
+        userRepository.findByUsername("user1");
+        assertIndexedOn("username");
+    }
+
+    @Test
+    @DisplayName("UserRepository.findById / findAllById - doivent utiliser la clé primaire")
+    void testFindById() {
+        userRepository.findById(user.getId());
+        assertIndexedOn("id");
+
+        userRepository.findAllById(List.of(1L, 2L));
+        assertIndexedOn("id");
+    }
+}
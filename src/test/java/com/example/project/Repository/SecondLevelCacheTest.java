@@ -0,0 +1,203 @@
+package com.example.project.Repository;
+
+import com.example.project.Entity.Project;
+import com.example.project.Entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie que les lectures répétées de User, Project et Project.members sont servies par le cache
+ * de second niveau, sans requête SQL. Chaque lecture a lieu dans sa propre transaction,
+ * donc dans un contexte de persistance neuf.
+ */
+@DataJpaTest
+@Import(ProjectMembersCache.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectMembersCache projectMembersCache;
+
+    private TransactionTemplate transaction;
+    private Statistics statistics;
+    private Long userId;
+    private Long projectId;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+
+        transaction.executeWithoutResult(status -> {
+            User user = userRepository.save(new User("cached", "cached@example.com", "password"));
+            Project project = new Project("Cached project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user);
+            project.addMember(user);
+            projectRepository.save(project);
+            userId = user.getId();
+            projectId = project.getId();
+        });
+        sessionFactory.getCache().evictAllRegions();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transaction.executeWithoutResult(status -> {
+            projectRepository.deleteById(projectId);
+            userRepository.deleteById(userId);
+        });
+    }
+
+    @Test
+    @DisplayName("User - la deuxième lecture par ID ne doit pas interroger la base")
+    void testUserIsCached() {
+        transaction.executeWithoutResult(status -> userRepository.findById(userId).orElseThrow());
+        long statements = statistics.getPrepareStatementCount();
+
+        transaction.executeWithoutResult(status -> userRepository.findById(userId).orElseThrow());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics("user");
+        assertEquals(1, region.getMissCount());
+        assertEquals(1, region.getHitCount());
+    }
+
+    @Test
+    @DisplayName("Project et Project.members - la deuxième lecture ne doit pas interroger la base")
+    void testProjectAndMembersAreCached() {
+        transaction.executeWithoutResult(status ->
+                projectRepository.findById(projectId).orElseThrow().getMembers().size());
+        long statements = statistics.getPrepareStatementCount();
+
+        int members = transaction.execute(status ->
+                projectRepository.findById(projectId).orElseThrow().getMembers().size());
+
+        assertEquals(1, members);
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getDomainDataRegionStatistics("project").getHitCount() >= 1);
+        assertEquals(1, statistics.getDomainDataRegionStatistics("project-members").getHitCount());
+    }
+
+    @Test
+    @DisplayName("Project.members - un ajout de membre doit invalider la collection en cache")
+    void testMembersCacheIsInvalidatedOnUpdate() {
+        transaction.executeWithoutResult(status ->
+                projectRepository.findById(projectId).orElseThrow().getMembers().size());
+
+        Long otherId = transaction.execute(status -> {
+            User other = userRepository.save(new User("other", "other@example.com", "password"));
+            projectRepository.findById(projectId).orElseThrow().addMember(other);
+            return other.getId();
+        });
+
+        try {
+            int members = transaction.execute(status ->
+                    projectRepository.findById(projectId).orElseThrow().getMembers().size());
+            assertEquals(2, members);
+        } finally {
+            transaction.executeWithoutResult(status -> {
+                projectRepository.findById(projectId).orElseThrow().getMembers()
+                        .removeIf(member -> member.getId().equals(otherId));
+                userRepository.deleteById(otherId);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Project.members - une lecture concurrente avant la validation d'un ajout ne doit pas laisser l'ancien ensemble en cache")
+    void testMembersCacheIsEvictedAfterCommit() {
+        Long otherId = transaction.execute(status ->
+                userRepository.save(new User("late", "late@example.com", "password")).getId());
+        try {
+            transaction.executeWithoutResult(status -> {
+                projectRepository.insertMember(projectId, otherId);
+                projectMembersCache.evict(projectId);
+                // Un autre lecteur recharge les membres validés (un seul) avant la validation de l'ajout
+                int before = CompletableFuture.supplyAsync(() -> transaction.execute(other ->
+                        projectRepository.findById(projectId).orElseThrow().getMembers().size())).join();
+                assertEquals(1, before);
+            });
+
+            int members = transaction.execute(status ->
+                    projectRepository.findById(projectId).orElseThrow().getMembers().size());
+            assertEquals(2, members);
+        } finally {
+            transaction.executeWithoutResult(status -> {
+                projectRepository.deleteMember(projectId, otherId);
+                userRepository.deleteById(otherId);
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("Project.members - un ajout ou un retrait par la table d'association ne doit invalider que les membres du projet")
+    void testMembershipWritesInvalidateMembersOnly() {
+        transaction.executeWithoutResult(status ->
+                projectRepository.findById(projectId).orElseThrow().getMembers().size());
+        Long otherId = transaction.execute(status ->
+                userRepository.save(new User("joiner", "joiner@example.com", "password")).getId());
+        transaction.executeWithoutResult(status -> userRepository.findById(userId).orElseThrow());
+
+        try {
+            assertEquals(1, projectRepository.insertMember(projectId, otherId));
+            assertEquals(0, projectRepository.insertMember(projectId, otherId), "Déjà membre : aucune insertion");
+            assertTrue(projectRepository.isMember(projectId, otherId));
+            projectMembersCache.evict(projectId);
+
+            statistics.clear();
+            int members = transaction.execute(status ->
+                    projectRepository.findById(projectId).orElseThrow().getMembers().size());
+            assertEquals(2, members);
+            assertEquals(1, statistics.getDomainDataRegionStatistics("project-members").getMissCount());
+
+            // Les écritures natives n'ont vidé ni le cache des utilisateurs ni celui des projets
+            assertEquals(0, statistics.getDomainDataRegionStatistics("project").getMissCount());
+            long statements = statistics.getPrepareStatementCount();
+            transaction.executeWithoutResult(status -> userRepository.findById(userId).orElseThrow());
+            assertEquals(statements, statistics.getPrepareStatementCount());
+
+            assertEquals(1, projectRepository.deleteMember(projectId, otherId));
+            projectMembersCache.evict(projectId);
+            members = transaction.execute(status ->
+                    projectRepository.findById(projectId).orElseThrow().getMembers().size());
+            assertEquals(1, members);
+        } finally {
+            transaction.executeWithoutResult(status -> {
+                projectRepository.deleteMember(projectId, otherId);
+                userRepository.deleteById(otherId);
+            });
+        }
+    }
+}
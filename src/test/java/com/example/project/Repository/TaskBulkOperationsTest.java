@@ -0,0 +1,214 @@
+package com.example.project.Repository;
+
+import com.example.project.DTO.BulkTaskResult;
+import com.example.project.DTO.CursorPage;
+import com.example.project.DTO.TaskDto;
+import com.example.project.Entity.Project;
+import com.example.project.Entity.Task;
+import com.example.project.Entity.User;
+import com.example.project.Service.OptimisticRetry;
+import com.example.project.Service.TaskServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie les opérations en masse sur les tâches : la création part en lots JDBC et les modifications
+ * en une seule instruction UPDATE ; le nombre d'instructions ne dépend pas du nombre de tâches.
+ */
+@DataJpaTest
+@Import({TaskServiceImpl.class, OptimisticRetry.class})
+class TaskBulkOperationsTest {
+
+    @Autowired
+    private TaskServiceImpl taskService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProjectRevisionRepository projectRevisionRepository;
+
+    @Test
+    @DisplayName("addTasksToProject - 120 tâches en quelques lots d'insertion")
+    void testBulkInsertIsBatched() {
+        User user = entityManager.persist(new User("bulk", "bulk@example.com", "password"));
+        Project project = entityManager.persist(
+                new Project("Bulk project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TaskDto> dtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            dtos.add(new TaskDto(null, "Task " + i, null, (Task.StateTask) null, i % 2 == 0 ? user.getId() : null, null));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<TaskDto> created = taskService.addTasksToProject(project.getId(), dtos);
+        entityManager.flush();
+
+        assertEquals(120, created.size());
+        assertEquals(120, new HashSet<>(created.stream().map(TaskDto::getId).toList()).size(), "IDs distincts");
+        assertEquals(120, statistics.getEntityInsertCount());
+        // Projet + utilisateurs + 3 appels à la séquence + 3 lots d'insertion + révision (incrément et lecture), au lieu de 120 insertions
+        assertTrue(statistics.getPrepareStatementCount() <= 11,
+                "Instructions préparées : " + statistics.getPrepareStatementCount());
+
+        // Sans limit ni after, la liste entière, au-delà de la taille de page par défaut
+        CursorPage<TaskDto> all = taskService.getTasksByProject(project.getId(), null, null);
+        assertEquals(120, all.getItems().size());
+        assertNull(all.getNextCursor());
+        assertEquals(CursorPage.DEFAULT_LIMIT, taskService.getTasksByProject(project.getId(), null, CursorPage.DEFAULT_LIMIT)
+                .getItems().size());
+    }
+
+    @Test
+    @DisplayName("addTaskToProject / addTasksToProject - l'ID fourni par le client est ignoré")
+    void testClientSuppliedIdIsIgnored() {
+        User user = entityManager.persist(new User("bulk", "bulk@example.com", "password"));
+        Project foreign = entityManager.persist(
+                new Project("Foreign project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user));
+        Project project = entityManager.persist(
+                new Project("Bulk project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user));
+        Task foreignTask = new Task();
+        foreignTask.setDescription("Foreign task");
+        foreignTask.setState(Task.StateTask.TO_DO);
+        foreignTask.setProject(foreign);
+        Long foreignId = entityManager.persist(foreignTask).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskDto created = taskService.addTaskToProject(project.getId(),
+                new TaskDto(foreignId, "Injected", null, (Task.StateTask) null, null, null));
+        List<TaskDto> bulk = taskService.addTasksToProject(project.getId(),
+                List.of(new TaskDto(foreignId, "Injected in bulk", null, (Task.StateTask) null, null, null)));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNotEquals(foreignId, created.getId());
+        assertNotEquals(foreignId, bulk.get(0).getId());
+        assertEquals(project.getId(), created.getProjectId());
+        // La tâche de l'autre projet n'est pas modifiée
+        Task untouched = entityManager.find(Task.class, foreignId);
+        assertEquals("Foreign task", untouched.getDescription());
+        assertEquals(foreign.getId(), untouched.getProject().getId());
+    }
+
+    @Test
+    @DisplayName("changeTasksState / assignUserToTasks - une instruction UPDATE et un résultat par ID")
+    void testBulkUpdateIsSetBased() {
+        User user = entityManager.persist(new User("bulk", "bulk@example.com", "password"));
+        User other = entityManager.persist(new User("other", "other@example.com", "password"));
+        Project project = entityManager.persist(
+                new Project("Bulk project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user));
+        projectRevisionRepository.create(project.getId());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Task task = new Task();
+            task.setDescription("Task " + i);
+            task.setState(Task.StateTask.TO_DO);
+            task.setProject(project);
+            ids.add(entityManager.persist(task).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Long missing = ids.get(ids.size() - 1) + 1000;
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(missing);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkTaskResult stateResult = taskService.changeTasksState(requested, "DONE");
+        // Verrou de la révision du projet, lecture des états, une instruction UPDATE, puis l'incrément de la révision
+        assertEquals(4, statistics.getPrepareStatementCount());
+        assertEquals(1L, projectRevisionRepository.findRevision(project.getId()).orElseThrow());
+
+        assertEquals(30, stateResult.getUpdated());
+        assertEquals(31, stateResult.getResults().size());
+        assertEquals(BulkTaskResult.Status.NOT_FOUND, stateResult.getResults().get(30).getStatus());
+        assertEquals(missing, stateResult.getResults().get(30).getId());
+
+        BulkTaskResult assignResult = taskService.assignUserToTasks(ids.subList(0, 10), other.getId());
+        assertEquals(10, assignResult.getUpdated());
+        assertEquals(2L, projectRevisionRepository.findRevision(project.getId()).orElseThrow());
+
+        // Tâches déjà dans l'état demandé, ou déjà assignées : inchangées, sans nouvelle révision
+        BulkTaskResult sameState = taskService.changeTasksState(ids.subList(0, 5), "DONE");
+        BulkTaskResult sameUser = taskService.assignUserToTasks(ids.subList(0, 5), other.getId());
+        assertEquals(0, sameState.getUpdated() + sameUser.getUpdated());
+        assertTrue(sameState.getResults().stream().allMatch(item -> item.getStatus() == BulkTaskResult.Status.UNCHANGED));
+        assertTrue(sameUser.getResults().stream().allMatch(item -> item.getStatus() == BulkTaskResult.Status.UNCHANGED));
+        assertEquals(2L, projectRevisionRepository.findRevision(project.getId()).orElseThrow());
+
+        entityManager.clear();
+        Task first = entityManager.find(Task.class, ids.get(0));
+        Task last = entityManager.find(Task.class, ids.get(29));
+        assertEquals(Task.StateTask.DONE, first.getState());
+        assertEquals(Task.StateTask.DONE, last.getState());
+        assertEquals(other.getId(), first.getUser().getId());
+        assertNull(last.getUser());
+
+        // DONE -> TO_DO est refusé pour tout le lot
+        BulkTaskResult reopenResult = taskService.changeTasksState(ids.subList(0, 3), "TO_DO");
+        assertEquals(0, reopenResult.getUpdated());
+        assertTrue(reopenResult.getResults().stream().allMatch(item -> item.getStatus() == BulkTaskResult.Status.CONFLICT));
+        // Aucune tâche modifiée : la révision ne change pas
+        assertEquals(2L, projectRevisionRepository.findRevision(project.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("changeTaskState - une seule instruction par transition, et refus des transitions interdites")
+    void testSingleTransitionIsOneStatement() {
+        User user = entityManager.persist(new User("board", "board@example.com", "password"));
+        Project project = entityManager.persist(
+                new Project("Board project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user));
+        projectRevisionRepository.create(project.getId());
+        Task task = new Task();
+        task.setDescription("Card");
+        task.setState(Task.StateTask.TO_DO);
+        task.setProject(project);
+        Long id = entityManager.persist(task).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals(BulkTaskResult.Status.UPDATED, taskService.changeTaskState(id, "IN_PROGRESS"));
+        assertEquals(BulkTaskResult.Status.UPDATED, taskService.changeTaskState(id, "DONE"));
+        assertEquals(6, statistics.getPrepareStatementCount(),
+                "Une instruction UPDATE par déplacement, encadrée par le verrou et l'incrément de la révision du projet");
+        assertEquals(2L, projectRevisionRepository.findRevision(project.getId()).orElseThrow());
+
+        assertEquals(BulkTaskResult.Status.CONFLICT, taskService.changeTaskState(id, "TO_DO"));
+        assertEquals(BulkTaskResult.Status.UPDATED, taskService.changeTaskState(id, "DONE"));
+        assertEquals(BulkTaskResult.Status.NOT_FOUND, taskService.changeTaskState(id + 1000, "DONE"));
+        // Ni la transition refusée ni le changement sans effet n'incrémentent la révision
+        assertEquals(2L, projectRevisionRepository.findRevision(project.getId()).orElseThrow());
+
+        entityManager.clear();
+        Task reloaded = entityManager.find(Task.class, id);
+        assertEquals(Task.StateTask.DONE, reloaded.getState());
+        assertEquals(2L, reloaded.getVersion());
+        assertEquals(2L, reloaded.getChangeRevision(), "Révision de la dernière modification effective");
+    }
+}
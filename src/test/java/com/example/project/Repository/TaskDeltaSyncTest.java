@@ -0,0 +1,117 @@
+package com.example.project.Repository;
+
+import com.example.project.DTO.TaskChanges;
+import com.example.project.DTO.TaskDto;
+import com.example.project.Entity.Project;
+import com.example.project.Entity.Task;
+import com.example.project.Entity.User;
+import com.example.project.Service.OptimisticRetry;
+import com.example.project.Service.TaskServiceImpl;
+import com.example.project.Service.TaskTombstoneService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie la synchronisation incrémentale des tâches : chaque modification enregistre la révision du projet,
+ * et un client qui présente sa dernière révision ne reçoit que les tâches modifiées et supprimées depuis.
+ */
+@DataJpaTest
+@Import({TaskServiceImpl.class, TaskTombstoneService.class, OptimisticRetry.class})
+class TaskDeltaSyncTest {
+
+    @Autowired
+    private TaskServiceImpl taskService;
+
+    @Autowired
+    private TaskTombstoneService taskTombstoneService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProjectRevisionRepository projectRevisionRepository;
+
+    @Test
+    @DisplayName("getTaskChanges - seules les tâches modifiées et supprimées depuis la révision du client")
+    void testChangesSinceRevision() {
+        User user = entityManager.persist(new User("sync", "sync@example.com", "password"));
+        Project project = entityManager.persist(
+                new Project("Sync project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user));
+        projectRevisionRepository.create(project.getId());
+        List<TaskDto> dtos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            dtos.add(new TaskDto(null, "Task " + i, null, Task.StateTask.TO_DO, null, null));
+        }
+        List<Long> ids = taskService.addTasksToProject(project.getId(), dtos).stream().map(TaskDto::getId).toList();
+        entityManager.flush();
+        entityManager.clear();
+
+        TaskChanges snapshot = taskService.getTaskChanges(project.getId(), null);
+        assertEquals(1L, snapshot.getRevision());
+        assertEquals(ids, snapshot.getTasks().stream().map(TaskDto::getId).toList());
+
+        taskService.changeTaskState(ids.get(0), "IN_PROGRESS");
+        taskService.deleteTask(ids.get(1));
+
+        TaskChanges changes = taskService.getTaskChanges(project.getId(), snapshot.getRevision());
+        assertEquals(3L, changes.getRevision());
+        assertEquals(1, changes.getTasks().size(), "La tâche non modifiée n'est pas renvoyée");
+        assertEquals(ids.get(0), changes.getTasks().get(0).getId());
+        assertEquals("IN_PROGRESS", changes.getTasks().get(0).getState());
+        assertEquals(List.of(ids.get(1)), changes.getDeleted());
+
+        TaskChanges upToDate = taskService.getTaskChanges(project.getId(), changes.getRevision());
+        assertTrue(upToDate.getTasks().isEmpty());
+        assertTrue(upToDate.getDeleted().isEmpty());
+
+        TaskChanges afterDeletion = taskService.getTaskChanges(project.getId(), null);
+        assertEquals(List.of(ids.get(0), ids.get(2)), afterDeletion.getTasks().stream().map(TaskDto::getId).sorted().toList());
+    }
+
+    @Test
+    @DisplayName("purgeExpiredTombstones - purge les traces expirées et refuse les révisions antérieures")
+    void testPurgeExpiredTombstones() {
+        User user = entityManager.persist(new User("purge", "purge@example.com", "password"));
+        Project project = entityManager.persist(
+                new Project("Purge project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, user));
+        projectRevisionRepository.create(project.getId());
+        List<Long> ids = taskService.addTasksToProject(project.getId(), List.of(
+                        new TaskDto(null, "Old", null, Task.StateTask.TO_DO, null, null),
+                        new TaskDto(null, "Recent", null, Task.StateTask.TO_DO, null, null)))
+                .stream().map(TaskDto::getId).toList();
+        taskService.deleteTask(ids.get(0));
+        taskService.deleteTask(ids.get(1));
+        // La première suppression date d'avant la durée de rétention (30 jours)
+        entityManager.getEntityManager()
+                .createNativeQuery("update task_tombstone set deleted_at = dateadd('DAY', -31, deleted_at) where task_id = ?")
+                .setParameter(1, ids.get(0))
+                .executeUpdate();
+
+        assertEquals(1, taskTombstoneService.purgeExpiredTombstones());
+        entityManager.clear();
+
+        assertThrows(TaskServiceImpl.ChangesExpiredException.class, () -> taskService.getTaskChanges(project.getId(), 1L));
+        TaskChanges changes = taskService.getTaskChanges(project.getId(), 2L);
+        assertEquals(List.of(ids.get(1)), changes.getDeleted());
+        assertTrue(taskService.getTaskChanges(project.getId(), null).getTasks().isEmpty());
+        assertEquals(0, taskTombstoneService.purgeExpiredTombstones());
+    }
+
+    @Test
+    @DisplayName("deleteTask - TaskNotFoundException sans trace si la tâche n'existe pas")
+    void testDeleteMissingTask() {
+        assertThrows(TaskServiceImpl.TaskNotFoundException.class, () -> taskService.deleteTask(-1L));
+        assertEquals(0L, (long) entityManager.getEntityManager()
+                .createQuery("select count(t) from TaskTombstone t", Long.class).getSingleResult());
+    }
+}
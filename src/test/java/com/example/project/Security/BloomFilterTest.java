@@ -0,0 +1,49 @@
+package com.example.project.Security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests pour BloomFilter.
+ */
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("mightContain - ne doit jamais oublier une entrée ajoutée")
+    void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("jti:" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("jti:" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("mightContain - le taux de faux positifs doit rester proche du taux demandé")
+    void testFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("jti:" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other:" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "Trop de faux positifs : " + falsePositives);
+    }
+
+    @Test
+    @DisplayName("constructeur - doit refuser un taux de faux positifs invalide")
+    void testInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+    }
+}
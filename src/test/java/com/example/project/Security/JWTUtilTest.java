@@ -0,0 +1,162 @@
+package com.example.project.Security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests pour JWTUtil.
+ */
+class JWTUtilTest {
+
+    private static final Duration TTL = Duration.ofMinutes(15);
+
+    private JWTUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JWTUtil(JWTKeyRing.ephemeral(), TTL, 100);
+    }
+
+    @Test
+    @DisplayName("verify - doit retourner l'ID utilisateur et l'expiration d'un token valide")
+    void testVerifyValidToken() {
+        String token = jwtUtil.generateToken(42L);
+
+        Optional<VerifiedToken> verified = jwtUtil.verify(token);
+
+        assertTrue(verified.isPresent());
+        assertEquals(42L, verified.get().getUserId());
+        assertNotNull(verified.get().getExpiresAt());
+        assertEquals("42", verified.get().getClaims().getSubject());
+    }
+
+    @Test
+    @DisplayName("verify - doit restituer le rôle et les projets portés par le token")
+    void testVerifyAuthorizationClaims() {
+        String token = jwtUtil.generateToken(42L, "admin", List.of(1000L, 3L, 41L));
+
+        AuthenticatedUser principal = jwtUtil.verify(token).orElseThrow().getPrincipal();
+
+        assertEquals(42L, principal.getUserId());
+        assertEquals("42", principal.getName());
+        assertTrue(principal.isAdmin());
+        assertEquals("ROLE_ADMIN", principal.getAuthorities().get(0).getAuthority());
+        assertEquals(Set.of(3L, 41L, 1000L), principal.getProjectIds());
+        assertTrue(principal.isMemberOf(41L));
+        assertFalse(principal.isMemberOf(2L));
+    }
+
+    @Test
+    @DisplayName("verify - un token sans rôle donne l'autorité ROLE_USER et aucun projet")
+    void testVerifyWithoutAuthorizationClaims() {
+        AuthenticatedUser principal = jwtUtil.verify(jwtUtil.generateToken(42L)).orElseThrow().getPrincipal();
+
+        assertEquals("ROLE_USER", principal.getAuthorities().get(0).getAuthority());
+        assertTrue(principal.getProjectIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("encodeProjectIds - doit encoder les écarts entre IDs triés")
+    void testProjectIdsEncodingRoundTrip() {
+        assertEquals("3.c.il", JWTUtil.encodeProjectIds(List.of(15L, 3L, 684L, 15L)));
+        assertEquals(Set.of(3L, 15L, 684L), JWTUtil.decodeProjectIds("3.c.il"));
+        assertTrue(JWTUtil.decodeProjectIds(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("verify - doit servir le même résultat depuis le cache pour un token déjà vérifié")
+    void testVerifyUsesCache() {
+        String token = jwtUtil.generateToken(42L);
+
+        VerifiedToken first = jwtUtil.verify(token).orElseThrow();
+        VerifiedToken second = jwtUtil.verify(token).orElseThrow();
+
+        assertSame(first, second, "Le second appel ne doit pas analyser de nouveau le jeton");
+    }
+
+    @Test
+    @DisplayName("verify - doit rejeter un token dont la signature a été altérée")
+    void testVerifyTamperedToken() {
+        String token = jwtUtil.generateToken(42L);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertFalse(jwtUtil.verify(tampered).isPresent());
+        assertFalse(jwtUtil.validateToken("not-a-jwt"));
+    }
+
+    @Test
+    @DisplayName("verify - doit rejeter un token signé avec une clé hors du trousseau")
+    void testVerifyForeignToken() {
+        String foreignToken = new JWTUtil(JWTKeyRing.ephemeral(), TTL, 100).generateToken(42L);
+
+        assertFalse(jwtUtil.validateToken(foreignToken));
+    }
+
+    @Test
+    @DisplayName("verify - doit accepter un token émis par une autre instance partageant le trousseau")
+    void testVerifyTokenFromOtherNode() {
+        String entries = JWTKeyRing.generateEntry("k1");
+        JWTUtil nodeA = new JWTUtil(new JWTKeyRing(entries, null, null), TTL, 100);
+        JWTUtil nodeB = new JWTUtil(new JWTKeyRing(entries, null, null), TTL, 100);
+
+        String token = nodeA.generateToken(7L);
+
+        assertEquals("7", nodeB.extractUserId(token));
+    }
+
+    @Test
+    @DisplayName("verify - doit accepter les jetons de l'ancienne clé pendant une rotation")
+    void testVerifyDuringRotation() {
+        String oldKey = JWTKeyRing.generateEntry("k1");
+        String newKey = JWTKeyRing.generateEntry("k2");
+        JWTUtil beforeRotation = new JWTUtil(new JWTKeyRing(oldKey, null, null), TTL, 100);
+        JWTUtil afterRotation = new JWTUtil(new JWTKeyRing(oldKey + "," + newKey, null, "k2"), TTL, 100);
+        JWTUtil oldKeyRemoved = new JWTUtil(new JWTKeyRing(newKey, null, null), TTL, 100);
+
+        String oldToken = beforeRotation.generateToken(7L);
+        String newToken = afterRotation.generateToken(7L);
+
+        assertTrue(afterRotation.validateToken(oldToken), "L'ancienne clé doit rester acceptée");
+        assertTrue(beforeRotation.validateToken(oldToken));
+        assertTrue(oldKeyRemoved.validateToken(newToken));
+        assertFalse(oldKeyRemoved.validateToken(oldToken), "Une clé retirée ne doit plus être acceptée");
+    }
+
+    @Test
+    @DisplayName("JWTKeyRing - doit charger les clés depuis un fichier")
+    void testKeyRingFromFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("jwt-keys");
+        Files.writeString(file, "# trousseau de test\n" + JWTKeyRing.generateEntry("k1") + "\n"
+                + JWTKeyRing.generateEntry("k2") + "\n");
+
+        JWTKeyRing keyRing = new JWTKeyRing(null, file.toString(), "k2");
+
+        assertEquals("k2", keyRing.getActiveKid());
+        assertNotNull(keyRing.resolve("k1"));
+        assertNull(keyRing.resolve("k3"));
+    }
+
+    @Test
+    @DisplayName("VerifiedTokenCache - doit rester borné")
+    void testCacheIsBounded() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Instant now = Instant.now();
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, new VerifiedToken((long) i, now.plusSeconds(60), null), now);
+        }
+
+        assertTrue(cache.size() <= 10, "Le cache ne doit pas dépasser sa capacité");
+    }
+}
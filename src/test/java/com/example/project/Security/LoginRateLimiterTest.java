@@ -0,0 +1,143 @@
+package com.example.project.Security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests pour LoginRateLimiter et TokenBucketLimiter.
+ */
+class LoginRateLimiterTest {
+
+    @Test
+    @DisplayName("tryAcquire - doit autoriser la rafale prévue puis indiquer le délai d'attente")
+    void testBurstThenWait() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, TimeUnit.SECONDS.toNanos(3), 100);
+        long now = 1_000_000_000L;
+
+        assertEquals(0, limiter.tryAcquire("1.2.3.4", now));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4", now));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4", now));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.tryAcquire("1.2.3.4", now));
+
+        // Un jeton est régénéré chaque seconde
+        assertEquals(0, limiter.tryAcquire("1.2.3.4", now + TimeUnit.SECONDS.toNanos(1)));
+        // Les autres clés ne sont pas affectées
+        assertEquals(0, limiter.tryAcquire("5.6.7.8", now));
+    }
+
+    @Test
+    @DisplayName("evictFull - doit oublier les seaux de nouveau pleins")
+    void testEvictFullBuckets() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, TimeUnit.SECONDS.toNanos(2), 100);
+        long now = 0;
+        limiter.tryAcquire("a", now);
+        limiter.tryAcquire("b", now);
+
+        // Un jeton consommé est régénéré au bout d'une seconde
+        limiter.evictFull(now + TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(2, limiter.size());
+
+        limiter.evictFull(now + TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    @DisplayName("tryAcquire - ne doit jamais accorder plus que la capacité sous accès concurrent")
+    void testConcurrentAcquire() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(50, TimeUnit.HOURS.toNanos(1), 100);
+        long now = System.nanoTime();
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(pool.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        if (limiter.tryAcquire("client", now) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(50, granted.get());
+    }
+
+    @Test
+    @DisplayName("tryAcquire - l'email est normalisé et limité indépendamment de l'adresse IP")
+    void testEmailBucket() {
+        LoginRateLimiter limiter = new LoginRateLimiter(100, 2, Duration.ofMinutes(1), 1000, new SimpleMeterRegistry());
+
+        assertTrue(limiter.tryAcquire("10.0.0.1", "Victim@Example.com").isZero());
+        assertTrue(limiter.tryAcquire("10.0.0.2", "victim@example.com ").isZero());
+        assertFalse(limiter.tryAcquire("10.0.0.3", "victim@example.com").isZero());
+        assertTrue(limiter.tryAcquire("10.0.0.3", "other@example.com").isZero());
+    }
+
+    @Test
+    @DisplayName("tryAcquire - deux clients derrière le même mandataire de confiance ont des seaux distincts")
+    void testForwardedClientsBehindTrustedProxy() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1, 100, Duration.ofMinutes(1), 1000,
+                List.of("10.0.0.0/8"), new SimpleMeterRegistry());
+
+        MockHttpServletRequest alice = forwardedRequest("10.0.0.5", "203.0.113.7, 10.0.0.9");
+        MockHttpServletRequest bob = forwardedRequest("10.0.0.5", "198.51.100.23");
+
+        assertEquals("203.0.113.7", limiter.resolveClientIp(alice));
+        assertEquals("198.51.100.23", limiter.resolveClientIp(bob));
+        assertTrue(limiter.tryAcquire(limiter.resolveClientIp(alice), "alice@example.com").isZero());
+        assertTrue(limiter.tryAcquire(limiter.resolveClientIp(bob), "bob@example.com").isZero());
+        // Le seau épuisé est celui du client, pas celui du mandataire
+        assertFalse(limiter.tryAcquire(limiter.resolveClientIp(alice), "alice@example.com").isZero());
+    }
+
+    @Test
+    @DisplayName("resolveClientIp - doit lire l'en-tête Forwarded avec port et adresse IPv6")
+    void testForwardedHeader() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1, 1, Duration.ofMinutes(1), 1000,
+                List.of("10.0.0.5"), new SimpleMeterRegistry());
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.5");
+        request.addHeader("Forwarded", "for=\"[2001:db8::1]:4711\";proto=https, for=192.0.2.60:8080");
+
+        assertEquals("192.0.2.60", limiter.resolveClientIp(request));
+    }
+
+    @Test
+    @DisplayName("resolveClientIp - doit ignorer les en-têtes transmis par une source non déclarée")
+    void testUntrustedSourceIgnoresForwardedHeaders() {
+        LoginRateLimiter limiter = new LoginRateLimiter(1, 1, Duration.ofMinutes(1), 1000,
+                List.of("10.0.0.5"), new SimpleMeterRegistry());
+
+        assertEquals("192.0.2.1", limiter.resolveClientIp(forwardedRequest("192.0.2.1", "203.0.113.7")));
+        // Sans mandataire déclaré, les en-têtes sont toujours ignorés
+        LoginRateLimiter direct = new LoginRateLimiter(1, 1, Duration.ofMinutes(1), 1000, new SimpleMeterRegistry());
+        assertEquals("10.0.0.5", direct.resolveClientIp(forwardedRequest("10.0.0.5", "203.0.113.7")));
+    }
+
+    private static MockHttpServletRequest forwardedRequest(String remoteAddr, String xForwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        request.addHeader("X-Forwarded-For", xForwardedFor);
+        return request;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.project.Security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests pour PasswordEncoderCalibrator.
+ */
+class PasswordEncoderCalibratorTest {
+
+    @Test
+    @DisplayName("calibrate - doit retenir le coût minimal si la cible est inatteignable")
+    void testCalibrateKeepsMinimumStrength() {
+        assertEquals(4, PasswordEncoderCalibrator.calibrate(Duration.ZERO, 4, 6));
+    }
+
+    @Test
+    @DisplayName("calibrate - ne doit jamais dépasser le coût maximal")
+    void testCalibrateCapsAtMaximumStrength() {
+        int strength = PasswordEncoderCalibrator.calibrate(Duration.ofMinutes(1), 4, 6);
+
+        assertTrue(strength >= 4 && strength <= 6);
+    }
+
+    @Test
+    @DisplayName("calibrate - doit retenir le coût le plus élevé respectant la latence cible")
+    void testCalibrateMeetsTargetTime() {
+        Duration target = Duration.ofMillis(40);
+
+        int strength = PasswordEncoderCalibrator.calibrate(target, 4, 14);
+
+        // Le coût retenu tient dans la cible (marge pour le bruit de mesure)
+        assertTrue(strength >= 4 && strength <= 14);
+        if (strength > 4) {
+            assertTrue(bestHashTime(strength).compareTo(target.multipliedBy(2)) <= 0,
+                    "Le coût retenu ne doit pas dépasser la latence cible");
+        }
+        // Le coût suivant, environ deux fois plus lent, aurait approché ou dépassé la cible
+        if (strength < 14) {
+            assertTrue(bestHashTime(strength + 1).compareTo(target.dividedBy(4)) > 0,
+                    "Un coût plus élevé aurait dû être retenu");
+        }
+    }
+
+    /**
+     * Mesurer la durée d'un hachage BCrypt pour un coût donné (meilleur de trois essais).
+     */
+    private static Duration bestHashTime(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            encoder.encode("mot-de-passe");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Duration.ofNanos(best);
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.project.Security;
+
+import com.example.project.DTO.TaskDto;
+import com.example.project.Entity.Project;
+import com.example.project.Entity.Task;
+import com.example.project.Entity.User;
+import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.ProjectRevisionRepository;
+import com.example.project.Repository.TaskRepository;
+import com.example.project.Repository.UserRepository;
+import com.example.project.Service.ProjectService;
+import com.example.project.Service.TaskService;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie, à travers la chaîne de filtres de sécurité et avec de vrais JWT, que les routes désignant
+ * des tâches par leur ID ne sont accessibles qu'aux membres du projet de ces tâches, et qu'un membre retiré
+ * perd l'accès avec le jeton qu'il détenait déjà.
+ */
+@SpringBootTest
+class ProjectAccessTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter springSecurityFilterChain;
+
+    @Autowired
+    private JWTUtil jwtUtil;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectRevisionRepository projectRevisionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+    private Long ownerId;
+    private Long outsiderId;
+    private Long projectId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(springSecurityFilterChain).build();
+        User owner = userRepository.save(new User("access-owner", "access-owner@example.com", "password"));
+        User outsider = userRepository.save(new User("access-outsider", "access-outsider@example.com", "password"));
+        ownerId = owner.getId();
+        outsiderId = outsider.getId();
+        Project project = new Project("Access project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, owner);
+        project.addMember(owner);
+        projectId = projectRepository.save(project).getId();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> projectRevisionRepository.create(projectId));
+        taskId = transaction.execute(status -> taskService.addTaskToProject(projectId,
+                new TaskDto(null, "Guarded", null, Task.StateTask.TO_DO, null, null)).getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Tâche éventuellement déjà supprimée par le test : deleteAllById ignore les IDs absents
+        taskRepository.deleteAllById(List.of(taskId));
+        projectRepository.deleteById(projectId);
+        userRepository.deleteAllById(List.of(ownerId, outsiderId));
+    }
+
+    private String bearer(Long userId, List<Long> projectIds) {
+        return "Bearer " + jwtUtil.generateToken(userId, "member", projectIds);
+    }
+
+    @Test
+    @DisplayName("DELETE /tasks/{taskId} - refusé (403) à un utilisateur hors du projet, autorisé à un membre")
+    void testDeleteTaskRequiresMembership() throws Exception {
+        mockMvc.perform(delete("/api/tasks/{taskId}", taskId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(outsiderId, List.of())))
+                .andExpect(status().isForbidden());
+        assertTrue(taskRepository.existsById(taskId));
+
+        mockMvc.perform(delete("/api/tasks/{taskId}", taskId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(ownerId, List.of(projectId))))
+                .andExpect(status().isNoContent());
+        assertFalse(taskRepository.existsById(taskId));
+    }
+
+    @Test
+    @DisplayName("PUT /tasks/{taskId}/state et /assign - refusés (403) à un utilisateur hors du projet")
+    void testSingleTaskUpdatesRequireMembership() throws Exception {
+        String outsider = bearer(outsiderId, List.of());
+        mockMvc.perform(put("/api/tasks/{taskId}/state", taskId)
+                        .header(HttpHeaders.AUTHORIZATION, outsider)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newState\": \"IN_PROGRESS\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/tasks/{taskId}/assign/{userId}", taskId, outsiderId)
+                        .header(HttpHeaders.AUTHORIZATION, outsider))
+                .andExpect(status().isForbidden());
+
+        Task task = taskRepository.findById(taskId).orElseThrow();
+        assertEquals(Task.StateTask.TO_DO, task.getState());
+
+        mockMvc.perform(put("/api/tasks/{taskId}/assign/{userId}", taskId, ownerId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(ownerId, List.of(projectId))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("PUT /tasks/bulk/state et /bulk/assign - refusés (403) si une tâche du lot est hors des projets de l'utilisateur")
+    void testBulkUpdatesRequireMembership() throws Exception {
+        Long otherProjectId = projectRepository.save(new Project("Outsider project", "Description", LocalDate.now(),
+                Project.EtatProjet.TO_DO, userRepository.findById(outsiderId).orElseThrow())).getId();
+        try {
+            String outsider = bearer(outsiderId, List.of(otherProjectId));
+            mockMvc.perform(put("/api/tasks/bulk/state")
+                            .header(HttpHeaders.AUTHORIZATION, outsider)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"taskIds\": [" + taskId + "], \"newState\": \"IN_PROGRESS\"}"))
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(put("/api/tasks/bulk/assign")
+                            .header(HttpHeaders.AUTHORIZATION, outsider)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"taskIds\": [" + taskId + "], \"userId\": " + outsiderId + "}"))
+                    .andExpect(status().isForbidden());
+            assertEquals(Task.StateTask.TO_DO, taskRepository.findById(taskId).orElseThrow().getState());
+
+            mockMvc.perform(put("/api/tasks/bulk/state")
+                            .header(HttpHeaders.AUTHORIZATION, bearer(ownerId, List.of(projectId)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"taskIds\": [" + taskId + "], \"newState\": \"IN_PROGRESS\"}"))
+                    .andExpect(status().isOk());
+        } finally {
+            projectRepository.deleteById(otherProjectId);
+        }
+    }
+
+    @Test
+    @DisplayName("DELETE /projects/{projectId}/members/{userId} - le membre retiré est refusé (403) avec son ancien jeton")
+    void testRemovedMemberLosesAccessWithOldToken() throws Exception {
+        projectService.assignUserToProject(projectId, outsiderId);
+        String memberToken = bearer(outsiderId, List.of(projectId));
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", projectId)
+                        .header(HttpHeaders.AUTHORIZATION, memberToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/projects/{projectId}/members/{userId}", projectId, outsiderId)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(ownerId, List.of(projectId))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", projectId)
+                        .header(HttpHeaders.AUTHORIZATION, memberToken))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/tasks/{taskId}/state", taskId)
+                        .header(HttpHeaders.AUTHORIZATION, memberToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"newState\": \"IN_PROGRESS\"}"))
+                .andExpect(status().isForbidden());
+
+        // Membre à nouveau : l'appartenance révoquée du même jeton est revérifiée en base
+        projectService.assignUserToProject(projectId, outsiderId);
+        mockMvc.perform(get("/api/projects/{projectId}/tasks", projectId)
+                        .header(HttpHeaders.AUTHORIZATION, memberToken))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.project.Service;
+
+import com.example.project.Entity.Project;
+import com.example.project.Entity.User;
+import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.ProjectRevisionRepository;
+import com.example.project.Repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie, sur la vraie base et avec de vraies transactions, que deux ajouts simultanés du même membre
+ * se terminent par un ajout et un refus « déjà membre », sans erreur de la base ni annulation inattendue.
+ */
+@SpringBootTest
+class ProjectMembershipConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private ProjectRevisionRepository projectRevisionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+    private Long ownerId;
+    private Long projectId;
+    private final List<Long> joinerIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        User owner = userRepository.save(new User("join-owner", "join-owner@example.com", "password"));
+        ownerId = owner.getId();
+        Project project = new Project("Join project", "Description", LocalDate.now(), Project.EtatProjet.TO_DO, owner);
+        project.addMember(owner);
+        projectId = projectRepository.save(project).getId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> projectRevisionRepository.create(projectId));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        projectRepository.deleteById(projectId);
+        userRepository.deleteAllById(joinerIds);
+        userRepository.deleteById(ownerId);
+    }
+
+    /**
+     * Exécuter l'ajout et retourner le message du refus, ou null si l'utilisateur a été ajouté.
+     */
+    private Callable<String> join(Long userId, CountDownLatch start) {
+        return () -> {
+            start.await();
+            try {
+                projectService.assignUserToProject(projectId, userId);
+                return null;
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("assignUserToProject - deux ajouts simultanés du même membre : un ajout, un refus « déjà membre »")
+    void testConcurrentDoubleJoin() throws Exception {
+        long revision = projectRevisionRepository.findRevision(projectId).orElseThrow();
+        for (int round = 0; round < ROUNDS; round++) {
+            Long userId = userRepository.save(new User("joiner" + round, "joiner" + round + "@example.com", "password")).getId();
+            joinerIds.add(userId);
+            CountDownLatch start = new CountDownLatch(1);
+            Future<String> first = executor.submit(join(userId, start));
+            Future<String> second = executor.submit(join(userId, start));
+            start.countDown();
+
+            List<String> outcomes = new ArrayList<>();
+            for (Future<String> outcome : List.of(first, second)) {
+                try {
+                    outcomes.add(outcome.get());
+                } catch (ExecutionException e) {
+                    fail("Ajout simultané en erreur : " + e.getCause());
+                }
+            }
+            assertEquals(1, outcomes.stream().filter(message -> message == null).count(), outcomes.toString());
+            assertTrue(outcomes.contains("User is already assigned to the project"), outcomes.toString());
+            assertTrue(projectRepository.isMember(projectId, userId));
+        }
+        // Les refus n'ont pas incrémenté la révision : leur transaction a été annulée
+        assertEquals(revision + ROUNDS, projectRevisionRepository.findRevision(projectId).orElseThrow());
+    }
+}
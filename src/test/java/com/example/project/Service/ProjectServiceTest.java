@@ -2,17 +2,31 @@ package com.example.project.Service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.example.project.DTO.BulkMembershipResult;
+import com.example.project.DTO.CursorPage;
 import com.example.project.DTO.ProjectCreationDTO;
 import com.example.project.DTO.ProjectDTO;
+import com.example.project.DTO.ProjectMemberView;
+import com.example.project.DTO.ProjectRevisionView;
+import com.example.project.DTO.ProjectSummaryView;
 import com.example.project.DTO.UserDTO;
 import com.example.project.Entity.Project;
 import com.example.project.Entity.User;
+import com.example.project.Events.MemberRemovedEvent;
+import com.example.project.Repository.ProjectMembersCache;
 import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.ProjectRevisionRepository;
+import com.example.project.Repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -25,12 +39,29 @@ class ProjectServiceTest {
     @Mock
     private ProjectRepository projectRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private UserService userService;
 
+    @Mock
+    private ProjectMembersCache projectMembersCache;
+
+    @Mock
+    private ProjectRevisionRepository projectRevisionRepository;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProjectService projectService;
 
+    private final SpelAwareProxyProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -72,108 +103,205 @@ class ProjectServiceTest {
 
         verify(userService, times(1)).findById(userId);
         verify(projectRepository, times(1)).save(any(Project.class));
+        verify(projectRevisionRepository, times(1)).create(1L);
+    }
+
+    @Test
+    public void getProjectsETag_ShouldDependOnlyOnPageRevisions() {
+        Long userId = 1L;
+        ProjectRevisionView first = projections.createProjection(ProjectRevisionView.class,
+                Map.of("projectId", 1L, "revision", 3L));
+        ProjectRevisionView second = projections.createProjection(ProjectRevisionView.class,
+                Map.of("projectId", 2L, "revision", 0L));
+        ProjectRevisionView bumped = projections.createProjection(ProjectRevisionView.class,
+                Map.of("projectId", 2L, "revision", 1L));
+        when(projectRevisionRepository.findRevisionsByUserIdAfter(userId, 0L, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), false))
+                .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), false))
+                .thenReturn(new SliceImpl<>(List.of(first, bumped), PageRequest.of(0, 2), false));
+
+        String eTag = projectService.getProjectsETag(userId, null, 2);
+
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+        assertEquals(eTag, projectService.getProjectsETag(userId, null, 2));
+        assertNotEquals(eTag, projectService.getProjectsETag(userId, null, 2), "Un projet modifié change l'ETag");
+        // Ni les projets ni leurs membres ne sont lus
+        verifyNoInteractions(projectRepository, userService);
     }
 
     @Test
     public void getProjectsByUser_ShouldReturnProjectDTOList() {
-        // Préparation des données
+        // Préparation des données : projections telles que retournées par les deux requêtes
         Long userId = 1L;
-        User user = new User();
-        user.setId(userId);
-        user.setUsername("John Doe");
-        user.setEmail("johndoe@example.com");
-
-        Project project1 = new Project();
-        project1.setId(1L);
-        project1.setName("Project 1");
-        project1.setDescription("Description 1");
-        project1.setDateCreation(LocalDate.now());
-        project1.setState(Project.EtatProjet.TO_DO);
-        project1.setCreator(user);
-
-        Project project2 = new Project();
-        project2.setId(2L);
-        project2.setName("Project 2");
-        project2.setDescription("Description 2");
-        project2.setDateCreation(LocalDate.now());
-        project2.setState(Project.EtatProjet.EN_COURS);
-        project2.setCreator(user);
-
-        when(userService.findById(userId)).thenReturn(user);
-        when(projectRepository.findByCreator(user)).thenReturn(Collections.singletonList(project1));
-        when(projectRepository.findByMembersContains(user)).thenReturn(Collections.singletonList(project2));
+        ProjectSummaryView project1 = projections.createProjection(ProjectSummaryView.class, Map.of(
+                "id", 1L, "name", "Project 1", "description", "Description 1", "dateCreation", LocalDate.now(),
+                "state", Project.EtatProjet.TO_DO,
+                "creatorId", userId, "creatorUsername", "John Doe", "creatorEmail", "johndoe@example.com"));
+        ProjectSummaryView project2 = projections.createProjection(ProjectSummaryView.class, Map.of(
+                "id", 2L, "name", "Project 2", "description", "Description 2", "dateCreation", LocalDate.now(),
+                "state", Project.EtatProjet.EN_COURS,
+                "creatorId", 3L, "creatorUsername", "Jane Doe", "creatorEmail", "janedoe@example.com"));
+        ProjectMemberView member = projections.createProjection(ProjectMemberView.class, Map.of(
+                "projectId", 2L, "id", userId, "username", "John Doe", "email", "johndoe@example.com"));
+
+        when(projectRepository.findProjectSummariesByUserIdAfter(userId, 0L, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(project1, project2), PageRequest.of(0, 2), true));
+        when(projectRepository.findMembersByProjectIds(List.of(1L, 2L))).thenReturn(List.of(member));
 
         // Exécution
-        List<ProjectDTO> projectDTOs = projectService.getProjectsByUser(userId);
+        CursorPage<ProjectDTO> page = projectService.getProjectsByUser(userId, null, 2);
+        List<ProjectDTO> projectDTOs = page.getItems();
 
         // Vérifications
         assertNotNull(projectDTOs);
         assertEquals(2, projectDTOs.size());
         assertEquals("Project 1", projectDTOs.get(0).getName());
         assertEquals("Project 2", projectDTOs.get(1).getName());
-
-        verify(userService, times(1)).findById(userId);
-        verify(projectRepository, times(1)).findByCreator(user);
-        verify(projectRepository, times(1)).findByMembersContains(user);
+        assertEquals("Jane Doe", projectDTOs.get(1).getCreator().getUsername());
+        assertEquals("EN_COURS", projectDTOs.get(1).getState());
+        assertTrue(projectDTOs.get(0).getMembers().isEmpty());
+        assertEquals(1, projectDTOs.get(1).getMembers().size());
+        assertEquals(userId, projectDTOs.get(1).getMembers().get(0).getId());
+        // La page suivante reprend après le dernier projet lu
+        assertEquals(2L, CursorPage.decode(page.getNextCursor()));
+
+        // Deux requêtes fixes, aucune entité chargée
+        verify(projectRepository, times(1)).findProjectSummariesByUserIdAfter(userId, 0L, PageRequest.of(0, 2));
+        verify(projectRepository, times(1)).findMembersByProjectIds(List.of(1L, 2L));
+        verifyNoMoreInteractions(projectRepository);
+        verifyNoInteractions(userService);
     }
 
     @Test
-    public void assignUserToProject_ShouldAddMemberToProject() {
-        // Préparation des données
-        Long projectId = 1L;
-        Long userId = 2L;
+    public void getProjectsByUser_WithoutProjects_ShouldSkipMembersQuery() {
+        when(projectRepository.findProjectSummariesByUserIdAfter(eq(1L), eq(0L), any())).thenReturn(new SliceImpl<>(List.of()));
 
-        User user = new User();
-        user.setId(userId);
-        user.setUsername("Jane Doe");
+        CursorPage<ProjectDTO> page = projectService.getProjectsByUser(1L, null, null);
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(projectRepository, never()).findMembersByProjectIds(any());
+    }
 
-        Project project = new Project();
-        project.setId(projectId);
-        project.setName("Project 1");
-        project.setMembers(new HashSet<>());
+    @Test
+    public void getUsersByProject_ShouldReadMembersPageWithoutLoadingProject() {
+        UserDTO member = new UserDTO(7L, "Jane Doe", "janedoe@example.com");
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.findMembersByProjectIdAfter(1L, 5L, PageRequest.of(0, CursorPage.DEFAULT_LIMIT)))
+                .thenReturn(new SliceImpl<>(List.of(member)));
 
-        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(userService.findById(userId)).thenReturn(user);
-        when(projectRepository.save(project)).thenReturn(project);
+        CursorPage<UserDTO> page = projectService.getUsersByProject(1L, CursorPage.encode(5L), null);
 
-        // Exécution
-        Project updatedProject = projectService.assignUserToProject(projectId, userId);
+        assertEquals(List.of(member), page.getItems());
+        assertNull(page.getNextCursor());
+        verify(projectRepository, never()).findById(any());
+    }
 
-        // Vérifications
-        assertNotNull(updatedProject);
-        assertTrue(updatedProject.getMembers().contains(user));
+    @Test
+    public void getUsersByProject_ShouldThrowWhenProjectNotFound() {
+        when(projectRepository.existsById(1L)).thenReturn(false);
 
-        verify(projectRepository, times(1)).findById(projectId);
-        verify(userService, times(1)).findById(userId);
-        verify(projectRepository, times(1)).save(project);
+        assertThrows(IllegalArgumentException.class, () -> projectService.getUsersByProject(1L, null, null));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    public void assignUserToProject_ShouldThrowExceptionWhenUserAlreadyAssigned() {
-        // Préparation des données
-        Long projectId = 1L;
-        Long userId = 2L;
+    public void assignUserToProject_ShouldInsertMembershipWithoutLoadingMembers() {
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(projectRepository.insertMember(1L, 2L)).thenReturn(1);
 
-        User user = new User();
-        user.setId(userId);
-        user.setUsername("Jane Doe");
+        projectService.assignUserToProject(1L, 2L);
 
-        Project project = new Project();
-        project.setId(projectId);
-        project.setName("Project 1");
-        project.setMembers(new HashSet<>(Collections.singletonList(user)));
+        verify(projectRepository, times(1)).insertMember(1L, 2L);
+        verify(projectMembersCache, times(1)).evict(1L);
+        verify(projectRevisionRepository, times(1)).increment(1L);
+        verify(projectRepository, never()).findById(any());
+        verify(projectRepository, never()).save(any(Project.class));
+    }
 
-        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
-        when(userService.findById(userId)).thenReturn(user);
+    @Test
+    public void assignUserToProject_ShouldThrowExceptionWhenUserAlreadyAssigned() {
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(projectRepository.insertMember(1L, 2L)).thenReturn(0);
 
-        // Exécution et vérification de l'exception
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
-                () -> projectService.assignUserToProject(projectId, userId));
+                () -> projectService.assignUserToProject(1L, 2L));
 
         assertEquals("User is already assigned to the project", exception.getMessage());
+        verifyNoInteractions(projectMembersCache);
+    }
 
-        verify(projectRepository, times(1)).findById(projectId);
-        verify(userService, times(1)).findById(userId);
-        verify(projectRepository, never()).save(any(Project.class));
+    @Test
+    public void assignUserToProject_ShouldLockProjectRevisionBeforeInserting() {
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(projectRepository.insertMember(1L, 2L)).thenReturn(1);
+
+        projectService.assignUserToProject(1L, 2L);
+
+        // L'incrément verrouille la révision du projet : les ajouts simultanés au même projet attendent la validation
+        InOrder order = inOrder(projectRevisionRepository, projectRepository);
+        order.verify(projectRevisionRepository).increment(1L);
+        order.verify(projectRepository).insertMember(1L, 2L);
+    }
+
+    @Test
+    public void assignUserToProject_ShouldThrowExceptionWhenProjectOrUserNotFound() {
+        when(projectRepository.existsById(1L)).thenReturn(false);
+        assertThrows(ProjectService.ProjectNotFoundException.class, () -> projectService.assignUserToProject(1L, 2L));
+
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(userRepository.existsById(2L)).thenReturn(false);
+        assertThrows(IllegalArgumentException.class, () -> projectService.assignUserToProject(1L, 2L));
+
+        verify(projectRepository, never()).insertMember(any(), any());
+    }
+
+    @Test
+    public void addUsersToProject_ShouldInsertOnlyNewMembersInOneStatement() {
+        User existing = new User();
+        existing.setId(2L);
+        User member = new User();
+        member.setId(3L);
+        User added = new User();
+        added.setId(4L);
+
+        when(projectRepository.existsById(1L)).thenReturn(true);
+        when(userService.getUsersByIds(List.of(4L, 2L, 3L, 9L))).thenReturn(List.of(existing, member, added));
+        when(projectRepository.findMemberIdsIn(1L, Set.of(2L, 3L, 4L))).thenReturn(List.of(3L));
+
+        BulkMembershipResult result = projectService.addUsersToProject(1L, List.of(4L, 2L, 3L, 9L, 4L));
+
+        verify(projectRepository, times(1)).insertMembers(1L, List.of(4L, 2L));
+        verify(projectMembersCache, times(1)).evict(1L);
+        assertEquals(2, result.getAdded());
+        assertEquals(List.of(4L, 2L, 3L, 9L), result.getResults().stream().map(BulkMembershipResult.Item::getUserId).toList());
+        assertEquals(List.of(BulkMembershipResult.Status.ADDED, BulkMembershipResult.Status.ADDED,
+                        BulkMembershipResult.Status.ALREADY_MEMBER, BulkMembershipResult.Status.USER_NOT_FOUND),
+                result.getResults().stream().map(BulkMembershipResult.Item::getStatus).toList());
+    }
+
+    @Test
+    public void addUsersToProject_ShouldRejectTooManyUsers() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i <= ProjectService.MAX_BULK_MEMBERS; i++) {
+            ids.add(i);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> projectService.addUsersToProject(1L, ids));
+        verifyNoInteractions(projectRepository, userService);
+    }
+
+    @Test
+    public void removeUserFromProject_ShouldDeleteSingleMembership() {
+        when(projectRepository.deleteMember(1L, 2L)).thenReturn(1, 0);
+
+        projectService.removeUserFromProject(1L, 2L);
+        assertThrows(IllegalArgumentException.class, () -> projectService.removeUserFromProject(1L, 2L));
+        verify(projectMembersCache, times(1)).evict(1L);
+        verify(projectRevisionRepository, times(1)).increment(1L);
+        verify(tokenRevocationService, times(1)).revokeMembership(2L, 1L);
+        verify(eventPublisher, times(1)).publishEvent(any(MemberRemovedEvent.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,129 @@
+package com.example.project.Service;
+
+import com.example.project.DTO.AuthTokens;
+import com.example.project.Entity.RefreshToken;
+import com.example.project.Entity.User;
+import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.RefreshTokenRepository;
+import com.example.project.Repository.UserRepository;
+import com.example.project.Security.JWTUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProjectRepository projectRepository;
+
+    @Mock
+    private JWTUtil jwtUtil;
+
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository, projectRepository, jwtUtil, Duration.ofDays(14));
+        user = new User();
+        user.setId(1L);
+    }
+
+    @Test
+    @DisplayName("issue - doit enregistrer l'empreinte du jeton et non le jeton lui-même")
+    void testIssueStoresHashOnly() {
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        String token = refreshTokenService.issue(1L);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertNotEquals(token, captor.getValue().getTokenHash());
+        assertEquals(64, captor.getValue().getTokenHash().length());
+        assertTrue(captor.getValue().getExpiresAt().isAfter(Instant.now().plus(Duration.ofDays(13))));
+    }
+
+    @Test
+    @DisplayName("refresh - doit consommer le jeton et en délivrer un nouveau")
+    void testRefreshRotatesToken() {
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        String token = refreshTokenService.issue(1L);
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        RefreshToken stored = captor.getValue();
+
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.consume(stored.getId())).thenReturn(1);
+        when(projectRepository.findProjectIdsByUserId(1L)).thenReturn(List.of(3L, 5L));
+        when(jwtUtil.generateToken(1L, null, List.of(3L, 5L))).thenReturn("new-jwt");
+
+        AuthTokens tokens = refreshTokenService.refresh(token);
+
+        assertEquals("new-jwt", tokens.getAccessToken());
+        assertNotEquals(token, tokens.getRefreshToken());
+        verify(refreshTokenRepository).consume(stored.getId());
+    }
+
+    @Test
+    @DisplayName("refresh - doit refuser un jeton déjà consommé")
+    void testRefreshRejectsReusedToken() {
+        RefreshToken stored = new RefreshToken("hash", user, Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.consume(any())).thenReturn(0);
+
+        assertThrows(RefreshTokenService.InvalidRefreshTokenException.class,
+                () -> refreshTokenService.refresh("reused-token"));
+        verifyNoInteractions(jwtUtil);
+    }
+
+    @Test
+    @DisplayName("refresh - doit refuser un jeton expiré ou inconnu")
+    void testRefreshRejectsExpiredOrUnknownToken() {
+        RefreshToken expired = new RefreshToken("hash", user, Instant.now().minusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenReturn(Optional.of(expired))
+                .thenReturn(Optional.empty());
+
+        assertThrows(RefreshTokenService.InvalidRefreshTokenException.class,
+                () -> refreshTokenService.refresh("expired-token"));
+        assertThrows(RefreshTokenService.InvalidRefreshTokenException.class,
+                () -> refreshTokenService.refresh("unknown-token"));
+        verify(refreshTokenRepository, never()).consume(any());
+    }
+
+    @Test
+    @DisplayName("issueTokens - doit inscrire le rôle et les projets de l'utilisateur dans le JWT")
+    void testIssueTokensEmbedsRoleAndProjects() {
+        user.setRole(User.Role.admin);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+        when(projectRepository.findProjectIdsByUserId(1L)).thenReturn(List.of(2L));
+        when(jwtUtil.generateToken(1L, "admin", List.of(2L))).thenReturn("jwt");
+
+        AuthTokens tokens = refreshTokenService.issueTokens(user);
+
+        assertEquals("jwt", tokens.getAccessToken());
+        assertNotNull(tokens.getRefreshToken());
+    }
+}
@@ -1,11 +1,18 @@
 package com.example.project.Service;
 
+import com.example.project.DTO.BulkTaskResult;
+import com.example.project.DTO.CursorPage;
+import com.example.project.DTO.TaskChanges;
 import com.example.project.DTO.TaskDto;
+import com.example.project.DTO.TaskStateView;
 import com.example.project.Entity.Project;
 import com.example.project.Entity.Task;
 import com.example.project.Entity.User;
+import com.example.project.Events.TaskChangedEvent;
 import com.example.project.Repository.ProjectRepository;
+import com.example.project.Repository.ProjectRevisionRepository;
 import com.example.project.Repository.TaskRepository;
+import com.example.project.Repository.TaskTombstoneRepository;
 import com.example.project.Repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,14 +20,24 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 /**
- * Tests pour TaskServiceImpl (sans lockTask/unlockTask).
+ * Tests pour TaskServiceImpl. Les modifications unitaires passent par un {@link OptimisticRetry}
+ * sans transaction ni attente.
  */
 @ExtendWith(org.mockito.junit.jupiter.MockitoExtension.class)
 class TaskServiceImplTest {
@@ -34,6 +51,19 @@ class TaskServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ProjectRevisionRepository projectRevisionRepository;
+
+    @Mock
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private OptimisticRetry optimisticRetry =
+            new OptimisticRetry(TransactionOperations.withoutTransaction(), 3, Duration.ZERO);
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -96,6 +126,7 @@ class TaskServiceImplTest {
             // Assert
             verify(projectRepository).findById(1L);
             verify(taskRepository).save(any(Task.class));
+            verify(projectRevisionRepository).increment(1L);
 
             assertNotNull(result, "Le TaskDto retourné ne doit pas être null");
             assertEquals(999L, result.getId(), "L'ID doit correspondre à celui généré par la BD (999)");
@@ -159,55 +190,400 @@ class TaskServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("addTasksToProject tests")
+    class AddTasksToProjectTests {
+
+        @Test
+        @DisplayName("Doit lire tous les utilisateurs en une requête et enregistrer les tâches en un appel")
+        void testAddTasksSuccess() {
+            when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+            when(userRepository.findAllById(Set.of(10L))).thenReturn(List.of(user));
+            when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                List<Task> tasks = invocation.getArgument(0);
+                long id = 500L;
+                for (Task saved : tasks) {
+                    saved.setId(id++);
+                }
+                return tasks;
+            });
+
+            TaskDto assigned = new TaskDto(42L, "Assigned", null, Task.StateTask.IN_PROGRESS, 10L, null);
+            TaskDto unassigned = new TaskDto(null, "Unassigned", null, (Task.StateTask) null, null, null);
+            TaskDto alsoAssigned = new TaskDto(null, "Also assigned", null, (Task.StateTask) null, 10L, null);
+
+            List<TaskDto> result = taskService.addTasksToProject(1L, List.of(assigned, unassigned, alsoAssigned));
+
+            ArgumentCaptor<List<Task>> saved = ArgumentCaptor.captor();
+            verify(taskRepository).saveAll(saved.capture());
+            // L'ID fourni par le client est ignoré : la tâche doit être insérée, pas fusionnée
+            assertTrue(saved.getValue().stream().allMatch(t -> t.getProject() == project));
+            verify(userRepository, times(1)).findAllById(Set.of(10L));
+            verify(userRepository, never()).findById(anyLong());
+
+            assertEquals(List.of(500L, 501L, 502L), result.stream().map(TaskDto::getId).toList());
+            assertEquals("IN_PROGRESS", result.get(0).getState());
+            assertEquals("TO_DO", result.get(1).getState());
+            assertEquals(10L, result.get(2).getUserId());
+            assertNull(result.get(1).getUserId());
+        }
+
+        @Test
+        @DisplayName("Doit lever UserNotFoundException sans rien enregistrer si un utilisateur est introuvable")
+        void testAddTasksUnknownUser() {
+            when(projectRepository.findById(1L)).thenReturn(Optional.of(project));
+            when(userRepository.findAllById(Set.of(10L, 11L))).thenReturn(List.of(user));
+
+            List<TaskDto> dtos = List.of(
+                    new TaskDto(null, "A", null, (Task.StateTask) null, 10L, null),
+                    new TaskDto(null, "B", null, (Task.StateTask) null, 11L, null));
+
+            assertThrows(TaskServiceImpl.UserNotFoundException.class, () -> taskService.addTasksToProject(1L, dtos));
+            verify(taskRepository, never()).saveAll(anyList());
+        }
+
+        @Test
+        @DisplayName("Doit refuser un lot trop grand sans accéder à la base")
+        void testAddTasksTooMany() {
+            List<TaskDto> dtos = Collections.nCopies(TaskServiceImpl.MAX_BULK_TASKS + 1, taskDto);
+
+            assertThrows(IllegalArgumentException.class, () -> taskService.addTasksToProject(1L, dtos));
+            verifyNoInteractions(projectRepository, taskRepository, userRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("changeTasksState / assignUserToTasks tests")
+    class BulkUpdateTests {
+
+        private TaskStateView stateView(Long id, Task.StateTask state) {
+            return stateView(id, state, null);
+        }
+
+        private TaskStateView stateView(Long id, Task.StateTask state, Long userId) {
+            return new TaskStateView() {
+                @Override
+                public Long getId() {
+                    return id;
+                }
+
+                @Override
+                public Task.StateTask getState() {
+                    return state;
+                }
+
+                @Override
+                public Long getUserId() {
+                    return userId;
+                }
+            };
+        }
+
+        @Test
+        @DisplayName("Doit modifier les tâches en une instruction et signaler les tâches inchangées, les conflits et les IDs inexistants")
+        void testChangeTasksState() {
+            when(taskRepository.findStatesByIdIn(Set.of(1L, 2L, 3L, 4L, 5L))).thenReturn(List.of(
+                    stateView(1L, Task.StateTask.IN_PROGRESS), stateView(3L, Task.StateTask.IN_PROGRESS),
+                    stateView(4L, Task.StateTask.DONE), stateView(5L, Task.StateTask.TO_DO)));
+
+            BulkTaskResult result = taskService.changeTasksState(List.of(3L, 1L, 2L, 3L, 4L, 5L), "TO_DO");
+
+            InOrder order = inOrder(projectRevisionRepository, taskRepository);
+            order.verify(projectRevisionRepository).lockForTasks(Set.of(1L, 2L, 3L, 4L, 5L));
+            order.verify(taskRepository).updateStateByIdIn(Set.of(1L, 3L),
+                    EnumSet.of(Task.StateTask.IN_PROGRESS), Task.StateTask.TO_DO);
+            order.verify(projectRevisionRepository).incrementForTasks(Set.of(1L, 3L));
+            verify(taskRepository, never()).save(any());
+            verify(eventPublisher).publishEvent(argThat((TaskChangedEvent event) ->
+                    event.getTaskIds().equals(List.of(3L, 1L))));
+            assertEquals(2, result.getUpdated());
+            assertEquals(List.of(3L, 1L, 2L, 4L, 5L), result.getResults().stream().map(BulkTaskResult.Item::getId).toList());
+            assertEquals(List.of(BulkTaskResult.Status.UPDATED, BulkTaskResult.Status.UPDATED,
+                            BulkTaskResult.Status.NOT_FOUND, BulkTaskResult.Status.CONFLICT, BulkTaskResult.Status.UNCHANGED),
+                    result.getResults().stream().map(BulkTaskResult.Item::getStatus).toList());
+        }
+
+        @Test
+        @DisplayName("Doit laisser la révision et le flux d'événements intacts si aucune tâche ne change")
+        void testChangeTasksStateWithoutChange() {
+            when(taskRepository.findStatesByIdIn(Set.of(1L, 2L))).thenReturn(List.of(
+                    stateView(1L, Task.StateTask.DONE), stateView(2L, Task.StateTask.DONE)));
+
+            BulkTaskResult result = taskService.changeTasksState(List.of(1L, 2L), "DONE");
+
+            assertEquals(0, result.getUpdated());
+            assertTrue(result.getResults().stream().allMatch(item -> item.getStatus() == BulkTaskResult.Status.UNCHANGED));
+            verify(taskRepository, never()).updateStateByIdIn(any(), any(), any());
+            verify(projectRevisionRepository, never()).incrementForTasks(any());
+            verifyNoInteractions(eventPublisher);
+        }
+
+        @Test
+        @DisplayName("Doit refuser un état invalide sans modifier de tâche")
+        void testChangeTasksStateInvalid() {
+            assertThrows(IllegalArgumentException.class, () -> taskService.changeTasksState(List.of(1L), "LATER"));
+            verifyNoInteractions(taskRepository);
+        }
+
+        @Test
+        @DisplayName("Doit assigner l'utilisateur en une instruction, sauf aux tâches qui lui sont déjà assignées, ou lever UserNotFoundException")
+        void testAssignUserToTasks() {
+            when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+            when(taskRepository.findStatesByIdIn(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                    stateView(1L, Task.StateTask.TO_DO, null), stateView(2L, Task.StateTask.TO_DO, 10L),
+                    stateView(3L, Task.StateTask.TO_DO, 11L)));
+
+            BulkTaskResult result = taskService.assignUserToTasks(List.of(1L, 2L, 3L), 10L);
+
+            verify(taskRepository, times(1)).updateUserByIdIn(Set.of(1L, 3L), user);
+            verify(projectRevisionRepository).incrementForTasks(Set.of(1L, 3L));
+            assertEquals(2, result.getUpdated());
+            assertEquals(List.of(BulkTaskResult.Status.UPDATED, BulkTaskResult.Status.UNCHANGED, BulkTaskResult.Status.UPDATED),
+                    result.getResults().stream().map(BulkTaskResult.Item::getStatus).toList());
+
+            when(userRepository.findById(11L)).thenReturn(Optional.empty());
+            assertThrows(TaskServiceImpl.UserNotFoundException.class,
+                    () -> taskService.assignUserToTasks(List.of(1L), 11L));
+        }
+
+        @Test
+        @DisplayName("Doit refuser un lot sans utilisateur, sans rien lire ni modifier")
+        void testAssignUserToTasksWithoutUser() {
+            assertThrows(IllegalArgumentException.class, () -> taskService.assignUserToTasks(List.of(1L), null));
+            verifyNoInteractions(userRepository, taskRepository);
+        }
+    }
+
     // -------------------------------------------------------------------------
-    // 2) Test getAllTasksByProject
+    // 2) Test getTasksByProject
     // -------------------------------------------------------------------------
     @Nested
-    @DisplayName("getAllTasksByProject tests")
-    class GetAllTasksByProjectTests {
+    @DisplayName("getTasksByProject tests")
+    class GetTasksByProjectTests {
 
         @Test
-        @DisplayName("Doit retourner toutes les tâches d'un projet existant")
-        void testGetAllTasksSuccess() {
+        @DisplayName("Doit retourner toutes les tâches d'un projet existant, sans curseur ni taille de page")
+        void testGetTasksFirstPage() {
             when(projectRepository.existsById(1L)).thenReturn(true);
 
-            Task t1 = new Task();
-            t1.setId(101L);
-            t1.setDescription("Task 1");
-            t1.setProject(project);
-
-            Task t2 = new Task();
-            t2.setId(102L);
-            t2.setDescription("Task 2");
-            t2.setProject(project);
+            TaskDto t1 = new TaskDto(101L, "Task 1", null, Task.StateTask.TO_DO, null, 1L);
+            TaskDto t2 = new TaskDto(102L, "Task 2", null, Task.StateTask.DONE, 2L, 1L);
 
-            when(taskRepository.findByProjectId(1L)).thenReturn(Arrays.asList(t1, t2));
+            // Sans limit ni after, la liste n'est pas paginée (comportement antérieur à la pagination)
+            when(taskRepository.findDtosByProjectIdAfter(1L, 0L, Pageable.unpaged()))
+                    .thenReturn(new SliceImpl<>(Arrays.asList(t1, t2)));
 
             // Act
-            List<TaskDto> result = taskService.getAllTasksByProject(1L);
+            CursorPage<TaskDto> result = taskService.getTasksByProject(1L, null, null);
 
             // Assert
             verify(projectRepository).existsById(1L);
-            verify(taskRepository).findByProjectId(1L);
+            // Aucune entité Task ni User n'est chargée
+            verify(taskRepository, never()).findByProjectId(anyLong());
+            verifyNoInteractions(userRepository);
+
+            assertEquals(2, result.getItems().size(), "La page retournée doit contenir 2 éléments");
+            assertEquals(101L, result.getItems().get(0).getId());
+            assertEquals(102L, result.getItems().get(1).getId());
+            assertEquals("DONE", result.getItems().get(1).getState());
+            assertNull(result.getItems().get(0).getUserId());
+            assertNull(result.getNextCursor(), "Pas de page suivante");
+        }
+
+        @Test
+        @DisplayName("Doit reprendre après le curseur et fournir le curseur de la page suivante")
+        void testGetTasksNextPage() {
+            when(projectRepository.existsById(1L)).thenReturn(true);
+
+            TaskDto t3 = new TaskDto(103L, "Task 3", null, Task.StateTask.TO_DO, null, 1L);
+            when(taskRepository.findDtosByProjectIdAfter(1L, 102L, PageRequest.of(0, 1)))
+                    .thenReturn(new SliceImpl<>(List.of(t3), PageRequest.of(0, 1), true));
+
+            CursorPage<TaskDto> result = taskService.getTasksByProject(1L, CursorPage.encode(102L), 1);
+
+            assertEquals(1, result.getItems().size());
+            assertEquals(103L, CursorPage.decode(result.getNextCursor()));
+        }
+
+        @Test
+        @DisplayName("Doit appliquer la taille de page par défaut à une requête avec curseur")
+        void testGetTasksDefaultLimitWithCursor() {
+            when(projectRepository.existsById(1L)).thenReturn(true);
+            when(taskRepository.findDtosByProjectIdAfter(eq(1L), eq(102L), any())).thenReturn(new SliceImpl<>(List.of()));
+
+            taskService.getTasksByProject(1L, CursorPage.encode(102L), null);
+
+            verify(taskRepository).findDtosByProjectIdAfter(1L, 102L, PageRequest.of(0, CursorPage.DEFAULT_LIMIT));
+        }
+
+        @Test
+        @DisplayName("Doit borner la taille de page")
+        void testGetTasksLimitIsClamped() {
+            when(projectRepository.existsById(1L)).thenReturn(true);
+            when(taskRepository.findDtosByProjectIdAfter(eq(1L), eq(0L), any())).thenReturn(new SliceImpl<>(List.of()));
+
+            taskService.getTasksByProject(1L, null, 100_000);
+
+            verify(taskRepository).findDtosByProjectIdAfter(1L, 0L, PageRequest.of(0, CursorPage.MAX_LIMIT));
+        }
+
+        @Test
+        @DisplayName("Doit lever InvalidCursorException si le curseur est mal formé")
+        void testGetTasksInvalidCursor() {
+            assertThrows(
+                    CursorPage.InvalidCursorException.class,
+                    () -> taskService.getTasksByProject(1L, "not-a-cursor!", null)
+            );
 
-            assertEquals(2, result.size(), "La liste retournée doit contenir 2 éléments");
-            assertEquals(101L, result.get(0).getId());
-            assertEquals(102L, result.get(1).getId());
+            verifyNoInteractions(taskRepository);
         }
 
         @Test
         @DisplayName("Doit lever ProjectNotFoundException si le projet n'existe pas")
-        void testGetAllTasksProjectNotFound() {
+        void testGetTasksProjectNotFound() {
             when(projectRepository.existsById(1L)).thenReturn(false);
 
             assertThrows(
                     TaskServiceImpl.ProjectNotFoundException.class,
-                    () -> taskService.getAllTasksByProject(1L)
+                    () -> taskService.getTasksByProject(1L, null, null)
             );
 
             verify(projectRepository).existsById(1L);
+            verify(taskRepository, never()).findDtosByProjectIdAfter(anyLong(), anyLong(), any());
+        }
+
+        @Test
+        @DisplayName("Doit construire l'ETag à partir de la seule révision du projet")
+        void testGetTasksETag() {
+            when(projectRevisionRepository.findRevision(1L)).thenReturn(Optional.of(7L));
+            when(projectRevisionRepository.findRevision(2L)).thenReturn(Optional.empty());
+
+            assertEquals(Optional.of("\"1.7\""), taskService.getTasksETag(1L));
+            assertEquals(Optional.empty(), taskService.getTasksETag(2L));
+            verifyNoInteractions(taskRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("getTaskChanges / deleteTask tests")
+    class TaskChangesTests {
+
+        @Test
+        @DisplayName("Doit retourner les tâches modifiées et supprimées depuis la révision du client")
+        void testGetTaskChangesSince() {
+            TaskDto changed = new TaskDto(101L, "Task 1", null, Task.StateTask.DONE, null, 1L);
+            when(projectRevisionRepository.findRevision(1L)).thenReturn(Optional.of(7L));
+            when(taskRepository.findDtosChangedSince(1L, 5L)).thenReturn(List.of(changed));
+            when(taskTombstoneRepository.findDeletedIdsSince(1L, 5L)).thenReturn(List.of(102L));
+
+            TaskChanges changes = taskService.getTaskChanges(1L, 5L);
+
+            assertEquals(7L, changes.getRevision());
+            assertEquals(List.of(changed), changes.getTasks());
+            assertEquals(List.of(102L), changes.getDeleted());
+        }
+
+        @Test
+        @DisplayName("Doit retourner toutes les tâches, sans suppressions, pour une première synchronisation")
+        void testGetTaskChangesFullSync() {
+            when(projectRevisionRepository.findRevision(1L)).thenReturn(Optional.of(7L));
+            when(taskRepository.findDtosChangedSince(1L, -1L)).thenReturn(List.of());
+
+            TaskChanges changes = taskService.getTaskChanges(1L, null);
+
+            assertEquals(7L, changes.getRevision());
+            assertTrue(changes.getDeleted().isEmpty());
+            verifyNoInteractions(taskTombstoneRepository);
+        }
+
+        @Test
+        @DisplayName("Doit répondre sans lecture des tâches si le client est à jour")
+        void testGetTaskChangesUpToDate() {
+            when(projectRevisionRepository.findRevision(1L)).thenReturn(Optional.of(7L));
+
+            TaskChanges changes = taskService.getTaskChanges(1L, 7L);
+
+            assertTrue(changes.getTasks().isEmpty());
+            verifyNoInteractions(taskRepository, taskTombstoneRepository);
+        }
+
+        @Test
+        @DisplayName("Doit refuser une révision antérieure aux suppressions purgées")
+        void testGetTaskChangesExpired() {
+            when(projectRevisionRepository.findRevision(1L)).thenReturn(Optional.of(7L));
+            when(projectRevisionRepository.findPrunedRevision(1L)).thenReturn(Optional.of(4L));
+
+            assertThrows(TaskServiceImpl.ChangesExpiredException.class, () -> taskService.getTaskChanges(1L, 3L));
+            assertEquals(7L, taskService.getTaskChanges(1L, 4L).getRevision());
+        }
+
+        @Test
+        @DisplayName("Doit refuser une révision négative ou future, et un projet inexistant")
+        void testGetTaskChangesInvalid() {
+            when(projectRevisionRepository.findRevision(1L)).thenReturn(Optional.of(7L));
+            when(projectRevisionRepository.findRevision(2L)).thenReturn(Optional.empty());
+
+            assertThrows(IllegalArgumentException.class, () -> taskService.getTaskChanges(1L, -1L));
+            assertThrows(IllegalArgumentException.class, () -> taskService.getTaskChanges(1L, 8L));
+            assertThrows(TaskServiceImpl.ProjectNotFoundException.class, () -> taskService.getTaskChanges(2L, 0L));
+            verifyNoInteractions(taskRepository);
+        }
+
+        @Test
+        @DisplayName("Doit incrémenter la révision, tracer puis supprimer la tâche")
+        void testDeleteTask() {
+            when(taskRepository.deleteTask(100L)).thenReturn(1);
+
+            taskService.deleteTask(100L);
+
+            InOrder order = inOrder(projectRevisionRepository, taskTombstoneRepository, taskRepository);
+            order.verify(projectRevisionRepository).incrementForTasks(Set.of(100L));
+            order.verify(taskTombstoneRepository).recordDeletion(100L);
+            order.verify(taskRepository).deleteTask(100L);
+        }
+
+        @Test
+        @DisplayName("Doit lever TaskNotFoundException si la tâche n'existe pas")
+        void testDeleteTaskNotFound() {
+            when(taskRepository.deleteTask(999L)).thenReturn(0);
+
+            assertThrows(TaskServiceImpl.TaskNotFoundException.class, () -> taskService.deleteTask(999L));
+        }
+    }
+
+    @Nested
+    @DisplayName("streamTasksByProject tests")
+    class StreamTasksByProjectTests {
+
+        @Test
+        @DisplayName("Doit transmettre chaque tâche au consommateur puis fermer le flux")
+        void testStreamTasks() {
+            when(projectRepository.existsById(1L)).thenReturn(true);
+            TaskDto t1 = new TaskDto(101L, "Task 1", null, Task.StateTask.TO_DO, null, 1L);
+            TaskDto t2 = new TaskDto(102L, "Task 2", null, Task.StateTask.DONE, 2L, 1L);
+            List<String> events = new ArrayList<>();
+            when(taskRepository.streamDtosByProjectId(1L))
+                    .thenReturn(Stream.of(t1, t2).onClose(() -> events.add("closed")));
+
+            List<TaskDto> received = new ArrayList<>();
+            taskService.streamTasksByProject(1L, received::add);
+
+            assertEquals(List.of(t1, t2), received);
+            assertEquals(List.of("closed"), events);
             verify(taskRepository, never()).findByProjectId(anyLong());
         }
+
+        @Test
+        @DisplayName("Doit lever ProjectNotFoundException si le projet n'existe pas")
+        void testStreamTasksProjectNotFound() {
+            when(projectRepository.existsById(1L)).thenReturn(false);
+
+            assertThrows(
+                    TaskServiceImpl.ProjectNotFoundException.class,
+                    () -> taskService.streamTasksByProject(1L, task -> fail("Aucune tâche attendue"))
+            );
+            verify(taskRepository, never()).streamDtosByProjectId(anyLong());
+        }
     }
 
     // -------------------------------------------------------------------------
@@ -222,13 +598,13 @@ class TaskServiceImplTest {
         void testAssignUserToTaskSuccess() {
             when(taskRepository.findById(100L)).thenReturn(Optional.of(task));
             when(userRepository.findById(10L)).thenReturn(Optional.of(user));
-            when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(taskRepository.saveAndFlush(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
             TaskDto result = taskService.assignUserToTask(100L, 10L);
 
             verify(taskRepository).findById(100L);
             verify(userRepository).findById(10L);
-            verify(taskRepository).save(any(Task.class));
+            verify(taskRepository).saveAndFlush(any(Task.class));
 
             assertNotNull(result);
             assertEquals(100L, result.getId(), "L'ID de la tâche doit rester 100");
@@ -247,7 +623,7 @@ class TaskServiceImplTest {
 
             verify(taskRepository).findById(999L);
             verifyNoMoreInteractions(userRepository);
-            verify(taskRepository, never()).save(any(Task.class));
+            verify(taskRepository, never()).saveAndFlush(any(Task.class));
         }
 
         @Test
@@ -263,7 +639,39 @@ class TaskServiceImplTest {
 
             verify(taskRepository).findById(100L);
             verify(userRepository).findById(9999L);
-            verify(taskRepository, never()).save(any(Task.class));
+            verify(taskRepository, never()).saveAndFlush(any(Task.class));
+        }
+
+        @Test
+        @DisplayName("Doit relire la tâche et rejouer la modification après un conflit de version")
+        void testAssignUserRetriesOnConflict() {
+            when(taskRepository.findById(100L)).thenReturn(Optional.of(task));
+            when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+            when(taskRepository.saveAndFlush(any(Task.class)))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Task.class, 100L))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+
+            TaskDto result = taskService.assignUserToTask(100L, 10L);
+
+            assertEquals(10L, result.getUserId());
+            verify(taskRepository, times(2)).findById(100L);
+            verify(taskRepository, times(2)).saveAndFlush(task);
+        }
+
+        @Test
+        @DisplayName("Doit lever ConcurrentUpdateException quand le conflit persiste après toutes les tentatives")
+        void testAssignUserGivesUpAfterMaxAttempts() {
+            when(taskRepository.findById(100L)).thenReturn(Optional.of(task));
+            when(userRepository.findById(10L)).thenReturn(Optional.of(user));
+            when(taskRepository.saveAndFlush(any(Task.class)))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Task.class, 100L));
+
+            assertThrows(
+                    OptimisticRetry.ConcurrentUpdateException.class,
+                    () -> taskService.assignUserToTask(100L, 10L)
+            );
+
+            verify(taskRepository, times(3)).saveAndFlush(task);
         }
     }
 
@@ -275,46 +683,64 @@ class TaskServiceImplTest {
     class ChangeTaskStateTests {
 
         @Test
-        @DisplayName("Doit changer l'état de la tâche si la tâche existe et l'état est valide")
+        @DisplayName("Doit changer l'état en une seule instruction si la transition est autorisée")
         void testChangeTaskStateSuccess() {
-            when(taskRepository.findById(100L)).thenReturn(Optional.of(task));
-            when(taskRepository.save(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+            when(taskRepository.compareAndSetState(100L, EnumSet.of(Task.StateTask.TO_DO, Task.StateTask.IN_PROGRESS),
+                    Task.StateTask.DONE)).thenReturn(1);
 
-            TaskDto result = taskService.changeTaskState(100L, "DONE");
+            assertEquals(BulkTaskResult.Status.UPDATED, taskService.changeTaskState(100L, "DONE"));
 
-            verify(taskRepository).findById(100L);
-            verify(taskRepository).save(task);
-
-            assertEquals("DONE", result.getState());
+            InOrder order = inOrder(projectRevisionRepository, taskRepository);
+            order.verify(projectRevisionRepository).lockForTasks(Set.of(100L));
+            order.verify(taskRepository).compareAndSetState(eq(100L), anySet(), eq(Task.StateTask.DONE));
+            order.verify(projectRevisionRepository).incrementForTasks(Set.of(100L));
+            verify(taskRepository, never()).findById(any());
+            verify(taskRepository, never()).findStateById(any());
+            verify(taskRepository, never()).save(any(Task.class));
         }
 
         @Test
-        @DisplayName("Doit lever TaskNotFoundException si la tâche n'existe pas")
+        @DisplayName("Doit retourner NOT_FOUND si la tâche n'existe pas")
         void testChangeTaskStateNotFound() {
-            when(taskRepository.findById(999L)).thenReturn(Optional.empty());
+            when(taskRepository.compareAndSetState(eq(999L), anySet(), eq(Task.StateTask.IN_PROGRESS))).thenReturn(0);
+            when(taskRepository.findStateById(999L)).thenReturn(Optional.empty());
 
-            assertThrows(
-                    TaskServiceImpl.TaskNotFoundException.class,
-                    () -> taskService.changeTaskState(999L, "IN_PROGRESS")
-            );
+            assertEquals(BulkTaskResult.Status.NOT_FOUND, taskService.changeTaskState(999L, "IN_PROGRESS"));
+        }
 
-            verify(taskRepository).findById(999L);
-            verify(taskRepository, never()).save(any(Task.class));
+        @Test
+        @DisplayName("Doit retourner CONFLICT si l'état courant interdit la transition (DONE -> TO_DO)")
+        void testChangeTaskStateConflict() {
+            when(taskRepository.compareAndSetState(100L, EnumSet.of(Task.StateTask.IN_PROGRESS), Task.StateTask.TO_DO))
+                    .thenReturn(0);
+            when(taskRepository.findStateById(100L)).thenReturn(Optional.of(Task.StateTask.DONE));
+
+            assertEquals(BulkTaskResult.Status.CONFLICT, taskService.changeTaskState(100L, "TO_DO"));
+            verify(projectRevisionRepository, never()).incrementForTasks(any());
+            verify(eventPublisher, never()).publishEvent(any());
         }
 
         @Test
-        @DisplayName("Doit lever RuntimeException si l'état est invalide")
-        void testChangeTaskStateInvalid() {
-            when(taskRepository.findById(100L)).thenReturn(Optional.of(task));
+        @DisplayName("Doit considérer comme réussi un changement vers l'état courant, sans modification")
+        void testChangeTaskStateIdempotent() {
+            when(taskRepository.compareAndSetState(eq(100L), anySet(), eq(Task.StateTask.DONE))).thenReturn(0);
+            when(taskRepository.findStateById(100L)).thenReturn(Optional.of(Task.StateTask.DONE));
+
+            assertEquals(BulkTaskResult.Status.UPDATED, taskService.changeTaskState(100L, "DONE"));
+            verify(taskRepository, never()).save(any());
+            verify(projectRevisionRepository, never()).incrementForTasks(any());
+        }
 
+        @Test
+        @DisplayName("Doit lever IllegalArgumentException si l'état est invalide")
+        void testChangeTaskStateInvalid() {
             // "INVALID_STATE" n'existe pas dans l'enum
             assertThrows(
-                    RuntimeException.class,
+                    IllegalArgumentException.class,
                     () -> taskService.changeTaskState(100L, "INVALID_STATE")
             );
 
-            verify(taskRepository).findById(100L);
-            verify(taskRepository, never()).save(any(Task.class));
+            verifyNoInteractions(taskRepository);
         }
     }
 }
@@ -0,0 +1,123 @@
+package com.example.project.Service;
+
+import com.example.project.Entity.RevokedToken;
+import com.example.project.Repository.RefreshTokenRepository;
+import com.example.project.Repository.RevokedTokenRepository;
+import com.example.project.Security.JWTKeyRing;
+import com.example.project.Security.JWTUtil;
+import com.example.project.Security.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private JWTUtil jwtUtil;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JWTUtil(JWTKeyRing.ephemeral(), Duration.ofMinutes(15), 100);
+        tokenRevocationService = new TokenRevocationService(revokedTokenRepository, refreshTokenRepository, jwtUtil,
+                1000, 0.001, new SimpleMeterRegistry());
+    }
+
+    private VerifiedToken newToken(Long userId) {
+        return jwtUtil.verify(jwtUtil.generateToken(userId)).orElseThrow();
+    }
+
+    @Test
+    @DisplayName("isRevoked - un jeton jamais révoqué ne doit déclencher aucune requête")
+    void testUnrevokedTokenSkipsDatabase() {
+        assertFalse(tokenRevocationService.isRevoked(newToken(1L)));
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    @DisplayName("revoke - doit enregistrer la révocation jusqu'à l'expiration du jeton et la confirmer en base")
+    void testRevokeSingleToken() {
+        VerifiedToken token = newToken(1L);
+        tokenRevocationService.revoke(token);
+
+        ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(captor.capture());
+        assertEquals("jti:" + token.getTokenId(), captor.getValue().getRevocationKey());
+        assertEquals(token.getExpiresAt(), captor.getValue().getExpiresAt());
+
+        when(revokedTokenRepository.isRevoked(List.of("jti:" + token.getTokenId()), token.getIssuedAt())).thenReturn(true);
+        assertTrue(tokenRevocationService.isRevoked(token));
+
+        // Un autre jeton du même utilisateur n'est pas concerné par le filtre
+        assertFalse(tokenRevocationService.isRevoked(newToken(1L)));
+    }
+
+    @Test
+    @DisplayName("revokeAllForUser - doit viser tous les jetons de l'utilisateur et supprimer ses jetons de rafraîchissement")
+    void testRevokeAllForUser() {
+        tokenRevocationService.revokeAllForUser(5L);
+
+        verify(refreshTokenRepository).deleteByUserId(5L);
+        when(revokedTokenRepository.isRevoked(eq(List.of("user:5")), any())).thenReturn(true);
+        assertTrue(tokenRevocationService.isRevoked(newToken(5L)));
+        assertFalse(tokenRevocationService.isRevoked(newToken(6L)));
+    }
+
+    @Test
+    @DisplayName("revokeAllForUser - une connexion juste après la révocation doit rester valide, même dans la même seconde")
+    void testLoginRightAfterRevokeAll() {
+        VerifiedToken before = newToken(5L);
+        tokenRevocationService.revokeAllForUser(5L);
+        Instant revoked = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        ArgumentCaptor<RevokedToken> captor = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(captor.capture());
+        Instant revokedAt = captor.getValue().getRevokedAt();
+        // Même comparaison que la requête : révoqué si la révocation est postérieure à l'émission
+        when(revokedTokenRepository.isRevoked(eq(List.of("user:5")), any()))
+                .thenAnswer(invocation -> revokedAt.isAfter(invocation.getArgument(1)));
+        // Connexion suivante, dès que l'horloge a avancé d'une microseconde
+        while (!Instant.now().truncatedTo(ChronoUnit.MICROS).isAfter(revoked)) {
+            Thread.onSpinWait();
+        }
+        VerifiedToken after = newToken(5L);
+
+        assertTrue(tokenRevocationService.isRevoked(before));
+        assertFalse(tokenRevocationService.isRevoked(after));
+    }
+
+    @Test
+    @DisplayName("rebuild - doit purger les révocations expirées et recharger les autres")
+    void testRebuild() {
+        VerifiedToken token = newToken(1L);
+        when(revokedTokenRepository.findActiveKeys(any())).thenReturn(List.of("jti:" + token.getTokenId()));
+        when(revokedTokenRepository.isRevoked(any(), any())).thenReturn(true);
+
+        tokenRevocationService.rebuild();
+
+        verify(revokedTokenRepository).deleteExpired(any());
+        assertTrue(tokenRevocationService.isRevoked(token));
+    }
+}
@@ -1,19 +1,28 @@
 package com.example.project.Service;
 
+import com.example.project.DTO.AuthTokens;
 import com.example.project.Entity.User;
 import com.example.project.Repository.UserRepository;
 import com.example.project.Security.JWTUtil;
+import com.example.project.Security.PasswordHashingExecutor;
+import com.example.project.Security.SecurityConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +39,12 @@ class UserServiceTest {
     @Mock
     private JWTUtil jwtUtil;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Spy
+    private PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 1, new SimpleMeterRegistry());
+
     @InjectMocks
     private UserService userService;
 
@@ -66,6 +81,25 @@ class UserServiceTest {
                 "Le mot de passe de l'utilisateur doit être encodé");
     }
 
+    @Test
+    @DisplayName("saveUser - un enregistrement demandant le rôle admin doit créer un membre")
+    void testSaveUserIgnoresRequestedRole() throws Exception {
+        // Corps reçu par /users/register, lié par Jackson comme dans UserController
+        User registered = new ObjectMapper().readValue("""
+                {"id": 7, "username": "mallory", "email": "mallory@example.com",
+                 "password": "plain_password", "role": "admin"}
+                """, User.class);
+        assertNull(registered.getRole(), "Le rôle ne doit pas être lu depuis le corps de la requête");
+        registered.setRole(User.Role.admin);
+        when(passwordEncoder.encode("plain_password")).thenReturn("encoded_password");
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User savedUser = userService.saveUser(registered);
+
+        assertEquals(User.Role.member, savedUser.getRole());
+        assertNull(savedUser.getId(), "Un enregistrement ne doit pas remplacer un utilisateur existant");
+    }
+
     // -------------------------------------------------------------------------
     // 2) Test de authenticate
     // -------------------------------------------------------------------------
@@ -96,6 +130,58 @@ class UserServiceTest {
             verify(jwtUtil).generateToken(1L);
         }
 
+        @Test
+        @DisplayName("authenticate - doit recalculer un hachage obsolète après une connexion réussie")
+        void testAuthenticateUpgradesHash() {
+            // Arrange
+            user.setPassword("legacy_hash");
+            when(userRepository.findByEmail("john@example.com"))
+                    .thenReturn(Optional.of(user));
+            when(passwordEncoder.matches("plain_password", "legacy_hash"))
+                    .thenReturn(true);
+            when(passwordEncoder.upgradeEncoding("legacy_hash"))
+                    .thenReturn(true);
+            when(passwordEncoder.encode("plain_password"))
+                    .thenReturn("{bcrypt}upgraded_hash");
+            when(jwtUtil.generateToken(1L))
+                    .thenReturn("jwt_token_example");
+
+            // Act
+            userService.authenticate("john@example.com", "plain_password");
+
+            // Assert
+            assertEquals("{bcrypt}upgraded_hash", user.getPassword());
+            verify(userRepository).save(user);
+        }
+
+        @Test
+        @DisplayName("authenticate - doit recalculer avec le coût calibré un hachage historique de coût inférieur")
+        void testAuthenticateRehashesWithRealEncoder() {
+            // Arrange : encodeur réel de coût 6, hachage historique sans préfixe de coût 4
+            PasswordEncoder realEncoder = new SecurityConfig(null).passwordEncoder(0, 6, 4, 16);
+            UserService service = new UserService(userRepository, realEncoder, jwtUtil, hashingExecutor,
+                    refreshTokenService);
+            String legacyHash = new BCryptPasswordEncoder(4).encode("plain_password");
+            user.setPassword(legacyHash);
+            when(userRepository.findByEmail("john@example.com"))
+                    .thenReturn(Optional.of(user));
+
+            // Act
+            service.authenticate("john@example.com", "plain_password");
+
+            // Assert
+            verify(userRepository).save(user);
+            assertNotEquals(legacyHash, user.getPassword());
+            assertTrue(user.getPassword().startsWith("{bcrypt}$2a$06$"),
+                    "Le nouveau hachage doit être préfixé et utiliser le coût calibré");
+            assertTrue(realEncoder.matches("plain_password", user.getPassword()));
+
+            // Une seconde connexion ne doit plus recalculer le hachage
+            clearInvocations(userRepository);
+            service.authenticate("john@example.com", "plain_password");
+            verify(userRepository, never()).save(any(User.class));
+        }
+
         @Test
         @DisplayName("authenticate - doit lever une exception si mot de passe incorrect")
         void testAuthenticateWrongPassword() {
@@ -132,6 +218,69 @@ class UserServiceTest {
         }
     }
 
+    // -------------------------------------------------------------------------
+    // 2 bis) Tests des variantes asynchrones
+    // -------------------------------------------------------------------------
+    @Nested
+    @DisplayName("loginAsync() tests")
+    class LoginAsyncTests {
+
+        @Test
+        @DisplayName("loginAsync - doit délivrer un JWT et un jeton de rafraîchissement depuis l'exécuteur de hachage")
+        void testLoginAsyncSuccess() throws Exception {
+            user.setPassword("encoded_pass");
+            when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.of(user));
+            when(passwordEncoder.matches("plain_password", "encoded_pass")).thenReturn(true);
+            when(refreshTokenService.issueTokens(user))
+                    .thenReturn(new AuthTokens("jwt_token_example", "refresh_token_example"));
+
+            AuthTokens tokens = userService.loginAsync("john@example.com", "plain_password").get();
+
+            assertEquals("jwt_token_example", tokens.getAccessToken());
+            assertEquals("refresh_token_example", tokens.getRefreshToken());
+        }
+
+        @Test
+        @DisplayName("loginAsync - doit propager l'échec de l'authentification dans le futur")
+        void testLoginAsyncFailure() {
+            when(userRepository.findByEmail("john@example.com")).thenReturn(Optional.empty());
+
+            CompletableFuture<AuthTokens> future = userService.loginAsync("john@example.com", "plain_password");
+
+            ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+            verifyNoInteractions(refreshTokenService);
+        }
+
+        @Test
+        @DisplayName("loginAsync - doit refuser immédiatement lorsque la file est pleine")
+        void testLoginAsyncRejectedWhenSaturated() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            // Occuper l'unique thread puis l'unique place de la file
+            CompletableFuture<Void> running = hashingExecutor.submit(() -> {
+                awaitQuietly(release);
+                return null;
+            });
+            CompletableFuture<Void> queued = hashingExecutor.submit(() -> null);
+
+            assertThrows(PasswordHashingExecutor.PasswordHashingRejectedException.class,
+                    () -> userService.loginAsync("john@example.com", "plain_password"));
+
+            release.countDown();
+            running.get();
+            queued.get();
+            verifyNoInteractions(userRepository, passwordEncoder);
+        }
+
+        private void awaitQuietly(CountDownLatch latch) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     // -------------------------------------------------------------------------
     // 3) Test de findById
     // -------------------------------------------------------------------------